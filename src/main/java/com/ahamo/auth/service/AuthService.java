@@ -2,16 +2,14 @@ package com.ahamo.auth.service;
 
 import com.ahamo.auth.dto.*;
 import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.jwt.AuthenticatedPrincipalCache;
+import com.ahamo.security.jwt.JwtClaims;
 import com.ahamo.security.jwt.JwtTokenProvider;
 import com.ahamo.session.service.SessionService;
 import com.ahamo.user.model.User;
 import com.ahamo.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -21,38 +19,17 @@ import java.util.Optional;
 @Slf4j
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtTokenProvider tokenProvider;
     private final SessionService sessionService;
-    private final PasswordEncoder passwordEncoder;
+    private final LoginAuthenticator loginAuthenticator;
+    private final AuthenticatedPrincipalCache principalCache;
 
     public AuthResponse login(LoginRequest request) {
-        Optional<User> userOpt = userService.findByEmail(request.getEmail());
-        
-        if (userOpt.isEmpty()) {
-            throw new AuthenticationException("Invalid credentials");
-        }
-        
-        User user = userOpt.get();
-        
-        if (userService.isAccountLocked(user)) {
-            throw new AuthenticationException("Account is temporarily locked");
-        }
-        
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            userService.incrementFailedLoginAttempts(user);
-            throw new AuthenticationException("Invalid credentials");
-        }
-        
-        userService.resetFailedLoginAttempts(user);
-        
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
+        User user = loginAuthenticator.authenticate(request.getEmail(), request.getPassword());
 
-        String accessToken = tokenProvider.generateAccessToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(request.getEmail());
+        String accessToken = tokenProvider.generateAccessToken(user.getEmail());
+        String refreshToken = tokenProvider.generateRefreshToken(user.getEmail());
         
         sessionService.createSession(user.getId().toString(), accessToken);
         
@@ -78,7 +55,7 @@ public class AuthService {
             throw new AuthenticationException("Account is temporarily locked");
         }
         
-        userService.resetFailedLoginAttempts(user);
+        userService.recordSuccessfulLogin(user);
         
         String accessToken = tokenProvider.generateAccessToken(user.getEmail());
         String refreshToken = tokenProvider.generateRefreshToken(user.getEmail());
@@ -98,11 +75,10 @@ public class AuthService {
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        if (!tokenProvider.validateToken(refreshToken) || !tokenProvider.isRefreshToken(refreshToken)) {
-            throw new AuthenticationException("Invalid refresh token");
-        }
-        
-        String username = tokenProvider.getUsernameFromToken(refreshToken);
+        String username = tokenProvider.verify(refreshToken)
+                .filter(JwtClaims::isRefreshToken)
+                .map(JwtClaims::getSubject)
+                .orElseThrow(() -> new AuthenticationException("Invalid refresh token"));
         String newAccessToken = tokenProvider.generateAccessToken(username);
         String newRefreshToken = tokenProvider.generateRefreshToken(username);
         
@@ -124,5 +100,6 @@ public class AuthService {
         if (userOpt.isPresent()) {
             sessionService.invalidateSession(userOpt.get().getId().toString());
         }
+        principalCache.invalidate(username);
     }
 }
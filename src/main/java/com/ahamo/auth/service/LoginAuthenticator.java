@@ -0,0 +1,127 @@
+package com.ahamo.auth.service;
+
+import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.exception.LoginThrottledException;
+import com.ahamo.user.model.User;
+import com.ahamo.user.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password login in a single pass: one user lookup, one bcrypt check and one write for
+ * the failed-attempt bookkeeping.
+ * <ul>
+ *   <li>Hashes run on a fixed pool with a bounded queue, so a login burst queues there
+ *       instead of occupying every request thread with bcrypt.</li>
+ *   <li>When the queue is full, or a check waits longer than {@code hash-timeout}, the
+ *       login fails fast with {@link LoginThrottledException} and is not counted as a
+ *       failed attempt.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class LoginAuthenticator {
+
+    private final UserService userService;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor hashExecutor;
+    private final long hashTimeoutMillis;
+
+    private final Timer hashTimer;
+    private final Timer queueTimer;
+    private final Counter rejectedCounter;
+    private final Counter timedOutCounter;
+
+    public LoginAuthenticator(UserService userService,
+                              PasswordEncoder passwordEncoder,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.login.hash-threads:4}") int hashThreads,
+                              @Value("${security.login.hash-queue:64}") int hashQueue,
+                              @Value("${security.login.hash-timeout:5000}") long hashTimeoutMillis) {
+        this.userService = userService;
+        this.passwordEncoder = passwordEncoder;
+        this.hashTimeoutMillis = hashTimeoutMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueue), runnable -> {
+                    Thread thread = new Thread(runnable, "login-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.hashTimer = meterRegistry.timer("security.login.hash");
+        this.queueTimer = meterRegistry.timer("security.login.hash.queue");
+        this.rejectedCounter = meterRegistry.counter("security.login.hash.rejected");
+        this.timedOutCounter = meterRegistry.counter("security.login.hash.timeouts");
+        meterRegistry.gauge("security.login.hash.queue.depth", hashExecutor, executor -> executor.getQueue().size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdownNow();
+    }
+
+    /** Returns the user whose password matches, or throws {@link AuthenticationException}. */
+    public User authenticate(String email, String rawPassword) {
+        User user = userService.findByEmail(email)
+                .orElseThrow(() -> new AuthenticationException("Invalid credentials"));
+
+        if (userService.isAccountLocked(user)) {
+            throw new AuthenticationException("Account is temporarily locked");
+        }
+        if (Boolean.FALSE.equals(user.getIsActive())) {
+            throw new AuthenticationException("Account is disabled");
+        }
+
+        if (!matches(rawPassword, user.getPassword())) {
+            userService.recordFailedLogin(user);
+            throw new AuthenticationException("Invalid credentials");
+        }
+
+        userService.recordSuccessfulLogin(user);
+        return user;
+    }
+
+    private boolean matches(String rawPassword, String encodedPassword) {
+        long submitted = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = hashExecutor.submit(() -> {
+                queueTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new LoginThrottledException("Password hashing queue is full");
+        }
+
+        try {
+            return result.get(hashTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            timedOutCounter.increment();
+            throw new LoginThrottledException("Password check timed out after " + hashTimeoutMillis + "ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Interrupted while checking password");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password check failed", e.getCause());
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.ahamo.backup.dto.RestoreRequest;
 import com.ahamo.backup.dto.RestoreResult;
 import com.ahamo.backup.model.BackupRecord;
 import com.ahamo.backup.repository.BackupRecordRepository;
+import com.ahamo.common.job.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -22,6 +23,7 @@ import java.util.stream.Collectors;
 public class BackupServiceImpl implements BackupService {
     
     private final BackupRecordRepository backupRecordRepository;
+    private final ScheduledJobRunner jobRunner;
     
     @Override
     @Transactional
@@ -150,12 +152,20 @@ public class BackupServiceImpl implements BackupService {
     @Scheduled(cron = "0 0 2 * * ?")
     public void scheduleBackup() {
         log.info("スケジュールバックアップ開始");
-        createBackup("SCHEDULED");
+        jobRunner.runOnLeader("backup.scheduled", () -> createBackup("SCHEDULED").isSuccess() ? 1 : 0);
     }
     
-    @Override
     @Scheduled(cron = "0 0 3 * * ?")
+    public void scheduledCleanup() {
+        jobRunner.runOnLeader("backup.cleanup", this::deleteOldBackups);
+    }
+    
+    @Override
     public void cleanupOldBackups() {
+        deleteOldBackups();
+    }
+    
+    private int deleteOldBackups() {
         log.info("古いバックアップのクリーンアップ開始");
         
         try {
@@ -169,9 +179,11 @@ public class BackupServiceImpl implements BackupService {
             }
             
             log.info("クリーンアップ完了: 削除されたバックアップ数={}", oldBackups.size());
+            return oldBackups.size();
             
         } catch (Exception e) {
             log.error("バックアップクリーンアップ中にエラーが発生", e);
+            return 0;
         }
     }
     
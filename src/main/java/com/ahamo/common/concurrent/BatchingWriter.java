@@ -0,0 +1,282 @@
+package com.ahamo.common.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Hands items from many producers to one background thread that passes them to a
+ * {@link Sink} in batches.
+ * <ul>
+ *   <li>Producers queue through an {@link MpscRingBuffer}. When it is full a producer
+ *       waits up to {@code offerTimeoutMillis} for room and then writes its item itself.
+ *       Items appended while the writer is stopped are written the same way.</li>
+ *   <li>When a batch fails, its items are written one by one, so only the items that
+ *       still fail are held back. Those are retried with exponential backoff, without
+ *       holding up the writer or {@link #flush()}. After {@code maxAttempts} an item is
+ *       logged and counted as dropped.</li>
+ *   <li>Shutdown drains the buffer and gives held-back items one last attempt. A producer
+ *       that queued its item after that final drain flushes it itself.</li>
+ * </ul>
+ * Meters are registered under {@code <metricPrefix>.written}, {@code .dropped},
+ * {@code .retried}, {@code .caller.writes}, {@code .backpressure}, {@code .flush},
+ * {@code .batch.size}, {@code .queue.depth} and {@code .retry.depth}.
+ */
+@Slf4j
+public class BatchingWriter<T> {
+
+    /** Writes a batch; throws when none of it could be written. */
+    @FunctionalInterface
+    public interface Sink<T> {
+        void write(List<T> batch);
+    }
+
+    private final String name;
+    private final Sink<T> sink;
+    private final Function<T, String> describer;
+    private final MpscRingBuffer<Pending<T>> buffer;
+    private final Queue<Pending<T>> retries = new ConcurrentLinkedQueue<>();
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final int maxAttempts;
+    private final AtomicBoolean signalled = new AtomicBoolean();
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSummary;
+    private final Counter writtenCounter;
+    private final Counter backpressureCounter;
+    private final Counter callerWriteCounter;
+    private final Counter droppedCounter;
+    private final Counter retriedCounter;
+
+    /**
+     * @param name         thread name, also used in log messages
+     * @param describer    identifies an item in the log line written when it is dropped
+     * @param maxAttempts  attempts per item before it is dropped; 1 drops on first failure
+     */
+    public BatchingWriter(String name,
+                          Sink<T> sink,
+                          Function<T, String> describer,
+                          MeterRegistry meterRegistry,
+                          String metricPrefix,
+                          int bufferSize,
+                          int batchSize,
+                          long flushIntervalMillis,
+                          long offerTimeoutMillis,
+                          int maxAttempts) {
+        this.name = name;
+        this.sink = sink;
+        this.describer = describer;
+        this.buffer = new MpscRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.maxAttempts = maxAttempts;
+        this.writer = new Thread(this::runWriter, name);
+        this.writer.setDaemon(true);
+
+        this.flushTimer = meterRegistry.timer(metricPrefix + ".flush");
+        this.batchSummary = meterRegistry.summary(metricPrefix + ".batch.size");
+        this.writtenCounter = meterRegistry.counter(metricPrefix + ".written");
+        this.backpressureCounter = meterRegistry.counter(metricPrefix + ".backpressure");
+        this.callerWriteCounter = meterRegistry.counter(metricPrefix + ".caller.writes");
+        this.droppedCounter = meterRegistry.counter(metricPrefix + ".dropped");
+        this.retriedCounter = meterRegistry.counter(metricPrefix + ".retried");
+        meterRegistry.gauge(metricPrefix + ".queue.depth", buffer, MpscRingBuffer::size);
+        meterRegistry.gauge(metricPrefix + ".retry.depth", retries, Queue::size);
+    }
+
+    public void start() {
+        running = true;
+        writer.start();
+    }
+
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000);
+        flush();
+        synchronized (this) {
+            closed = true;
+            writeRetries(true);
+        }
+    }
+
+    /** Queues an item for the writer thread. */
+    public void append(T item) {
+        Pending<T> pending = new Pending<>(item);
+        if (!running) {
+            callerWriteCounter.increment();
+            write(Collections.singletonList(pending));
+            return;
+        }
+        if (!buffer.offer(pending)) {
+            backpressureCounter.increment();
+            long deadline = System.nanoTime() + offerTimeoutNanos;
+            boolean queued = false;
+            while (!queued && System.nanoTime() < deadline) {
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                queued = buffer.offer(pending);
+            }
+            if (!queued) {
+                callerWriteCounter.increment();
+                write(Collections.singletonList(pending));
+                return;
+            }
+        }
+        if (!running) {
+            // Shutdown may have drained the buffer before this item landed in it.
+            flush();
+            return;
+        }
+        if (signalled.compareAndSet(false, true)) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /** Writes the item on the calling thread, bypassing the buffer. */
+    public void writeNow(T item) {
+        write(Collections.singletonList(new Pending<>(item)));
+    }
+
+    /**
+     * Writes everything queued so far, and any held-back items whose retry is due, on the
+     * calling thread; returns the number of items written.
+     */
+    public synchronized int flush() {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        int written = 0;
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            written += write(batch);
+            batch.clear();
+        }
+        return written + writeRetries(false);
+    }
+
+    public int queueDepth() {
+        return buffer.size();
+    }
+
+    private void runWriter() {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        while (running) {
+            signalled.set(false);
+            int drained;
+            synchronized (this) {
+                drained = buffer.drainTo(batch, batchSize);
+                if (drained > 0) {
+                    write(batch);
+                    batch.clear();
+                }
+                writeRetries(false);
+            }
+            if (drained < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, or item by item if that fails. Items that still fail are
+     * scheduled for a retry; nothing here waits.
+     */
+    private int write(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            items.add(pending.item);
+        }
+
+        long start = System.nanoTime();
+        try {
+            sink.write(items);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSummary.record(items.size());
+            writtenCounter.increment(items.size());
+            return items.size();
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failed(batch.get(0), e);
+                return 0;
+            }
+            log.warn("{} failed to write {} items together; writing them one by one: {}",
+                    name, items.size(), e.getMessage());
+        }
+
+        int written = 0;
+        for (Pending<T> pending : batch) {
+            try {
+                sink.write(Collections.singletonList(pending.item));
+                writtenCounter.increment();
+                written++;
+            } catch (RuntimeException e) {
+                failed(pending, e);
+            }
+        }
+        return written;
+    }
+
+    private void failed(Pending<T> pending, RuntimeException error) {
+        pending.attempts++;
+        if (pending.attempts >= maxAttempts || closed) {
+            droppedCounter.increment();
+            log.error("{} dropped {} after {} attempts", name, describer.apply(pending.item), pending.attempts, error);
+            return;
+        }
+        pending.retryAt = System.nanoTime() + (flushIntervalNanos << Math.min(pending.attempts - 1, 20));
+        retriedCounter.increment();
+        retries.add(pending);
+        log.warn("{} failed to write {}, attempt {}: {}",
+                name, describer.apply(pending.item), pending.attempts, error.getMessage());
+    }
+
+    /** Writes the held-back items whose backoff has passed, or all of them when {@code force} is set. */
+    private int writeRetries(boolean force) {
+        if (retries.isEmpty()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        List<Pending<T>> due = new ArrayList<>();
+        List<Pending<T>> waiting = new ArrayList<>();
+        Pending<T> pending;
+        while ((pending = retries.poll()) != null) {
+            if (force) {
+                pending.attempts = Math.max(pending.attempts, maxAttempts - 1);
+            }
+            (force || now - pending.retryAt >= 0 ? due : waiting).add(pending);
+        }
+        retries.addAll(waiting);
+
+        int written = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            written += write(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+        return written;
+    }
+
+    private static final class Pending<T> {
+        private final T item;
+        private int attempts;
+        private long retryAt;
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
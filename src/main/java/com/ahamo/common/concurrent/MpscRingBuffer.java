@@ -0,0 +1,76 @@
+package com.ahamo.common.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring buffer. Producers claim a slot with one
+ * CAS on the tail and never block; {@link #offer} returns {@code false} when the buffer
+ * is full. Draining is meant for one consumer at a time; callers that drain from more
+ * than one thread synchronize around {@link #drainTo}.
+ */
+public class MpscRingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /** @param capacity rounded up to the next power of two */
+    public MpscRingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public boolean offer(T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("item must not be null");
+        }
+        while (true) {
+            long claimed = tail.get();
+            if (claimed - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(claimed, claimed + 1)) {
+                slots.set((int) (claimed & mask), item);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code maxItems} items, oldest first, into {@code sink}. Stops early at a
+     * slot that has been claimed but not yet filled, so items come out in claim order.
+     */
+    public int drainTo(Collection<? super T> sink, int maxItems) {
+        long next = head.get();
+        int drained = 0;
+        while (drained < maxItems) {
+            int index = (int) (next & mask);
+            T item = slots.get(index);
+            if (item == null) {
+                break;
+            }
+            slots.set(index, null);
+            sink.add(item);
+            next++;
+            drained++;
+        }
+        head.set(next);
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ahamo.common.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published after an admin change to plans, devices, options or shipping reference data
+ * so in-memory views of the catalog can be rebuilt.
+ */
+@Getter
+@RequiredArgsConstructor
+public class CatalogChangedEvent {
+
+    public enum Catalog {
+        PLAN, DEVICE, OPTION, SHIPPING
+    }
+
+    private final Catalog catalog;
+    private final String id;
+}
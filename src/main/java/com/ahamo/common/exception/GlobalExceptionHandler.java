@@ -1,6 +1,7 @@
 package com.ahamo.common.exception;
 
 import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.exception.LoginThrottledException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +36,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, Object>> handleLoginThrottledException(LoginThrottledException ex) {
+        log.warn("Login throttled: {}", ex.getMessage());
+        
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error_code", ErrorCode.SERVICE_UNAVAILABLE.name());
+        errorResponse.put("message", ErrorCode.SERVICE_UNAVAILABLE.getDefaultMessage());
+        errorResponse.put("severity", ErrorCode.SERVICE_UNAVAILABLE.getSeverity().name());
+        errorResponse.put("resolution", ErrorCode.SERVICE_UNAVAILABLE.getResolution());
+        errorResponse.put("request_id", UUID.randomUUID().toString());
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationException(MethodArgumentNotValidException ex) {
         log.error("Validation error: {}", ex.getMessage());
@@ -0,0 +1,116 @@
+package com.ahamo.common.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Live-node view shared through the Redis sorted set {@code jobs:nodes} (score = last
+ * heartbeat in epoch millis). Nodes that miss heartbeats for the node TTL drop out. The
+ * node with the lowest id is the leader, and partitions are dealt round-robin over the
+ * sorted ids, so every node derives the same assignment from the same view. Views can
+ * disagree briefly while a node joins or leaves; the job runner's locks cover that gap.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    static final String NODES_KEY = "jobs:nodes";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    private final long nodeTtlMillis;
+    private volatile List<String> liveNodes;
+
+    public ClusterMembership(StringRedisTemplate redisTemplate,
+                             @Value("${jobs.node-id:}") String nodeId,
+                             @Value("${jobs.node-ttl:15000}") long nodeTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId.isEmpty() ? defaultNodeId() : nodeId;
+        this.nodeTtlMillis = nodeTtlMillis;
+        this.liveNodes = Collections.singletonList(this.nodeId);
+    }
+
+    @PostConstruct
+    public void join() {
+        heartbeat();
+        log.info("Job node {} joined with {} live nodes", nodeId, liveNodes.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.heartbeat-interval:5000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        try {
+            ZSetOperations<String, String> nodes = redisTemplate.opsForZSet();
+            nodes.add(NODES_KEY, nodeId, now);
+            nodes.removeRangeByScore(NODES_KEY, 0, now - nodeTtlMillis);
+            Set<String> members = nodes.rangeByScore(NODES_KEY, now - nodeTtlMillis, Double.MAX_VALUE);
+            liveNodes = sorted(members);
+        } catch (RuntimeException e) {
+            log.warn("Job node heartbeat failed; keeping last view of {} nodes: {}", liveNodes.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to deregister job node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public List<String> getLiveNodes() {
+        return liveNodes;
+    }
+
+    public boolean isLeader() {
+        return liveNodes.get(0).equals(nodeId);
+    }
+
+    /** Partitions of {@code partitionCount} this node is responsible for under the current view. */
+    public List<JobPartition> ownedPartitions(int partitionCount) {
+        List<String> nodes = liveNodes;
+        int position = nodes.indexOf(nodeId);
+        List<JobPartition> owned = new ArrayList<>();
+        for (int partition = position; partition < partitionCount; partition += nodes.size()) {
+            owned.add(new JobPartition(partition, partitionCount));
+        }
+        return owned;
+    }
+
+    private List<String> sorted(Set<String> members) {
+        List<String> nodes = new ArrayList<>(members != null ? members : Collections.emptySet());
+        if (!nodes.contains(nodeId)) {
+            nodes.add(nodeId);
+        }
+        Collections.sort(nodes);
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
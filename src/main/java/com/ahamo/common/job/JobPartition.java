@@ -0,0 +1,48 @@
+package com.ahamo.common.job;
+
+/**
+ * One slice of a sharded job's work. A job declares its partition key, typically the
+ * entity id, and processes only the items whose key hashes into this slice. Numeric keys
+ * are taken by value, so a query can select the slice itself with
+ * {@code MOD(id, :count) = :index}.
+ */
+public final class JobPartition {
+
+    /** The single partition covering all work, for runs outside the job runner. */
+    public static final JobPartition ALL = new JobPartition(0, 1);
+
+    private final int index;
+    private final int count;
+
+    public JobPartition(int index, int count) {
+        if (count <= 0 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid partition " + index + " of " + count);
+        }
+        this.index = index;
+        this.count = count;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean contains(Object partitionKey) {
+        return partitionOf(partitionKey, count) == index;
+    }
+
+    public static int partitionOf(Object partitionKey, int count) {
+        if (partitionKey instanceof Long || partitionKey instanceof Integer) {
+            return (int) Math.floorMod(((Number) partitionKey).longValue(), (long) count);
+        }
+        return Math.floorMod(partitionKey.hashCode(), count);
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ahamo.common.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Common entry point for {@code @Scheduled} jobs. Every run is skipped while the previous
+ * run of the same job is still going on this node, is timed under
+ * {@code scheduled.job.duration} and reports the number of items it handled under
+ * {@code scheduled.job.items}. Skipped runs count towards {@code scheduled.job.skipped}.
+ * <ul>
+ *   <li>{@link #runOnLeader} runs on the leader node only, under a cluster lock.</li>
+ *   <li>{@link #runSharded} runs on every node, each over the partitions it owns, under a
+ *       lock per partition.</li>
+ *   <li>{@link #runLocal} runs on every node, for jobs that coordinate on their own or
+ *       maintain node-local state.</li>
+ * </ul>
+ * Failures are logged and recorded; they never reach the scheduler.
+ */
+@Component
+@Slf4j
+public class ScheduledJobRunner {
+
+    private static final String LOCK_PREFIX = "jobs:lock:";
+    private static final int NOT_CLAIMED = -1;
+
+    private final ClusterMembership membership;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+    private final int partitionCount;
+    private final Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+
+    public ScheduledJobRunner(ClusterMembership membership,
+                              RedissonClient redissonClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${jobs.partition-count:16}") int partitionCount) {
+        this.membership = membership;
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.partitionCount = partitionCount;
+    }
+
+    public int runOnLeader(String job, IntSupplier task) {
+        if (!membership.isLeader()) {
+            skipped(job, "not_leader");
+            return 0;
+        }
+        return execute(job, () -> {
+            RLock lock = redissonClient.getLock(LOCK_PREFIX + job);
+            if (!lock.tryLock()) {
+                skipped(job, "locked");
+                return NOT_CLAIMED;
+            }
+            try {
+                return task.getAsInt();
+            } finally {
+                unlock(lock);
+            }
+        });
+    }
+
+    public int runSharded(String job, ToIntFunction<JobPartition> task) {
+        return execute(job, () -> {
+            int items = 0;
+            boolean claimed = false;
+            for (JobPartition partition : membership.ownedPartitions(partitionCount)) {
+                RLock lock = redissonClient.getLock(LOCK_PREFIX + job + ":" + partition.getIndex());
+                if (!lock.tryLock()) {
+                    skipped(job, "locked");
+                    continue;
+                }
+                try {
+                    claimed = true;
+                    items += task.applyAsInt(partition);
+                } finally {
+                    unlock(lock);
+                }
+            }
+            return claimed ? items : NOT_CLAIMED;
+        });
+    }
+
+    public int runLocal(String job, IntSupplier task) {
+        return execute(job, task);
+    }
+
+    private int execute(String job, IntSupplier task) {
+        AtomicBoolean guard = running.computeIfAbsent(job, name -> new AtomicBoolean());
+        if (!guard.compareAndSet(false, true)) {
+            skipped(job, "overlap");
+            log.warn("Skipped job {}: previous run still in progress", job);
+            return 0;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int items = task.getAsInt();
+            if (items == NOT_CLAIMED) {
+                outcome = "skipped";
+                return 0;
+            }
+            meterRegistry.summary("scheduled.job.items", "job", job).record(items);
+            log.debug("Job {} handled {} items", job, items);
+            return items;
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.error("Job {} failed", job, e);
+            return 0;
+        } finally {
+            sample.stop(meterRegistry.timer("scheduled.job.duration", "job", job, "outcome", outcome));
+            guard.set(false);
+        }
+    }
+
+    private void skipped(String job, String reason) {
+        meterRegistry.counter("scheduled.job.skipped", "job", job, "reason", reason).increment();
+    }
+
+    private static void unlock(RLock lock) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.ahamo.common.timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: insertion and expiry are O(1) per item regardless of how
+ * far away the deadline is. Each level covers {@code wheelSize} ticks of the level
+ * below; items beyond a level's span go to a lazily created overflow level and cascade
+ * down as time advances. Deadlines are rounded up to the next tick, so an item is never
+ * returned before its deadline and at most one tick after it. Not thread-safe on its
+ * own; callers synchronize.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final Level<T> root;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize greater than 1");
+        }
+        this.root = new Level<>(tickMillis, wheelSize, startMillis);
+    }
+
+    /**
+     * @return {@code false} when the deadline has already been reached, in which case the
+     *         item was not stored and should be handled immediately
+     */
+    public boolean add(T item, long deadlineMillis) {
+        long remainder = Math.floorMod(deadlineMillis, root.tickMillis);
+        long roundedUp = remainder == 0 ? deadlineMillis : deadlineMillis - remainder + root.tickMillis;
+        return root.add(new Entry<>(item, roundedUp), root);
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns every item whose deadline
+     * has been reached, in tick order.
+     */
+    public List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>();
+        while (root.currentTime + root.tickMillis <= nowMillis) {
+            root.currentTime += root.tickMillis;
+            cascade(root.overflow, root.currentTime, due);
+            root.drain(root.currentTime, root, due);
+        }
+        return due;
+    }
+
+    public long currentTime() {
+        return root.currentTime;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Level<T> level = root; level != null; level = level.overflow) {
+            for (List<Entry<T>> bucket : level.buckets) {
+                size += bucket.size();
+            }
+        }
+        return size;
+    }
+
+    private void cascade(Level<T> level, long time, List<T> due) {
+        if (level == null || time % level.tickMillis != 0) {
+            return;
+        }
+        level.currentTime = time;
+        cascade(level.overflow, time, due);
+        level.drain(time, root, due);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadline;
+
+        private Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+    private static final class Level<T> {
+        private final long tickMillis;
+        private final int wheelSize;
+        private final long intervalMillis;
+        private final List<Entry<T>>[] buckets;
+        private long currentTime;
+        private Level<T> overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.buckets = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayList<>();
+            }
+            this.currentTime = startMillis - (startMillis % tickMillis);
+        }
+
+        private boolean add(Entry<T> entry, Level<T> root) {
+            if (entry.deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (entry.deadline < currentTime + intervalMillis) {
+                buckets[bucketIndex(entry.deadline)].add(entry);
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level<>(intervalMillis, wheelSize, currentTime);
+            }
+            return overflow.add(entry, root);
+        }
+
+        private void drain(long time, Level<T> root, List<T> due) {
+            int index = bucketIndex(time);
+            List<Entry<T>> bucket = buckets[index];
+            if (bucket.isEmpty()) {
+                return;
+            }
+            buckets[index] = new ArrayList<>();
+            for (Entry<T> entry : bucket) {
+                if (!root.add(entry, root)) {
+                    due.add(entry.item);
+                }
+            }
+        }
+
+        private int bucketIndex(long time) {
+            return (int) ((time / tickMillis) % wheelSize);
+        }
+    }
+}
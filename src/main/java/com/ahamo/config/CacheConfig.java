@@ -0,0 +1,13 @@
+package com.ahamo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring's annotation-driven caching for the whole application. Cache managers
+ * are declared by the modules that own the caches.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
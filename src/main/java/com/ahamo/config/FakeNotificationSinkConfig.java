@@ -0,0 +1,26 @@
+package com.ahamo.config;
+
+import com.ahamo.shipping.model.ShippingNotification;
+import com.ahamo.shipping.service.InMemoryNotificationSender;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the SMTP and Twilio senders with in-memory sinks, so local runs and tests
+ * never reach a real mail server or phone.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shipping.notification.sink", havingValue = "fake")
+public class FakeNotificationSinkConfig {
+
+    @Bean
+    public InMemoryNotificationSender fakeEmailSender() {
+        return new InMemoryNotificationSender(ShippingNotification.Channel.EMAIL);
+    }
+
+    @Bean
+    public InMemoryNotificationSender fakeSmsSender() {
+        return new InMemoryNotificationSender(ShippingNotification.Channel.SMS);
+    }
+}
@@ -8,7 +8,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
@@ -24,29 +28,28 @@ import java.util.stream.Collectors;
 public class ContractAuditServiceImpl implements ContractAuditService {
 
     private final ContractAuditEventRepository auditEventRepository;
+    private final ContractAuditWriter auditWriter;
     private final ObjectMapper objectMapper;
-    private final HttpServletRequest httpServletRequest;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logEvent(String contractId, String eventType, String userId, Map<String, Object> details) {
         log.debug("Logging audit event for contract: {} type: {}", contractId, eventType);
 
         try {
+            HttpServletRequest request = currentRequest();
             ContractAuditEvent event = ContractAuditEvent.builder()
                 .eventUuid(UUID.randomUUID().toString())
                 .contractId(contractId)
                 .eventType(ContractAuditEvent.EventType.valueOf(eventType.toUpperCase()))
                 .timestamp(LocalDateTime.now())
                 .userId(userId)
-                .ipAddress(getClientIpAddress())
-                .userAgent(httpServletRequest.getHeader("User-Agent"))
-                .details(objectMapper.writeValueAsString(details))
+                .ipAddress(getClientIpAddress(request))
+                .userAgent(request != null ? request.getHeader("User-Agent") : null)
                 .build();
 
-            auditEventRepository.save(event);
-            log.debug("Audit event logged with ID: {}", event.getEventUuid());
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize audit event details", e);
+            auditWriter.append(event, details);
+            log.debug("Audit event queued with ID: {}", event.getEventUuid());
         } catch (Exception e) {
             log.error("Failed to log audit event", e);
         }
@@ -57,6 +60,7 @@ public class ContractAuditServiceImpl implements ContractAuditService {
     public ContractAuditTrailResponse getAuditTrail(String contractId) {
         log.info("Retrieving audit trail for contract: {}", contractId);
 
+        auditWriter.flush();
         List<ContractAuditEvent> events = auditEventRepository.findByContractIdOrderByTimestampDesc(contractId);
 
         List<ContractAuditTrailResponse.AuditEvent> auditEvents = events.stream()
@@ -75,6 +79,7 @@ public class ContractAuditServiceImpl implements ContractAuditService {
     public List<ContractAuditEvent> getEventsByType(String contractId, List<String> eventTypes) {
         log.info("Retrieving audit events by type for contract: {}", contractId);
 
+        auditWriter.flush();
         List<ContractAuditEvent.EventType> types = eventTypes.stream()
             .map(type -> ContractAuditEvent.EventType.valueOf(type.toUpperCase()))
             .collect(Collectors.toList());
@@ -83,26 +88,28 @@ public class ContractAuditServiceImpl implements ContractAuditService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void logSignatureEvent(String contractId, String eventType, String userId, 
                                  String certificateId, String timestampToken, String hashValue) {
         log.debug("Logging signature audit event for contract: {}", contractId);
 
         try {
+            HttpServletRequest request = currentRequest();
             ContractAuditEvent event = ContractAuditEvent.builder()
                 .eventUuid(UUID.randomUUID().toString())
                 .contractId(contractId)
                 .eventType(ContractAuditEvent.EventType.valueOf(eventType.toUpperCase()))
                 .timestamp(LocalDateTime.now())
                 .userId(userId)
-                .ipAddress(getClientIpAddress())
-                .userAgent(httpServletRequest.getHeader("User-Agent"))
+                .ipAddress(getClientIpAddress(request))
+                .userAgent(request != null ? request.getHeader("User-Agent") : null)
                 .certificateId(certificateId)
                 .timestampToken(timestampToken)
                 .hashValue(hashValue)
                 .build();
 
-            auditEventRepository.save(event);
-            log.debug("Signature audit event logged with ID: {}", event.getEventUuid());
+            auditWriter.append(event, null);
+            log.debug("Signature audit event queued with ID: {}", event.getEventUuid());
         } catch (Exception e) {
             log.error("Failed to log signature audit event", e);
         }
@@ -139,7 +146,16 @@ public class ContractAuditServiceImpl implements ContractAuditService {
             .build();
     }
 
-    private String getClientIpAddress() {
+    /** The current HTTP request, or {@code null} when called outside one (e.g. from a job). */
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+
+    private static String getClientIpAddress(HttpServletRequest httpServletRequest) {
+        if (httpServletRequest == null) {
+            return null;
+        }
         String xForwardedFor = httpServletRequest.getHeader("X-Forwarded-For");
         if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
             return xForwardedFor.split(",")[0].trim();
@@ -0,0 +1,156 @@
+package com.ahamo.contract.service;
+
+import com.ahamo.common.concurrent.BatchingWriter;
+import com.ahamo.contract.model.ContractAuditEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only writer for contract audit events, batched into JDBC inserts by a
+ * {@link BatchingWriter}. Buffering, caller writes on a full buffer, per-row fallback
+ * with backoff and shutdown draining all come from there.
+ * <ul>
+ *   <li>Inside a transaction an event is queued after commit, so rolled-back actions
+ *       leave no audit row, and every commit wakes the writer. Queued events are durable
+ *       only once the writer has flushed them; a crash within {@code flush-interval} of
+ *       the commit can lose them. {@code SIGNED} events are therefore written in the
+ *       commit callback itself.</li>
+ *   <li>Every batch commits in its own transaction, so a flush from inside a caller's
+ *       transaction or commit callback never joins it.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class ContractAuditWriter {
+
+    static final String INSERT_SQL = "INSERT INTO contract_audit_events (event_uuid, contract_id, event_type, timestamp, " +
+            "user_id, ip_address, user_agent, details, certificate_id, timestamp_token, hash_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BatchingWriter<PendingEvent> writer;
+
+    public ContractAuditWriter(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry,
+                               @Value("${contract.audit.buffer-size:8192}") int bufferSize,
+                               @Value("${contract.audit.batch-size:200}") int batchSize,
+                               @Value("${contract.audit.flush-interval:200}") long flushIntervalMillis,
+                               @Value("${contract.audit.offer-timeout:100}") long offerTimeoutMillis,
+                               @Value("${contract.audit.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.objectMapper = objectMapper;
+        this.writer = new BatchingWriter<>("contract-audit-writer", this::insert, ContractAuditWriter::describe,
+                meterRegistry, "contract.audit", bufferSize, batchSize, flushIntervalMillis, offerTimeoutMillis,
+                maxAttempts);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    /**
+     * Queues an event; {@code details} are serialized on the writer thread. Inside a
+     * transaction the event is only queued once the transaction commits.
+     */
+    public void append(ContractAuditEvent event, Map<String, Object> details) {
+        PendingEvent pending = new PendingEvent(event, details != null ? new LinkedHashMap<>(details) : null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (event.getEventType() == ContractAuditEvent.EventType.SIGNED) {
+                        writer.writeNow(pending);
+                    } else {
+                        writer.append(pending);
+                    }
+                }
+            });
+        } else {
+            writer.append(pending);
+        }
+    }
+
+    /**
+     * Writes everything queued so far, and any held-back rows whose retry is due, on the
+     * calling thread; returns the number of events written.
+     */
+    public int flush() {
+        return writer.flush();
+    }
+
+    int queueDepth() {
+        return writer.queueDepth();
+    }
+
+    private void insert(List<PendingEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingEvent pending : batch) {
+            rows.add(toRow(pending));
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows));
+    }
+
+    private Object[] toRow(PendingEvent pending) {
+        ContractAuditEvent event = pending.event;
+        String details = event.getDetails();
+        if (pending.details != null) {
+            try {
+                details = objectMapper.writeValueAsString(pending.details);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize audit event details for {}", event.getEventUuid(), e);
+            }
+        }
+        return new Object[]{
+                event.getEventUuid(), event.getContractId(),
+                event.getEventType() != null ? event.getEventType().name() : null,
+                Timestamp.valueOf(event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now()), event.getUserId(), event.getIpAddress(), event.getUserAgent(),
+                details, event.getCertificateId(), event.getTimestampToken(), event.getHashValue()};
+    }
+
+    private static String describe(PendingEvent pending) {
+        ContractAuditEvent event = pending.event;
+        return "contract audit event " + event.getEventUuid() + " for contract " + event.getContractId()
+                + " type " + event.getEventType();
+    }
+
+    private static final class PendingEvent {
+        private final ContractAuditEvent event;
+        private final Map<String, Object> details;
+
+        private PendingEvent(ContractAuditEvent event, Map<String, Object> details) {
+            this.event = event;
+            this.details = details;
+        }
+    }
+}
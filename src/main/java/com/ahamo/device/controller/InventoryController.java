@@ -3,6 +3,7 @@ package com.ahamo.device.controller;
 import com.ahamo.device.dto.InventoryAlertResponse;
 import com.ahamo.device.dto.InventoryStatusResponse;
 import com.ahamo.device.service.InventoryService;
+import com.ahamo.device.service.InventorySnapshot;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,10 +16,11 @@ import java.util.List;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final InventorySnapshot inventorySnapshot;
     
     @GetMapping("/inventory")
     public ResponseEntity<List<InventoryStatusResponse>> getAllInventoryStatus() {
-        List<InventoryStatusResponse> inventoryStatus = inventoryService.getAllInventoryStatus();
+        List<InventoryStatusResponse> inventoryStatus = inventorySnapshot.getAllInventoryStatus();
         return ResponseEntity.ok(inventoryStatus);
     }
     
@@ -0,0 +1,16 @@
+package com.ahamo.device.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryStockView {
+    
+    private String deviceId;
+    private String color;
+    private String storage;
+    private Integer availableStock;
+}
@@ -1,11 +1,15 @@
 package com.ahamo.device.repository;
 
+import com.ahamo.device.dto.InventoryStockView;
 import com.ahamo.device.model.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +20,8 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     List<Inventory> findByDeviceId(String deviceId);
     
+    List<Inventory> findByDeviceIdIn(Collection<String> deviceIds);
+    
     @Query("SELECT i FROM Inventory i WHERE i.availableStock <= i.alertThreshold")
     List<Inventory> findLowStockItems();
     
@@ -27,4 +33,23 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     @Query("SELECT DISTINCT i.storage FROM Inventory i WHERE i.deviceId = :deviceId AND i.color = :color AND i.availableStock > 0")
     List<String> findAvailableStorageByDeviceIdAndColor(@Param("deviceId") String deviceId, @Param("color") String color);
+    
+    @Query("SELECT new com.ahamo.device.dto.InventoryStockView(d.id, i.color, i.storage, i.availableStock) " +
+           "FROM Device d LEFT JOIN Inventory i ON i.deviceId = d.id ORDER BY d.id, i.id")
+    List<InventoryStockView> findAllStockViews();
+    
+    @Query("SELECT new com.ahamo.device.dto.InventoryStockView(i.deviceId, i.color, i.storage, i.availableStock) " +
+           "FROM Inventory i WHERE i.updatedAt > :since ORDER BY i.id")
+    List<InventoryStockView> findStockViewsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Query("UPDATE Inventory i SET i.totalStock = :totalStock, i.availableStock = :availableStock, " +
+           "i.reservedStock = :reservedStock, i.allocatedStock = :allocatedStock, i.updatedAt = :updatedAt " +
+           "WHERE i.id = :id")
+    int updateCounters(@Param("id") Long id,
+                       @Param("totalStock") int totalStock,
+                       @Param("availableStock") int availableStock,
+                       @Param("reservedStock") int reservedStock,
+                       @Param("allocatedStock") int allocatedStock,
+                       @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -1,12 +1,19 @@
 package com.ahamo.device.repository;
 
 import com.ahamo.device.model.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +26,22 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.status = 'RESERVED' AND r.expiresAt < :now")
     List<Reservation> findExpiredReservations(@Param("now") LocalDateTime now);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Reservation r WHERE r.status = 'RESERVED' AND r.expiresAt < :now " +
+           "AND r.id NOT IN :excludedIds ORDER BY r.expiresAt")
+    List<Reservation> claimExpiredReservations(@Param("now") LocalDateTime now,
+                                               @Param("excludedIds") Collection<Long> excludedIds,
+                                               Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.status = 'RESERVED' AND r.expiresAt <= :now")
+    List<Reservation> lockExpiredReservations(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :status WHERE r.id IN :ids AND r.status = 'RESERVED'")
+    int expireReserved(@Param("ids") Collection<Long> ids, @Param("status") Reservation.ReservationStatus status);
+    
     @Query("SELECT r FROM Reservation r WHERE r.inventoryId = :inventoryId AND r.status IN ('RESERVED', 'ALLOCATED')")
     List<Reservation> findActiveReservationsByInventoryId(@Param("inventoryId") Long inventoryId);
     
@@ -25,5 +25,5 @@ public interface DeviceService {
     
     String uploadImage(MultipartFile file);
     
-    void updateInventoryStatus();
+    int updateInventoryStatus();
 }
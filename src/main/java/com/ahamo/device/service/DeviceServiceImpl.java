@@ -1,5 +1,6 @@
 package com.ahamo.device.service;
 
+import com.ahamo.common.event.CatalogChangedEvent;
 import com.ahamo.device.dto.AdminDeviceRequest;
 import com.ahamo.device.dto.AdminDeviceResponse;
 import com.ahamo.device.dto.DeviceImportResult;
@@ -10,6 +11,7 @@ import com.opencsv.CSVWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.imgscalr.Scalr;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -31,6 +33,7 @@ public class DeviceServiceImpl implements DeviceService {
     
     private final DeviceRepository deviceRepository;
     private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
     
     private static final String UPLOAD_DIR = "uploads/images/";
     private static final int MAX_IMAGE_WIDTH = 1024;
@@ -57,6 +60,7 @@ public class DeviceServiceImpl implements DeviceService {
         device.setUpdatedBy("admin@example.com");
         
         Device savedDevice = deviceRepository.save(device);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DEVICE, savedDevice.getId()));
         return convertToAdminResponse(savedDevice);
     }
     
@@ -80,6 +84,7 @@ public class DeviceServiceImpl implements DeviceService {
         existingDevice.setUpdatedBy("admin@example.com");
         
         Device savedDevice = deviceRepository.save(existingDevice);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DEVICE, deviceId));
         return convertToAdminResponse(savedDevice);
     }
     
@@ -89,6 +94,7 @@ public class DeviceServiceImpl implements DeviceService {
                 .orElseThrow(() -> new RuntimeException("Device not found: " + deviceId));
         
         deviceRepository.delete(device);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DEVICE, deviceId));
     }
     
     @Override
@@ -239,7 +245,7 @@ public class DeviceServiceImpl implements DeviceService {
     }
     
     @Override
-    public void updateInventoryStatus() {
+    public int updateInventoryStatus() {
         List<Device> devices = deviceRepository.findAll();
         Random random = new Random();
         
@@ -266,6 +272,7 @@ public class DeviceServiceImpl implements DeviceService {
         }
         
         deviceRepository.saveAll(devices);
+        return devices.size();
     }
     
     private AdminDeviceResponse convertToAdminResponse(Device device) {
@@ -0,0 +1,180 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryAlertResponse;
+import com.ahamo.device.model.Device;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.device.repository.InventoryRepository;
+import com.ahamo.monitoring.service.AlertService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Detects low-stock threshold crossings from the counters written by each
+ * write-behind flush and pushes them to {@link AlertService}, so low stock is
+ * reported as it happens instead of by rescanning the inventory table.
+ * <p>
+ * Thresholds are read with the flushed inventory rows, so a changed threshold applies
+ * on the next flush. Whether a SKU is below its threshold is kept in Redis as
+ * {@code inventory:alert:low:<id>}, set only if absent, so exactly one node alerts per
+ * crossing. The marker expires after {@code renotify-interval}; a SKU that is still low
+ * then alerts again, which re-raises an alert that was resolved while stock stayed low.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryAlertTracker {
+
+    static final String LOW_STOCK_PREFIX = "inventory:alert:low:";
+
+    private static final int MAX_CACHED_DEVICE_NAMES = 10_000;
+
+    private final InventoryRepository inventoryRepository;
+    private final DeviceRepository deviceRepository;
+    private final AlertService alertService;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<String, String> deviceNames = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_DEVICE_NAMES)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    @Value("${inventory.alert.renotify-interval:3600000}")
+    private long renotifyIntervalMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
+            Map<Long, Integer> available = lowStockItems.stream()
+                    .collect(Collectors.toMap(Inventory::getId, Inventory::getAvailableStock));
+            track(lowStockItems, available, null);
+            log.info("Inventory alert tracker initialized with {} low-stock items", lowStockItems.size());
+        } catch (Exception e) {
+            log.error("Failed to initialize inventory alert tracker", e);
+        }
+    }
+
+    public void onCountersFlushed(Map<Long, Map<String, Integer>> counters) {
+        Map<Long, Integer> available = new HashMap<>();
+        counters.forEach((inventoryId, values) -> {
+            Integer value = values.get(InventoryCounterService.FIELD_AVAILABLE);
+            if (value != null) {
+                available.put(inventoryId, value);
+            }
+        });
+        if (available.isEmpty()) {
+            return;
+        }
+        track(inventoryRepository.findAllById(available.keySet()), available, LocalDateTime.now());
+    }
+
+    private void track(List<Inventory> inventories, Map<Long, Integer> available, LocalDateTime flushedAt) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+
+        List<Inventory> rows = List.copyOf(inventories);
+        List<Boolean> lowFlags = rows.stream()
+                .map(inventory -> available.get(inventory.getId()) <= inventory.getAlertThreshold())
+                .collect(Collectors.toList());
+        List<Object> results = updateMarkers(rows, lowFlags);
+
+        List<Inventory> crossedBelow = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Inventory inventory = rows.get(i);
+            Object result = results.get(i);
+            if (lowFlags.get(i)) {
+                if (Boolean.TRUE.equals(result)) {
+                    crossedBelow.add(inventory);
+                }
+            } else if (result instanceof Long && (Long) result > 0) {
+                log.info("Inventory recovered above alert threshold: {}:{}:{} - Available: {}",
+                        inventory.getDeviceId(), inventory.getColor(), inventory.getStorage(),
+                        available.get(inventory.getId()));
+            }
+        }
+        if (crossedBelow.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> names = resolveDeviceNames(crossedBelow.stream()
+                .map(Inventory::getDeviceId)
+                .collect(Collectors.toSet()));
+        List<InventoryAlertResponse> alerts = crossedBelow.stream()
+                .map(inventory -> toAlert(inventory, available.get(inventory.getId()),
+                        names.getOrDefault(inventory.getDeviceId(), "Unknown Device"),
+                        flushedAt != null ? flushedAt : inventory.getUpdatedAt()))
+                .collect(Collectors.toList());
+        publish(alerts);
+    }
+
+    /** Sets the marker of each low SKU if absent and deletes it for the others, in one round trip. */
+    private List<Object> updateMarkers(List<Inventory> rows, List<Boolean> lowFlags) {
+        Expiration expiration = Expiration.milliseconds(renotifyIntervalMillis);
+        byte[] marker = "1".getBytes(StandardCharsets.UTF_8);
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < rows.size(); i++) {
+                byte[] key = (LOW_STOCK_PREFIX + rows.get(i).getId()).getBytes(StandardCharsets.UTF_8);
+                if (lowFlags.get(i)) {
+                    connection.stringCommands().set(key, marker, expiration, RedisStringCommands.SetOption.SET_IF_ABSENT);
+                } else {
+                    connection.keyCommands().del(key);
+                }
+            }
+            return null;
+        });
+    }
+
+    private Map<String, String> resolveDeviceNames(Set<String> deviceIds) {
+        Map<String, String> names = new HashMap<>(deviceNames.getAllPresent(deviceIds));
+        Collection<String> missing = deviceIds.stream()
+                .filter(deviceId -> !names.containsKey(deviceId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            for (Device device : deviceRepository.findAllById(missing)) {
+                names.put(device.getId(), device.getName());
+                deviceNames.put(device.getId(), device.getName());
+            }
+        }
+        return names;
+    }
+
+    private void publish(List<InventoryAlertResponse> alerts) {
+        for (InventoryAlertResponse alert : alerts) {
+            try {
+                alertService.createInventoryAlert(alert);
+            } catch (Exception e) {
+                log.error("Failed to push inventory alert for device {}: {}", alert.getDeviceId(), e.getMessage());
+            }
+        }
+    }
+
+    private static InventoryAlertResponse toAlert(Inventory inventory, int available, String deviceName,
+                                                  LocalDateTime updatedAt) {
+        return new InventoryAlertResponse(inventory.getDeviceId(), deviceName, inventory.getColor(),
+                inventory.getStorage(), available, inventory.getAlertThreshold(), updatedAt,
+                available == 0 ? "CRITICAL" : "WARNING");
+    }
+}
@@ -0,0 +1,96 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Refreshes only the inventory cache entries touched by a write-behind flush. The
+ * flush batch is the coalescing window, so a burst of reservations on one device
+ * results in a single rebuild of that device's status.
+ * <p>
+ * The shared "all" listing entry is evicted rather than patched: a read-modify-write of
+ * one Redis key from several nodes loses updates, and patching could never add a new
+ * device. The listing endpoint is served by {@link InventorySnapshot} anyway.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCacheInvalidator {
+
+    public static final String INVENTORY_CACHE = "inventoryCache";
+    public static final String ALL_INVENTORY_CACHE = "allInventoryCache";
+    public static final String ALL_INVENTORY_KEY = "all";
+
+    private static final int MAX_CACHED_INVENTORY_IDS = 10_000;
+
+    private final CacheManager cacheManager;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStatusAssembler statusAssembler;
+
+    private final Map<Long, String> deviceIdsByInventoryId = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_INVENTORY_IDS)
+            .<Long, String>build()
+            .asMap();
+
+    public void refresh(Collection<Long> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return;
+        }
+
+        Set<String> deviceIds = resolveDeviceIds(inventoryIds);
+        if (deviceIds.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<Inventory>> inventoriesByDevice = inventoryRepository.findByDeviceIdIn(deviceIds).stream()
+                .collect(Collectors.groupingBy(Inventory::getDeviceId));
+
+        Map<String, InventoryStatusResponse> statuses = deviceIds.stream()
+                .collect(Collectors.toMap(deviceId -> deviceId, deviceId -> statusAssembler.toStatus(
+                        deviceId, inventoriesByDevice.getOrDefault(deviceId, List.of()))));
+
+        Cache inventoryCache = cacheManager.getCache(INVENTORY_CACHE);
+        if (inventoryCache != null) {
+            statuses.forEach(inventoryCache::put);
+        }
+
+        evictAllInventoryCache();
+        log.debug("Refreshed inventory cache for {} devices", statuses.size());
+    }
+
+    private void evictAllInventoryCache() {
+        Cache allInventoryCache = cacheManager.getCache(ALL_INVENTORY_CACHE);
+        if (allInventoryCache != null) {
+            allInventoryCache.evict(ALL_INVENTORY_KEY);
+        }
+    }
+
+    private Set<String> resolveDeviceIds(Collection<Long> inventoryIds) {
+        List<Long> missing = inventoryIds.stream()
+                .filter(id -> !deviceIdsByInventoryId.containsKey(id))
+                .collect(Collectors.toList());
+
+        if (!missing.isEmpty()) {
+            inventoryRepository.findAllById(missing)
+                    .forEach(inventory -> deviceIdsByInventoryId.put(inventory.getId(), inventory.getDeviceId()));
+        }
+
+        return inventoryIds.stream()
+                .map(deviceIdsByInventoryId::get)
+                .filter(deviceId -> deviceId != null)
+                .collect(Collectors.toSet());
+    }
+}
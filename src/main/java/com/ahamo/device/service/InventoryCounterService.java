@@ -0,0 +1,206 @@
+package com.ahamo.device.service;
+
+import com.ahamo.common.exception.ErrorCode;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Per-SKU stock counters held in Redis and mutated by Lua scripts, so a
+ * check-and-move of stock is a single atomic round trip without a lock.
+ * Every mutation marks the inventory id dirty; {@link InventoryCounterSyncService}
+ * writes dirty counters back to the {@code inventory} table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCounterService {
+
+    public static final String FIELD_TOTAL = "total";
+    public static final String FIELD_AVAILABLE = "available";
+    public static final String FIELD_RESERVED = "reserved";
+    public static final String FIELD_ALLOCATED = "allocated";
+
+    private static final String COUNTER_PREFIX = "inventory:counter:";
+    private static final String DIRTY_SET_KEY = "inventory:counter:dirty";
+
+    private static final long NOT_LOADED = -2;
+    private static final long INSUFFICIENT = -1;
+
+    private static final RedisScript<Long> INIT_SCRIPT = loadScript("redis/inventory-init.lua");
+    private static final RedisScript<Long> TRANSFER_SCRIPT = loadScript("redis/inventory-transfer.lua");
+    private static final RedisScript<Long> ADJUST_TOTAL_SCRIPT = loadScript("redis/inventory-adjust-total.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+
+    public void reserve(Long inventoryId, int quantity) {
+        transfer(inventoryId, quantity, FIELD_AVAILABLE, FIELD_RESERVED, true,
+                ErrorCode.INVENTORY_NOT_AVAILABLE);
+    }
+
+    public void release(Long inventoryId, int quantity) {
+        transfer(inventoryId, quantity, FIELD_RESERVED, FIELD_AVAILABLE, false, null);
+    }
+
+    public void allocate(Long inventoryId, int quantity) {
+        transfer(inventoryId, quantity, FIELD_RESERVED, FIELD_ALLOCATED, true,
+                ErrorCode.INSUFFICIENT_STOCK);
+    }
+
+    public void restore(Long inventoryId, int quantity) {
+        transfer(inventoryId, quantity, FIELD_ALLOCATED, FIELD_AVAILABLE, false, null);
+    }
+
+    public int adjustTotal(Long inventoryId, int totalStock) {
+        long available = execute(ADJUST_TOTAL_SCRIPT, inventoryId, String.valueOf(totalStock), String.valueOf(inventoryId));
+        return (int) available;
+    }
+
+    public int getAvailable(Long inventoryId) {
+        ensureLoaded(inventoryId);
+        Object available = redisTemplate.opsForHash().get(counterKey(inventoryId), FIELD_AVAILABLE);
+        return available != null ? Integer.parseInt(available.toString()) : 0;
+    }
+
+    public Map<Long, Map<String, Integer>> readCounters(Collection<Long> inventoryIds) {
+        List<Long> ids = List.copyOf(inventoryIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long id : ids) {
+                connection.hashCommands().hGetAll(counterKey(id).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        Map<Long, Map<String, Integer>> counters = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object result = results.get(i);
+            if (result instanceof Map && !((Map<?, ?>) result).isEmpty()) {
+                Map<String, Integer> values = new HashMap<>();
+                ((Map<?, ?>) result).forEach((field, value) ->
+                        values.put(field.toString(), Integer.parseInt(value.toString())));
+                counters.put(ids.get(i), values);
+            }
+        }
+        return counters;
+    }
+
+    public List<Long> popDirty(int count) {
+        List<String> ids = redisTemplate.opsForSet().pop(DIRTY_SET_KEY, count);
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream().map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    public void markDirty(Collection<Long> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForSet().add(DIRTY_SET_KEY,
+                inventoryIds.stream().map(String::valueOf).toArray(String[]::new));
+    }
+
+    public boolean isDirty(Long inventoryId) {
+        return Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(DIRTY_SET_KEY, String.valueOf(inventoryId)));
+    }
+
+    private void transfer(Long inventoryId, int quantity, String source, String target, boolean strict,
+                          ErrorCode insufficientError) {
+        long result = execute(TRANSFER_SCRIPT, inventoryId,
+                String.valueOf(quantity), source, target, strict ? "strict" : "clamp", String.valueOf(inventoryId));
+
+        if (result == INSUFFICIENT) {
+            throw new RuntimeException(insufficientError.getDefaultMessage());
+        }
+
+        log.debug("Moved {} units {} -> {} for inventory ID: {}", quantity, source, target, inventoryId);
+        compensateOnRollback(inventoryId, quantity, source, target);
+    }
+
+    private long execute(RedisScript<Long> script, Long inventoryId, String... args) {
+        List<String> keys = Arrays.asList(counterKey(inventoryId), DIRTY_SET_KEY);
+        Long result = redisTemplate.execute(script, keys, (Object[]) args);
+
+        if (result != null && result == NOT_LOADED) {
+            ensureLoaded(inventoryId);
+            result = redisTemplate.execute(script, keys, (Object[]) args);
+        }
+
+        if (result == null || result == NOT_LOADED) {
+            throw new RuntimeException("Inventory counter unavailable for inventory ID: " + inventoryId);
+        }
+        return result;
+    }
+
+    private void ensureLoaded(Long inventoryId) {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(counterKey(inventoryId)))) {
+            return;
+        }
+
+        Inventory inventory = inventoryRepository.findById(inventoryId)
+                .orElseThrow(() -> new RuntimeException("Inventory not found"));
+
+        Long loaded = redisTemplate.execute(INIT_SCRIPT, List.of(counterKey(inventoryId)),
+                String.valueOf(inventory.getTotalStock()),
+                String.valueOf(inventory.getAvailableStock()),
+                String.valueOf(inventory.getReservedStock()),
+                String.valueOf(inventory.getAllocatedStock()));
+
+        if (loaded != null && loaded == 1) {
+            log.info("Loaded inventory counter from database for inventory ID: {}", inventoryId);
+        }
+    }
+
+    private void compensateOnRollback(Long inventoryId, int quantity, String source, String target) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    execute(TRANSFER_SCRIPT, inventoryId,
+                            String.valueOf(quantity), target, source, "clamp", String.valueOf(inventoryId));
+                    log.info("Reverted {} units {} -> {} for inventory ID: {} after rollback",
+                            quantity, source, target, inventoryId);
+                } catch (Exception e) {
+                    log.error("Failed to revert inventory counter for inventory ID: {}", inventoryId, e);
+                }
+            }
+        });
+    }
+
+    private static String counterKey(Long inventoryId) {
+        return COUNTER_PREFIX + inventoryId;
+    }
+
+    private static RedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ahamo.device.service;
+
+import com.ahamo.common.lock.DistributedLockService;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind of Redis inventory counters to the {@code inventory} table, plus a
+ * reconciliation pass that re-queues rows whose persisted counts have drifted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCounterSyncService {
+
+    private static final String RECONCILE_LOCK_KEY = "inventory:lock:reconcile";
+
+    private final InventoryCounterService counterService;
+    private final InventoryRepository inventoryRepository;
+    private final DistributedLockService lockService;
+    private final InventoryCacheInvalidator cacheInvalidator;
+    private final InventoryAlertTracker alertTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.counter.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Scheduled(fixedDelayString = "${inventory.counter.flush-interval:1000}")
+    public void flushDirtyCounters() {
+        try {
+            int flushed;
+            do {
+                flushed = flushBatch();
+            } while (flushed == flushBatchSize);
+        } catch (Exception e) {
+            log.error("Failed to flush inventory counters", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.counter.reconcile-interval:300000}")
+    public void reconcileCounters() {
+        try {
+            lockService.executeWithLock(RECONCILE_LOCK_KEY, this::reconcile);
+        } catch (Exception e) {
+            log.warn("Skipped inventory counter reconciliation: {}", e.getMessage());
+        }
+    }
+
+    int flushBatch() {
+        List<Long> inventoryIds = counterService.popDirty(flushBatchSize);
+        if (inventoryIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<String, Integer>> counters = counterService.readCounters(inventoryIds);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                counters.forEach((inventoryId, values) -> inventoryRepository.updateCounters(
+                        inventoryId,
+                        values.getOrDefault(InventoryCounterService.FIELD_TOTAL, 0),
+                        values.getOrDefault(InventoryCounterService.FIELD_AVAILABLE, 0),
+                        values.getOrDefault(InventoryCounterService.FIELD_RESERVED, 0),
+                        values.getOrDefault(InventoryCounterService.FIELD_ALLOCATED, 0),
+                        now));
+            });
+        } catch (RuntimeException e) {
+            counterService.markDirty(inventoryIds);
+            throw e;
+        }
+
+        try {
+            cacheInvalidator.refresh(counters.keySet());
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh inventory cache after flush: {}", e.getMessage());
+        }
+        try {
+            alertTracker.onCountersFlushed(counters);
+        } catch (RuntimeException e) {
+            log.warn("Failed to track inventory alerts after flush: {}", e.getMessage());
+        }
+        log.debug("Flushed {} inventory counters to database", counters.size());
+        return inventoryIds.size();
+    }
+
+    private void reconcile() {
+        List<Inventory> inventories = inventoryRepository.findAll();
+        if (inventories.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<String, Integer>> counters = counterService.readCounters(
+                inventories.stream().map(Inventory::getId).collect(Collectors.toList()));
+
+        List<Long> drifted = new ArrayList<>();
+        for (Inventory inventory : inventories) {
+            Map<String, Integer> values = counters.get(inventory.getId());
+            if (values == null || matches(inventory, values)) {
+                continue;
+            }
+            if (!counterService.isDirty(inventory.getId())) {
+                drifted.add(inventory.getId());
+                log.warn("Inventory counter drift for inventory ID: {} - DB available: {}, Redis available: {}",
+                        inventory.getId(), inventory.getAvailableStock(),
+                        values.get(InventoryCounterService.FIELD_AVAILABLE));
+            }
+        }
+
+        counterService.markDirty(drifted);
+        log.info("Inventory counter reconciliation completed - {} rows checked, {} re-queued",
+                inventories.size(), drifted.size());
+    }
+
+    private boolean matches(Inventory inventory, Map<String, Integer> values) {
+        return inventory.getTotalStock().equals(values.get(InventoryCounterService.FIELD_TOTAL))
+                && inventory.getAvailableStock().equals(values.get(InventoryCounterService.FIELD_AVAILABLE))
+                && inventory.getReservedStock().equals(values.get(InventoryCounterService.FIELD_RESERVED))
+                && inventory.getAllocatedStock().equals(values.get(InventoryCounterService.FIELD_ALLOCATED));
+    }
+}
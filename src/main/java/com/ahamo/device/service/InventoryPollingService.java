@@ -1,5 +1,6 @@
 package com.ahamo.device.service;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,15 +12,11 @@ import org.springframework.stereotype.Service;
 public class InventoryPollingService {
     
     private final DeviceService deviceService;
+    private final ScheduledJobRunner jobRunner;
     
     @Scheduled(cron = "0 0 2 * * ?")
     public void updateInventoryStatus() {
         log.info("Starting daily inventory status update");
-        try {
-            deviceService.updateInventoryStatus();
-            log.info("Daily inventory status update completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to update inventory status", e);
-        }
+        jobRunner.runOnLeader("inventory.polling", deviceService::updateInventoryStatus);
     }
 }
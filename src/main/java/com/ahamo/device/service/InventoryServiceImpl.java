@@ -1,7 +1,5 @@
 package com.ahamo.device.service;
 
-import com.ahamo.common.exception.ErrorCode;
-import com.ahamo.common.lock.DistributedLockService;
 import com.ahamo.device.dto.InventoryAlertResponse;
 import com.ahamo.device.dto.InventoryStatusResponse;
 import com.ahamo.device.model.Device;
@@ -10,17 +8,14 @@ import com.ahamo.device.repository.DeviceRepository;
 import com.ahamo.device.repository.InventoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,50 +25,21 @@ public class InventoryServiceImpl implements InventoryService {
     
     private final InventoryRepository inventoryRepository;
     private final DeviceRepository deviceRepository;
-    private final DistributedLockService lockService;
+    private final InventoryCounterService counterService;
+    private final InventoryStatusAssembler statusAssembler;
     
     @Override
     @Cacheable(value = "inventoryCache", key = "#deviceId")
     public InventoryStatusResponse getInventoryStatus(String deviceId) {
         List<Inventory> inventories = inventoryRepository.findByDeviceId(deviceId);
-        
-        if (inventories.isEmpty()) {
-            return new InventoryStatusResponse(deviceId, new ArrayList<>());
-        }
-        
-        Map<String, List<Inventory>> colorGroups = inventories.stream()
-                .collect(Collectors.groupingBy(Inventory::getColor));
-        
-        List<InventoryStatusResponse.ColorInventory> colorInventories = colorGroups.entrySet().stream()
-                .map(entry -> {
-                    String color = entry.getKey();
-                    List<Inventory> colorInventoryList = entry.getValue();
-                    
-                    List<InventoryStatusResponse.StorageInventory> storageInventories = colorInventoryList.stream()
-                            .map(inv -> new InventoryStatusResponse.StorageInventory(
-                                    inv.getStorage(),
-                                    inv.getAvailableStock() > 0,
-                                    calculateEstimatedDelivery(inv.getAvailableStock()),
-                                    inv.getAvailableStock()
-                            ))
-                            .collect(Collectors.toList());
-                    
-                    return new InventoryStatusResponse.ColorInventory(color, storageInventories);
-                })
-                .collect(Collectors.toList());
-        
-        return new InventoryStatusResponse(deviceId, colorInventories);
+        return statusAssembler.toStatus(deviceId, inventories);
     }
     
     @Override
-    @Cacheable(value = "allInventoryCache")
+    @Cacheable(value = "allInventoryCache", key = "'all'")
     public List<InventoryStatusResponse> getAllInventoryStatus() {
-        List<String> deviceIds = deviceRepository.findAll().stream()
-                .map(Device::getId)
-                .collect(Collectors.toList());
-        
-        return deviceIds.stream()
-                .map(this::getInventoryStatus)
+        return statusAssembler.groupByDevice(inventoryRepository.findAllStockViews()).entrySet().stream()
+                .map(entry -> statusAssembler.toStatus(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
     
@@ -81,10 +47,15 @@ public class InventoryServiceImpl implements InventoryService {
     public List<InventoryAlertResponse> getInventoryAlerts() {
         List<Inventory> lowStockItems = inventoryRepository.findLowStockItems();
         
+        Set<String> deviceIds = lowStockItems.stream()
+                .map(Inventory::getDeviceId)
+                .collect(Collectors.toSet());
+        Map<String, String> deviceNames = deviceRepository.findAllById(deviceIds).stream()
+                .collect(Collectors.toMap(Device::getId, Device::getName));
+        
         return lowStockItems.stream()
                 .map(inventory -> {
-                    Device device = deviceRepository.findById(inventory.getDeviceId()).orElse(null);
-                    String deviceName = device != null ? device.getName() : "Unknown Device";
+                    String deviceName = deviceNames.getOrDefault(inventory.getDeviceId(), "Unknown Device");
                     
                     String severity = inventory.getAvailableStock() == 0 ? "CRITICAL" : "WARNING";
                     
@@ -122,21 +93,12 @@ public class InventoryServiceImpl implements InventoryService {
     
     @Override
     @Transactional
-    @CacheEvict(value = {"inventoryCache", "allInventoryCache"}, allEntries = true)
     public void updateInventoryStock(String deviceId, String color, String storage, int totalStock) {
-        String lockKey = DistributedLockService.getInventoryLockKey(deviceId, color);
+        Inventory inventory = getOrCreateInventory(deviceId, color, storage);
         
-        lockService.executeWithLock(lockKey, () -> {
-            Inventory inventory = getOrCreateInventory(deviceId, color, storage);
-            
-            int stockDifference = totalStock - inventory.getTotalStock();
-            inventory.setTotalStock(totalStock);
-            inventory.setAvailableStock(Math.max(0, inventory.getAvailableStock() + stockDifference));
-            
-            inventoryRepository.save(inventory);
-            log.info("Updated inventory for {}:{}:{} - Total: {}, Available: {}", 
-                    deviceId, color, storage, totalStock, inventory.getAvailableStock());
-        });
+        int availableStock = counterService.adjustTotal(inventory.getId(), totalStock);
+        log.info("Updated inventory for {}:{}:{} - Total: {}, Available: {}", 
+                deviceId, color, storage, totalStock, availableStock);
     }
     
     @Override
@@ -144,106 +106,34 @@ public class InventoryServiceImpl implements InventoryService {
         Inventory inventory = inventoryRepository.findByDeviceIdAndColorAndStorage(deviceId, color, storage)
                 .orElse(null);
         
-        return inventory != null && inventory.getAvailableStock() >= quantity;
+        return inventory != null && counterService.getAvailable(inventory.getId()) >= quantity;
     }
     
     @Override
     @Transactional
-    @CacheEvict(value = {"inventoryCache", "allInventoryCache"}, allEntries = true)
     public void reserveStock(Long inventoryId, int quantity) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found"));
-        
-        String lockKey = DistributedLockService.getInventoryLockKey(inventory.getDeviceId(), inventory.getColor());
-        
-        lockService.executeWithLock(lockKey, () -> {
-            Inventory currentInventory = inventoryRepository.findById(inventoryId)
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            if (currentInventory.getAvailableStock() < quantity) {
-                throw new RuntimeException(ErrorCode.INVENTORY_NOT_AVAILABLE.getDefaultMessage());
-            }
-            
-            currentInventory.setAvailableStock(currentInventory.getAvailableStock() - quantity);
-            currentInventory.setReservedStock(currentInventory.getReservedStock() + quantity);
-            
-            inventoryRepository.save(currentInventory);
-            log.info("Reserved {} units for inventory ID: {}", quantity, inventoryId);
-        });
+        counterService.reserve(inventoryId, quantity);
+        log.info("Reserved {} units for inventory ID: {}", quantity, inventoryId);
     }
     
     @Override
     @Transactional
-    @CacheEvict(value = {"inventoryCache", "allInventoryCache"}, allEntries = true)
     public void releaseReservedStock(Long inventoryId, int quantity) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found"));
-        
-        String lockKey = DistributedLockService.getInventoryLockKey(inventory.getDeviceId(), inventory.getColor());
-        
-        lockService.executeWithLock(lockKey, () -> {
-            Inventory currentInventory = inventoryRepository.findById(inventoryId)
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            currentInventory.setAvailableStock(currentInventory.getAvailableStock() + quantity);
-            currentInventory.setReservedStock(Math.max(0, currentInventory.getReservedStock() - quantity));
-            
-            inventoryRepository.save(currentInventory);
-            log.info("Released {} reserved units for inventory ID: {}", quantity, inventoryId);
-        });
+        counterService.release(inventoryId, quantity);
+        log.info("Released {} reserved units for inventory ID: {}", quantity, inventoryId);
     }
     
     @Override
     @Transactional
-    @CacheEvict(value = {"inventoryCache", "allInventoryCache"}, allEntries = true)
     public void allocateStock(Long inventoryId, int quantity) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found"));
-        
-        String lockKey = DistributedLockService.getInventoryLockKey(inventory.getDeviceId(), inventory.getColor());
-        
-        lockService.executeWithLock(lockKey, () -> {
-            Inventory currentInventory = inventoryRepository.findById(inventoryId)
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            if (currentInventory.getReservedStock() < quantity) {
-                throw new RuntimeException(ErrorCode.INSUFFICIENT_STOCK.getDefaultMessage());
-            }
-            
-            currentInventory.setReservedStock(currentInventory.getReservedStock() - quantity);
-            currentInventory.setAllocatedStock(currentInventory.getAllocatedStock() + quantity);
-            
-            inventoryRepository.save(currentInventory);
-            log.info("Allocated {} units for inventory ID: {}", quantity, inventoryId);
-        });
+        counterService.allocate(inventoryId, quantity);
+        log.info("Allocated {} units for inventory ID: {}", quantity, inventoryId);
     }
     
     @Override
     @Transactional
-    @CacheEvict(value = {"inventoryCache", "allInventoryCache"}, allEntries = true)
     public void restoreStock(Long inventoryId, int quantity) {
-        Inventory inventory = inventoryRepository.findById(inventoryId)
-                .orElseThrow(() -> new RuntimeException("Inventory not found"));
-        
-        String lockKey = DistributedLockService.getInventoryLockKey(inventory.getDeviceId(), inventory.getColor());
-        
-        lockService.executeWithLock(lockKey, () -> {
-            Inventory currentInventory = inventoryRepository.findById(inventoryId)
-                    .orElseThrow(() -> new RuntimeException("Inventory not found"));
-            
-            currentInventory.setAvailableStock(currentInventory.getAvailableStock() + quantity);
-            currentInventory.setAllocatedStock(Math.max(0, currentInventory.getAllocatedStock() - quantity));
-            
-            inventoryRepository.save(currentInventory);
-            log.info("Restored {} units to available stock for inventory ID: {}", quantity, inventoryId);
-        });
-    }
-    
-    private String calculateEstimatedDelivery(int availableStock) {
-        if (availableStock > 0) {
-            return LocalDate.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
-        } else {
-            return LocalDate.now().plusDays(7).format(DateTimeFormatter.ISO_LOCAL_DATE);
-        }
+        counterService.restore(inventoryId, quantity);
+        log.info("Restored {} units to available stock for inventory ID: {}", quantity, inventoryId);
     }
 }
@@ -0,0 +1,172 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.dto.InventoryStockView;
+import com.ahamo.device.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory device → color → storage → available-stock view of the whole catalog,
+ * loaded with one aggregated query and kept current by polling rows whose
+ * {@code updated_at} moved since the last poll. Reads never touch the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySnapshot {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryStatusAssembler statusAssembler;
+
+    @Value("${inventory.snapshot.poll-overlap:5000}")
+    private long pollOverlapMillis;
+
+    private volatile State state;
+
+    public List<InventoryStatusResponse> getAllInventoryStatus() {
+        return currentState().allStatuses;
+    }
+
+    public InventoryStatusResponse getInventoryStatus(String deviceId) {
+        InventoryStatusResponse status = currentState().statuses.get(deviceId);
+        return status != null ? status : new InventoryStatusResponse(deviceId, new ArrayList<>());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.snapshot.rebuild-interval:300000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild inventory snapshot", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.snapshot.poll-interval:1000}")
+    public void scheduledRefresh() {
+        if (state == null) {
+            return;
+        }
+        try {
+            applyRecentChanges();
+        } catch (Exception e) {
+            log.error("Failed to refresh inventory snapshot", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        Map<String, Map<String, Map<String, Integer>>> stock =
+                statusAssembler.groupByDevice(inventoryRepository.findAllStockViews());
+
+        Map<String, InventoryStatusResponse> statuses = new LinkedHashMap<>();
+        stock.forEach((deviceId, colors) -> statuses.put(deviceId, statusAssembler.toStatus(deviceId, colors)));
+
+        state = new State(stock, statuses, loadedAt);
+        log.info("Rebuilt inventory snapshot with {} devices", statuses.size());
+    }
+
+    public synchronized void applyRecentChanges() {
+        State current = state;
+        LocalDateTime polledAt = LocalDateTime.now();
+        List<InventoryStockView> changes = inventoryRepository.findStockViewsUpdatedSince(
+                current.loadedAt.minus(Duration.ofMillis(pollOverlapMillis)));
+
+        state = apply(current, changes, polledAt);
+    }
+
+    State apply(State current, List<InventoryStockView> changes, LocalDateTime polledAt) {
+        if (changes.isEmpty()) {
+            return current.advancedTo(polledAt);
+        }
+
+        Map<String, Map<String, Map<String, Integer>>> stock = new LinkedHashMap<>(current.stock);
+        Set<String> changedDevices = new LinkedHashSet<>();
+
+        for (InventoryStockView view : changes) {
+            Map<String, Map<String, Integer>> colors = stock.get(view.getDeviceId());
+            Integer previous = colors != null && colors.containsKey(view.getColor())
+                    ? colors.get(view.getColor()).get(view.getStorage())
+                    : null;
+            if (view.getAvailableStock().equals(previous)) {
+                continue;
+            }
+
+            if (changedDevices.add(view.getDeviceId())) {
+                colors = copyColors(colors);
+                stock.put(view.getDeviceId(), colors);
+            }
+            colors.computeIfAbsent(view.getColor(), color -> new LinkedHashMap<>())
+                    .put(view.getStorage(), view.getAvailableStock());
+        }
+
+        if (changedDevices.isEmpty()) {
+            return current.advancedTo(polledAt);
+        }
+
+        Map<String, InventoryStatusResponse> statuses = new LinkedHashMap<>(current.statuses);
+        for (String deviceId : changedDevices) {
+            statuses.put(deviceId, statusAssembler.toStatus(deviceId, stock.get(deviceId)));
+        }
+
+        log.debug("Applied inventory snapshot changes for {} devices", changedDevices.size());
+        return new State(stock, statuses, polledAt);
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current == null) {
+            rebuild();
+            current = state;
+        }
+        return current;
+    }
+
+    private static Map<String, Map<String, Integer>> copyColors(Map<String, Map<String, Integer>> colors) {
+        Map<String, Map<String, Integer>> copy = new LinkedHashMap<>();
+        if (colors != null) {
+            colors.forEach((color, storages) -> copy.put(color, new LinkedHashMap<>(storages)));
+        }
+        return copy;
+    }
+
+    static final class State {
+        private final Map<String, Map<String, Map<String, Integer>>> stock;
+        private final Map<String, InventoryStatusResponse> statuses;
+        private final List<InventoryStatusResponse> allStatuses;
+        private final LocalDateTime loadedAt;
+
+        State(Map<String, Map<String, Map<String, Integer>>> stock,
+              Map<String, InventoryStatusResponse> statuses,
+              LocalDateTime loadedAt) {
+            this(stock, statuses, Collections.unmodifiableList(new ArrayList<>(statuses.values())), loadedAt);
+        }
+
+        private State(Map<String, Map<String, Map<String, Integer>>> stock,
+                      Map<String, InventoryStatusResponse> statuses,
+                      List<InventoryStatusResponse> allStatuses,
+                      LocalDateTime loadedAt) {
+            this.stock = stock;
+            this.statuses = statuses;
+            this.allStatuses = allStatuses;
+            this.loadedAt = loadedAt;
+        }
+
+        State advancedTo(LocalDateTime polledAt) {
+            return new State(stock, statuses, allStatuses, polledAt);
+        }
+    }
+}
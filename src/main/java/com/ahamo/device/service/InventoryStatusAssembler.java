@@ -0,0 +1,70 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.dto.InventoryStockView;
+import com.ahamo.device.model.Inventory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class InventoryStatusAssembler {
+
+    public InventoryStatusResponse toStatus(String deviceId, List<Inventory> inventories) {
+        Map<String, Map<String, Integer>> availableStock = new LinkedHashMap<>();
+        for (Inventory inventory : inventories) {
+            availableStock.computeIfAbsent(inventory.getColor(), color -> new LinkedHashMap<>())
+                    .put(inventory.getStorage(), inventory.getAvailableStock());
+        }
+        return toStatus(deviceId, availableStock);
+    }
+
+    public Map<String, Map<String, Map<String, Integer>>> groupByDevice(List<InventoryStockView> views) {
+        Map<String, Map<String, Map<String, Integer>>> stock = new LinkedHashMap<>();
+        for (InventoryStockView view : views) {
+            Map<String, Map<String, Integer>> colors = stock.computeIfAbsent(view.getDeviceId(), id -> new LinkedHashMap<>());
+            if (view.getColor() != null) {
+                colors.computeIfAbsent(view.getColor(), color -> new LinkedHashMap<>())
+                        .put(view.getStorage(), view.getAvailableStock());
+            }
+        }
+        return stock;
+    }
+
+    public InventoryStatusResponse toStatus(String deviceId, Map<String, Map<String, Integer>> availableStock) {
+        String inStockDelivery = calculateEstimatedDelivery(true);
+        String backorderDelivery = calculateEstimatedDelivery(false);
+
+        List<InventoryStatusResponse.ColorInventory> colorInventories = availableStock.entrySet().stream()
+                .map(entry -> {
+                    String color = entry.getKey();
+
+                    List<InventoryStatusResponse.StorageInventory> storageInventories = entry.getValue().entrySet().stream()
+                            .map(storage -> new InventoryStatusResponse.StorageInventory(
+                                    storage.getKey(),
+                                    storage.getValue() > 0,
+                                    storage.getValue() > 0 ? inStockDelivery : backorderDelivery,
+                                    storage.getValue()
+                            ))
+                            .collect(Collectors.toList());
+
+                    return new InventoryStatusResponse.ColorInventory(color, storageInventories);
+                })
+                .collect(Collectors.toList());
+
+        return new InventoryStatusResponse(deviceId, colorInventories);
+    }
+
+    private String calculateEstimatedDelivery(boolean inStock) {
+        if (inStock) {
+            return LocalDate.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        } else {
+            return LocalDate.now().plusDays(7).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ahamo.device.service;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,15 +12,15 @@ import org.springframework.stereotype.Service;
 public class ReservationExpirationService {
     
     private final ReservationService reservationService;
+    private final ScheduledJobRunner jobRunner;
     
-    @Scheduled(fixedRate = 300000)
+    /**
+     * Safety net for reservations the expiry wheel missed, e.g. ones created before it
+     * existed or whose deadline could not be written to Redis.
+     */
+    @Scheduled(fixedRateString = "${reservation.expiry.sweep-interval:3600000}")
     public void processExpiredReservations() {
         log.info("Starting expired reservations cleanup");
-        try {
-            reservationService.processExpiredReservations();
-            log.info("Expired reservations cleanup completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to process expired reservations", e);
-        }
+        jobRunner.runOnLeader("reservation.expiry.sweep", reservationService::processExpiredReservations);
     }
 }
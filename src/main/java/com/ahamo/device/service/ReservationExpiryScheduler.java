@@ -0,0 +1,361 @@
+package com.ahamo.device.service;
+
+import com.ahamo.common.timer.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Fires reservation expiry close to each deadline. Deadlines live in the Redis sorted
+ * set {@code reservation:expiry} (score = epoch millis), so they survive restarts and
+ * are shared by all nodes; every node pulls the ones due within the load horizon into
+ * a local {@link HierarchicalTimingWheel}. When a deadline fires, the node that wins
+ * the {@code ZREM} expires the reservation; the others drop it.
+ * <p>
+ * A batch that fails is retried one reservation at a time. A reservation that still
+ * fails goes back into the set with exponential backoff, counting attempts in
+ * {@code reservation:expiry:attempts}; after {@code max-attempts} it is left to the
+ * periodic sweep. Claimed reservations that were not due are put back at their current
+ * deadline, and those no longer reserved are dropped and counted.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryScheduler {
+
+    static final String EXPIRY_KEY = "reservation:expiry";
+    static final String ATTEMPTS_KEY = "reservation:expiry:attempts";
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReservationExpirySweeper expirySweeper;
+    private final long tickMillis;
+    private final long horizonMillis;
+    private final long loadIntervalMillis;
+    private final long overdueGraceMillis;
+    private final int batchSize;
+    private final long retryBackoffMillis;
+    private final int maxAttempts;
+
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> ready = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService ticker;
+    private volatile long loadedUntil = Long.MIN_VALUE;
+
+    private final Counter firedCounter;
+    private final Counter claimedCounter;
+    private final Counter expiredCounter;
+    private final Counter failedCounter;
+    private final Counter retriedCounter;
+    private final Counter abandonedCounter;
+    private final Counter skippedCounter;
+
+    public ReservationExpiryScheduler(StringRedisTemplate redisTemplate,
+                                      ReservationExpirySweeper expirySweeper,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${reservation.expiry.wheel.tick-millis:1000}") long tickMillis,
+                                      @Value("${reservation.expiry.wheel.size:60}") int wheelSize,
+                                      @Value("${reservation.expiry.wheel.horizon:600000}") long horizonMillis,
+                                      @Value("${reservation.expiry.wheel.load-interval:60000}") long loadIntervalMillis,
+                                      @Value("${reservation.expiry.wheel.overdue-grace:30000}") long overdueGraceMillis,
+                                      @Value("${reservation.expiry.chunk-size:200}") int batchSize,
+                                      @Value("${reservation.expiry.wheel.retry-backoff:5000}") long retryBackoffMillis,
+                                      @Value("${reservation.expiry.wheel.max-attempts:5}") int maxAttempts) {
+        this.redisTemplate = redisTemplate;
+        this.expirySweeper = expirySweeper;
+        this.tickMillis = tickMillis;
+        this.horizonMillis = horizonMillis;
+        this.loadIntervalMillis = loadIntervalMillis;
+        this.overdueGraceMillis = overdueGraceMillis;
+        this.batchSize = batchSize;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.firedCounter = meterRegistry.counter("reservation.expiry.wheel.fired");
+        this.claimedCounter = meterRegistry.counter("reservation.expiry.wheel.claimed");
+        this.expiredCounter = meterRegistry.counter("reservation.expiry.wheel.expired");
+        this.failedCounter = meterRegistry.counter("reservation.expiry.wheel.failed");
+        this.retriedCounter = meterRegistry.counter("reservation.expiry.wheel.retried");
+        this.abandonedCounter = meterRegistry.counter("reservation.expiry.wheel.abandoned");
+        this.skippedCounter = meterRegistry.counter("reservation.expiry.wheel.skipped");
+        meterRegistry.gauge("reservation.expiry.wheel.pending", pending, Set::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleWithFixedDelay(this::safeLoad, 0, loadIntervalMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::safeTick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    /**
+     * Registers the deadline once the surrounding transaction commits, or immediately
+     * when called outside a transaction.
+     */
+    public void schedule(Long reservationId, LocalDateTime expiresAt) {
+        long deadline = toEpochMillis(expiresAt);
+        afterCommit(() -> reschedule(reservationId, deadline));
+    }
+
+    /**
+     * Drops the deadline once the surrounding transaction commits. A copy already in a
+     * wheel is discarded when it fires because its {@code ZREM} no longer matches.
+     */
+    public void unschedule(Long reservationId) {
+        afterCommit(() -> redisTemplate.opsForZSet().remove(EXPIRY_KEY, reservationId.toString()));
+    }
+
+    void load() {
+        long now = System.currentTimeMillis();
+        long from = loadedUntil;
+        long until = now + horizonMillis;
+        // Published before reading so a concurrent schedule() either lands in this range
+        // or sees the new bound and tracks its reservation itself.
+        loadedUntil = until;
+
+        int loaded = 0;
+        if (from == Long.MIN_VALUE) {
+            loaded += trackRange(Double.NEGATIVE_INFINITY, until);
+        } else {
+            // Picks up deadlines whose owner failed before expiring them.
+            loaded += trackRange(Double.NEGATIVE_INFINITY, now - overdueGraceMillis);
+            loaded += trackRange(from, until);
+        }
+        if (loaded > 0) {
+            log.debug("Loaded {} reservation deadlines into the expiry wheel", loaded);
+        }
+    }
+
+    void tick() {
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        for (Long id = ready.poll(); id != null; id = ready.poll()) {
+            due.add(id);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        due.forEach(pending::remove);
+        firedCounter.increment(due.size());
+
+        List<Long> claimed = claim(due);
+        claimedCounter.increment(claimed.size());
+        for (int from = 0; from < claimed.size(); from += batchSize) {
+            expireBatch(claimed.subList(from, Math.min(from + batchSize, claimed.size())));
+        }
+    }
+
+    private void expireBatch(List<Long> batch) {
+        List<Long> expired;
+        try {
+            expired = expirySweeper.expire(batch);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Failed to expire a batch of {} reservations, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(this::expireSingle);
+            return;
+        }
+        settle(batch, expired);
+    }
+
+    private void expireSingle(Long reservationId) {
+        List<Long> single = List.of(reservationId);
+        List<Long> expired;
+        try {
+            expired = expirySweeper.expire(single);
+        } catch (RuntimeException e) {
+            retryLater(reservationId, e);
+            return;
+        }
+        settle(single, expired);
+    }
+
+    private void settle(List<Long> batch, List<Long> expired) {
+        expiredCounter.increment(expired.size());
+        if (!expired.isEmpty()) {
+            log.info("Expired {} reservations at their deadline", expired.size());
+        }
+        try {
+            redisTemplate.opsForHash().delete(ATTEMPTS_KEY, batch.stream().map(String::valueOf).toArray());
+            if (expired.size() == batch.size()) {
+                return;
+            }
+
+            Set<Long> expiredIds = new HashSet<>(expired);
+            List<Long> skipped = batch.stream()
+                    .filter(id -> !expiredIds.contains(id))
+                    .collect(Collectors.toList());
+            Map<Long, LocalDateTime> reserved = expirySweeper.findReservedDeadlines(skipped);
+            long earliest = System.currentTimeMillis() + retryBackoffMillis;
+            reserved.forEach((id, expiresAt) -> reschedule(id, Math.max(toEpochMillis(expiresAt), earliest)));
+
+            List<Long> dropped = skipped.stream()
+                    .filter(id -> !reserved.containsKey(id))
+                    .collect(Collectors.toList());
+            if (!dropped.isEmpty()) {
+                skippedCounter.increment(dropped.size());
+                log.info("Dropped deadlines of reservations no longer reserved: {}", dropped);
+            }
+            if (!reserved.isEmpty()) {
+                log.info("Put back deadlines of reservations not yet due: {}", reserved.keySet());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to settle expired reservations {}; the periodic sweep will cover them", batch, e);
+        }
+    }
+
+    private void retryLater(Long reservationId, RuntimeException cause) {
+        try {
+            Long attempts = redisTemplate.opsForHash().increment(ATTEMPTS_KEY, reservationId.toString(), 1);
+            long attempt = attempts != null ? attempts : 1;
+            if (attempt >= maxAttempts) {
+                redisTemplate.opsForHash().delete(ATTEMPTS_KEY, reservationId.toString());
+                abandonedCounter.increment();
+                log.error("Giving up on expiring reservation {} after {} attempts; the periodic sweep will retry it: {}",
+                        reservationId, attempt, cause.getMessage());
+                return;
+            }
+
+            long delay = retryBackoffMillis << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+            reschedule(reservationId, System.currentTimeMillis() + delay);
+            retriedCounter.increment();
+            log.warn("Failed to expire reservation {} (attempt {}), retrying in {}ms: {}",
+                    reservationId, attempt, delay, cause.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to requeue reservation {}; the periodic sweep will expire it", reservationId, e);
+        }
+    }
+
+    private void reschedule(Long reservationId, long deadline) {
+        redisTemplate.opsForZSet().add(EXPIRY_KEY, reservationId.toString(), deadline);
+        if (deadline <= loadedUntil) {
+            track(reservationId, deadline);
+        }
+    }
+
+    private int trackRange(double min, double max) {
+        int loaded = 0;
+        while (true) {
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(EXPIRY_KEY, min, max, loaded, batchSize);
+            if (entries == null || entries.isEmpty()) {
+                return loaded;
+            }
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                track(Long.valueOf(entry.getValue()), entry.getScore().longValue());
+            }
+            loaded += entries.size();
+            if (entries.size() < batchSize) {
+                return loaded;
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    log.error("Failed to update reservation expiry schedule; the periodic sweep will cover it", e);
+                }
+            }
+        });
+    }
+
+    private void track(Long reservationId, long deadline) {
+        if (!pending.add(reservationId)) {
+            return;
+        }
+        boolean stored;
+        synchronized (wheel) {
+            stored = wheel.add(reservationId, deadline);
+        }
+        if (!stored) {
+            ready.add(reservationId);
+        }
+    }
+
+    private List<Long> claim(List<Long> reservationIds) {
+        byte[] key = EXPIRY_KEY.getBytes(StandardCharsets.UTF_8);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long id : reservationIds) {
+                connection.zSetCommands().zRem(key, id.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+
+        List<Long> claimed = new ArrayList<>();
+        for (int i = 0; i < reservationIds.size(); i++) {
+            Object removed = results.get(i);
+            if (removed instanceof Number && ((Number) removed).longValue() > 0) {
+                claimed.add(reservationIds.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private void safeLoad() {
+        try {
+            load();
+        } catch (Exception e) {
+            log.error("Failed to load reservation deadlines", e);
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            log.error("Failed to process reservation expiry tick", e);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,234 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.model.Reservation;
+import com.ahamo.device.repository.ReservationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Expires overdue reservations in fixed-size chunks on a pool of workers. Each chunk
+ * is claimed with {@code SELECT ... FOR UPDATE SKIP LOCKED}, so workers on this and
+ * other nodes never pick the same rows, and is committed on its own with a single
+ * stock release per inventory row.
+ * <p>
+ * When a chunk fails, its rows are retried one transaction each. A row that fails on its
+ * own is set aside for {@code quarantine-ttl} and left out of later claims on this node,
+ * so it cannot hold back the rows queued behind it.
+ */
+@Component
+@Slf4j
+public class ReservationExpirySweeper {
+
+    private final ReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final int chunkSize;
+
+    private final Cache<Long, Boolean> quarantined;
+
+    private final Counter expiredCounter;
+    private final Counter chunkCounter;
+    private final Counter failedChunkCounter;
+    private final Counter failedRowCounter;
+    private final Timer sweepTimer;
+    private final AtomicInteger lastSweepExpired = new AtomicInteger();
+
+    public ReservationExpirySweeper(ReservationRepository reservationRepository,
+                                    InventoryService inventoryService,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${reservation.expiry.workers:4}") int workerCount,
+                                    @Value("${reservation.expiry.chunk-size:200}") int chunkSize,
+                                    @Value("${reservation.expiry.quarantine-ttl:600000}") long quarantineTtlMillis) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.workerCount = workerCount;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.quarantined = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(quarantineTtlMillis, TimeUnit.MILLISECONDS)
+                .build();
+
+        this.expiredCounter = meterRegistry.counter("reservation.expiry.expired");
+        this.chunkCounter = meterRegistry.counter("reservation.expiry.chunks");
+        this.failedChunkCounter = meterRegistry.counter("reservation.expiry.chunks.failed");
+        this.failedRowCounter = meterRegistry.counter("reservation.expiry.rows.failed");
+        this.sweepTimer = meterRegistry.timer("reservation.expiry.sweep");
+        meterRegistry.gauge("reservation.expiry.last.expired", lastSweepExpired);
+        meterRegistry.gauge("reservation.expiry.quarantined", quarantined, Cache::estimatedSize);
+    }
+
+    public int sweep() {
+        return sweepTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                results.add(workers.submit(() -> drain(now)));
+            }
+
+            int expired = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    expired += result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while waiting for reservation expiry workers");
+                    break;
+                } catch (ExecutionException e) {
+                    log.error("Reservation expiry worker failed", e.getCause());
+                }
+            }
+
+            lastSweepExpired.set(expired);
+            log.info("Processed {} expired reservations", expired);
+            return expired;
+        });
+    }
+
+    /**
+     * Expires the given reservations in one transaction, skipping any that are no longer
+     * reserved or not yet due, and returns the ids it expired.
+     */
+    public List<Long> expire(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expired = transactionTemplate.execute(status -> {
+            List<Reservation> claimed = reservationRepository.lockExpiredReservations(reservationIds, now);
+            expireClaimed(claimed);
+            return claimed.stream().map(Reservation::getId).collect(Collectors.toList());
+        });
+        return expired != null ? expired : List.of();
+    }
+
+    /** Current deadlines of those reservations that are still reserved. */
+    public Map<Long, LocalDateTime> findReservedDeadlines(Collection<Long> reservationIds) {
+        if (reservationIds.isEmpty()) {
+            return Map.of();
+        }
+        return reservationRepository.findAllById(reservationIds).stream()
+                .filter(reservation -> reservation.getStatus() == Reservation.ReservationStatus.RESERVED)
+                .collect(Collectors.toMap(Reservation::getId, Reservation::getExpiresAt));
+    }
+
+    private int drain(LocalDateTime now) {
+        int expired = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> claimedIds = new ArrayList<>(chunkSize);
+            int processed;
+            try {
+                Integer result = transactionTemplate.execute(status -> expireChunk(now, claimedIds));
+                processed = result != null ? result : 0;
+            } catch (RuntimeException e) {
+                failedChunkCounter.increment();
+                log.warn("Failed to process expired reservation chunk of {}, retrying row by row: {}",
+                        claimedIds.size(), e.getMessage());
+                if (claimedIds.isEmpty()) {
+                    break;
+                }
+                int recovered = expireIndividually(claimedIds, now);
+                if (recovered == 0) {
+                    break;
+                }
+                expired += recovered;
+                continue;
+            }
+
+            expired += processed;
+            if (processed < chunkSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    private int expireChunk(LocalDateTime now, List<Long> claimedIds) {
+        List<Reservation> claimed = reservationRepository.claimExpiredReservations(
+                now, excludedIds(), PageRequest.of(0, chunkSize));
+        claimed.forEach(reservation -> claimedIds.add(reservation.getId()));
+        return expireClaimed(claimed);
+    }
+
+    private int expireIndividually(List<Long> reservationIds, LocalDateTime now) {
+        int expired = 0;
+        for (Long reservationId : reservationIds) {
+            try {
+                Integer result = transactionTemplate.execute(status ->
+                        expireClaimed(reservationRepository.lockExpiredReservations(List.of(reservationId), now)));
+                expired += result != null ? result : 0;
+            } catch (RuntimeException e) {
+                quarantined.put(reservationId, Boolean.TRUE);
+                failedRowCounter.increment();
+                log.error("Failed to expire reservation {}, skipping it for now: {}", reservationId, e.getMessage());
+            }
+        }
+        return expired;
+    }
+
+    /** Quarantined ids, or a placeholder no reservation has, since an empty NOT IN list is not portable. */
+    private Collection<Long> excludedIds() {
+        Collection<Long> ids = List.copyOf(quarantined.asMap().keySet());
+        return ids.isEmpty() ? List.of(-1L) : ids;
+    }
+
+    private int expireClaimed(List<Reservation> claimed) {
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> quantitiesByInventory = claimed.stream()
+                .collect(Collectors.groupingBy(Reservation::getInventoryId,
+                        Collectors.summingInt(Reservation::getQuantity)));
+
+        int updated = reservationRepository.expireReserved(
+                claimed.stream().map(Reservation::getId).collect(Collectors.toList()),
+                Reservation.ReservationStatus.EXPIRED);
+        if (updated != claimed.size()) {
+            throw new IllegalStateException("Expired reservations were modified concurrently; chunk rolled back");
+        }
+
+        quantitiesByInventory.forEach(inventoryService::releaseReservedStock);
+
+        chunkCounter.increment();
+        expiredCounter.increment(claimed.size());
+        log.debug("Expired {} reservations across {} inventory rows", claimed.size(), quantitiesByInventory.size());
+        return claimed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -16,7 +16,7 @@ public interface ReservationService {
     
     List<ReservationResponse> getCustomerReservations(Long customerId);
     
-    void processExpiredReservations();
+    int processExpiredReservations();
     
     ReservationResponse getReservation(Long reservationId);
 }
@@ -22,6 +22,8 @@ public class ReservationServiceImpl implements ReservationService {
     
     private final ReservationRepository reservationRepository;
     private final InventoryService inventoryService;
+    private final ReservationExpirySweeper expirySweeper;
+    private final ReservationExpiryScheduler expiryScheduler;
     
     @Override
     @Transactional
@@ -32,14 +34,6 @@ public class ReservationServiceImpl implements ReservationService {
                 request.getStorage()
         );
         
-        if (!inventoryService.checkAvailability(
-                request.getDeviceId(), 
-                request.getColor(), 
-                request.getStorage(), 
-                request.getQuantity())) {
-            throw new RuntimeException(ErrorCode.INVENTORY_NOT_AVAILABLE.getDefaultMessage());
-        }
-        
         inventoryService.reserveStock(inventory.getId(), request.getQuantity());
         
         Reservation reservation = new Reservation();
@@ -50,6 +44,7 @@ public class ReservationServiceImpl implements ReservationService {
         reservation.setExpiresAt(LocalDateTime.now().plusWeeks(1));
         
         Reservation savedReservation = reservationRepository.save(reservation);
+        expiryScheduler.schedule(savedReservation.getId(), savedReservation.getExpiresAt());
         
         log.info("Created reservation {} for customer {} - Device: {}:{}:{}, Quantity: {}", 
                 savedReservation.getId(), request.getCustomerId(), 
@@ -76,6 +71,7 @@ public class ReservationServiceImpl implements ReservationService {
         
         reservation.setStatus(Reservation.ReservationStatus.ALLOCATED);
         Reservation savedReservation = reservationRepository.save(reservation);
+        expiryScheduler.unschedule(reservationId);
         
         log.info("Allocated reservation {} for customer {}", reservationId, reservation.getCustomerId());
         
@@ -96,6 +92,7 @@ public class ReservationServiceImpl implements ReservationService {
         
         reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
         reservationRepository.save(reservation);
+        expiryScheduler.unschedule(reservationId);
         
         log.info("Cancelled reservation {} for customer {}", reservationId, reservation.getCustomerId());
     }
@@ -110,24 +107,8 @@ public class ReservationServiceImpl implements ReservationService {
     }
     
     @Override
-    @Transactional
-    public void processExpiredReservations() {
-        List<Reservation> expiredReservations = reservationRepository.findExpiredReservations(LocalDateTime.now());
-        
-        for (Reservation reservation : expiredReservations) {
-            try {
-                inventoryService.releaseReservedStock(reservation.getInventoryId(), reservation.getQuantity());
-                reservation.setStatus(Reservation.ReservationStatus.EXPIRED);
-                reservationRepository.save(reservation);
-                
-                log.info("Processed expired reservation {} for customer {}", 
-                        reservation.getId(), reservation.getCustomerId());
-            } catch (Exception e) {
-                log.error("Failed to process expired reservation {}: {}", reservation.getId(), e.getMessage());
-            }
-        }
-        
-        log.info("Processed {} expired reservations", expiredReservations.size());
+    public int processExpiredReservations() {
+        return expirySweeper.sweep();
     }
     
     @Override
@@ -0,0 +1,38 @@
+package com.ahamo.mnp.config;
+
+import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.StubCarrierApiClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the carrier API clients with local stubs when {@code mnp.carriers.stub.enabled}
+ * is set, so porting throughput can be load-tested without carrier sandboxes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mnp.carriers.stub.enabled", havingValue = "true")
+public class MnpStubCarrierConfig {
+
+    @Value("${mnp.carriers.stub.latency:50}")
+    private long latencyMillis;
+
+    @Value("${mnp.carriers.stub.failure-rate:0.0}")
+    private double failureRate;
+
+    @Bean
+    public CarrierApiClient docomoStubClient() {
+        return new StubCarrierApiClient("DOCOMO", "11", latencyMillis, failureRate);
+    }
+
+    @Bean
+    public CarrierApiClient auStubClient() {
+        return new StubCarrierApiClient("AU", "21", latencyMillis, failureRate);
+    }
+
+    @Bean
+    public CarrierApiClient softbankStubClient() {
+        return new StubCarrierApiClient("SOFTBANK", "31", latencyMillis, failureRate);
+    }
+}
@@ -3,11 +3,13 @@ package com.ahamo.mnp.integration;
 import com.ahamo.mnp.dto.MnpEligibilityRequest;
 import com.ahamo.mnp.dto.MnpEligibilityResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 
 @Component
+@ConditionalOnProperty(name = "mnp.carriers.stub.enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class AuApiClient implements CarrierApiClient {
 
@@ -0,0 +1,39 @@
+package com.ahamo.mnp.integration;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Carrier API clients indexed by carrier code, built once at startup. Lookups are
+ * case-insensitive and never allocate.
+ */
+@Component
+public class CarrierClientRegistry {
+
+    private final Map<String, CarrierApiClient> clients;
+
+    public CarrierClientRegistry(List<CarrierApiClient> carrierClients) {
+        Map<String, CarrierApiClient> byCode = new HashMap<>();
+        for (CarrierApiClient client : carrierClients) {
+            CarrierApiClient previous = byCode.put(client.getCarrierCode().toUpperCase(), client);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate carrier client for " + client.getCarrierCode());
+            }
+        }
+        this.clients = Collections.unmodifiableMap(byCode);
+    }
+
+    public Optional<CarrierApiClient> find(String carrierCode) {
+        return carrierCode == null ? Optional.empty() : Optional.ofNullable(clients.get(carrierCode.toUpperCase()));
+    }
+
+    public Collection<CarrierApiClient> all() {
+        return clients.values();
+    }
+}
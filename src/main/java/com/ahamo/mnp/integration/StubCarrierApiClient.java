@@ -0,0 +1,82 @@
+package com.ahamo.mnp.integration;
+
+import com.ahamo.mnp.dto.MnpEligibilityRequest;
+import com.ahamo.mnp.dto.MnpEligibilityResponse;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local carrier stand-in for load tests: answers every call after a fixed latency and
+ * fails a configurable share of reservation requests. Reservation numbers carry the
+ * carrier prefix understood by {@code detectCarrierFromReservationNumber}.
+ */
+public class StubCarrierApiClient implements CarrierApiClient {
+
+    private final String carrierCode;
+    private final String reservationPrefix;
+    private final long latencyMillis;
+    private final double failureRate;
+
+    public StubCarrierApiClient(String carrierCode, String reservationPrefix, long latencyMillis, double failureRate) {
+        this.carrierCode = carrierCode;
+        this.reservationPrefix = reservationPrefix;
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String getCarrierCode() {
+        return carrierCode;
+    }
+
+    @Override
+    public MnpEligibilityResponse checkEligibility(MnpEligibilityRequest request) {
+        simulateLatency();
+        return MnpEligibilityResponse.builder()
+                .eligible(true)
+                .phoneNumber(request.getPhoneNumber())
+                .currentCarrier(request.getCurrentCarrier())
+                .estimatedPortingTime("1-2営業日")
+                .additionalRequirements(Arrays.asList("本人確認書類"))
+                .restrictions(Arrays.asList())
+                .build();
+    }
+
+    @Override
+    public String requestReservationNumber(String phoneNumber, String accountInfo) {
+        simulateLatency();
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new RuntimeException("Stub carrier " + carrierCode + " rejected reservation for " + phoneNumber);
+        }
+        return reservationPrefix + String.format("%08d", ThreadLocalRandom.current().nextInt(100_000_000));
+    }
+
+    @Override
+    public boolean confirmTransfer(String phoneNumber, String reservationNumber) {
+        simulateLatency();
+        return true;
+    }
+
+    @Override
+    public boolean cancelTransfer(String phoneNumber, String reservationNumber) {
+        return true;
+    }
+
+    @Override
+    public String getTransferStatus(String phoneNumber, String reservationNumber) {
+        return "IN_PROGRESS";
+    }
+
+    private void simulateLatency() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Stub carrier " + carrierCode + " call interrupted", e);
+        }
+    }
+}
@@ -28,6 +28,24 @@ public interface MnpRepository extends JpaRepository<MnpRequest, Long> {
         @Param("status") MnpRequest.MnpStatus status,
         @Param("before") LocalDateTime before);
 
+    @Query("SELECT m FROM MnpRequest m WHERE m.status = :status AND MOD(m.id, :count) = :index")
+    List<MnpRequest> findByStatusInPartition(
+        @Param("status") MnpRequest.MnpStatus status,
+        @Param("count") int count,
+        @Param("index") int index);
+
+    @Query("SELECT m FROM MnpRequest m WHERE m.status = :status AND m.updatedAt < :before")
+    List<MnpRequest> findByStatusAndUpdatedAtBefore(
+        @Param("status") MnpRequest.MnpStatus status,
+        @Param("before") LocalDateTime before);
+
+    @Query("SELECT m FROM MnpRequest m WHERE m.status = :status AND m.updatedAt < :before AND MOD(m.id, :count) = :index")
+    List<MnpRequest> findByStatusAndUpdatedAtBeforeInPartition(
+        @Param("status") MnpRequest.MnpStatus status,
+        @Param("before") LocalDateTime before,
+        @Param("count") int count,
+        @Param("index") int index);
+
     @Query("SELECT m FROM MnpRequest m WHERE m.phoneNumber = :phoneNumber AND m.status IN :statuses")
     List<MnpRequest> findActiveRequestsByPhoneNumber(
         @Param("phoneNumber") String phoneNumber,
@@ -0,0 +1,117 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.dto.MnpEligibilityResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived, size-bounded cache of eligibility answers keyed by phone number and
+ * carrier. Answers expire after the regular TTL. Answers for unsupported carriers are
+ * negative entries that cannot change until a redeploy, so they live for the longer
+ * negative TTL. Carrier errors are never cached.
+ * <p>
+ * Responses are mutable DTOs, so the cache stores its own copy and hands out a fresh copy
+ * on every hit; a caller editing its response cannot change what the next caller sees.
+ */
+@Component
+public class MnpEligibilityCache {
+
+    private final Cache<String, Entry> cache;
+
+    public MnpEligibilityCache(MeterRegistry meterRegistry,
+                               @Value("${mnp.eligibility-cache.max-size:50000}") long maxSize,
+                               @Value("${mnp.eligibility-cache.ttl:60000}") long ttlMillis,
+                               @Value("${mnp.eligibility-cache.negative-ttl:600000}") long negativeTtlMillis) {
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        long negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        return entry.negative ? negativeTtlNanos : ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "mnpEligibility");
+    }
+
+    public MnpEligibilityResponse get(String phoneNumber, String carrier) {
+        Entry entry = cache.getIfPresent(key(phoneNumber, carrier));
+        return entry != null ? copy(entry.response) : null;
+    }
+
+    public void put(String phoneNumber, String carrier, MnpEligibilityResponse response, boolean negative) {
+        cache.put(key(phoneNumber, carrier), new Entry(copy(response), negative));
+    }
+
+    /**
+     * Drops every cached answer for the number, e.g. once a porting request is filed. Inside
+     * a transaction the entries are dropped again after commit, so a check racing the commit
+     * cannot leave a stale answer behind.
+     */
+    public void invalidate(String phoneNumber) {
+        String prefix = phoneNumber + '|';
+        Runnable drop = () -> cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        drop.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    drop.run();
+                }
+            });
+        }
+    }
+
+    static MnpEligibilityResponse copy(MnpEligibilityResponse response) {
+        return MnpEligibilityResponse.builder()
+                .eligible(response.getEligible())
+                .phoneNumber(response.getPhoneNumber())
+                .currentCarrier(response.getCurrentCarrier())
+                .estimatedPortingTime(response.getEstimatedPortingTime())
+                .additionalRequirements(copyList(response.getAdditionalRequirements()))
+                .restrictions(copyList(response.getRestrictions()))
+                .build();
+    }
+
+    private static List<String> copyList(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
+    private static String key(String phoneNumber, String carrier) {
+        return phoneNumber + '|' + carrier.toUpperCase();
+    }
+
+    private static final class Entry {
+        private final MnpEligibilityResponse response;
+        private final boolean negative;
+
+        private Entry(MnpEligibilityResponse response, boolean negative) {
+            this.response = response;
+            this.negative = negative;
+        }
+    }
+}
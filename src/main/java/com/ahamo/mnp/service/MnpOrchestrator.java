@@ -0,0 +1,378 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.CarrierClientRegistry;
+import com.ahamo.mnp.model.MnpRequest;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Sends pending MNP requests to their carriers without waiting on each call in turn.
+ * Every carrier has its own lane: a dedicated pool capped at the carrier's concurrency
+ * limit plus a bounded number of queued calls, so a slow carrier only fills its own lane.
+ * Each call has a deadline that includes its time in the queue; on expiry the request
+ * fails and the carrier thread is interrupted. Requests that do not fit into a full lane
+ * stay PENDING for the next run. State changes go through
+ * {@link MnpStateManager#applyTransitions} in batches; outcomes go through
+ * {@link MnpStateManager#applyTransitionsIsolated}, so one bad row does not strand the
+ * others IN_PROGRESS. An outcome that still cannot be written leaves its request
+ * IN_PROGRESS until the stale-request recovery resumes it.
+ */
+@Component
+@Slf4j
+public class MnpOrchestrator {
+
+    private static final String SYSTEM = "SYSTEM";
+
+    private final MnpStateManager stateManager;
+    private final Map<String, CarrierLane> lanes;
+    private final ExecutorService completions;
+    private final Queue<PendingOutcome> pendingOutcomes = new ConcurrentLinkedQueue<>();
+    private final int outcomeBatchSize;
+    private final Counter resumedCounter;
+    private final Counter outcomesLostCounter;
+
+    public MnpOrchestrator(CarrierClientRegistry carrierClientRegistry,
+                           MnpStateManager stateManager,
+                           MeterRegistry meterRegistry,
+                           Environment environment,
+                           @Value("${mnp.orchestration.max-concurrency:16}") int defaultConcurrency,
+                           @Value("${mnp.orchestration.queue-capacity:1000}") int defaultQueueCapacity,
+                           @Value("${mnp.orchestration.call-timeout:30000}") long defaultTimeoutMillis,
+                           @Value("${mnp.orchestration.completion-workers:4}") int completionWorkers,
+                           @Value("${mnp.processing.batch-size:50}") int outcomeBatchSize) {
+        this.stateManager = stateManager;
+        this.outcomeBatchSize = outcomeBatchSize;
+        this.resumedCounter = meterRegistry.counter("mnp.orchestration.resumed");
+        this.outcomesLostCounter = meterRegistry.counter("mnp.orchestration.outcomes.lost");
+
+        Map<String, CarrierLane> carrierLanes = new HashMap<>();
+        for (CarrierApiClient client : carrierClientRegistry.all()) {
+            String prefix = "mnp.carriers." + client.getCarrierCode().toLowerCase() + ".";
+            // Per-carrier timeouts are configured in seconds alongside the carrier endpoint.
+            Long timeoutSeconds = environment.getProperty(prefix + "timeout", Long.class);
+            carrierLanes.put(client.getCarrierCode().toUpperCase(), new CarrierLane(client, meterRegistry,
+                    environment.getProperty(prefix + "max-concurrency", Integer.class, defaultConcurrency),
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity),
+                    timeoutSeconds != null ? TimeUnit.SECONDS.toMillis(timeoutSeconds) : defaultTimeoutMillis));
+        }
+        this.lanes = Collections.unmodifiableMap(carrierLanes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.completions = Executors.newFixedThreadPool(completionWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "mnp-completion-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Moves the requests that fit into their carriers' lanes to IN_PROGRESS in one batch
+     * and starts their reservation calls. The returned future completes once every started
+     * request has been recorded as COMPLETED or FAILED.
+     */
+    public CompletableFuture<Void> dispatch(List<MnpRequest> requests) {
+        List<Transition> unsupported = new ArrayList<>();
+        List<Transition> admitted = new ArrayList<>();
+        Map<Long, MnpRequest> admittedRequests = new HashMap<>();
+        for (MnpRequest request : requests) {
+            CarrierLane lane = laneFor(request);
+            if (lane == null) {
+                unsupported.add(failure(request, "サポートされていないキャリアです",
+                        "Unsupported carrier: " + request.getCurrentCarrier()));
+            } else if (lane.permits.tryAcquire()) {
+                admitted.add(Transition.builder()
+                        .mnpRequestId(request.getId())
+                        .from(MnpRequest.MnpStatus.PENDING)
+                        .to(MnpRequest.MnpStatus.IN_PROGRESS)
+                        .reason("処理を開始しました")
+                        .build());
+                admittedRequests.put(request.getId(), request);
+            } else {
+                lane.rejected.increment();
+                log.debug("Carrier lane {} is full; MNP request {} stays pending", lane.carrierCode, request.getMnpId());
+            }
+        }
+
+        List<Transition> started;
+        try {
+            stateManager.applyTransitions(unsupported, SYSTEM);
+            started = stateManager.applyTransitions(admitted, SYSTEM);
+        } catch (RuntimeException e) {
+            admittedRequests.values().forEach(request -> laneFor(request).permits.release());
+            throw e;
+        }
+
+        List<CompletableFuture<Void>> recorded = new ArrayList<>(started.size());
+        for (Transition transition : started) {
+            recorded.add(call(admittedRequests.remove(transition.getMnpRequestId())));
+        }
+        // Requests another worker moved first never reach their carrier.
+        admittedRequests.values().forEach(request -> laneFor(request).permits.release());
+        return CompletableFuture.allOf(recorded.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Calls the carrier again for requests left IN_PROGRESS, e.g. by a node that stopped
+     * before their outcome was written. Outcomes are recorded against IN_PROGRESS, so a
+     * request whose outcome lands in the meantime keeps it. Requests that do not fit into
+     * a full lane wait for the next run.
+     */
+    public CompletableFuture<Void> resume(List<MnpRequest> requests) {
+        List<CompletableFuture<Void>> recorded = new ArrayList<>(requests.size());
+        for (MnpRequest request : requests) {
+            CarrierLane lane = laneFor(request);
+            if (lane == null) {
+                recorded.add(record(inProgressFailure(request, "サポートされていないキャリアです",
+                        "Unsupported carrier: " + request.getCurrentCarrier())));
+            } else if (lane.permits.tryAcquire()) {
+                resumedCounter.increment();
+                log.warn("Resuming MNP request {} left in progress", request.getMnpId());
+                recorded.add(call(request));
+            } else {
+                lane.rejected.increment();
+            }
+        }
+        return CompletableFuture.allOf(recorded.toArray(new CompletableFuture[0]));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(CarrierLane::shutdown);
+        completions.shutdownNow();
+    }
+
+    private CarrierLane laneFor(MnpRequest request) {
+        return request.getCurrentCarrier() != null ? lanes.get(request.getCurrentCarrier().toUpperCase()) : null;
+    }
+
+    private CompletableFuture<Void> call(MnpRequest request) {
+        CarrierLane lane = laneFor(request);
+        String accountInfo = request.getAccountName() + ":" + request.getAccountNumber();
+        return lane.call(() -> lane.client.requestReservationNumber(request.getPhoneNumber(), accountInfo))
+                .handle((reservationNumber, error) -> record(outcome(request, lane, reservationNumber, error)))
+                .thenCompose(Function.identity());
+    }
+
+    private Transition outcome(MnpRequest request, CarrierLane lane, String reservationNumber, Throwable error) {
+        if (error == null) {
+            lane.completed.increment();
+            log.info("MNP request {} completed with reservation number: {}", request.getMnpId(), reservationNumber);
+            return Transition.builder()
+                    .mnpRequestId(request.getId())
+                    .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                    .to(MnpRequest.MnpStatus.COMPLETED)
+                    .reason("MNP予約番号を発行しました")
+                    .reservationNumber(reservationNumber)
+                    .completionDate(LocalDate.now())
+                    .build();
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            lane.timedOut.increment();
+            return inProgressFailure(request, "キャリアの応答がタイムアウトしました",
+                    "Carrier " + lane.carrierCode + " did not respond within " + lane.timeoutMillis + "ms");
+        }
+        lane.failed.increment();
+        return inProgressFailure(request, "キャリアとの通信でエラーが発生しました", cause.getMessage());
+    }
+
+    /**
+     * Queues an outcome for the next group write. Whichever completion worker runs first
+     * writes everything queued so far, so outcomes that finish together share one batch.
+     */
+    private CompletableFuture<Void> record(Transition transition) {
+        PendingOutcome outcome = new PendingOutcome(transition);
+        pendingOutcomes.add(outcome);
+        completions.execute(this::flushOutcomes);
+        return outcome.recorded;
+    }
+
+    private void flushOutcomes() {
+        List<PendingOutcome> batch = new ArrayList<>();
+        PendingOutcome next;
+        while (batch.size() < outcomeBatchSize && (next = pendingOutcomes.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Transition> transitions = new ArrayList<>(batch.size());
+        batch.forEach(outcome -> transitions.add(outcome.transition));
+        try {
+            stateManager.applyTransitionsIsolated(transitions, SYSTEM, transition -> outcomesLostCounter.increment());
+        } finally {
+            batch.forEach(outcome -> outcome.recorded.complete(null));
+        }
+    }
+
+    private static Transition failure(MnpRequest request, String reason, String errorMessage) {
+        return Transition.builder()
+                .mnpRequestId(request.getId())
+                .from(MnpRequest.MnpStatus.PENDING)
+                .to(MnpRequest.MnpStatus.FAILED)
+                .reason(reason)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private static Transition inProgressFailure(MnpRequest request, String reason, String errorMessage) {
+        return Transition.builder()
+                .mnpRequestId(request.getId())
+                .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                .to(MnpRequest.MnpStatus.FAILED)
+                .reason(reason)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private static final class PendingOutcome {
+        private final Transition transition;
+        private final CompletableFuture<Void> recorded = new CompletableFuture<>();
+
+        private PendingOutcome(Transition transition) {
+            this.transition = transition;
+        }
+    }
+
+    private static final class CarrierLane {
+        private final String carrierCode;
+        private final CarrierApiClient client;
+        private final ThreadPoolExecutor executor;
+        private final Semaphore permits;
+        private final long timeoutMillis;
+        private final Timer callTimer;
+        private final Counter completed;
+        private final Counter failed;
+        private final Counter timedOut;
+        private final Counter rejected;
+
+        private CarrierLane(CarrierApiClient client, MeterRegistry meterRegistry,
+                            int concurrency, int queueCapacity, long timeoutMillis) {
+            this.carrierCode = client.getCarrierCode();
+            this.client = client;
+            this.timeoutMillis = timeoutMillis;
+            this.permits = new Semaphore(concurrency + queueCapacity);
+
+            AtomicInteger threadNumber = new AtomicInteger();
+            String threadPrefix = "mnp-" + carrierCode.toLowerCase() + "-";
+            this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, threadPrefix + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            Tags tags = Tags.of("carrier", carrierCode);
+            this.callTimer = meterRegistry.timer("mnp.carrier.call", tags);
+            this.completed = meterRegistry.counter("mnp.orchestration.requests", tags.and("outcome", "completed"));
+            this.failed = meterRegistry.counter("mnp.orchestration.requests", tags.and("outcome", "failed"));
+            this.timedOut = meterRegistry.counter("mnp.orchestration.requests", tags.and("outcome", "timeout"));
+            this.rejected = meterRegistry.counter("mnp.orchestration.requests", tags.and("outcome", "deferred"));
+            int capacity = concurrency + queueCapacity;
+            meterRegistry.gauge("mnp.orchestration.in.flight", tags, permits, p -> capacity - p.availablePermits());
+        }
+
+        /** Runs the call on this lane; the caller must already hold a permit, which is released when the call ends. */
+        private <T> CompletableFuture<T> call(Supplier<T> supplier) {
+            CarrierCall<T> call = new CarrierCall<>(supplier);
+            try {
+                executor.execute(call);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            call.result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((value, error) -> {
+                        if (error instanceof TimeoutException) {
+                            call.interrupt();
+                        }
+                    });
+            return call.result;
+        }
+
+        private void shutdown() {
+            executor.shutdownNow();
+        }
+
+        private final class CarrierCall<T> implements Runnable {
+            private final Supplier<T> supplier;
+            private final CompletableFuture<T> result = new CompletableFuture<>();
+            private Thread runner;
+
+            private CarrierCall(Supplier<T> supplier) {
+                this.supplier = supplier;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    if (start()) {
+                        result.complete(callTimer.record(supplier));
+                    }
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    finish();
+                    permits.release();
+                }
+            }
+
+            /** Skips calls whose deadline passed while they were queued. */
+            private synchronized boolean start() {
+                if (result.isDone()) {
+                    return false;
+                }
+                runner = Thread.currentThread();
+                return true;
+            }
+
+            /**
+             * Clears the runner under the same lock {@link #interrupt} takes, so a late
+             * timeout can never interrupt the next call on this thread.
+             */
+            private void finish() {
+                synchronized (this) {
+                    runner = null;
+                }
+                Thread.interrupted();
+            }
+
+            private synchronized void interrupt() {
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+        }
+    }
+}
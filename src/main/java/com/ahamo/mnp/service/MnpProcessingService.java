@@ -1,5 +1,6 @@
 package com.ahamo.mnp.service;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,27 +14,19 @@ public class MnpProcessingService {
     private final MnpService mnpService;
     private final TransferInService transferInService;
     private final TransferOutService transferOutService;
+    private final ScheduledJobRunner jobRunner;
     
-    @Scheduled(fixedRate = 300000)
+    /** Pending requests are sharded across nodes by request id. */
+    @Scheduled(fixedDelayString = "${mnp.processing.interval:300000}")
     public void processPendingMnpRequests() {
         log.info("Starting scheduled MNP request processing");
-        try {
-            mnpService.processPendingRequests();
-            log.info("MNP request processing completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to process pending MNP requests", e);
-        }
+        jobRunner.runSharded("mnp.pending", mnpService::processPendingRequests);
     }
     
     @Scheduled(fixedRate = 600000)
     public void processTransferRequests() {
         log.info("Starting scheduled transfer request processing");
-        try {
-            transferInService.processInProgressTransfers();
-            transferOutService.processOutgoingTransfers();
-            log.info("Transfer request processing completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to process transfer requests", e);
-        }
+        jobRunner.runOnLeader("mnp.transfers", () ->
+                transferInService.processInProgressTransfers() + transferOutService.processOutgoingTransfers());
     }
 }
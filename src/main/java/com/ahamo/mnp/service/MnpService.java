@@ -1,5 +1,6 @@
 package com.ahamo.mnp.service;
 
+import com.ahamo.common.job.JobPartition;
 import com.ahamo.mnp.dto.*;
 
 public interface MnpService {
@@ -10,7 +11,7 @@ public interface MnpService {
     
     MnpResponse getMnpStatus(String mnpId);
     
-    void processPendingRequests();
+    int processPendingRequests(JobPartition partition);
     
     ReservationValidationResponse validateReservationNumber(ReservationValidationRequest request);
     
@@ -1,18 +1,21 @@
 package com.ahamo.mnp.service;
 
+import com.ahamo.common.job.JobPartition;
 import com.ahamo.mnp.dto.*;
 import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.CarrierClientRegistry;
 import com.ahamo.mnp.model.MnpRequest;
 import com.ahamo.mnp.repository.MnpRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,23 +25,28 @@ public class MnpServiceImpl implements MnpService {
 
     private final MnpRepository mnpRepository;
     private final MnpStateManager stateManager;
-    private final List<CarrierApiClient> carrierClients;
+    private final CarrierClientRegistry carrierClientRegistry;
+    private final MnpEligibilityCache eligibilityCache;
+    private final MnpOrchestrator mnpOrchestrator;
 
-    private Map<String, CarrierApiClient> getCarrierClientMap() {
-        return carrierClients.stream()
-                .collect(Collectors.toMap(CarrierApiClient::getCarrierCode, Function.identity()));
-    }
+    @Value("${mnp.processing.stale-after:1800000}")
+    private long staleAfterMillis;
 
     @Override
     public MnpEligibilityResponse checkEligibility(MnpEligibilityRequest request) {
         log.info("Checking MNP eligibility for phone: {} with carrier: {}", 
                 request.getPhoneNumber(), request.getCurrentCarrier());
 
+        MnpEligibilityResponse cached = eligibilityCache.get(request.getPhoneNumber(), request.getCurrentCarrier());
+        if (cached != null) {
+            return cached;
+        }
+
         List<MnpRequest.MnpStatus> activeStatuses = Arrays.asList(
                 MnpRequest.MnpStatus.PENDING, MnpRequest.MnpStatus.IN_PROGRESS);
         
         if (mnpRepository.existsByPhoneNumberAndStatusIn(request.getPhoneNumber(), activeStatuses)) {
-            return MnpEligibilityResponse.builder()
+            MnpEligibilityResponse response = MnpEligibilityResponse.builder()
                     .eligible(false)
                     .phoneNumber(request.getPhoneNumber())
                     .currentCarrier(request.getCurrentCarrier())
@@ -46,11 +54,13 @@ public class MnpServiceImpl implements MnpService {
                     .additionalRequirements(Arrays.asList())
                     .restrictions(Arrays.asList("既存のMNP申請が進行中です"))
                     .build();
+            eligibilityCache.put(request.getPhoneNumber(), request.getCurrentCarrier(), response, false);
+            return response;
         }
 
-        CarrierApiClient carrierClient = getCarrierClientMap().get(request.getCurrentCarrier().toUpperCase());
+        CarrierApiClient carrierClient = carrierClientRegistry.find(request.getCurrentCarrier()).orElse(null);
         if (carrierClient == null) {
-            return MnpEligibilityResponse.builder()
+            MnpEligibilityResponse response = MnpEligibilityResponse.builder()
                     .eligible(false)
                     .phoneNumber(request.getPhoneNumber())
                     .currentCarrier(request.getCurrentCarrier())
@@ -58,10 +68,14 @@ public class MnpServiceImpl implements MnpService {
                     .additionalRequirements(Arrays.asList())
                     .restrictions(Arrays.asList("サポートされていないキャリアです"))
                     .build();
+            eligibilityCache.put(request.getPhoneNumber(), request.getCurrentCarrier(), response, true);
+            return response;
         }
 
         try {
-            return carrierClient.checkEligibility(request);
+            MnpEligibilityResponse response = carrierClient.checkEligibility(request);
+            eligibilityCache.put(request.getPhoneNumber(), request.getCurrentCarrier(), response, false);
+            return response;
         } catch (Exception e) {
             log.error("Failed to check eligibility with carrier: {}", request.getCurrentCarrier(), e);
             return MnpEligibilityResponse.builder()
@@ -106,6 +120,7 @@ public class MnpServiceImpl implements MnpService {
                 .build();
 
         mnpRepository.save(mnpRequestEntity);
+        eligibilityCache.invalidate(request.getPhoneNumber());
 
         stateManager.transitionState(mnpRequestEntity.getId(), MnpRequest.MnpStatus.PENDING, 
                 "MNP申請を受付しました", "SYSTEM");
@@ -134,53 +149,27 @@ public class MnpServiceImpl implements MnpService {
     }
 
     @Override
-    public void processPendingRequests() {
-        log.info("Processing pending MNP requests");
+    public int processPendingRequests(JobPartition partition) {
+        log.info("Processing pending MNP requests in partition {}", partition);
         
-        List<MnpRequest> pendingRequests = mnpRepository.findByStatus(MnpRequest.MnpStatus.PENDING);
+        List<MnpRequest> pendingRequests = mnpRepository.findByStatusInPartition(
+                MnpRequest.MnpStatus.PENDING, partition.getCount(), partition.getIndex());
         
-        for (MnpRequest request : pendingRequests) {
-            try {
-                processIndividualRequest(request);
-            } catch (Exception e) {
-                log.error("Failed to process MNP request: {}", request.getMnpId(), e);
-                stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                        "処理中にエラーが発生しました", e.getMessage(), "SYSTEM");
-            }
-        }
-    }
+        mnpOrchestrator.dispatch(pendingRequests).join();
 
-    private void processIndividualRequest(MnpRequest request) {
-        log.info("Processing MNP request: {}", request.getMnpId());
-        
-        stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.IN_PROGRESS,
-                "処理を開始しました", "SYSTEM");
-
-        CarrierApiClient carrierClient = getCarrierClientMap().get(request.getCurrentCarrier().toUpperCase());
-        if (carrierClient == null) {
-            stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                    "サポートされていないキャリアです", "Unsupported carrier: " + request.getCurrentCarrier(), "SYSTEM");
-            return;
-        }
-
-        try {
-            String reservationNumber = carrierClient.requestReservationNumber(
-                    request.getPhoneNumber(), 
-                    request.getAccountName() + ":" + request.getAccountNumber());
-            
-            request.setReservationNumber(reservationNumber);
-            request.setActualCompletionDate(LocalDate.now());
-            mnpRepository.save(request);
-
-            stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.COMPLETED,
-                    "MNP予約番号を発行しました", "SYSTEM");
-            
-            log.info("MNP request {} completed with reservation number: {}", 
-                    request.getMnpId(), reservationNumber);
-        } catch (Exception e) {
-            stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                    "キャリアとの通信でエラーが発生しました", e.getMessage(), "SYSTEM");
+        // Porting requests without a reservation number yet are the orchestrator's; those
+        // carrying one belong to the transfer-in job, which recovers them itself.
+        List<MnpRequest> staleRequests = mnpRepository.findByStatusAndUpdatedAtBeforeInPartition(
+                        MnpRequest.MnpStatus.IN_PROGRESS, LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis)),
+                        partition.getCount(), partition.getIndex()).stream()
+                .filter(request -> request.getType() == MnpRequest.MnpType.TRANSFER_IN && request.getReservationNumber() == null)
+                .collect(Collectors.toList());
+        if (!staleRequests.isEmpty()) {
+            mnpOrchestrator.resume(staleRequests).join();
         }
+        
+        log.info("Processed {} pending and {} stale MNP requests", pendingRequests.size(), staleRequests.size());
+        return pendingRequests.size() + staleRequests.size();
     }
 
     @Override
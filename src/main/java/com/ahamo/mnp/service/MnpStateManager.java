@@ -4,21 +4,56 @@ import com.ahamo.mnp.model.MnpRequest;
 import com.ahamo.mnp.model.MnpStatusHistory;
 import com.ahamo.mnp.repository.MnpRepository;
 import com.ahamo.mnp.repository.MnpStatusHistoryRepository;
-import lombok.RequiredArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class MnpStateManager {
 
     private final MnpRepository mnpRepository;
     private final MnpStatusHistoryRepository statusHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate isolatedTransaction;
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE mnp_requests SET status = ?, updated_by = ?, updated_at = ?, " +
+            "reservation_number = COALESCE(?, reservation_number), " +
+            "actual_completion_date = COALESCE(?, actual_completion_date) " +
+            "WHERE id = ? AND status = ?";
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO mnp_status_history (mnp_request_id, from_status, to_status, reason, error_message, created_at, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    public MnpStateManager(MnpRepository mnpRepository,
+                           MnpStatusHistoryRepository statusHistoryRepository,
+                           JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.mnpRepository = mnpRepository;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.isolatedTransaction = new TransactionTemplate(transactionManager);
+        this.isolatedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Transactional
     public void transitionState(Long mnpRequestId, MnpRequest.MnpStatus newStatus, String reason, String updatedBy) {
@@ -76,6 +111,96 @@ public class MnpStateManager {
                 mnpRequestId, oldStatus, newStatus, errorMessage);
     }
 
+    /**
+     * Applies a batch of transitions without loading the requests. Every transition is
+     * validated up front; each row is then updated only if it is still in the expected
+     * status, and history is written for the rows that changed. Returns the transitions
+     * that were applied; the rest were moved by someone else in the meantime.
+     */
+    @Transactional
+    public List<Transition> applyTransitions(List<Transition> transitions, String updatedBy) {
+        return apply(transitions, updatedBy);
+    }
+
+    /** {@link #applyTransitionsIsolated(List, String, Consumer)} for callers with nothing to do on failure. */
+    public List<Transition> applyTransitionsIsolated(List<Transition> transitions, String updatedBy) {
+        return applyTransitionsIsolated(transitions, updatedBy, transition -> { });
+    }
+
+    /**
+     * Like {@link #applyTransitions}, but if the batch fails each transition is retried in
+     * its own transaction, so one bad row cannot leave the rest unrecorded. A transition that
+     * still fails is logged with its reservation number and handed to {@code onFailure}; its
+     * request keeps its current status.
+     */
+    public List<Transition> applyTransitionsIsolated(List<Transition> transitions, String updatedBy,
+                                                     Consumer<Transition> onFailure) {
+        try {
+            return isolatedTransaction.execute(status -> apply(transitions, updatedBy));
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply {} MNP transitions together; applying them one by one", transitions.size(), e);
+        }
+        List<Transition> applied = new ArrayList<>(transitions.size());
+        for (Transition transition : transitions) {
+            try {
+                applied.addAll(isolatedTransaction.execute(
+                        status -> apply(Collections.singletonList(transition), updatedBy)));
+            } catch (RuntimeException e) {
+                log.error("Failed to apply MNP transition {} -> {} (reservation number: {}) for request {}",
+                        transition.getFrom(), transition.getTo(), transition.getReservationNumber(),
+                        transition.getMnpRequestId(), e);
+                onFailure.accept(transition);
+            }
+        }
+        return applied;
+    }
+
+    private List<Transition> apply(List<Transition> transitions, String updatedBy) {
+        if (transitions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (Transition transition : transitions) {
+            if (!isValidTransition(transition.getFrom(), transition.getTo())) {
+                throw new IllegalStateException(
+                    String.format("Invalid state transition from %s to %s for MNP request %d",
+                        transition.getFrom(), transition.getTo(), transition.getMnpRequestId()));
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(transitions.size());
+        for (Transition transition : transitions) {
+            updates.add(new Object[]{
+                    transition.getTo().name(), updatedBy, now,
+                    transition.getReservationNumber(),
+                    transition.getCompletionDate() != null ? Date.valueOf(transition.getCompletionDate()) : null,
+                    transition.getMnpRequestId(), transition.getFrom().name()});
+        }
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, updates);
+
+        List<Transition> applied = new ArrayList<>(transitions.size());
+        List<Object[]> history = new ArrayList<>(transitions.size());
+        for (int i = 0; i < transitions.size(); i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                Transition transition = transitions.get(i);
+                applied.add(transition);
+                history.add(new Object[]{
+                        transition.getMnpRequestId(), transition.getFrom().name(), transition.getTo().name(),
+                        transition.getReason(), transition.getErrorMessage(), now, updatedBy});
+            }
+        }
+        if (!history.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, history);
+        }
+
+        if (applied.size() < transitions.size()) {
+            log.warn("Skipped {} of {} MNP transitions whose requests were no longer in the expected status",
+                    transitions.size() - applied.size(), transitions.size());
+        }
+        log.info("Applied {} MNP state transitions by {}", applied.size(), updatedBy);
+        return applied;
+    }
+
     public boolean isValidTransition(MnpRequest.MnpStatus from, MnpRequest.MnpStatus to) {
         if (from == to) {
             return false;
@@ -100,4 +225,17 @@ public class MnpStateManager {
     public List<MnpStatusHistory> getStatusHistory(Long mnpRequestId) {
         return statusHistoryRepository.findByMnpRequestIdOrderByCreatedAtDesc(mnpRequestId);
     }
+
+    /** One requested state change; the optional reservation number and completion date are stored with it. */
+    @Getter
+    @Builder
+    public static class Transition {
+        private final Long mnpRequestId;
+        private final MnpRequest.MnpStatus from;
+        private final MnpRequest.MnpStatus to;
+        private final String reason;
+        private final String errorMessage;
+        private final String reservationNumber;
+        private final LocalDate completionDate;
+    }
 }
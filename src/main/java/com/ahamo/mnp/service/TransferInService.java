@@ -9,5 +9,5 @@ public interface TransferInService {
     
     TransferInResponse getTransferStatus(String transferId);
     
-    void processInProgressTransfers();
+    int processInProgressTransfers();
 }
@@ -3,19 +3,23 @@ package com.ahamo.mnp.service;
 import com.ahamo.mnp.dto.TransferInRequest;
 import com.ahamo.mnp.dto.TransferInResponse;
 import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.CarrierClientRegistry;
 import com.ahamo.mnp.model.MnpRequest;
 import com.ahamo.mnp.repository.MnpRepository;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,12 +29,14 @@ public class TransferInServiceImpl implements TransferInService {
 
     private final MnpRepository mnpRepository;
     private final MnpStateManager stateManager;
-    private final List<CarrierApiClient> carrierClients;
+    private final CarrierClientRegistry carrierClientRegistry;
+    private final MnpEligibilityCache eligibilityCache;
 
-    private Map<String, CarrierApiClient> getCarrierClientMap() {
-        return carrierClients.stream()
-                .collect(Collectors.toMap(CarrierApiClient::getCarrierCode, Function.identity()));
-    }
+    @Value("${mnp.processing.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mnp.processing.stale-after:1800000}")
+    private long staleAfterMillis;
 
     @Override
     @Transactional
@@ -54,6 +60,7 @@ public class TransferInServiceImpl implements TransferInService {
                 .build();
 
         mnpRepository.save(mnpRequestEntity);
+        eligibilityCache.invalidate(request.getPhoneNumber());
 
         stateManager.transitionState(mnpRequestEntity.getId(), MnpRequest.MnpStatus.PENDING, 
                 "転入申請を受付しました", "SYSTEM");
@@ -84,58 +91,106 @@ public class TransferInServiceImpl implements TransferInService {
     }
 
     @Override
-    public void processInProgressTransfers() {
+    public int processInProgressTransfers() {
         log.info("Processing in-progress transfer-in requests");
         
-        List<MnpRequest> pendingTransfers = mnpRepository.findByStatus(MnpRequest.MnpStatus.PENDING);
+        List<MnpRequest> pendingTransfers = mnpRepository.findByStatus(MnpRequest.MnpStatus.PENDING).stream()
+                .filter(request -> request.getType() == MnpRequest.MnpType.TRANSFER_IN)
+                .collect(Collectors.toList());
         
-        for (MnpRequest request : pendingTransfers) {
-            if (request.getType() == MnpRequest.MnpType.TRANSFER_IN) {
-                try {
-                    processIndividualTransferIn(request);
-                } catch (Exception e) {
-                    log.error("Failed to process transfer-in request: {}", request.getMnpId(), e);
-                    stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                            "転入処理中にエラーが発生しました", e.getMessage(), "SYSTEM");
-                }
+        int processed = 0;
+        for (int from = 0; from < pendingTransfers.size(); from += batchSize) {
+            List<MnpRequest> batch = pendingTransfers.subList(from, Math.min(from + batchSize, pendingTransfers.size()));
+            try {
+                processed += processTransferInBatch(batch);
+            } catch (Exception e) {
+                log.error("Failed to process batch of {} transfer-in requests", batch.size(), e);
             }
         }
+
+        processed += resumeStaleTransfers();
+        
+        return processed;
+    }
+
+    /** Re-confirms transfer-ins that already hold a reservation number but were never completed. */
+    private int resumeStaleTransfers() {
+        List<MnpRequest> staleTransfers = mnpRepository.findByStatusAndUpdatedAtBefore(
+                        MnpRequest.MnpStatus.IN_PROGRESS, LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis))).stream()
+                .filter(request -> request.getType() == MnpRequest.MnpType.TRANSFER_IN && request.getReservationNumber() != null)
+                .collect(Collectors.toList());
+        if (staleTransfers.isEmpty()) {
+            return 0;
+        }
+        log.warn("Resuming {} transfer-in requests left in progress", staleTransfers.size());
+
+        List<Transition> outcomes = new ArrayList<>(staleTransfers.size());
+        for (MnpRequest request : staleTransfers) {
+            outcomes.add(confirmTransferIn(request));
+        }
+        return stateManager.applyTransitionsIsolated(outcomes, "SYSTEM").size();
     }
 
-    private void processIndividualTransferIn(MnpRequest request) {
+    private int processTransferInBatch(List<MnpRequest> batch) {
+        List<Transition> starts = new ArrayList<>(batch.size());
+        for (MnpRequest request : batch) {
+            starts.add(Transition.builder()
+                    .mnpRequestId(request.getId())
+                    .from(MnpRequest.MnpStatus.PENDING)
+                    .to(MnpRequest.MnpStatus.IN_PROGRESS)
+                    .reason("転入処理を開始しました")
+                    .build());
+        }
+        Set<Long> started = stateManager.applyTransitions(starts, "SYSTEM").stream()
+                .map(Transition::getMnpRequestId)
+                .collect(Collectors.toSet());
+
+        List<Transition> outcomes = new ArrayList<>(started.size());
+        for (MnpRequest request : batch) {
+            if (started.contains(request.getId())) {
+                outcomes.add(confirmTransferIn(request));
+            }
+        }
+        return stateManager.applyTransitionsIsolated(outcomes, "SYSTEM").size();
+    }
+
+    private Transition confirmTransferIn(MnpRequest request) {
         log.info("Processing transfer-in request: {}", request.getMnpId());
-        
-        stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.IN_PROGRESS,
-                "転入処理を開始しました", "SYSTEM");
 
-        CarrierApiClient carrierClient = getCarrierClientMap().get(request.getCurrentCarrier().toUpperCase());
+        CarrierApiClient carrierClient = carrierClientRegistry.find(request.getCurrentCarrier()).orElse(null);
         if (carrierClient == null) {
-            stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                    "サポートされていないキャリアです", "Unsupported carrier: " + request.getCurrentCarrier(), "SYSTEM");
-            return;
+            return failure(request, "サポートされていないキャリアです", "Unsupported carrier: " + request.getCurrentCarrier());
         }
 
         try {
             boolean confirmed = carrierClient.confirmTransfer(request.getPhoneNumber(), request.getReservationNumber());
             
             if (confirmed) {
-                request.setActualCompletionDate(LocalDate.now());
-                mnpRepository.save(request);
-
-                stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.COMPLETED,
-                        "転入処理が完了しました", "SYSTEM");
-                
                 log.info("Transfer-in request {} completed successfully", request.getMnpId());
-            } else {
-                stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                        "キャリアでの転入確認に失敗しました", "Transfer confirmation failed", "SYSTEM");
+                return Transition.builder()
+                        .mnpRequestId(request.getId())
+                        .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                        .to(MnpRequest.MnpStatus.COMPLETED)
+                        .reason("転入処理が完了しました")
+                        .completionDate(LocalDate.now())
+                        .build();
             }
+            return failure(request, "キャリアでの転入確認に失敗しました", "Transfer confirmation failed");
         } catch (Exception e) {
-            stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                    "キャリアとの通信でエラーが発生しました", e.getMessage(), "SYSTEM");
+            return failure(request, "キャリアとの通信でエラーが発生しました", e.getMessage());
         }
     }
 
+    private static Transition failure(MnpRequest request, String reason, String errorMessage) {
+        return Transition.builder()
+                .mnpRequestId(request.getId())
+                .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                .to(MnpRequest.MnpStatus.FAILED)
+                .reason(reason)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
     private String getStatusMessage(MnpRequest.MnpStatus status) {
         switch (status) {
             case PENDING:
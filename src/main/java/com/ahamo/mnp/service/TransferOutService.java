@@ -9,5 +9,5 @@ public interface TransferOutService {
     
     TransferOutResponse getTransferStatus(String transferId);
     
-    void processOutgoingTransfers();
+    int processOutgoingTransfers();
 }
@@ -2,20 +2,22 @@ package com.ahamo.mnp.service;
 
 import com.ahamo.mnp.dto.TransferOutRequest;
 import com.ahamo.mnp.dto.TransferOutResponse;
-import com.ahamo.mnp.integration.CarrierApiClient;
 import com.ahamo.mnp.model.MnpRequest;
 import com.ahamo.mnp.repository.MnpRepository;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,12 +27,13 @@ public class TransferOutServiceImpl implements TransferOutService {
 
     private final MnpRepository mnpRepository;
     private final MnpStateManager stateManager;
-    private final List<CarrierApiClient> carrierClients;
+    private final MnpEligibilityCache eligibilityCache;
 
-    private Map<String, CarrierApiClient> getCarrierClientMap() {
-        return carrierClients.stream()
-                .collect(Collectors.toMap(CarrierApiClient::getCarrierCode, Function.identity()));
-    }
+    @Value("${mnp.processing.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mnp.processing.stale-after:1800000}")
+    private long staleAfterMillis;
 
     @Override
     @Transactional
@@ -52,6 +55,7 @@ public class TransferOutServiceImpl implements TransferOutService {
                 .build();
 
         mnpRepository.save(mnpRequestEntity);
+        eligibilityCache.invalidate(request.getPhoneNumber());
 
         stateManager.transitionState(mnpRequestEntity.getId(), MnpRequest.MnpStatus.PENDING, 
                 "転出申請を受付しました", "SYSTEM");
@@ -84,45 +88,93 @@ public class TransferOutServiceImpl implements TransferOutService {
     }
 
     @Override
-    public void processOutgoingTransfers() {
+    public int processOutgoingTransfers() {
         log.info("Processing outgoing transfer requests");
         
-        List<MnpRequest> pendingTransfers = mnpRepository.findByStatus(MnpRequest.MnpStatus.PENDING);
+        List<MnpRequest> pendingTransfers = mnpRepository.findByStatus(MnpRequest.MnpStatus.PENDING).stream()
+                .filter(request -> request.getType() == MnpRequest.MnpType.TRANSFER_OUT)
+                .collect(Collectors.toList());
         
-        for (MnpRequest request : pendingTransfers) {
-            if (request.getType() == MnpRequest.MnpType.TRANSFER_OUT) {
-                try {
-                    processIndividualTransferOut(request);
-                } catch (Exception e) {
-                    log.error("Failed to process transfer-out request: {}", request.getMnpId(), e);
-                    stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                            "転出処理中にエラーが発生しました", e.getMessage(), "SYSTEM");
-                }
+        int processed = 0;
+        for (int from = 0; from < pendingTransfers.size(); from += batchSize) {
+            List<MnpRequest> batch = pendingTransfers.subList(from, Math.min(from + batchSize, pendingTransfers.size()));
+            try {
+                processed += processTransferOutBatch(batch);
+            } catch (Exception e) {
+                log.error("Failed to process batch of {} transfer-out requests", batch.size(), e);
             }
         }
+
+        processed += resumeStaleTransfers();
+        
+        return processed;
+    }
+
+    /** Reissues the reservation number for transfer-outs whose outcome was never recorded. */
+    private int resumeStaleTransfers() {
+        List<MnpRequest> staleTransfers = mnpRepository.findByStatusAndUpdatedAtBefore(
+                        MnpRequest.MnpStatus.IN_PROGRESS, LocalDateTime.now().minus(Duration.ofMillis(staleAfterMillis))).stream()
+                .filter(request -> request.getType() == MnpRequest.MnpType.TRANSFER_OUT)
+                .collect(Collectors.toList());
+        if (staleTransfers.isEmpty()) {
+            return 0;
+        }
+        log.warn("Resuming {} transfer-out requests left in progress", staleTransfers.size());
+
+        List<Transition> outcomes = new ArrayList<>(staleTransfers.size());
+        for (MnpRequest request : staleTransfers) {
+            outcomes.add(issueReservationNumber(request));
+        }
+        return stateManager.applyTransitionsIsolated(outcomes, "SYSTEM").size();
     }
 
-    private void processIndividualTransferOut(MnpRequest request) {
+    private int processTransferOutBatch(List<MnpRequest> batch) {
+        List<Transition> starts = new ArrayList<>(batch.size());
+        for (MnpRequest request : batch) {
+            starts.add(Transition.builder()
+                    .mnpRequestId(request.getId())
+                    .from(MnpRequest.MnpStatus.PENDING)
+                    .to(MnpRequest.MnpStatus.IN_PROGRESS)
+                    .reason("転出処理を開始しました")
+                    .build());
+        }
+        Set<Long> started = stateManager.applyTransitions(starts, "SYSTEM").stream()
+                .map(Transition::getMnpRequestId)
+                .collect(Collectors.toSet());
+
+        List<Transition> outcomes = new ArrayList<>(started.size());
+        for (MnpRequest request : batch) {
+            if (started.contains(request.getId())) {
+                outcomes.add(issueReservationNumber(request));
+            }
+        }
+        return stateManager.applyTransitionsIsolated(outcomes, "SYSTEM").size();
+    }
+
+    private Transition issueReservationNumber(MnpRequest request) {
         log.info("Processing transfer-out request: {}", request.getMnpId());
-        
-        stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.IN_PROGRESS,
-                "転出処理を開始しました", "SYSTEM");
 
         try {
             String reservationNumber = "AH" + System.currentTimeMillis() % 100000;
             
-            request.setReservationNumber(reservationNumber);
-            request.setActualCompletionDate(LocalDate.now());
-            mnpRepository.save(request);
-
-            stateManager.transitionState(request.getId(), MnpRequest.MnpStatus.COMPLETED,
-                    "MNP予約番号を発行しました", "SYSTEM");
-            
             log.info("Transfer-out request {} completed with reservation number: {}", 
                     request.getMnpId(), reservationNumber);
+            return Transition.builder()
+                    .mnpRequestId(request.getId())
+                    .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                    .to(MnpRequest.MnpStatus.COMPLETED)
+                    .reason("MNP予約番号を発行しました")
+                    .reservationNumber(reservationNumber)
+                    .completionDate(LocalDate.now())
+                    .build();
         } catch (Exception e) {
-            stateManager.transitionStateWithError(request.getId(), MnpRequest.MnpStatus.FAILED,
-                    "予約番号発行でエラーが発生しました", e.getMessage(), "SYSTEM");
+            return Transition.builder()
+                    .mnpRequestId(request.getId())
+                    .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                    .to(MnpRequest.MnpStatus.FAILED)
+                    .reason("予約番号発行でエラーが発生しました")
+                    .errorMessage(e.getMessage())
+                    .build();
         }
     }
 
@@ -1,5 +1,6 @@
 package com.ahamo.monitoring.service;
 
+import com.ahamo.device.dto.InventoryAlertResponse;
 import com.ahamo.monitoring.dto.AlertRequest;
 import com.ahamo.monitoring.dto.AlertResponse;
 
@@ -15,6 +16,8 @@ public interface AlertService {
     
     AlertResponse acknowledgeAlert(Long alertId);
     
+    void createInventoryAlert(InventoryAlertResponse inventoryAlert);
+    
     void processAutomaticAlerts();
     
     void sendNotification(AlertResponse alert);
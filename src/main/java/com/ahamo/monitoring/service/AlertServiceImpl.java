@@ -1,10 +1,10 @@
 package com.ahamo.monitoring.service;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import com.ahamo.monitoring.dto.AlertRequest;
 import com.ahamo.monitoring.dto.AlertResponse;
 import com.ahamo.monitoring.model.Alert;
 import com.ahamo.monitoring.repository.AlertRepository;
-import com.ahamo.device.service.InventoryService;
 import com.ahamo.device.dto.InventoryAlertResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,8 +22,8 @@ import java.util.stream.Collectors;
 public class AlertServiceImpl implements AlertService {
     
     private final AlertRepository alertRepository;
-    private final InventoryService inventoryService;
     private final MetricsService metricsService;
+    private final ScheduledJobRunner jobRunner;
     
     @Override
     @Transactional
@@ -82,17 +82,34 @@ public class AlertServiceImpl implements AlertService {
         return convertToResponse(savedAlert);
     }
     
+    @Override
+    @Transactional
+    public void createInventoryAlert(InventoryAlertResponse inventoryAlert) {
+        String source = "INVENTORY_" + inventoryAlert.getDeviceId();
+        if (alertRepository.existsBySourceAndAlertTypeAndStatus(source, "INVENTORY_LOW_STOCK", "ACTIVE")) {
+            return;
+        }
+        
+        AlertRequest alertRequest = AlertRequest.builder()
+                .alertType("INVENTORY_LOW_STOCK")
+                .severity(inventoryAlert.getSeverity())
+                .title("在庫不足アラート")
+                .description(String.format("デバイス %s (%s/%s) の在庫が不足しています。現在の在庫: %d",
+                        inventoryAlert.getDeviceName(),
+                        inventoryAlert.getColor(),
+                        inventoryAlert.getStorage(),
+                        inventoryAlert.getCurrentStock()))
+                .source(source)
+                .build();
+        
+        createAlert(alertRequest);
+    }
+    
     @Override
     @Scheduled(fixedRate = 60000)
     public void processAutomaticAlerts() {
         log.debug("自動アラート処理開始");
-        
-        try {
-            processInventoryAlerts();
-            processSystemAlerts();
-        } catch (Exception e) {
-            log.error("自動アラート処理中にエラーが発生", e);
-        }
+        jobRunner.runOnLeader("alerts.automatic", this::processSystemAlerts);
     }
     
     @Override
@@ -114,31 +131,7 @@ public class AlertServiceImpl implements AlertService {
         }
     }
     
-    private void processInventoryAlerts() {
-        List<InventoryAlertResponse> inventoryAlerts = inventoryService.getInventoryAlerts();
-        
-        for (InventoryAlertResponse inventoryAlert : inventoryAlerts) {
-            if (!alertRepository.existsBySourceAndAlertTypeAndStatus(
-                    "INVENTORY_" + inventoryAlert.getDeviceId(), "INVENTORY_LOW_STOCK", "ACTIVE")) {
-                
-                AlertRequest alertRequest = AlertRequest.builder()
-                        .alertType("INVENTORY_LOW_STOCK")
-                        .severity(inventoryAlert.getSeverity())
-                        .title("在庫不足アラート")
-                        .description(String.format("デバイス %s (%s/%s) の在庫が不足しています。現在の在庫: %d",
-                                inventoryAlert.getDeviceName(),
-                                inventoryAlert.getColor(),
-                                inventoryAlert.getStorage(),
-                                inventoryAlert.getCurrentStock()))
-                        .source("INVENTORY_" + inventoryAlert.getDeviceId())
-                        .build();
-                
-                createAlert(alertRequest);
-            }
-        }
-    }
-    
-    private void processSystemAlerts() {
+    private int processSystemAlerts() {
         try {
             var healthMetrics = metricsService.getHealthMetrics();
             
@@ -153,11 +146,13 @@ public class AlertServiceImpl implements AlertService {
                             .build();
                     
                     createAlert(alertRequest);
+                    return 1;
                 }
             }
         } catch (Exception e) {
             log.error("システムアラート処理中にエラーが発生", e);
         }
+        return 0;
     }
     
     private void sendCriticalNotification(AlertResponse alert) {
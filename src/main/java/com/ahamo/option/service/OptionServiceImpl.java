@@ -1,5 +1,6 @@
 package com.ahamo.option.service;
 
+import com.ahamo.common.event.CatalogChangedEvent;
 import com.ahamo.option.dto.OptionRequest;
 import com.ahamo.option.dto.OptionResponse;
 import com.ahamo.option.model.Option;
@@ -9,6 +10,7 @@ import com.ahamo.option.repository.OptionRepository;
 import com.ahamo.option.repository.OptionDependencyRepository;
 import com.ahamo.option.repository.OptionExclusionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class OptionServiceImpl implements OptionService {
     private final OptionRepository optionRepository;
     private final OptionDependencyRepository dependencyRepository;
     private final OptionExclusionRepository exclusionRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     @Transactional
@@ -64,6 +67,7 @@ public class OptionServiceImpl implements OptionService {
             }
         }
         
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.OPTION, savedOption.getId()));
         return convertToResponse(savedOption);
     }
     
@@ -107,6 +111,7 @@ public class OptionServiceImpl implements OptionService {
             }
         }
         
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.OPTION, savedOption.getId()));
         return convertToResponse(savedOption);
     }
     
@@ -119,6 +124,7 @@ public class OptionServiceImpl implements OptionService {
         dependencyRepository.deleteByOptionId(optionId);
         exclusionRepository.deleteByOptionId(optionId);
         optionRepository.delete(option);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.OPTION, optionId));
     }
     
     @Override
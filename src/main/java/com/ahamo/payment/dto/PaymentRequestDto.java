@@ -20,4 +20,6 @@ public class PaymentRequestDto {
     private String paymentMethodId;
     
     private Map<String, Object> paymentDetails;
+    
+    private String idempotencyKey;
 }
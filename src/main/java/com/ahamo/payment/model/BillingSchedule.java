@@ -12,13 +12,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "billing_schedules")
+@Table(name = "billing_schedules", indexes = {
+        @Index(name = "idx_billing_schedules_partition_due", columnList = "partition_key, status, next_billing_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class BillingSchedule {
 
+    /** Number of hash partitions billing runs are split into; stored keys depend on it. */
+    public static final int PARTITION_COUNT = 64;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,6 +31,9 @@ public class BillingSchedule {
     @Column(name = "schedule_uuid", unique = true)
     private String scheduleUuid;
 
+    @Column(name = "partition_key")
+    private Integer partitionKey;
+
     @NotBlank
     @Column(name = "customer_id")
     private String customerId;
@@ -64,6 +72,10 @@ public class BillingSchedule {
     @Column(name = "last_failure_reason")
     private String lastFailureReason;
 
+    /** Idempotency key of a charge whose outcome is not known yet; reused until it is. */
+    @Column(name = "pending_charge_key")
+    private String pendingChargeKey;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -89,6 +101,18 @@ public class BillingSchedule {
         if (maxRetryAttempts == null) {
             maxRetryAttempts = 3;
         }
+        if (partitionKey == null && scheduleUuid != null) {
+            partitionKey = partitionOf(scheduleUuid);
+        }
+    }
+
+    public static int partitionOf(String scheduleUuid) {
+        return Math.floorMod(scheduleUuid.hashCode(), PARTITION_COUNT);
+    }
+
+    /** Partition of a saved schedule; rows without a uuid are spread by id. */
+    public static int partitionOf(Long id, String scheduleUuid) {
+        return scheduleUuid != null ? partitionOf(scheduleUuid) : (int) Math.floorMod(id, (long) PARTITION_COUNT);
     }
 
     @PreUpdate
@@ -57,6 +57,9 @@ public class Payment {
     @Column(name = "payment_token")
     private String paymentToken;
 
+    @Column(name = "idempotency_key", unique = true)
+    private String idempotencyKey;
+
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
 
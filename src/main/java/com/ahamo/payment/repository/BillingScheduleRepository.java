@@ -1,10 +1,15 @@
 package com.ahamo.payment.repository;
 
 import com.ahamo.payment.model.BillingSchedule;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -23,4 +28,23 @@ public interface BillingScheduleRepository extends JpaRepository<BillingSchedule
     
     @Query("SELECT bs FROM BillingSchedule bs WHERE bs.status = 'FAILED' AND bs.retryCount < bs.maxRetryAttempts")
     List<BillingSchedule> findFailedSchedulesForRetry();
+    
+    @Query("SELECT bs.id FROM BillingSchedule bs WHERE bs.partitionKey = :partition AND bs.status = 'ACTIVE' " +
+           "AND bs.nextBillingDate <= :now AND bs.id > :afterId ORDER BY bs.id")
+    List<Long> findReadyIdsInPartition(@Param("partition") int partition, @Param("now") LocalDateTime now,
+                                       @Param("afterId") long afterId, Pageable pageable);
+    
+    @Query("SELECT bs FROM BillingSchedule bs WHERE bs.partitionKey IS NULL ORDER BY bs.id")
+    List<BillingSchedule> findWithoutPartitionKey(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE BillingSchedule bs SET bs.partitionKey = :partitionKey WHERE bs.id = :id AND bs.partitionKey IS NULL")
+    int assignPartitionKey(@Param("id") Long id, @Param("partitionKey") int partitionKey);
+    
+    @Query("SELECT MIN(bs.nextBillingDate) FROM BillingSchedule bs WHERE bs.status = 'ACTIVE' AND bs.nextBillingDate <= :now")
+    LocalDateTime findOldestDueBillingDate(@Param("now") LocalDateTime now);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT bs FROM BillingSchedule bs WHERE bs.id = :id")
+    Optional<BillingSchedule> lockById(@Param("id") Long id);
 }
@@ -19,4 +19,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByContractIdAndStatus(String contractId, Payment.PaymentStatus status);
     
     Optional<Payment> findByTransactionId(String transactionId);
+    
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
 }
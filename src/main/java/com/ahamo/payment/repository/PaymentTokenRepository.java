@@ -17,7 +17,7 @@ public interface PaymentTokenRepository extends JpaRepository<PaymentToken, Long
     @Query("SELECT pt FROM PaymentToken pt WHERE pt.token = :token AND pt.expiresAt > :now AND pt.isRevoked = false")
     Optional<PaymentToken> findValidToken(@Param("token") String token, @Param("now") LocalDateTime now);
     
-    void deleteByExpiresAtBefore(LocalDateTime dateTime);
+    long deleteByExpiresAtBefore(LocalDateTime dateTime);
     
     void deleteByToken(String token);
 }
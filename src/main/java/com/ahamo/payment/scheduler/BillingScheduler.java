@@ -1,5 +1,6 @@
 package com.ahamo.payment.scheduler;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import com.ahamo.payment.service.RecurringBillingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,26 +13,18 @@ import org.springframework.stereotype.Service;
 public class BillingScheduler {
     
     private final RecurringBillingService recurringBillingService;
+    private final ScheduledJobRunner jobRunner;
     
-    @Scheduled(fixedRate = 300000)
+    /** Runs on every node; the billing engine shares its partitions out through Redis locks. */
+    @Scheduled(fixedRateString = "${billing.run.interval:300000}")
     public void processScheduledBillings() {
         log.info("Starting scheduled billing processing");
-        try {
-            recurringBillingService.processScheduledBillings();
-            log.info("Scheduled billing processing completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to process scheduled billings", e);
-        }
+        jobRunner.runLocal("billing.run", recurringBillingService::processScheduledBillings);
     }
     
     @Scheduled(fixedRate = 600000)
     public void retryFailedBillings() {
         log.info("Starting failed billing retry processing");
-        try {
-            recurringBillingService.retryFailedBillings();
-            log.info("Failed billing retry processing completed successfully");
-        } catch (Exception e) {
-            log.error("Failed to process billing retries", e);
-        }
+        jobRunner.runOnLeader("billing.retry", recurringBillingService::retryFailedBillings);
     }
 }
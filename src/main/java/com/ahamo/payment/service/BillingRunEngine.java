@@ -0,0 +1,355 @@
+package com.ahamo.payment.service;
+
+import com.ahamo.payment.dto.PaymentRequestDto;
+import com.ahamo.payment.dto.PaymentResponseDto;
+import com.ahamo.payment.model.BillingSchedule;
+import com.ahamo.payment.repository.BillingScheduleRepository;
+import com.ahamo.payment.service.RecurringBillingService.BillingResult;
+import com.ahamo.payment.service.RecurringBillingService.FailureReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs recurring charges partition by partition. Schedules are hashed into
+ * {@link BillingSchedule#PARTITION_COUNT} partitions; a worker claims a partition with a
+ * non-blocking Redis lock, so each partition is billed by one node at a time, and pages
+ * through its due schedules by id. A shared permit pool bounds concurrent gateway calls.
+ * <p>
+ * A charge runs in three steps, each of the two database steps in its own transaction:
+ * <ol>
+ *   <li>Lock the schedule, pick its idempotency key and record the pending payment.</li>
+ *   <li>Call the gateway with no transaction or row lock held.</li>
+ *   <li>Lock the schedule again and record the outcome.</li>
+ * </ol>
+ * The key stays on the schedule until the outcome is known, so a charge that failed or
+ * crashed anywhere after step 1 is retried under the same key and cannot bill twice.
+ */
+@Component
+@Slf4j
+public class BillingRunEngine {
+
+    private static final String PARTITION_LOCK_PREFIX = "billing:run:partition:";
+
+    private final BillingScheduleRepository billingScheduleRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final RedissonClient redissonClient;
+    private final ExecutorService workers;
+    private final Semaphore gatewayPermits;
+    private final int pageSize;
+
+    private final Counter chargedCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+    private final Counter partitionsBusyCounter;
+    private final Timer chargeTimer;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BillingRunEngine(BillingScheduleRepository billingScheduleRepository,
+                            PaymentService paymentService,
+                            PlatformTransactionManager transactionManager,
+                            RedissonClient redissonClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${billing.run.workers:8}") int workerCount,
+                            @Value("${billing.run.page-size:100}") int pageSize,
+                            @Value("${billing.run.gateway-concurrency:8}") int gatewayConcurrency) {
+        this.billingScheduleRepository = billingScheduleRepository;
+        this.paymentService = paymentService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.redissonClient = redissonClient;
+        this.pageSize = pageSize;
+        this.gatewayPermits = new Semaphore(gatewayConcurrency, true);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "billing-run-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.chargedCounter = meterRegistry.counter("billing.run.charged");
+        this.failedCounter = meterRegistry.counter("billing.run.failed");
+        this.skippedCounter = meterRegistry.counter("billing.run.skipped");
+        this.partitionsBusyCounter = meterRegistry.counter("billing.run.partitions.busy");
+        this.chargeTimer = meterRegistry.timer("billing.run.charge");
+        this.runTimer = meterRegistry.timer("billing.run");
+        meterRegistry.gauge("billing.run.lag.seconds", lagSeconds);
+    }
+
+    /**
+     * Bills every schedule due at the start of the run across all partitions this node
+     * can claim, and returns the number of successful charges.
+     */
+    public int run() {
+        return runTimer.record(() -> {
+            assignMissingPartitionKeys();
+            LocalDateTime now = LocalDateTime.now();
+            List<Future<Integer>> results = new ArrayList<>(BillingSchedule.PARTITION_COUNT);
+            for (int partition = 0; partition < BillingSchedule.PARTITION_COUNT; partition++) {
+                int claimed = partition;
+                results.add(workers.submit(() -> runPartition(claimed, now)));
+            }
+
+            int charged = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    charged += result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while waiting for billing run workers");
+                    break;
+                } catch (ExecutionException e) {
+                    log.error("Billing run partition failed", e.getCause());
+                }
+            }
+
+            updateLag();
+            log.info("Billing run charged {} schedules", charged);
+            return charged;
+        });
+    }
+
+    /**
+     * Charges one schedule. Scheduled charges are skipped when the schedule is no longer
+     * active or due, which makes a repeated run a no-op.
+     */
+    public BillingResult charge(Long scheduleId, boolean scheduled) {
+        PaymentRequestDto request;
+        try {
+            request = transactionTemplate.execute(status -> prepare(scheduleId, scheduled));
+        } catch (RuntimeException e) {
+            log.error("Failed to prepare billing for schedule: {}", scheduleId, e);
+            failedCounter.increment();
+            return new BillingResult(false, "Billing failed: " + e.getMessage(), null);
+        }
+        if (request == null) {
+            skippedCounter.increment();
+            return new BillingResult(false, "Billing not due", null);
+        }
+
+        PaymentResponseDto response;
+        try {
+            response = chargeTimer.record(() -> callGateway(request));
+        } catch (RuntimeException e) {
+            log.error("Billing processing failed for schedule: {}", scheduleId, e);
+            failedCounter.increment();
+            settle(scheduleId, request.getIdempotencyKey(), schedule -> recordFailure(schedule, FailureReason.UNKNOWN));
+            return new BillingResult(false, "Billing failed: " + e.getMessage(), null);
+        }
+
+        if ("completed".equals(response.getStatus())) {
+            settle(scheduleId, request.getIdempotencyKey(), this::recordSuccess);
+            chargedCounter.increment();
+            return new BillingResult(true, "Billing processed successfully", response.getTransactionId());
+        }
+        failedCounter.increment();
+        if ("failed".equals(response.getStatus())) {
+            settle(scheduleId, request.getIdempotencyKey(), schedule -> {
+                schedule.setPendingChargeKey(null);
+                recordFailure(schedule, FailureReason.GATEWAY_ERROR);
+            });
+        } else {
+            settle(scheduleId, request.getIdempotencyKey(), schedule -> recordFailure(schedule, FailureReason.UNKNOWN));
+        }
+        return new BillingResult(false, "Billing failed", null);
+    }
+
+    void recordFailure(BillingSchedule schedule, FailureReason reason) {
+        schedule.setRetryCount(schedule.getRetryCount() + 1);
+        schedule.setLastFailureReason(reason.toString());
+
+        if (schedule.getRetryCount() >= schedule.getMaxRetryAttempts()) {
+            schedule.setStatus(BillingSchedule.BillingStatus.FAILED);
+            log.warn("Billing schedule {} failed after {} attempts",
+                    schedule.getScheduleUuid(), schedule.getMaxRetryAttempts());
+        }
+
+        billingScheduleRepository.save(schedule);
+    }
+
+    /**
+     * A fresh key for the schedule's current billing period. It is persisted before the
+     * gateway call and only replaced after the gateway has declined the charge.
+     */
+    static String newChargeKey(BillingSchedule schedule) {
+        return "billing:" + schedule.getScheduleUuid() + ":" + schedule.getNextBillingDate().toLocalDate()
+                + ":" + UUID.randomUUID();
+    }
+
+    /** Gives partition keys to schedules saved without one, e.g. rows that predate partitioning. */
+    int assignMissingPartitionKeys() {
+        int assigned = 0;
+        while (true) {
+            Integer page = transactionTemplate.execute(status -> {
+                List<BillingSchedule> schedules = billingScheduleRepository.findWithoutPartitionKey(PageRequest.of(0, pageSize));
+                for (BillingSchedule schedule : schedules) {
+                    billingScheduleRepository.assignPartitionKey(schedule.getId(),
+                            BillingSchedule.partitionOf(schedule.getId(), schedule.getScheduleUuid()));
+                }
+                return schedules.size();
+            });
+            if (page == null || page == 0) {
+                break;
+            }
+            assigned += page;
+            if (page < pageSize) {
+                break;
+            }
+        }
+        if (assigned > 0) {
+            log.info("Assigned billing partitions to {} schedules", assigned);
+        }
+        return assigned;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private int runPartition(int partition, LocalDateTime now) {
+        RLock lock = redissonClient.getLock(PARTITION_LOCK_PREFIX + partition);
+        if (!lock.tryLock()) {
+            partitionsBusyCounter.increment();
+            log.debug("Billing partition {} is being processed elsewhere", partition);
+            return 0;
+        }
+        try {
+            int charged = 0;
+            long afterId = 0L;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = billingScheduleRepository.findReadyIdsInPartition(
+                        partition, now, afterId, PageRequest.of(0, pageSize));
+                for (Long id : ids) {
+                    if (charge(id, true).isSuccess()) {
+                        charged++;
+                    }
+                }
+                if (ids.size() < pageSize) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            return charged;
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private PaymentResponseDto callGateway(PaymentRequestDto request) {
+        try {
+            gatewayPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a gateway permit", e);
+        }
+        try {
+            return paymentService.processPayment(request);
+        } finally {
+            gatewayPermits.release();
+        }
+    }
+
+    private PaymentRequestDto prepare(Long scheduleId, boolean scheduled) {
+        BillingSchedule schedule = billingScheduleRepository.lockById(scheduleId)
+                .orElseThrow(() -> new RuntimeException("Billing schedule not found: " + scheduleId));
+        if (scheduled && !isDue(schedule, LocalDateTime.now())) {
+            return null;
+        }
+        if (schedule.getPendingChargeKey() == null) {
+            schedule.setPendingChargeKey(newChargeKey(schedule));
+            billingScheduleRepository.save(schedule);
+        }
+
+        PaymentRequestDto request = PaymentRequestDto.builder()
+                .contractId(schedule.getContractId())
+                .paymentMethodId(schedule.getPaymentMethodId())
+                .idempotencyKey(schedule.getPendingChargeKey())
+                .build();
+        paymentService.preparePayment(request);
+        return request;
+    }
+
+    /**
+     * Records the outcome of the charge made under {@code chargeKey}, unless another
+     * charge of the same schedule has settled it meanwhile. A failure here leaves the key
+     * in place, so the next attempt finds the payment the gateway already made.
+     */
+    private void settle(Long scheduleId, String chargeKey, Consumer<BillingSchedule> outcome) {
+        try {
+            transactionTemplate.execute(status -> {
+                billingScheduleRepository.lockById(scheduleId)
+                        .filter(schedule -> chargeKey.equals(schedule.getPendingChargeKey()))
+                        .ifPresentOrElse(outcome, () -> log.info(
+                                "Billing schedule {} was settled by another charge under key {}", scheduleId, chargeKey));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to record billing outcome for schedule {}; the next run retries under key {}",
+                    scheduleId, chargeKey, e);
+        }
+    }
+
+    private void recordSuccess(BillingSchedule schedule) {
+        schedule.setPendingChargeKey(null);
+        schedule.setLastBillingDate(LocalDateTime.now());
+        schedule.setNextBillingDate(nextBillingDate(schedule));
+        schedule.setRetryCount(0);
+        schedule.setLastFailureReason(null);
+        billingScheduleRepository.save(schedule);
+    }
+
+    private void updateLag() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldestDue = billingScheduleRepository.findOldestDueBillingDate(now);
+        lagSeconds.set(oldestDue != null ? Duration.between(oldestDue, now).getSeconds() : 0L);
+    }
+
+    private static boolean isDue(BillingSchedule schedule, LocalDateTime now) {
+        return schedule.getStatus() == BillingSchedule.BillingStatus.ACTIVE
+                && schedule.getNextBillingDate() != null
+                && !schedule.getNextBillingDate().isAfter(now);
+    }
+
+    private static LocalDateTime nextBillingDate(BillingSchedule schedule) {
+        LocalDateTime current = schedule.getNextBillingDate();
+
+        switch (schedule.getFrequency()) {
+            case QUARTERLY:
+                return current.plusMonths(3);
+            case YEARLY:
+                return current.plusYears(1);
+            case MONTHLY:
+            default:
+                return current.plusMonths(1);
+        }
+    }
+}
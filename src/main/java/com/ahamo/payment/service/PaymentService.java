@@ -11,6 +11,12 @@ public interface PaymentService {
     
     PaymentResponseDto processPayment(PaymentRequestDto request);
     
+    /**
+     * Records a pending payment under the request's idempotency key, or returns the one
+     * already recorded, so a later {@link #processPayment} with the same key resumes it.
+     */
+    PaymentResponseDto preparePayment(PaymentRequestDto request);
+    
     List<PaymentMethodDto> getAvailablePaymentMethods();
     
     Payment.PaymentStatus getPaymentStatus(String paymentId);
@@ -23,7 +23,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -54,23 +57,39 @@ public class PaymentServiceImpl implements PaymentService {
     public PaymentResponseDto processPayment(PaymentRequestDto request) {
         log.info("Processing payment for contract: {}", request.getContractId());
         
+        Payment pending = null;
+        if (request.getIdempotencyKey() != null) {
+            Optional<Payment> existing = paymentRepository.findByIdempotencyKey(request.getIdempotencyKey());
+            if (existing.isPresent() && existing.get().getStatus() != Payment.PaymentStatus.PENDING) {
+                log.info("Returning existing payment for idempotency key: {}", request.getIdempotencyKey());
+                return toResponse(existing.get());
+            }
+            pending = existing.orElse(null);
+        }
+        
         try {
-            String paymentToken = (String) request.getPaymentDetails().get("paymentToken");
+            Map<String, Object> paymentDetails = request.getPaymentDetails() != null
+                    ? new HashMap<>(request.getPaymentDetails())
+                    : new HashMap<>();
+            String paymentToken = (String) paymentDetails.get("paymentToken");
             if (paymentToken != null && !tokenizationService.validateToken(paymentToken)) {
                 throw new IllegalArgumentException("Invalid or expired payment token");
             }
             
-            Payment payment = createPaymentRecord(request);
+            Payment payment = pending != null ? pending : createPaymentRecord(request);
             
             PaymentGatewayAdapter gateway = gatewayFactory.getAdapter("default");
             
+            if (request.getIdempotencyKey() != null) {
+                paymentDetails.put("idempotencyKey", request.getIdempotencyKey());
+            }
             GatewayRequest gatewayRequest = GatewayRequest.builder()
                     .paymentId(payment.getPaymentUuid())
                     .amount(payment.getAmount())
                     .currency("JPY")
                     .paymentMethodId(request.getPaymentMethodId())
                     .customerToken(request.getContractId())
-                    .metadata(request.getPaymentDetails())
+                    .metadata(paymentDetails)
                     .build();
             
             GatewayResponse response = gateway.processPayment(gatewayRequest);
@@ -84,12 +103,7 @@ public class PaymentServiceImpl implements PaymentService {
                 tokenizationService.revokeToken(paymentToken);
             }
             
-            return PaymentResponseDto.builder()
-                    .paymentId(payment.getPaymentUuid())
-                    .status(payment.getStatus().toString().toLowerCase())
-                    .transactionId(payment.getTransactionId())
-                    .redirectUrl(payment.getRedirectUrl())
-                    .build();
+            return toResponse(payment);
                     
         } catch (Exception e) {
             log.error("Payment processing failed for contract: {}", request.getContractId(), e);
@@ -97,6 +111,17 @@ public class PaymentServiceImpl implements PaymentService {
         }
     }
     
+    @Override
+    @Transactional
+    public PaymentResponseDto preparePayment(PaymentRequestDto request) {
+        if (request.getIdempotencyKey() == null) {
+            throw new IllegalArgumentException("Preparing a payment requires an idempotency key");
+        }
+        Payment payment = paymentRepository.findByIdempotencyKey(request.getIdempotencyKey())
+                .orElseGet(() -> createPaymentRecord(request));
+        return toResponse(payment);
+    }
+    
     @Override
     public List<PaymentMethodDto> getAvailablePaymentMethods() {
         return Arrays.asList(
@@ -142,11 +167,21 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentRepository.findByContractId(contractId);
     }
     
+    private PaymentResponseDto toResponse(Payment payment) {
+        return PaymentResponseDto.builder()
+                .paymentId(payment.getPaymentUuid())
+                .status(payment.getStatus().toString().toLowerCase())
+                .transactionId(payment.getTransactionId())
+                .redirectUrl(payment.getRedirectUrl())
+                .build();
+    }
+    
     private Payment createPaymentRecord(PaymentRequestDto request) {
         Payment payment = Payment.builder()
                 .paymentUuid(UUID.randomUUID().toString())
                 .contractId(request.getContractId())
                 .paymentMethodId(request.getPaymentMethodId())
+                .idempotencyKey(request.getIdempotencyKey())
                 .amount(calculatePaymentAmount(request.getContractId()))
                 .status(Payment.PaymentStatus.PENDING)
                 .build();
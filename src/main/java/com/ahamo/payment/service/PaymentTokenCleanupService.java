@@ -1,11 +1,12 @@
 package com.ahamo.payment.service;
 
+import com.ahamo.common.job.ScheduledJobRunner;
 import com.ahamo.payment.repository.PaymentTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 
@@ -15,16 +16,16 @@ import java.time.LocalDateTime;
 public class PaymentTokenCleanupService {
     
     private final PaymentTokenRepository paymentTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledJobRunner jobRunner;
     
     @Scheduled(fixedRate = 3600000)
-    @Transactional
     public void cleanupExpiredTokens() {
-        try {
+        jobRunner.runOnLeader("payment.token-cleanup", () -> {
             LocalDateTime cutoff = LocalDateTime.now();
-            paymentTokenRepository.deleteByExpiresAtBefore(cutoff);
-            log.info("Cleaned up expired payment tokens before: {}", cutoff);
-        } catch (Exception e) {
-            log.error("Failed to cleanup expired payment tokens", e);
-        }
+            Long deleted = transactionTemplate.execute(status -> paymentTokenRepository.deleteByExpiresAtBefore(cutoff));
+            log.info("Cleaned up {} expired payment tokens before: {}", deleted, cutoff);
+            return deleted != null ? deleted.intValue() : 0;
+        });
     }
 }
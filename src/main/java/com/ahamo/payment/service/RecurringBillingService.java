@@ -11,9 +11,9 @@ public interface RecurringBillingService {
     
     void handleFailedBilling(String billingId, FailureReason reason);
     
-    void processScheduledBillings();
+    int processScheduledBillings();
     
-    void retryFailedBillings();
+    int retryFailedBillings();
     
     public static class BillingResult {
         private boolean success;
@@ -1,8 +1,6 @@
 package com.ahamo.payment.service;
 
 import com.ahamo.payment.dto.BillingScheduleDto;
-import com.ahamo.payment.dto.PaymentRequestDto;
-import com.ahamo.payment.dto.PaymentResponseDto;
 import com.ahamo.payment.model.BillingSchedule;
 import com.ahamo.payment.repository.BillingScheduleRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +18,7 @@ import java.util.UUID;
 public class RecurringBillingServiceImpl implements RecurringBillingService {
     
     private final BillingScheduleRepository billingScheduleRepository;
-    private final PaymentService paymentService;
+    private final BillingRunEngine billingRunEngine;
     
     @Override
     @Transactional
@@ -45,34 +43,13 @@ public class RecurringBillingServiceImpl implements RecurringBillingService {
     }
     
     @Override
-    @Transactional
     public BillingResult processBilling(String billingId) {
         log.info("Processing billing: {}", billingId);
         
         BillingSchedule schedule = billingScheduleRepository.findByScheduleUuid(billingId)
                 .orElseThrow(() -> new RuntimeException("Billing schedule not found: " + billingId));
         
-        try {
-            PaymentRequestDto paymentRequest = PaymentRequestDto.builder()
-                    .contractId(schedule.getContractId())
-                    .paymentMethodId(schedule.getPaymentMethodId())
-                    .build();
-            
-            PaymentResponseDto response = paymentService.processPayment(paymentRequest);
-            
-            if ("completed".equals(response.getStatus())) {
-                updateSuccessfulBilling(schedule);
-                return new BillingResult(true, "Billing processed successfully", response.getTransactionId());
-            } else {
-                handleBillingFailure(schedule, FailureReason.GATEWAY_ERROR);
-                return new BillingResult(false, "Billing failed", null);
-            }
-            
-        } catch (Exception e) {
-            log.error("Billing processing failed for schedule: {}", billingId, e);
-            handleBillingFailure(schedule, FailureReason.UNKNOWN);
-            return new BillingResult(false, "Billing failed: " + e.getMessage(), null);
-        }
+        return billingRunEngine.charge(schedule.getId(), false);
     }
     
     @Override
@@ -83,31 +60,21 @@ public class RecurringBillingServiceImpl implements RecurringBillingService {
         BillingSchedule schedule = billingScheduleRepository.findByScheduleUuid(billingId)
                 .orElseThrow(() -> new RuntimeException("Billing schedule not found: " + billingId));
         
-        handleBillingFailure(schedule, reason);
+        billingRunEngine.recordFailure(schedule, reason);
     }
     
     @Override
-    @Transactional
-    public void processScheduledBillings() {
+    public int processScheduledBillings() {
         log.info("Processing scheduled billings");
         
-        List<BillingSchedule> readySchedules = billingScheduleRepository
-                .findSchedulesReadyForBilling(LocalDateTime.now());
-        
-        for (BillingSchedule schedule : readySchedules) {
-            try {
-                processBilling(schedule.getScheduleUuid());
-            } catch (Exception e) {
-                log.error("Failed to process scheduled billing: {}", schedule.getScheduleUuid(), e);
-            }
-        }
+        int charged = billingRunEngine.run();
         
-        log.info("Processed {} scheduled billings", readySchedules.size());
+        log.info("Processed {} scheduled billings", charged);
+        return charged;
     }
     
     @Override
-    @Transactional
-    public void retryFailedBillings() {
+    public int retryFailedBillings() {
         log.info("Retrying failed billings");
         
         List<BillingSchedule> failedSchedules = billingScheduleRepository.findFailedSchedulesForRetry();
@@ -124,42 +91,7 @@ public class RecurringBillingServiceImpl implements RecurringBillingService {
         }
         
         log.info("Processed {} failed billing retries", failedSchedules.size());
-    }
-    
-    private void updateSuccessfulBilling(BillingSchedule schedule) {
-        schedule.setLastBillingDate(LocalDateTime.now());
-        schedule.setNextBillingDate(calculateNextBillingDate(schedule));
-        schedule.setRetryCount(0);
-        schedule.setLastFailureReason(null);
-        billingScheduleRepository.save(schedule);
-    }
-    
-    private void handleBillingFailure(BillingSchedule schedule, FailureReason reason) {
-        schedule.setRetryCount(schedule.getRetryCount() + 1);
-        schedule.setLastFailureReason(reason.toString());
-        
-        if (schedule.getRetryCount() >= schedule.getMaxRetryAttempts()) {
-            schedule.setStatus(BillingSchedule.BillingStatus.FAILED);
-            log.warn("Billing schedule {} failed after {} attempts", 
-                    schedule.getScheduleUuid(), schedule.getMaxRetryAttempts());
-        }
-        
-        billingScheduleRepository.save(schedule);
-    }
-    
-    private LocalDateTime calculateNextBillingDate(BillingSchedule schedule) {
-        LocalDateTime current = schedule.getNextBillingDate();
-        
-        switch (schedule.getFrequency()) {
-            case MONTHLY:
-                return current.plusMonths(1);
-            case QUARTERLY:
-                return current.plusMonths(3);
-            case YEARLY:
-                return current.plusYears(1);
-            default:
-                return current.plusMonths(1);
-        }
+        return failedSchedules.size();
     }
     
     private LocalDateTime calculateNextRetryTime(int retryCount) {
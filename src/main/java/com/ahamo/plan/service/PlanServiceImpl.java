@@ -1,5 +1,6 @@
 package com.ahamo.plan.service;
 
+import com.ahamo.common.event.CatalogChangedEvent;
 import com.ahamo.plan.dto.AdminPlanRequest;
 import com.ahamo.plan.dto.AdminPlanResponse;
 import com.ahamo.plan.dto.PlanVersionHistory;
@@ -8,6 +9,7 @@ import com.ahamo.plan.dto.PlansResponse;
 import com.ahamo.plan.model.Plan;
 import com.ahamo.plan.repository.PlanRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -20,6 +22,7 @@ import java.util.stream.Collectors;
 public class PlanServiceImpl implements PlanService {
     
     private final PlanRepository planRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Override
     public AdminPlanResponse createPlan(AdminPlanRequest request) {
@@ -46,6 +49,7 @@ public class PlanServiceImpl implements PlanService {
         plan.setApprovalStatus("APPROVED");
         
         Plan savedPlan = planRepository.save(plan);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PLAN, savedPlan.getId()));
         return convertToAdminResponse(savedPlan);
     }
     
@@ -81,6 +85,7 @@ public class PlanServiceImpl implements PlanService {
         newVersion.setApprovalStatus("APPROVED");
         
         Plan savedPlan = planRepository.save(newVersion);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PLAN, planId));
         return convertToAdminResponse(savedPlan);
     }
     
@@ -93,6 +98,7 @@ public class PlanServiceImpl implements PlanService {
         plan.setUpdatedAt(LocalDateTime.now());
         plan.setUpdatedBy("admin@example.com");
         planRepository.save(plan);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PLAN, planId));
     }
     
     @Override
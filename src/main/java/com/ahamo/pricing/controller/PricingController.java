@@ -1,16 +1,23 @@
 package com.ahamo.pricing.controller;
 
+import com.ahamo.pricing.dto.BulkPricingCell;
+import com.ahamo.pricing.dto.BulkPricingRequest;
 import com.ahamo.pricing.dto.PricingCalculationRequest;
 import com.ahamo.pricing.dto.PricingCalculationResult;
 import com.ahamo.pricing.dto.EstimateRequest;
 import com.ahamo.pricing.dto.EstimateResult;
 import com.ahamo.pricing.service.PricingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/pricing")
@@ -18,7 +25,11 @@ import javax.validation.Valid;
 @Slf4j
 public class PricingController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int FLUSH_EVERY_CELLS = 32;
+    
     private final PricingService pricingService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/calculate")
     public ResponseEntity<PricingCalculationResult> calculatePricing(@Valid @RequestBody PricingCalculationRequest request) {
@@ -48,4 +59,42 @@ public class PricingController {
             throw new RuntimeException("見積生成中にエラーが発生しました: " + e.getMessage());
         }
     }
+    
+    /**
+     * Streams one JSON object per grid cell, newline-delimited, flushing as cells
+     * complete so the client can render the grid progressively.
+     */
+    @PostMapping(value = "/bulk", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> calculateBulkPricing(@Valid @RequestBody BulkPricingRequest request) {
+        log.info("Received bulk pricing request for {} plans, {} devices", 
+                request.getPlanIds().size(), request.getDeviceIds().size());
+        
+        Stream<BulkPricingCell> cells;
+        try {
+            cells = pricingService.calculateBulkPricing(request);
+        } catch (Exception e) {
+            log.error("Error starting bulk pricing: {}", e.getMessage(), e);
+            throw new RuntimeException("一括料金計算中にエラーが発生しました: " + e.getMessage());
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<BulkPricingCell> stream = cells) {
+                int written = 0;
+                Iterator<BulkPricingCell> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    outputStream.write('\n');
+                    if (++written % FLUSH_EVERY_CELLS == 0) {
+                        outputStream.flush();
+                    }
+                }
+                outputStream.flush();
+                log.info("Bulk pricing completed: {} cells", written);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
 }
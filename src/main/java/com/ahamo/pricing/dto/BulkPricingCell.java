@@ -0,0 +1,27 @@
+package com.ahamo.pricing.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * One line of the bulk quote NDJSON stream: the grid coordinates and either the
+ * result or the reason the cell could not be priced.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPricingCell {
+    
+    private String planId;
+    private String deviceId;
+    private PricingCalculationRequest.DevicePaymentOption paymentOption;
+    private List<String> optionIds;
+    
+    private PricingCalculationResult result;
+    private String error;
+}
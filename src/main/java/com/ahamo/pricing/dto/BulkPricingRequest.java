@@ -0,0 +1,44 @@
+package com.ahamo.pricing.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotEmpty;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cartesian quote spec: every plan × device × payment option × option set combination
+ * is priced. An empty or missing {@code optionSets} means a single set with no options.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkPricingRequest {
+    
+    @NotEmpty(message = "At least one plan ID is required")
+    private List<String> planIds;
+    
+    @NotEmpty(message = "At least one device ID is required")
+    private List<String> deviceIds;
+    
+    @NotEmpty(message = "At least one payment option is required")
+    private List<PricingCalculationRequest.DevicePaymentOption> paymentOptions;
+    
+    private List<List<String>> optionSets;
+    
+    private String tradeInDeviceId;
+    
+    @DecimalMin(value = "0.0", message = "Data usage must be positive")
+    private BigDecimal dataUsage;
+    
+    @DecimalMin(value = "0.0", message = "Call minutes must be positive")
+    private BigDecimal callMinutes;
+    
+    private boolean isNewCustomer;
+    private boolean isMnpTransfer;
+}
@@ -0,0 +1,228 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.pricing.dto.BulkPricingCell;
+import com.ahamo.pricing.dto.BulkPricingRequest;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import com.ahamo.pricing.service.PricingCatalog.DeviceRate;
+import com.ahamo.pricing.service.PricingCatalog.OptionRate;
+import com.ahamo.pricing.service.PricingCatalog.PlanRate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Prices a cartesian quote grid. Every plan, device and option set is resolved once
+ * from the catalog snapshot. Cells are evaluated in chunks on a shared, fixed-size
+ * pool and handed back in completion order. Each request keeps only a few chunks in
+ * flight, so a large grid cannot monopolise the pool or buffer unbounded results.
+ */
+@Component
+@Slf4j
+public class BulkQuoteEvaluator {
+
+    private final PricingCatalog pricingCatalog;
+    private final PricingEngine pricingEngine;
+    private final ExecutorService workers;
+    private final int maxInFlight;
+    private final int chunkSize;
+    private final int maxCells;
+
+    public BulkQuoteEvaluator(PricingCatalog pricingCatalog,
+                              PricingEngine pricingEngine,
+                              @Value("${pricing.bulk.workers:4}") int workerCount,
+                              @Value("${pricing.bulk.chunk-size:32}") int chunkSize,
+                              @Value("${pricing.bulk.max-cells:5000}") int maxCells) {
+        this.pricingCatalog = pricingCatalog;
+        this.pricingEngine = pricingEngine;
+        this.chunkSize = chunkSize;
+        this.maxCells = maxCells;
+        this.maxInFlight = workerCount * 2;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-quote-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Validates the spec and starts pricing immediately; the returned stream yields
+     * cells as chunks complete and must be closed to cancel any remaining work.
+     */
+    public Stream<BulkPricingCell> evaluate(BulkPricingRequest request) {
+        Grid grid = new Grid(request, pricingCatalog.current());
+        if (grid.cellCount > maxCells) {
+            throw new RuntimeException("Bulk quote exceeds the limit of " + maxCells + " cells: " + grid.cellCount);
+        }
+
+        ChunkIterator chunks = new ChunkIterator(grid);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, Spliterator.NONNULL), false)
+                .flatMap(List::stream)
+                .onClose(chunks::cancel);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private List<BulkPricingCell> priceChunk(Grid grid, int from, int to) {
+        List<BulkPricingCell> cells = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            cells.add(grid.price(index));
+        }
+        return cells;
+    }
+
+    private final class Grid {
+        private final List<String> planIds;
+        private final List<String> deviceIds;
+        private final List<DevicePaymentOption> paymentOptions;
+        private final List<List<String>> optionSets;
+        private final PlanRate[] plans;
+        private final DeviceRate[] devices;
+        private final List<List<OptionRate>> options;
+        private final boolean tradeIn;
+        private final boolean newCustomer;
+        private final boolean mnpTransfer;
+        private final long callFee;
+        private final long dataFee;
+        private final LocalDateTime now = LocalDateTime.now();
+        private final long cellCount;
+
+        private Grid(BulkPricingRequest request, PricingCatalog.Snapshot snapshot) {
+            this.planIds = request.getPlanIds();
+            this.deviceIds = request.getDeviceIds();
+            this.paymentOptions = request.getPaymentOptions();
+            this.optionSets = request.getOptionSets() == null || request.getOptionSets().isEmpty()
+                    ? Collections.singletonList(Collections.emptyList())
+                    : request.getOptionSets();
+            this.cellCount = (long) planIds.size() * deviceIds.size() * paymentOptions.size() * optionSets.size();
+
+            this.plans = new PlanRate[planIds.size()];
+            for (int i = 0; i < plans.length; i++) {
+                plans[i] = snapshot.findPlan(planIds.get(i));
+            }
+            this.devices = new DeviceRate[deviceIds.size()];
+            for (int i = 0; i < devices.length; i++) {
+                devices[i] = snapshot.findDevice(deviceIds.get(i));
+            }
+            this.options = new ArrayList<>(optionSets.size());
+            for (List<String> optionIds : optionSets) {
+                options.add(PricingEngine.selectOptions(snapshot, optionIds));
+            }
+
+            this.tradeIn = request.getTradeInDeviceId() != null;
+            this.newCustomer = request.isNewCustomer();
+            this.mnpTransfer = request.isMnpTransfer();
+            this.callFee = Money.multiply(request.getCallMinutes(), PricingEngine.CALL_RATE_SEN);
+            this.dataFee = Money.multiply(request.getDataUsage(), PricingEngine.DATA_RATE_SEN);
+        }
+
+        /** Cell index order: option set varies fastest, then payment option, device, plan. */
+        private BulkPricingCell price(int index) {
+            int optionSet = index % optionSets.size();
+            int rest = index / optionSets.size();
+            int paymentOption = rest % paymentOptions.size();
+            rest /= paymentOptions.size();
+            int device = rest % deviceIds.size();
+            int plan = rest / deviceIds.size();
+
+            BulkPricingCell cell = BulkPricingCell.builder()
+                    .planId(planIds.get(plan))
+                    .deviceId(deviceIds.get(device))
+                    .paymentOption(paymentOptions.get(paymentOption))
+                    .optionIds(optionSets.get(optionSet))
+                    .build();
+
+            if (plans[plan] == null) {
+                cell.setError("Plan not found: " + planIds.get(plan));
+            } else if (devices[device] == null) {
+                cell.setError("Device not found: " + deviceIds.get(device));
+            } else {
+                try {
+                    cell.setResult(pricingEngine.evaluate(plans[plan], devices[device], options.get(optionSet),
+                            paymentOptions.get(paymentOption), tradeIn, newCustomer, mnpTransfer,
+                            callFee, dataFee, now).toResult());
+                } catch (RuntimeException e) {
+                    cell.setError(e.getMessage());
+                }
+            }
+            return cell;
+        }
+    }
+
+    private final class ChunkIterator implements Iterator<List<BulkPricingCell>> {
+        private final Grid grid;
+        private final CompletionService<List<BulkPricingCell>> completion = new ExecutorCompletionService<>(workers);
+        private final List<Future<List<BulkPricingCell>>> submitted = new ArrayList<>();
+        private final int totalChunks;
+        private int nextChunk;
+        private int received;
+
+        private ChunkIterator(Grid grid) {
+            this.grid = grid;
+            this.totalChunks = (int) ((grid.cellCount + chunkSize - 1) / chunkSize);
+            submitAhead();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return received < totalChunks;
+        }
+
+        @Override
+        public List<BulkPricingCell> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                List<BulkPricingCell> cells = completion.take().get();
+                received++;
+                submitAhead();
+                return cells;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new RuntimeException("Bulk quote interrupted", e);
+            } catch (ExecutionException e) {
+                cancel();
+                throw new RuntimeException("Bulk quote failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        private void submitAhead() {
+            while (nextChunk < totalChunks && nextChunk - received < maxInFlight) {
+                int from = nextChunk * chunkSize;
+                int to = (int) Math.min(from + (long) chunkSize, grid.cellCount);
+                submitted.add(completion.submit(() -> priceChunk(grid, from, to)));
+                nextChunk++;
+            }
+        }
+
+        private void cancel() {
+            for (Future<List<BulkPricingCell>> future : submitted) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ahamo.pricing.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point yen arithmetic on {@code long} sen (1/100 yen) with the same HALF_UP
+ * rounding the BigDecimal pricing used.
+ */
+final class Money {
+
+    static final int SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    private Money() {
+    }
+
+    static long toSen(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal toDecimal(long sen) {
+        return BigDecimal.valueOf(sen, SCALE);
+    }
+
+    /**
+     * {@code quantity × rateSen}, rounded HALF_UP to sen. Stays on longs for the
+     * quantities a request realistically carries and falls back to BigDecimal otherwise.
+     */
+    static long multiply(BigDecimal quantity, long rateSen) {
+        if (quantity == null) {
+            return 0L;
+        }
+        int scale = quantity.scale();
+        if (scale >= 0 && scale < POWERS_OF_TEN.length && quantity.precision() <= 9 && Math.abs(rateSen) < 1_000_000_000L) {
+            return divideHalfUp(quantity.unscaledValue().longValue() * rateSen, POWERS_OF_TEN[scale]);
+        }
+        return toSen(quantity.multiply(toDecimal(rateSen)));
+    }
+
+    /**
+     * Divides and rounds HALF_UP (away from zero on ties), as {@link RoundingMode#HALF_UP}.
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /**
+     * {@code sen × percent / 100}, rounded HALF_UP to whole yen.
+     */
+    static long percentOfInYen(long sen, long percent) {
+        return divideHalfUp(sen * percent, 100L * 100L);
+    }
+}
@@ -0,0 +1,278 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.device.model.Device;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.option.model.Option;
+import com.ahamo.option.repository.OptionRepository;
+import com.ahamo.plan.model.Plan;
+import com.ahamo.plan.repository.PlanRepository;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, pre-compiled copy of the plan/device/option catalog used for quoting.
+ * Recompiled as a whole after a local admin change and periodically to pick up changes
+ * made on other nodes; quotes never hit the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PricingCatalog {
+
+    static final long TRADE_IN_BASE_VALUE_SEN = 1_000_000L;
+
+    private final PlanRepository planRepository;
+    private final DeviceRepository deviceRepository;
+    private final OptionRepository optionRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale = true;
+
+    Snapshot current() {
+        if (stale) {
+            refreshIfStale();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Only marks the snapshot stale; the next quote recompiles it once, so a bulk import
+     * that fires one event per row costs a single rebuild.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getCatalog() == CatalogChangedEvent.Catalog.SHIPPING) {
+            return;
+        }
+        log.debug("Pricing catalog invalidated by {} change: {}", event.getCatalog(), event.getId());
+        stale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${pricing.catalog.refresh-interval:60000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh pricing catalog", e);
+        }
+    }
+
+    public synchronized void refresh() {
+        stale = false;
+        try {
+            snapshot = Snapshot.compile(planRepository.findAll(), deviceRepository.findAll(), optionRepository.findAll());
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        log.debug("Compiled pricing catalog: {} plans, {} devices, {} options",
+                snapshot.plans.size(), snapshot.devices.size(), snapshot.options.size());
+    }
+
+    private synchronized void refreshIfStale() {
+        if (stale) {
+            refresh();
+        }
+    }
+
+    static final class Snapshot {
+        private final Map<String, PlanRate> plans;
+        private final Map<String, DeviceRate> devices;
+        private final Map<String, OptionRate> options;
+        private final String version;
+
+        private Snapshot(Map<String, PlanRate> plans, Map<String, DeviceRate> devices, Map<String, OptionRate> options) {
+            this.plans = plans;
+            this.devices = devices;
+            this.options = options;
+            MessageDigest digest = sha256();
+            new TreeMap<>(plans).values().forEach(plan -> update(digest, "P", plan.fingerprint()));
+            new TreeMap<>(devices).values().forEach(device -> update(digest, "D", device.fingerprint()));
+            new TreeMap<>(options).values().forEach(option -> update(digest, "O", option.fingerprint()));
+            this.version = Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16));
+        }
+
+        /**
+         * 128-bit content digest of every priced field. Identical catalogs produce the same
+         * version on every node and across periodic recompiles, so it can key derived caches.
+         */
+        String version() {
+            return version;
+        }
+
+        private static void update(MessageDigest digest, String section, List<Object> fields) {
+            StringBuilder record = new StringBuilder(section);
+            for (Object field : fields) {
+                String value = String.valueOf(field);
+                record.append('|').append(field == null ? -1 : value.length()).append(':').append(value);
+            }
+            digest.update(record.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        static Snapshot compile(List<Plan> plans, List<Device> devices, List<Option> options) {
+            Map<String, PlanRate> planRates = new HashMap<>();
+            plans.forEach(plan -> planRates.put(plan.getId(), new PlanRate(plan)));
+            Map<String, DeviceRate> deviceRates = new HashMap<>();
+            devices.forEach(device -> deviceRates.put(device.getId(), new DeviceRate(device)));
+            Map<String, OptionRate> optionRates = new HashMap<>();
+            options.forEach(option -> optionRates.put(option.getId(), new OptionRate(option)));
+            return new Snapshot(Collections.unmodifiableMap(planRates),
+                    Collections.unmodifiableMap(deviceRates),
+                    Collections.unmodifiableMap(optionRates));
+        }
+
+        PlanRate findPlan(String planId) {
+            return plans.get(planId);
+        }
+
+        DeviceRate findDevice(String deviceId) {
+            return devices.get(deviceId);
+        }
+
+        PlanRate plan(String planId) {
+            PlanRate plan = plans.get(planId);
+            if (plan == null) {
+                throw new RuntimeException("Plan not found: " + planId);
+            }
+            return plan;
+        }
+
+        DeviceRate device(String deviceId) {
+            DeviceRate device = devices.get(deviceId);
+            if (device == null) {
+                throw new RuntimeException("Device not found: " + deviceId);
+            }
+            return device;
+        }
+
+        OptionRate option(String optionId) {
+            return options.get(optionId);
+        }
+    }
+
+    static final class PlanRate {
+        final String id;
+        final String name;
+        final String description;
+        final String dataCapacity;
+        final String voiceCalls;
+        final long monthlyFeeSen;
+        final LocalDateTime campaignStart;
+        final LocalDateTime campaignEnd;
+
+        private PlanRate(Plan plan) {
+            this.id = plan.getId();
+            this.name = plan.getName();
+            this.description = plan.getDescription();
+            this.dataCapacity = plan.getDataCapacity();
+            this.voiceCalls = plan.getVoiceCalls();
+            this.monthlyFeeSen = Money.toSen(plan.getMonthlyFee());
+            this.campaignStart = plan.getCampaignStartDate();
+            this.campaignEnd = plan.getCampaignEndDate();
+        }
+
+        boolean campaignActive(LocalDateTime now) {
+            return campaignStart != null && campaignEnd != null
+                    && now.isAfter(campaignStart) && now.isBefore(campaignEnd);
+        }
+
+        List<Object> fingerprint() {
+            return Arrays.asList(id, name, description, dataCapacity, voiceCalls, monthlyFeeSen, campaignStart, campaignEnd);
+        }
+    }
+
+    static final class DeviceRate {
+        final String id;
+        final String name;
+        final String brand;
+        final long priceSen;
+        /** Indexed by [trade-in ? 1 : 0][payment option ordinal]. */
+        private final long[][] monthlyPaymentSen;
+
+        private DeviceRate(Device device) {
+            this.id = device.getId();
+            this.name = device.getName();
+            this.brand = device.getBrand();
+            this.priceSen = Money.toSen(device.getPrice());
+
+            DevicePaymentOption[] paymentOptions = DevicePaymentOption.values();
+            this.monthlyPaymentSen = new long[2][paymentOptions.length];
+            for (int tradeIn = 0; tradeIn < 2; tradeIn++) {
+                long total = totalPriceSen(tradeIn == 1);
+                for (DevicePaymentOption paymentOption : paymentOptions) {
+                    monthlyPaymentSen[tradeIn][paymentOption.ordinal()] = installments(paymentOption) == 0
+                            ? 0L
+                            : Money.divideHalfUp(total, installments(paymentOption));
+                }
+            }
+        }
+
+        long totalPriceSen(boolean tradeIn) {
+            return tradeIn ? priceSen - TRADE_IN_BASE_VALUE_SEN : priceSen;
+        }
+
+        long monthlyPaymentSen(boolean tradeIn, DevicePaymentOption paymentOption) {
+            return monthlyPaymentSen[tradeIn ? 1 : 0][paymentOption.ordinal()];
+        }
+
+        List<Object> fingerprint() {
+            return Arrays.asList(id, name, brand, priceSen);
+        }
+
+        private static int installments(DevicePaymentOption paymentOption) {
+            switch (paymentOption) {
+                case INSTALLMENT_24:
+                    return 24;
+                case INSTALLMENT_36:
+                    return 36;
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    static final class OptionRate {
+        final String id;
+        final String name;
+        final String category;
+        final long monthlyFeeSen;
+        final long oneTimeFeeSen;
+
+        private OptionRate(Option option) {
+            this.id = option.getId();
+            this.name = option.getName();
+            this.category = option.getCategory() != null ? option.getCategory().toString() : null;
+            this.monthlyFeeSen = Money.toSen(option.getMonthlyFee());
+            this.oneTimeFeeSen = Money.toSen(option.getOneTimeFee());
+        }
+
+        List<Object> fingerprint() {
+            return Arrays.asList(id, name, category, monthlyFeeSen, oneTimeFeeSen);
+        }
+    }
+}
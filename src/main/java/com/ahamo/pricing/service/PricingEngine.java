@@ -0,0 +1,98 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.pricing.dto.PricingCalculationRequest;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import com.ahamo.pricing.service.PricingCatalog.DeviceRate;
+import com.ahamo.pricing.service.PricingCatalog.OptionRate;
+import com.ahamo.pricing.service.PricingCatalog.PlanRate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Evaluates quotes against the compiled {@link PricingCatalog} using fixed-point sen
+ * arithmetic. No database access and no BigDecimal on the hot path.
+ */
+@Component
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    static final long CALL_RATE_SEN = 2_200L;
+    static final long DATA_RATE_SEN = 55_000L;
+    static final long NEW_CUSTOMER_DISCOUNT_SEN = 100_000L;
+    static final long MNP_TRANSFER_BONUS_SEN = 200_000L;
+    static final long PLAN_CAMPAIGN_DISCOUNT_SEN = 50_000L;
+    static final long TAX_RATE_PERCENT = 10L;
+
+    private final PricingCatalog pricingCatalog;
+
+    public PricingQuote quote(PricingCalculationRequest request) {
+        PricingCatalog.Snapshot snapshot = pricingCatalog.current();
+        PlanRate plan = snapshot.plan(request.getPlanId());
+        DeviceRate device = snapshot.device(request.getDeviceId());
+        List<OptionRate> options = selectOptions(snapshot, request.getSelectedOptionIds());
+
+        return evaluate(plan, device, options, request.getPaymentOption(), request.getTradeInDeviceId() != null,
+                request.isNewCustomer(), request.isMnpTransfer(),
+                Money.multiply(request.getCallMinutes(), CALL_RATE_SEN),
+                Money.multiply(request.getDataUsage(), DATA_RATE_SEN),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Evaluates one quote from already resolved catalog entries, so callers pricing many
+     * combinations look each entity up only once.
+     */
+    PricingQuote evaluate(PlanRate plan, DeviceRate device, List<OptionRate> options,
+                          DevicePaymentOption paymentOption, boolean tradeIn,
+                          boolean newCustomer, boolean mnpTransfer,
+                          long callFee, long dataFee, LocalDateTime now) {
+        if (paymentOption == null) {
+            throw new RuntimeException("Unsupported payment option: null");
+        }
+        boolean campaignActive = plan.campaignActive(now);
+        long deviceTotal = device.totalPriceSen(tradeIn);
+        long deviceMonthly = device.monthlyPaymentSen(tradeIn, paymentOption);
+
+        long optionMonthly = 0L;
+        long optionOneTime = 0L;
+        for (OptionRate option : options) {
+            optionMonthly += option.monthlyFeeSen;
+            optionOneTime += option.oneTimeFeeSen;
+        }
+
+        long discounts = (newCustomer ? NEW_CUSTOMER_DISCOUNT_SEN : 0L)
+                + (mnpTransfer ? MNP_TRANSFER_BONUS_SEN : 0L);
+        long campaignDiscounts = campaignActive ? PLAN_CAMPAIGN_DISCOUNT_SEN : 0L;
+
+        long monthlyTotal = plan.monthlyFeeSen + callFee + dataFee + deviceMonthly + optionMonthly
+                - discounts - campaignDiscounts;
+        long initialCost = optionOneTime + (paymentOption == DevicePaymentOption.LUMP_SUM ? deviceTotal : 0L);
+        long totalAmount = monthlyTotal + initialCost;
+        long taxIncludedYen = Money.percentOfInYen(totalAmount, 100L + TAX_RATE_PERCENT);
+
+        return new PricingQuote(plan, device, options, paymentOption, tradeIn,
+                newCustomer, mnpTransfer, campaignActive,
+                callFee, dataFee, deviceTotal, deviceMonthly, optionMonthly, discounts,
+                monthlyTotal, initialCost, totalAmount, taxIncludedYen);
+    }
+
+    static List<OptionRate> selectOptions(PricingCatalog.Snapshot snapshot, List<String> optionIds) {
+        if (optionIds == null || optionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<OptionRate> options = new ArrayList<>(optionIds.size());
+        for (String optionId : new LinkedHashSet<>(optionIds)) {
+            OptionRate option = snapshot.option(optionId);
+            if (option != null) {
+                options.add(option);
+            }
+        }
+        return options;
+    }
+}
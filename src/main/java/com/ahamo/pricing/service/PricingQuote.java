@@ -0,0 +1,262 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.pricing.dto.EstimateResult;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import com.ahamo.pricing.dto.PricingCalculationResult;
+import com.ahamo.pricing.service.PricingCatalog.DeviceRate;
+import com.ahamo.pricing.service.PricingCatalog.OptionRate;
+import com.ahamo.pricing.service.PricingCatalog.PlanRate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Result of {@link PricingEngine#quote}: all amounts in sen (tax-included in yen),
+ * converted to the API's BigDecimal DTOs only when a response is built.
+ */
+public final class PricingQuote {
+
+    private final PlanRate plan;
+    private final DeviceRate device;
+    private final List<OptionRate> options;
+    private final DevicePaymentOption paymentOption;
+    private final boolean tradeIn;
+    private final boolean newCustomer;
+    private final boolean mnpTransfer;
+    private final boolean campaignActive;
+
+    private final long callFee;
+    private final long dataFee;
+    private final long deviceTotal;
+    private final long deviceMonthly;
+    private final long optionMonthly;
+    private final long discounts;
+    private final long monthlyTotal;
+    private final long initialCost;
+    private final long totalAmount;
+    private final long taxIncludedYen;
+
+    PricingQuote(PlanRate plan, DeviceRate device, List<OptionRate> options, DevicePaymentOption paymentOption,
+                 boolean tradeIn, boolean newCustomer, boolean mnpTransfer, boolean campaignActive,
+                 long callFee, long dataFee, long deviceTotal, long deviceMonthly, long optionMonthly,
+                 long discounts, long monthlyTotal, long initialCost, long totalAmount, long taxIncludedYen) {
+        this.plan = plan;
+        this.device = device;
+        this.options = options;
+        this.paymentOption = paymentOption;
+        this.tradeIn = tradeIn;
+        this.newCustomer = newCustomer;
+        this.mnpTransfer = mnpTransfer;
+        this.campaignActive = campaignActive;
+        this.callFee = callFee;
+        this.dataFee = dataFee;
+        this.deviceTotal = deviceTotal;
+        this.deviceMonthly = deviceMonthly;
+        this.optionMonthly = optionMonthly;
+        this.discounts = discounts;
+        this.monthlyTotal = monthlyTotal;
+        this.initialCost = initialCost;
+        this.totalAmount = totalAmount;
+        this.taxIncludedYen = taxIncludedYen;
+    }
+
+    public long getMonthlyTotalSen() {
+        return monthlyTotal;
+    }
+
+    public long getInitialCostSen() {
+        return initialCost;
+    }
+
+    public long getTaxIncludedYen() {
+        return taxIncludedYen;
+    }
+
+    public PricingCalculationResult toResult() {
+        PricingCalculationResult.PricingBreakdown breakdown = PricingCalculationResult.PricingBreakdown.builder()
+                .baseFee(Money.toDecimal(plan.monthlyFeeSen))
+                .callFee(Money.toDecimal(callFee))
+                .dataFee(Money.toDecimal(dataFee))
+                .deviceCost(toDeviceCost())
+                .optionFees(options.stream()
+                        .map(option -> PricingCalculationResult.OptionFee.builder()
+                                .id(option.id)
+                                .name(option.name)
+                                .monthlyFee(Money.toDecimal(option.monthlyFeeSen))
+                                .oneTimeFee(Money.toDecimal(option.oneTimeFeeSen))
+                                .build())
+                        .collect(Collectors.toList()))
+                .discounts(toDiscounts())
+                .campaigns(toCampaigns())
+                .build();
+
+        return PricingCalculationResult.builder()
+                .monthlyTotal(Money.toDecimal(monthlyTotal))
+                .initialCost(Money.toDecimal(initialCost))
+                .totalAmount(Money.toDecimal(totalAmount))
+                .taxIncluded(BigDecimal.valueOf(taxIncludedYen))
+                .breakdown(breakdown)
+                .build();
+    }
+
+    public EstimateResult.EstimateSummary toEstimateSummary(int periodMonths) {
+        long totalWithInitial = monthlyTotal * periodMonths + initialCost;
+
+        return EstimateResult.EstimateSummary.builder()
+                .totalInitialCost(Money.toDecimal(initialCost))
+                .averageMonthlyFee(Money.toDecimal(monthlyTotal))
+                .totalAmountForPeriod(Money.toDecimal(totalWithInitial))
+                .totalTaxAmount(BigDecimal.valueOf(Money.percentOfInYen(totalWithInitial, PricingEngine.TAX_RATE_PERCENT)))
+                .estimatePeriodMonths(periodMonths)
+                .build();
+    }
+
+    public List<EstimateResult.MonthlyBreakdown> toMonthlyBreakdowns(int periodMonths) {
+        long taxYen = Money.percentOfInYen(monthlyTotal, PricingEngine.TAX_RATE_PERCENT);
+        BigDecimal baseFee = Money.toDecimal(plan.monthlyFeeSen);
+        BigDecimal devicePayment = Money.toDecimal(deviceMonthly);
+        BigDecimal optionFees = Money.toDecimal(optionMonthly);
+        BigDecimal discountTotal = Money.toDecimal(discounts);
+        BigDecimal subtotal = Money.toDecimal(monthlyTotal);
+        BigDecimal tax = BigDecimal.valueOf(taxYen);
+        BigDecimal total = Money.toDecimal(monthlyTotal + taxYen * 100L);
+
+        List<EstimateResult.MonthlyBreakdown> breakdowns = new ArrayList<>(periodMonths);
+        for (int month = 1; month <= periodMonths; month++) {
+            breakdowns.add(EstimateResult.MonthlyBreakdown.builder()
+                    .month(month)
+                    .baseFee(baseFee)
+                    .devicePayment(devicePayment)
+                    .optionFees(optionFees)
+                    .discounts(discountTotal)
+                    .subtotal(subtotal)
+                    .tax(tax)
+                    .total(total)
+                    .build());
+        }
+        return breakdowns;
+    }
+
+    public EstimateResult.EstimateDetails toEstimateDetails() {
+        EstimateResult.PlanDetails planDetails = EstimateResult.PlanDetails.builder()
+                .id(plan.id)
+                .name(plan.name)
+                .description(plan.description)
+                .monthlyFee(Money.toDecimal(plan.monthlyFeeSen))
+                .dataCapacity(plan.dataCapacity)
+                .voiceCalls(plan.voiceCalls)
+                .build();
+
+        EstimateResult.DeviceDetails deviceDetails = EstimateResult.DeviceDetails.builder()
+                .id(device.id)
+                .name(device.name)
+                .brand(device.brand)
+                .price(Money.toDecimal(device.priceSen))
+                .paymentOption(paymentOptionLabel())
+                .monthlyPayment(Money.toDecimal(deviceMonthly))
+                .tradeInValue(Money.toDecimal(tradeInDiscount()))
+                .build();
+
+        List<EstimateResult.OptionDetails> optionDetails = options.stream()
+                .map(option -> EstimateResult.OptionDetails.builder()
+                        .id(option.id)
+                        .name(option.name)
+                        .category(option.category)
+                        .monthlyFee(Money.toDecimal(option.monthlyFeeSen))
+                        .oneTimeFee(Money.toDecimal(option.oneTimeFeeSen))
+                        .build())
+                .collect(Collectors.toList());
+
+        List<EstimateResult.DiscountDetails> discountDetails = toDiscounts().stream()
+                .map(discount -> EstimateResult.DiscountDetails.builder()
+                        .id(discount.getId())
+                        .name(discount.getName())
+                        .amount(discount.getAmount())
+                        .type(discount.getType())
+                        .description(discount.getName())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<EstimateResult.CampaignDetails> campaignDetails = toCampaigns().stream()
+                .map(campaign -> EstimateResult.CampaignDetails.builder()
+                        .id(campaign.getId())
+                        .name(campaign.getName())
+                        .discountAmount(campaign.getDiscountAmount())
+                        .validUntil(campaign.getValidUntil())
+                        .description(campaign.getName())
+                        .build())
+                .collect(Collectors.toList());
+
+        return EstimateResult.EstimateDetails.builder()
+                .plan(planDetails)
+                .device(deviceDetails)
+                .options(optionDetails)
+                .discounts(discountDetails)
+                .campaigns(campaignDetails)
+                .build();
+    }
+
+    private PricingCalculationResult.DeviceCost toDeviceCost() {
+        return PricingCalculationResult.DeviceCost.builder()
+                .deviceId(device.id)
+                .deviceName(device.name)
+                .totalPrice(Money.toDecimal(deviceTotal))
+                .monthlyPayment(Money.toDecimal(deviceMonthly))
+                .paymentOption(paymentOptionLabel())
+                .tradeInDiscount(Money.toDecimal(tradeInDiscount()))
+                .build();
+    }
+
+    private List<PricingCalculationResult.Discount> toDiscounts() {
+        List<PricingCalculationResult.Discount> result = new ArrayList<>();
+        if (newCustomer) {
+            result.add(PricingCalculationResult.Discount.builder()
+                    .id("new_customer_discount")
+                    .name("新規契約割引")
+                    .amount(Money.toDecimal(PricingEngine.NEW_CUSTOMER_DISCOUNT_SEN))
+                    .type("固定額")
+                    .build());
+        }
+        if (mnpTransfer) {
+            result.add(PricingCalculationResult.Discount.builder()
+                    .id("mnp_transfer_bonus")
+                    .name("乗り換えボーナス")
+                    .amount(Money.toDecimal(PricingEngine.MNP_TRANSFER_BONUS_SEN))
+                    .type("固定額")
+                    .build());
+        }
+        return result;
+    }
+
+    private List<PricingCalculationResult.Campaign> toCampaigns() {
+        List<PricingCalculationResult.Campaign> result = new ArrayList<>();
+        if (campaignActive) {
+            result.add(PricingCalculationResult.Campaign.builder()
+                    .id("plan_campaign_" + plan.id)
+                    .name("プランキャンペーン")
+                    .discountAmount(Money.toDecimal(PricingEngine.PLAN_CAMPAIGN_DISCOUNT_SEN))
+                    .validUntil(plan.campaignEnd.toString())
+                    .build());
+        }
+        return result;
+    }
+
+    private long tradeInDiscount() {
+        return tradeIn ? PricingCatalog.TRADE_IN_BASE_VALUE_SEN : 0L;
+    }
+
+    private String paymentOptionLabel() {
+        switch (paymentOption) {
+            case LUMP_SUM:
+                return "一括払い";
+            case INSTALLMENT_24:
+                return "24回分割";
+            case INSTALLMENT_36:
+                return "36回分割";
+            default:
+                throw new RuntimeException("Unsupported payment option: " + paymentOption);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.pricing.dto.PricingCalculationRequest;
+import com.ahamo.pricing.dto.PricingCalculationResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, TTL-limited cache of quote results keyed by a canonical form of the request
+ * plus the catalog version. Requests that price the same way share one entry, and a
+ * catalog change on any node moves lookups onto a new key space. The TTL also bounds
+ * how long a result can outlive a campaign window boundary.
+ * <p>
+ * The result DTOs are mutable, so the cache keeps a private copy and hands every caller
+ * its own copy.
+ */
+@Component
+public class PricingQuoteCache {
+
+    private final PricingCatalog pricingCatalog;
+    private final Cache<String, PricingCalculationResult> cache;
+
+    public PricingQuoteCache(PricingCatalog pricingCatalog,
+                             MeterRegistry meterRegistry,
+                             @Value("${pricing.quote-cache.max-size:10000}") long maxSize,
+                             @Value("${pricing.quote-cache.ttl:300000}") long ttlMillis) {
+        this.pricingCatalog = pricingCatalog;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pricingQuotes");
+    }
+
+    public PricingCalculationResult get(PricingCalculationRequest request, Supplier<PricingCalculationResult> loader) {
+        return copy(cache.get(canonicalKey(request, pricingCatalog.current().version()), key -> copy(loader.get())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getCatalog() == CatalogChangedEvent.Catalog.SHIPPING) {
+            return;
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * Only fields that affect the price take part: the trade-in device is reduced to
+     * whether one is present, option ids are de-duplicated and sorted, and quantities
+     * are compared by value rather than scale. Free-text ids are length-prefixed, so
+     * no two requests share a key.
+     */
+    static String canonicalKey(PricingCalculationRequest request, String catalogVersion) {
+        StringBuilder key = new StringBuilder(128).append(catalogVersion).append('|');
+        appendId(key, request.getPlanId());
+        appendId(key, request.getDeviceId());
+        key.append(request.getPaymentOption()).append('|')
+                .append(request.getTradeInDeviceId() != null ? 'T' : 'F')
+                .append(request.isNewCustomer() ? 'N' : '-')
+                .append(request.isMnpTransfer() ? 'M' : '-').append('|')
+                .append(canonicalQuantity(request.getCallMinutes())).append('|')
+                .append(canonicalQuantity(request.getDataUsage())).append('|');
+        List<String> optionIds = request.getSelectedOptionIds();
+        if (optionIds != null) {
+            new TreeSet<>(optionIds).forEach(optionId -> appendId(key, optionId));
+        }
+        return key.toString();
+    }
+
+    private static void appendId(StringBuilder key, String id) {
+        if (id == null) {
+            key.append("-|");
+        } else {
+            key.append(id.length()).append(':').append(id).append('|');
+        }
+    }
+
+    /** Deep copy; every nested object and list is new, so neither side can change the other. */
+    static PricingCalculationResult copy(PricingCalculationResult result) {
+        if (result == null) {
+            return null;
+        }
+        return new PricingCalculationResult(result.getMonthlyTotal(), result.getInitialCost(),
+                result.getTotalAmount(), result.getTaxIncluded(), copy(result.getBreakdown()));
+    }
+
+    private static PricingCalculationResult.PricingBreakdown copy(PricingCalculationResult.PricingBreakdown breakdown) {
+        if (breakdown == null) {
+            return null;
+        }
+        PricingCalculationResult.DeviceCost deviceCost = breakdown.getDeviceCost();
+        return new PricingCalculationResult.PricingBreakdown(
+                breakdown.getBaseFee(),
+                breakdown.getCallFee(),
+                breakdown.getDataFee(),
+                deviceCost == null ? null : new PricingCalculationResult.DeviceCost(deviceCost.getDeviceId(),
+                        deviceCost.getDeviceName(), deviceCost.getTotalPrice(), deviceCost.getMonthlyPayment(),
+                        deviceCost.getPaymentOption(), deviceCost.getTradeInDiscount()),
+                copyList(breakdown.getOptionFees(), fee -> new PricingCalculationResult.OptionFee(
+                        fee.getId(), fee.getName(), fee.getMonthlyFee(), fee.getOneTimeFee())),
+                copyList(breakdown.getDiscounts(), discount -> new PricingCalculationResult.Discount(
+                        discount.getId(), discount.getName(), discount.getAmount(), discount.getType())),
+                copyList(breakdown.getCampaigns(), campaign -> new PricingCalculationResult.Campaign(
+                        campaign.getId(), campaign.getName(), campaign.getDiscountAmount(), campaign.getValidUntil())));
+    }
+
+    private static <T> List<T> copyList(List<T> items, UnaryOperator<T> copier) {
+        if (items == null) {
+            return null;
+        }
+        List<T> copy = new ArrayList<>(items.size());
+        for (T item : items) {
+            copy.add(item == null ? null : copier.apply(item));
+        }
+        return copy;
+    }
+
+    private static String canonicalQuantity(BigDecimal quantity) {
+        if (quantity == null || quantity.signum() == 0) {
+            return "0";
+        }
+        return quantity.stripTrailingZeros().toPlainString();
+    }
+}
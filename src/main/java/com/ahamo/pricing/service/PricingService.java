@@ -1,13 +1,23 @@
 package com.ahamo.pricing.service;
 
+import com.ahamo.pricing.dto.BulkPricingCell;
+import com.ahamo.pricing.dto.BulkPricingRequest;
 import com.ahamo.pricing.dto.PricingCalculationRequest;
 import com.ahamo.pricing.dto.PricingCalculationResult;
 import com.ahamo.pricing.dto.EstimateRequest;
 import com.ahamo.pricing.dto.EstimateResult;
 
+import java.util.stream.Stream;
+
 public interface PricingService {
     
     PricingCalculationResult calculatePricing(PricingCalculationRequest request);
     
     EstimateResult generateEstimate(EstimateRequest request);
+    
+    /**
+     * Prices every combination in the spec, yielding cells as they complete. The
+     * returned stream must be closed.
+     */
+    Stream<BulkPricingCell> calculateBulkPricing(BulkPricingRequest request);
 }
@@ -0,0 +1,174 @@
+package com.ahamo.security.jwt;
+
+import com.ahamo.security.service.CustomUserDetailsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verified-token fast path for the JWT filter. Maps the SHA-256 digest of a token to its
+ * subject, expiry and loaded principal, so a repeated token skips signature verification
+ * and the user lookup.
+ * <ul>
+ *   <li>Entries live for the configured TTL, never past the token's own expiry.</li>
+ *   <li>{@link #invalidate} drops a user's entries locally and on every other node through
+ *       the Redis channel {@code security:principal:invalidate}.</li>
+ *   <li>A principal loaded while an invalidation was in flight is returned but not cached.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class AuthenticatedPrincipalCache {
+
+    static final String CHANNEL = "security:principal:invalidate";
+
+    private final JwtTokenProvider tokenProvider;
+    private final CustomUserDetailsService userDetailsService;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<String, Entry> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter invalidationCounter;
+
+    public AuthenticatedPrincipalCache(JwtTokenProvider tokenProvider,
+                                       CustomUserDetailsService userDetailsService,
+                                       StringRedisTemplate redisTemplate,
+                                       RedisMessageListenerContainer listenerContainer,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${security.principal-cache.max-size:10000}") long maxSize,
+                                       @Value("${security.principal-cache.ttl:60000}") long ttlMillis) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                        long remainingMillis = Math.max(0, entry.claims.getExpiresAt().toEpochMilli() - System.currentTimeMillis());
+                        return Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtPrincipals");
+        this.invalidationCounter = meterRegistry.counter("security.principal.cache.invalidations");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) ->
+                evict(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+    }
+
+    /** Returns the principal for a valid token, or {@code null} when the token does not verify. */
+    public UserDetails resolve(String token) {
+        String digest = digest(token);
+        Entry cached = cache.getIfPresent(digest);
+        if (cached != null) {
+            return cached.principal;
+        }
+
+        Optional<JwtClaims> claims = tokenProvider.verify(token);
+        if (claims.isEmpty()) {
+            return null;
+        }
+        long seen = invalidations.get();
+        UserDetails principal = userDetailsService.loadUserByUsername(claims.get().getSubject());
+        if (invalidations.get() == seen) {
+            cache.put(digest, new Entry(claims.get(), principal));
+        }
+        return principal;
+    }
+
+    /**
+     * Drops every cached principal of the user on all nodes, e.g. after logout, a role change
+     * or a lock. Inside a transaction the entries are dropped again and the event published
+     * after commit, so a request racing the commit cannot cache the old state.
+     */
+    public void invalidate(String username) {
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                    publish(username);
+                }
+            });
+        } else {
+            publish(username);
+        }
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    void evict(String username) {
+        invalidations.incrementAndGet();
+        invalidationCounter.increment();
+        cache.asMap().values().removeIf(entry -> entry.claims.getSubject().equals(username));
+    }
+
+    private void publish(String username) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, username);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish principal invalidation, other nodes fall back to the cache TTL: {}", e.getMessage());
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final JwtClaims claims;
+        private final UserDetails principal;
+
+        private Entry(JwtClaims claims, UserDetails principal) {
+            this.claims = claims;
+            this.principal = principal;
+        }
+    }
+}
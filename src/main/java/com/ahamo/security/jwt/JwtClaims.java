@@ -0,0 +1,42 @@
+package com.ahamo.security.jwt;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified by
+ * {@link JwtTokenProvider#verify}.
+ */
+public final class JwtClaims {
+
+    private final String subject;
+    private final String type;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public JwtClaims(String subject, String type, Instant issuedAt, Instant expiresAt) {
+        this.subject = subject;
+        this.type = type;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isRefreshToken() {
+        return JwtTokenProvider.REFRESH_TYPE.equals(type);
+    }
+}
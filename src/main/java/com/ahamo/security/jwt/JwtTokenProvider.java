@@ -3,6 +3,7 @@ package com.ahamo.security.jwt;
 import com.ahamo.user.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -14,11 +15,15 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    static final String ACCESS_TYPE = "access";
+    static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -29,10 +34,14 @@ public class JwtTokenProvider {
     private long refreshTokenExpiration;
 
     private Key key;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     public String generateAccessToken(Authentication authentication) {
@@ -44,7 +53,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(System.currentTimeMillis() + accessTokenExpiration);
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "access");
+        claims.put("type", ACCESS_TYPE);
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -59,7 +68,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(System.currentTimeMillis() + refreshTokenExpiration);
 
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put("type", REFRESH_TYPE);
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -70,23 +79,18 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public boolean validateToken(String authToken) {
+    /**
+     * Verifies the signature and expiry once and returns the claims, or empty when the
+     * token is not valid.
+     */
+    public Optional<JwtClaims> verify(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return Optional.of(new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("type", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -98,30 +102,26 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return Optional.empty();
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public boolean validateToken(String authToken) {
+        return verify(authToken).isPresent();
     }
 
     public boolean isRefreshToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return "refresh".equals(claims.get("type"));
+            return REFRESH_TYPE.equals(parser.parseClaimsJws(token).getBody().get("type"));
         } catch (Exception e) {
             return false;
         }
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getExpiration();
+        return parser.parseClaimsJws(token).getBody().getExpiration();
     }
 }
@@ -0,0 +1,161 @@
+package com.ahamo.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window login limiter per IP address. The window check, the attempt record and
+ * the block are one Lua script, so each attempt costs a single round trip and concurrent
+ * attempts cannot slip past the limit.
+ * <p>
+ * Addresses known to be blocked are remembered locally until their block expires, so
+ * traffic from a blocked address never reaches Redis. A block lifted directly in Redis
+ * is only noticed here once the local entry expires.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    public enum Outcome { ALLOWED, BLOCKED, NEWLY_BLOCKED }
+
+    static final String ATTEMPTS_PREFIX = "rate_limit:login:";
+    static final String BLOCK_PREFIX = "ip_blacklist:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RATE_LIMIT_SCRIPT = loadScript("redis/login-rate-limit.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final long blockMillis;
+    private final Cache<String, Long> blockedUntil;
+
+    private final Counter allowedCounter;
+    private final Counter rejectedCounter;
+    private final Counter blockedCounter;
+    private final Counter localHitCounter;
+
+    public LoginRateLimiter(StringRedisTemplate redisTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.rate-limit.login-attempts:5}") int maxAttempts,
+                            @Value("${security.rate-limit.time-window:300000}") long windowMillis,
+                            @Value("${security.rate-limit.block-duration:86400000}") long blockMillis,
+                            @Value("${security.rate-limit.local-block-cache-size:100000}") long localCacheSize) {
+        this.redisTemplate = redisTemplate;
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = windowMillis;
+        this.blockMillis = blockMillis;
+        this.blockedUntil = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String key, Long until, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, until - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Long until, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, until, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Long until, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.allowedCounter = meterRegistry.counter("security.rate.limit.attempts", "outcome", "allowed");
+        this.rejectedCounter = meterRegistry.counter("security.rate.limit.attempts", "outcome", "rejected");
+        this.blockedCounter = meterRegistry.counter("security.rate.limit.attempts", "outcome", "blocked");
+        this.localHitCounter = meterRegistry.counter("security.rate.limit.local.hits");
+    }
+
+    /** Records an attempt from the address and reports whether it may proceed. */
+    public Outcome tryAcquire(String ipAddress) {
+        if (isBlockedLocally(ipAddress)) {
+            rejectedCounter.increment();
+            return Outcome.BLOCKED;
+        }
+
+        long now = System.currentTimeMillis();
+        String attemptId = now + "-" + Long.toHexString(ThreadLocalRandom.current().nextLong());
+        List<?> result = redisTemplate.execute(RATE_LIMIT_SCRIPT,
+                Arrays.asList(ATTEMPTS_PREFIX + ipAddress, BLOCK_PREFIX + ipAddress),
+                String.valueOf(now), String.valueOf(windowMillis), String.valueOf(maxAttempts),
+                attemptId, String.valueOf(blockMillis));
+        if (result == null || result.size() < 2) {
+            throw new RuntimeException("Rate limit check failed for " + ipAddress);
+        }
+
+        long status = ((Number) result.get(0)).longValue();
+        if (status == 1) {
+            allowedCounter.increment();
+            return Outcome.ALLOWED;
+        }
+        rememberBlock(ipAddress, ((Number) result.get(1)).longValue());
+        if (status == 2) {
+            blockedCounter.increment();
+            return Outcome.NEWLY_BLOCKED;
+        }
+        rejectedCounter.increment();
+        return Outcome.BLOCKED;
+    }
+
+    public boolean isBlocked(String ipAddress) {
+        if (isBlockedLocally(ipAddress)) {
+            return true;
+        }
+        Long ttl = redisTemplate.getExpire(BLOCK_PREFIX + ipAddress, TimeUnit.MILLISECONDS);
+        if (ttl == null || ttl == -2) {
+            return false;
+        }
+        rememberBlock(ipAddress, ttl > 0 ? ttl : blockMillis);
+        return true;
+    }
+
+    public void block(String ipAddress) {
+        redisTemplate.opsForValue().set(BLOCK_PREFIX + ipAddress, "blocked", blockMillis, TimeUnit.MILLISECONDS);
+        rememberBlock(ipAddress, blockMillis);
+    }
+
+    public void reset(String ipAddress) {
+        redisTemplate.delete(ATTEMPTS_PREFIX + ipAddress);
+    }
+
+    private boolean isBlockedLocally(String ipAddress) {
+        if (blockedUntil.getIfPresent(ipAddress) != null) {
+            localHitCounter.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private void rememberBlock(String ipAddress, long ttlMillis) {
+        blockedUntil.put(ipAddress, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> loadScript(String path) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(List.class);
+        return script;
+    }
+}
@@ -1,83 +1,46 @@
 package com.ahamo.security.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class SecurityAuditService {
 
-    @Autowired
-    @Qualifier("stringRedisTemplate")
-    private RedisTemplate<String, String> redisTemplate;
-
-    @Value("${security.rate-limit.login-attempts:5}")
-    private int maxLoginAttempts;
-
-    @Value("${security.rate-limit.time-window:300000}")
-    private long timeWindow;
-
-    private static final String LOGIN_ATTEMPTS_PREFIX = "login_attempts:";
-    private static final String SECURITY_EVENT_PREFIX = "security_event:";
-    private static final String IP_BLACKLIST_PREFIX = "ip_blacklist:";
+    private final LoginRateLimiter rateLimiter;
+    private final SecurityEventWriter eventWriter;
 
     public boolean isIpBlocked(String ipAddress) {
-        String key = IP_BLACKLIST_PREFIX + ipAddress;
-        return redisTemplate.hasKey(key);
+        return rateLimiter.isBlocked(ipAddress);
     }
 
     public boolean checkRateLimit(String ipAddress) {
-        String key = LOGIN_ATTEMPTS_PREFIX + ipAddress;
-        String attempts = redisTemplate.opsForValue().get(key);
-        
-        if (attempts == null) {
-            redisTemplate.opsForValue().set(key, "1", timeWindow, TimeUnit.MILLISECONDS);
-            return true;
-        }
-        
-        int currentAttempts = Integer.parseInt(attempts);
-        if (currentAttempts >= maxLoginAttempts) {
-            blockIpAddress(ipAddress);
+        LoginRateLimiter.Outcome outcome = rateLimiter.tryAcquire(ipAddress);
+        if (outcome == LoginRateLimiter.Outcome.NEWLY_BLOCKED) {
+            log.warn("IP address blocked: {}", ipAddress);
             logSecurityEvent("RATE_LIMIT_EXCEEDED", ipAddress, "IP blocked due to excessive login attempts");
-            return false;
         }
-        
-        redisTemplate.opsForValue().increment(key);
-        return true;
+        return outcome == LoginRateLimiter.Outcome.ALLOWED;
     }
 
     public void resetRateLimit(String ipAddress) {
-        String key = LOGIN_ATTEMPTS_PREFIX + ipAddress;
-        redisTemplate.delete(key);
+        rateLimiter.reset(ipAddress);
     }
 
     public void blockIpAddress(String ipAddress) {
-        String key = IP_BLACKLIST_PREFIX + ipAddress;
-        redisTemplate.opsForValue().set(key, "blocked", 24, TimeUnit.HOURS);
+        rateLimiter.block(ipAddress);
         log.warn("IP address blocked: {}", ipAddress);
     }
 
     public void logSecurityEvent(String eventType, String ipAddress, String details) {
-        String eventKey = SECURITY_EVENT_PREFIX + System.currentTimeMillis();
-        
-        Map<String, String> eventData = new HashMap<>();
-        eventData.put("event_type", eventType);
-        eventData.put("ip_address", ipAddress);
-        eventData.put("details", details);
-        eventData.put("timestamp", LocalDateTime.now().toString());
-        
-        redisTemplate.opsForHash().putAll(eventKey, eventData);
-        redisTemplate.expire(eventKey, 30, TimeUnit.DAYS);
+        eventWriter.append(event(eventType, ipAddress, details));
         
         log.warn("Security event logged: {} from IP: {} - {}", eventType, ipAddress, details);
     }
@@ -100,39 +63,13 @@ public class SecurityAuditService {
     }
 
     public void logPersonalDataAccess(String eventType, String ipAddress, String details, Long customerId) {
-        String eventKey = SECURITY_EVENT_PREFIX + System.currentTimeMillis();
-        
-        Map<String, String> eventData = new HashMap<>();
-        eventData.put("event_type", eventType);
-        eventData.put("ip_address", ipAddress);
-        eventData.put("details", details);
-        eventData.put("timestamp", LocalDateTime.now().toString());
-        eventData.put("data_type", "PERSONAL_DATA");
-        if (customerId != null) {
-            eventData.put("customer_id", customerId.toString());
-        }
-        
-        redisTemplate.opsForHash().putAll(eventKey, eventData);
-        redisTemplate.expire(eventKey, 30, TimeUnit.DAYS);
+        eventWriter.append(personalDataEvent(eventType, ipAddress, details, "PERSONAL_DATA", customerId));
         
         log.info("Personal data access logged: {} from IP: {} - {}", eventType, ipAddress, details);
     }
 
     public void logPersonalDataChange(String eventType, String ipAddress, String details, Long customerId) {
-        String eventKey = SECURITY_EVENT_PREFIX + System.currentTimeMillis();
-        
-        Map<String, String> eventData = new HashMap<>();
-        eventData.put("event_type", eventType);
-        eventData.put("ip_address", ipAddress);
-        eventData.put("details", details);
-        eventData.put("timestamp", LocalDateTime.now().toString());
-        eventData.put("data_type", "PERSONAL_DATA_CHANGE");
-        if (customerId != null) {
-            eventData.put("customer_id", customerId.toString());
-        }
-        
-        redisTemplate.opsForHash().putAll(eventKey, eventData);
-        redisTemplate.expire(eventKey, 30, TimeUnit.DAYS);
+        eventWriter.append(personalDataEvent(eventType, ipAddress, details, "PERSONAL_DATA_CHANGE", customerId));
         
         log.warn("Personal data change logged: {} from IP: {} - {}", eventType, ipAddress, details);
     }
@@ -150,4 +87,23 @@ public class SecurityAuditService {
         
         return request.getRemoteAddr();
     }
+
+    private static Map<String, String> event(String eventType, String ipAddress, String details) {
+        Map<String, String> eventData = new HashMap<>();
+        eventData.put("event_type", eventType);
+        eventData.put("ip_address", ipAddress);
+        eventData.put("details", details);
+        eventData.put("timestamp", LocalDateTime.now().toString());
+        return eventData;
+    }
+
+    private static Map<String, String> personalDataEvent(String eventType, String ipAddress, String details,
+                                                         String dataType, Long customerId) {
+        Map<String, String> eventData = event(eventType, ipAddress, details);
+        eventData.put("data_type", dataType);
+        if (customerId != null) {
+            eventData.put("customer_id", customerId.toString());
+        }
+        return eventData;
+    }
 }
@@ -0,0 +1,91 @@
+package com.ahamo.security.service;
+
+import com.ahamo.common.concurrent.BatchingWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends security events to the Redis stream {@code security:events}. A
+ * {@link BatchingWriter} hands them to a background thread, which writes each batch as
+ * one pipeline of XADDs and trims the stream to roughly {@code max-length} entries.
+ * Stream ids keep events that share a millisecond apart.
+ */
+@Component
+public class SecurityEventWriter {
+
+    static final String STREAM_KEY = "security:events";
+    private static final byte[] STREAM_KEY_BYTES = STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long maxLength;
+    private final BatchingWriter<Map<String, String>> writer;
+
+    public SecurityEventWriter(StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${security.events.buffer-size:8192}") int bufferSize,
+                               @Value("${security.events.batch-size:200}") int batchSize,
+                               @Value("${security.events.flush-interval:200}") long flushIntervalMillis,
+                               @Value("${security.events.offer-timeout:0}") long offerTimeoutMillis,
+                               @Value("${security.events.max-attempts:3}") int maxAttempts,
+                               @Value("${security.events.max-length:1000000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.maxLength = maxLength;
+        this.writer = new BatchingWriter<>("security-event-writer", this::xAdd,
+                event -> "security event " + event.get("event_type"), meterRegistry, "security.events",
+                bufferSize, batchSize, flushIntervalMillis, offerTimeoutMillis, maxAttempts);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    public void append(Map<String, String> event) {
+        writer.append(new LinkedHashMap<>(event));
+    }
+
+    /** Writes everything queued so far on the calling thread; returns the number of events written. */
+    public int flush() {
+        return writer.flush();
+    }
+
+    int queueDepth() {
+        return writer.queueDepth();
+    }
+
+    private void xAdd(List<Map<String, String>> batch) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map<String, String> event : batch) {
+                connection.streamCommands().xAdd(MapRecord.create(STREAM_KEY_BYTES, toBytes(event)));
+            }
+            connection.streamCommands().xTrim(STREAM_KEY_BYTES, maxLength, true);
+            return null;
+        });
+    }
+
+    private static Map<byte[], byte[]> toBytes(Map<String, String> event) {
+        Map<byte[], byte[]> body = new LinkedHashMap<>();
+        event.forEach((field, value) -> {
+            if (value != null) {
+                body.put(field.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        return body;
+    }
+}
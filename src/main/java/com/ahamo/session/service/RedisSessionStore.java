@@ -0,0 +1,124 @@
+package com.ahamo.session.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sessions as Redis hashes of plain string fields under {@code session:<userId>}.
+ * <ul>
+ *   <li>Creating a session replaces any previous one and sets its expiry in one pipelined
+ *       round trip.</li>
+ *   <li>A validity check is one script call that pushes the expiry out and updates
+ *       {@code last_accessed} only when the session still exists, so a concurrent logout
+ *       cannot be undone by a touch.</li>
+ *   <li>Sessions found valid are remembered locally for {@code local-cache-ttl}; repeated
+ *       checks inside that window skip Redis. A logout on another node is therefore seen
+ *       here at most that long afterwards. A session found valid while a local logout was
+ *       in flight is reported valid but not remembered.</li>
+ *   <li>Sessions written by the previous JSON format still count as valid until the user
+ *       logs in again.</li>
+ * </ul>
+ */
+@Component
+public class RedisSessionStore {
+
+    static final String SESSION_PREFIX = "session:";
+
+    private static final RedisScript<Long> TOUCH_SCRIPT = loadScript("redis/session-touch.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final long sessionTimeoutMillis;
+    private final Cache<String, Boolean> validSessions;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RedisSessionStore(StringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${security.session.timeout:86400000}") long sessionTimeoutMillis,
+                             @Value("${security.session.local-cache-ttl:5000}") long localCacheTtlMillis,
+                             @Value("${security.session.local-cache-size:100000}") long localCacheSize) {
+        this.redisTemplate = redisTemplate;
+        this.sessionTimeoutMillis = sessionTimeoutMillis;
+        this.validSessions = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfterWrite(localCacheTtlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, validSessions, "sessions");
+    }
+
+    public void create(String userId, String token) {
+        byte[] key = sessionKey(userId);
+        String now = String.valueOf(System.currentTimeMillis());
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes("token"), bytes(token));
+        fields.put(bytes("created_at"), bytes(now));
+        fields.put(bytes("last_accessed"), bytes(now));
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(key);
+            connection.hashCommands().hMSet(key, fields);
+            connection.keyCommands().pExpire(key, sessionTimeoutMillis);
+            return null;
+        });
+        validSessions.put(userId, Boolean.TRUE);
+    }
+
+    /** Returns whether the session exists and, if so, slides its expiry forward. */
+    public boolean touch(String userId) {
+        if (validSessions.getIfPresent(userId) != null) {
+            return true;
+        }
+        long seen = invalidations.get();
+        Long touched = redisTemplate.execute(TOUCH_SCRIPT, List.of(SESSION_PREFIX + userId),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(sessionTimeoutMillis));
+        if (touched != null && touched == 1) {
+            if (invalidations.get() == seen) {
+                validSessions.put(userId, Boolean.TRUE);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes the session. The invalidation count moves after the key is gone, so a touch
+     * whose script still saw the key does not cache the session again.
+     */
+    public void invalidate(String userId) {
+        redisTemplate.delete(SESSION_PREFIX + userId);
+        invalidations.incrementAndGet();
+        validSessions.invalidate(userId);
+    }
+
+    private static byte[] sessionKey(String userId) {
+        return bytes(SESSION_PREFIX + userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static RedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource(path)));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
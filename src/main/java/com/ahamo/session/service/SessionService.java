@@ -2,7 +2,6 @@ package com.ahamo.session.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
@@ -16,54 +15,27 @@ import java.util.concurrent.TimeUnit;
 public class SessionService {
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSessionStore sessionStore;
 
-    @Value("${security.session.timeout:86400000}")
-    private long sessionTimeout;
-
-    private static final String SESSION_PREFIX = "session:";
     private static final String CONTRACT_DATA_PREFIX = "contract_data:";
     private static final long CONTRACT_DATA_TTL = 24 * 60 * 60 * 1000;
 
     public void createSession(String userId, String token) {
-        String sessionKey = SESSION_PREFIX + userId;
-        
-        Map<String, Object> sessionData = new HashMap<>();
-        sessionData.put("token", token);
-        sessionData.put("created_at", System.currentTimeMillis());
-        sessionData.put("last_accessed", System.currentTimeMillis());
-        
-        redisTemplate.opsForValue().set(sessionKey, sessionData, sessionTimeout, TimeUnit.MILLISECONDS);
+        sessionStore.create(userId, token);
         log.info("Session created for user: {}", userId);
     }
 
     public boolean isSessionValid(String userId) {
-        String sessionKey = SESSION_PREFIX + userId;
-        Object sessionData = redisTemplate.opsForValue().get(sessionKey);
-        
-        if (sessionData != null) {
-            updateLastAccessed(userId);
-            return true;
-        }
-        
-        return false;
+        return sessionStore.touch(userId);
     }
 
     public void invalidateSession(String userId) {
-        String sessionKey = SESSION_PREFIX + userId;
-        redisTemplate.delete(sessionKey);
+        sessionStore.invalidate(userId);
         log.info("Session invalidated for user: {}", userId);
     }
 
     public void updateLastAccessed(String userId) {
-        String sessionKey = SESSION_PREFIX + userId;
-        Object sessionData = redisTemplate.opsForValue().get(sessionKey);
-        
-        if (sessionData instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> session = (Map<String, Object>) sessionData;
-            session.put("last_accessed", System.currentTimeMillis());
-            redisTemplate.opsForValue().set(sessionKey, session, sessionTimeout, TimeUnit.MILLISECONDS);
-        }
+        sessionStore.touch(userId);
     }
 
     public void storeContractData(String userId, Map<String, Object> contractData) {
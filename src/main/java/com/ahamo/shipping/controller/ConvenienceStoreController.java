@@ -23,10 +23,11 @@ public class ConvenienceStoreController {
             @RequestParam(required = false) String postalCode,
             @RequestParam(required = false) Double latitude,
             @RequestParam(required = false) Double longitude,
-            @RequestParam(defaultValue = "5.0") Double radiusKm) {
+            @RequestParam(defaultValue = "5.0") Double radiusKm,
+            @RequestParam(required = false) Integer limit) {
         
         List<ConvenienceStore> stores = convenienceStoreService.searchStores(
-            prefecture, city, postalCode, latitude, longitude, radiusKm);
+            prefecture, city, postalCode, latitude, longitude, radiusKm, limit);
         return ResponseEntity.ok(stores);
     }
 
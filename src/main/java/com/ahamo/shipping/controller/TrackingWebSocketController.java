@@ -2,6 +2,7 @@ package com.ahamo.shipping.controller;
 
 import com.ahamo.shipping.dto.TrackingResponse;
 import com.ahamo.shipping.service.ShippingService;
+import com.ahamo.shipping.service.TrackingPushService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
@@ -16,21 +17,21 @@ public class TrackingWebSocketController {
 
     private final SimpMessagingTemplate messagingTemplate;
     private final ShippingService shippingService;
+    private final TrackingPushService trackingPushService;
 
+    /**
+     * Sends a snapshot with the full history and the current sequence. Clients call this
+     * after subscribing and whenever they notice a gap in the delta sequence.
+     */
     @MessageMapping("/tracking/{trackingNumber}")
     public void subscribeToTracking(@DestinationVariable String trackingNumber) {
         log.info("WebSocket subscription for tracking number: {}", trackingNumber);
         
         try {
             TrackingResponse trackingData = shippingService.trackShipment(trackingNumber);
-            messagingTemplate.convertAndSend("/topic/tracking/" + trackingNumber, trackingData);
+            messagingTemplate.convertAndSend("/topic/tracking/" + trackingNumber, trackingPushService.snapshot(trackingData));
         } catch (Exception e) {
             log.error("Error sending tracking data for {}: {}", trackingNumber, e.getMessage());
         }
     }
-
-    public void sendTrackingUpdate(String trackingNumber, TrackingResponse trackingData) {
-        log.info("Sending tracking update for: {}", trackingNumber);
-        messagingTemplate.convertAndSend("/topic/tracking/" + trackingNumber, trackingData);
-    }
 }
@@ -0,0 +1,19 @@
+package com.ahamo.shipping.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One rendered shipping notification, ready to hand to an email or SMS sender. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationMessage {
+
+    private Long notificationId;
+    private String recipient;
+    private String subject;
+    private String body;
+}
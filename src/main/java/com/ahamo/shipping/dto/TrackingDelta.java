@@ -0,0 +1,35 @@
+package com.ahamo.shipping.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tracking push frame. Deltas carry only the events recorded since the previous frame
+ * and a per-shipment sequence that grows by one per delta; a client that sees a gap
+ * requests a fresh snapshot, which carries the full history and the current sequence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrackingDelta {
+
+    private String trackingNumber;
+
+    private long sequence;
+
+    private boolean snapshot;
+
+    private String status;
+
+    private String location;
+
+    private LocalDateTime lastUpdated;
+
+    private List<TrackingResponse.TrackingEvent> events;
+}
@@ -0,0 +1,104 @@
+package com.ahamo.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for one customer notification about a shipping status change on one channel.
+ * Written on the tracking path and delivered later by the notification dispatcher.
+ */
+@Entity
+@Table(name = "shipping_notifications", indexes = {
+        @Index(name = "idx_shipping_notifications_due", columnList = "status, next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShippingNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Order, shipping status, estimated arrival for ETA notices, and channel; a repeat of the
+     * same notification is dropped.
+     */
+    @NotNull
+    @Column(name = "dedupe_key", unique = true)
+    private String dedupeKey;
+
+    @NotNull
+    @Column(name = "shipping_order_id")
+    private Long shippingOrderId;
+
+    @Column(name = "order_number")
+    private String orderNumber;
+
+    @Column(name = "contract_id")
+    private Long contractId;
+
+    @Column(name = "tracking_number")
+    private String trackingNumber;
+
+    @Column(name = "device_id")
+    private String deviceId;
+
+    @NotNull
+    @Column(name = "shipping_status")
+    private String shippingStatus;
+
+    /** Set on ETA-change notices only. */
+    @Column(name = "estimated_arrival_time")
+    private LocalDateTime estimatedArrivalTime;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel")
+    private Channel channel;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    @Column(name = "attempts")
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    public enum Channel {
+        EMAIL, SMS
+    }
+
+    public enum Status {
+        PENDING, SENT, SKIPPED, FAILED
+    }
+}
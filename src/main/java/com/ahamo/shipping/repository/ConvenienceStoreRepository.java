@@ -6,14 +6,26 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConvenienceStoreRepository extends JpaRepository<ConvenienceStore, Long> {
 
+    /** Native radius search; pickup search now goes through ConvenienceStoreIndex. */
+    String WITHIN_RADIUS_QUERY = "SELECT * FROM convenience_stores c WHERE c.is_active = true " +
+            "AND (6371 * acos(cos(radians(:latitude)) * cos(radians(c.latitude)) * " +
+            "cos(radians(c.longitude) - radians(:longitude)) + " +
+            "sin(radians(:latitude)) * sin(radians(c.latitude)))) <= :radiusKm " +
+            "ORDER BY (6371 * acos(cos(radians(:latitude)) * cos(radians(c.latitude)) * " +
+            "cos(radians(c.longitude) - radians(:longitude)) + " +
+            "sin(radians(:latitude)) * sin(radians(c.latitude))))";
+
     Optional<ConvenienceStore> findByStoreCode(String storeCode);
 
+    List<ConvenienceStore> findByUpdatedAtAfter(LocalDateTime updatedAt);
+
     List<ConvenienceStore> findByPrefectureAndCityAndIsActiveTrue(String prefecture, String city);
 
     List<ConvenienceStore> findByPostalCodeAndIsActiveTrue(String postalCode);
@@ -28,14 +40,7 @@ public interface ConvenienceStoreRepository extends JpaRepository<ConvenienceSto
         @Param("postalCode") String postalCode
     );
 
-    @Query(value = "SELECT * FROM convenience_stores c WHERE c.is_active = true " +
-                   "AND (6371 * acos(cos(radians(:latitude)) * cos(radians(c.latitude)) * " +
-                   "cos(radians(c.longitude) - radians(:longitude)) + " +
-                   "sin(radians(:latitude)) * sin(radians(c.latitude)))) <= :radiusKm " +
-                   "ORDER BY (6371 * acos(cos(radians(:latitude)) * cos(radians(c.latitude)) * " +
-                   "cos(radians(c.longitude) - radians(:longitude)) + " +
-                   "sin(radians(:latitude)) * sin(radians(c.latitude))))",
-           nativeQuery = true)
+    @Query(value = WITHIN_RADIUS_QUERY, nativeQuery = true)
     List<ConvenienceStore> findByLocationWithinRadius(
         @Param("latitude") Double latitude,
         @Param("longitude") Double longitude,
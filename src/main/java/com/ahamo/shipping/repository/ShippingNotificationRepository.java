@@ -0,0 +1,22 @@
+package com.ahamo.shipping.repository;
+
+import com.ahamo.shipping.model.ShippingNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ShippingNotificationRepository extends JpaRepository<ShippingNotification, Long> {
+
+    List<ShippingNotification> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            ShippingNotification.Status status, LocalDateTime nextAttemptAt, Pageable pageable);
+
+    @Query("SELECT n.dedupeKey FROM ShippingNotification n WHERE n.dedupeKey IN :dedupeKeys")
+    List<String> findExistingDedupeKeys(@Param("dedupeKeys") Collection<String> dedupeKeys);
+}
@@ -15,6 +15,12 @@ public interface ShippingOrderRepository extends JpaRepository<ShippingOrder, Lo
     Optional<ShippingOrder> findByOrderNumber(String orderNumber);
     
     List<ShippingOrder> findByStatusIn(List<ShippingOrder.ShippingStatus> statuses);
+
+    @Query("SELECT o FROM ShippingOrder o WHERE o.status IN :statuses AND MOD(o.id, :count) = :index")
+    List<ShippingOrder> findByStatusInPartition(
+        @Param("statuses") List<ShippingOrder.ShippingStatus> statuses,
+        @Param("count") int count,
+        @Param("index") int index);
     
     Optional<ShippingOrder> findByTrackingNumber(String trackingNumber);
     
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +16,8 @@ public interface TrackingEventRepository extends JpaRepository<TrackingEvent, Lo
     
     @Query("SELECT t FROM TrackingEvent t WHERE t.shippingOrderId = :shippingOrderId ORDER BY t.timestamp DESC")
     List<TrackingEvent> findTrackingHistoryByOrderId(@Param("shippingOrderId") Long shippingOrderId);
+    
+    @Query("SELECT t FROM TrackingEvent t WHERE t.shippingOrderId IN :shippingOrderIds AND t.timestamp = " +
+           "(SELECT MAX(l.timestamp) FROM TrackingEvent l WHERE l.shippingOrderId = t.shippingOrderId)")
+    List<TrackingEvent> findLatestByShippingOrderIds(@Param("shippingOrderIds") Collection<Long> shippingOrderIds);
 }
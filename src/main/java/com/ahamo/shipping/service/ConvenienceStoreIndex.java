@@ -0,0 +1,389 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.model.ConvenienceStore;
+import com.ahamo.shipping.repository.ConvenienceStoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * In-memory copy of the convenience store table with a grid index over active stores for
+ * pickup search. Stores are bucketed into cells of {@code cell-degrees} latitude ×
+ * longitude; radius queries scan only the cells overlapping the search box and nearest
+ * queries scan rings of cells outwards from the query point. Every store, active or not,
+ * can also be looked up by store code. The table is loaded once and kept current by
+ * polling stores whose {@code updated_at} moved since the last poll, so reads never touch
+ * the database. Longitudes are not wrapped at the antimeridian.
+ */
+@Component
+@Slf4j
+public class ConvenienceStoreIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+    private static final Comparator<Hit> BY_DISTANCE = Comparator.comparingDouble(hit -> hit.distanceKm);
+
+    private final ConvenienceStoreRepository convenienceStoreRepository;
+    private final double cellDegrees;
+    private final long pollOverlapMillis;
+
+    private volatile State state;
+
+    public ConvenienceStoreIndex(ConvenienceStoreRepository convenienceStoreRepository,
+                                 @Value("${shipping.store-index.cell-degrees:0.02}") double cellDegrees,
+                                 @Value("${shipping.store-index.poll-overlap:5000}") long pollOverlapMillis) {
+        this.convenienceStoreRepository = convenienceStoreRepository;
+        this.cellDegrees = cellDegrees;
+        this.pollOverlapMillis = pollOverlapMillis;
+    }
+
+    /** Active stores within {@code radiusKm} of the point, nearest first. */
+    public List<ConvenienceStore> withinRadius(double latitude, double longitude, double radiusKm) {
+        State current = currentState();
+        if (radiusKm < 0 || current.size == 0) {
+            return Collections.emptyList();
+        }
+
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(Math.min(89.0,
+                Math.abs(latitude) + latSpan))), 0.01));
+        int minLat = cellIndex(latitude - latSpan);
+        int maxLat = cellIndex(latitude + latSpan);
+        int minLon = cellIndex(longitude - lonSpan);
+        int maxLon = cellIndex(longitude + lonSpan);
+        List<Hit> hits = new ArrayList<>();
+
+        if ((long) (maxLat - minLat + 1) * (maxLon - minLon + 1) > current.cells.size()) {
+            current.cells.values().forEach(cell -> collect(cell, latitude, longitude, radiusKm, hits));
+        } else {
+            for (int latCell = minLat; latCell <= maxLat; latCell++) {
+                for (int lonCell = minLon; lonCell <= maxLon; lonCell++) {
+                    collect(current.cells.get(cellKey(latCell, lonCell)), latitude, longitude, radiusKm, hits);
+                }
+            }
+        }
+        return toStores(hits, hits.size());
+    }
+
+    /** The {@code limit} active stores closest to the point, nearest first. */
+    public List<ConvenienceStore> nearest(double latitude, double longitude, int limit) {
+        State current = currentState();
+        if (limit <= 0 || current.size == 0) {
+            return Collections.emptyList();
+        }
+
+        int centerLat = cellIndex(latitude);
+        int centerLon = cellIndex(longitude);
+        int maxRing = Math.max(
+                Math.max(centerLat - current.minLatCell, current.maxLatCell - centerLat),
+                Math.max(centerLon - current.minLonCell, current.maxLonCell - centerLon));
+        List<Hit> hits = new ArrayList<>();
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if ((2L * ring + 1) * (2L * ring + 1) > current.cells.size()) {
+                // The remaining rings are mostly empty; scanning every cell is cheaper.
+                hits.clear();
+                current.cells.values().forEach(cell -> collect(cell, latitude, longitude, Double.MAX_VALUE, hits));
+                break;
+            }
+            for (int latCell = centerLat - ring; latCell <= centerLat + ring; latCell++) {
+                boolean edgeRow = latCell == centerLat - ring || latCell == centerLat + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int lonCell = centerLon - ring; lonCell <= centerLon + ring; lonCell += step) {
+                    collect(current.cells.get(cellKey(latCell, lonCell)), latitude, longitude, Double.MAX_VALUE, hits);
+                }
+            }
+            // Anything outside the rings scanned so far is at least this far away.
+            if (hits.size() >= limit && kthDistance(hits, limit) <= coveredDistanceKm(latitude, ring)) {
+                break;
+            }
+        }
+        return toStores(hits, limit);
+    }
+
+    public int size() {
+        return currentState().size;
+    }
+
+    /** Every store in the table, active or not, ordered by id. */
+    public List<ConvenienceStore> allStores() {
+        return currentState().allStores;
+    }
+
+    public Optional<ConvenienceStore> findByStoreCode(String storeCode) {
+        return Optional.ofNullable(currentState().storesByCode.get(storeCode));
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.store-index.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild convenience store index", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.store-index.poll-interval:60000}")
+    public void scheduledRefresh() {
+        if (state == null) {
+            return;
+        }
+        try {
+            applyRecentChanges();
+        } catch (Exception e) {
+            log.error("Failed to refresh convenience store index", e);
+        }
+    }
+
+    public synchronized void rebuild() {
+        LocalDateTime loadedAt = LocalDateTime.now();
+        Map<Long, ConvenienceStore> catalog = new TreeMap<>();
+        Map<Long, ConvenienceStore> stores = new HashMap<>();
+        for (ConvenienceStore store : convenienceStoreRepository.findAll()) {
+            if (store.getId() == null) {
+                continue;
+            }
+            catalog.put(store.getId(), store);
+            if (isSearchable(store)) {
+                stores.put(store.getId(), store);
+            }
+        }
+        state = build(catalog, stores, loadedAt);
+        log.info("Rebuilt convenience store index with {} stores in {} cells", state.size, state.cells.size());
+    }
+
+    public synchronized void applyRecentChanges() {
+        State current = state;
+        LocalDateTime polledAt = LocalDateTime.now();
+        List<ConvenienceStore> changes = convenienceStoreRepository.findByUpdatedAtAfter(
+                current.loadedAt.minus(Duration.ofMillis(pollOverlapMillis)));
+
+        state = apply(current, changes, polledAt);
+    }
+
+    State apply(State current, List<ConvenienceStore> changes, LocalDateTime polledAt) {
+        if (changes.isEmpty()) {
+            return current.advancedTo(polledAt);
+        }
+
+        Map<Long, ConvenienceStore> catalog = new TreeMap<>(current.catalog);
+        Map<Long, ConvenienceStore> stores = new HashMap<>(current.stores);
+        Map<Long, List<Entry>> touched = new HashMap<>();
+        for (ConvenienceStore store : changes) {
+            if (store.getId() == null) {
+                continue;
+            }
+            catalog.put(store.getId(), store);
+            ConvenienceStore previous = stores.remove(store.getId());
+            if (previous != null) {
+                touchedCell(current, touched, previous).removeIf(entry -> entry.store.getId().equals(store.getId()));
+            }
+            if (isSearchable(store)) {
+                stores.put(store.getId(), store);
+                touchedCell(current, touched, store).add(new Entry(store));
+            }
+        }
+
+        if (touched.isEmpty()) {
+            return new State(catalog, stores, current.cells, polledAt);
+        }
+
+        Map<Long, Entry[]> cells = new HashMap<>(current.cells);
+        touched.forEach((key, entries) -> {
+            if (entries.isEmpty()) {
+                cells.remove(key);
+            } else {
+                cells.put(key, entries.toArray(new Entry[0]));
+            }
+        });
+
+        log.debug("Applied {} convenience store changes to {} cells", changes.size(), touched.size());
+        return new State(catalog, stores, cells, polledAt);
+    }
+
+    private State build(Map<Long, ConvenienceStore> catalog, Map<Long, ConvenienceStore> stores, LocalDateTime loadedAt) {
+        Map<Long, List<Entry>> cells = new HashMap<>();
+        for (ConvenienceStore store : stores.values()) {
+            cells.computeIfAbsent(cellKey(store), key -> new ArrayList<>()).add(new Entry(store));
+        }
+
+        Map<Long, Entry[]> frozen = new HashMap<>(cells.size() * 2);
+        cells.forEach((key, entries) -> frozen.put(key, entries.toArray(new Entry[0])));
+        return new State(catalog, stores, frozen, loadedAt);
+    }
+
+    private List<Entry> touchedCell(State current, Map<Long, List<Entry>> touched, ConvenienceStore store) {
+        return touched.computeIfAbsent(cellKey(store), key -> {
+            Entry[] existing = current.cells.get(key);
+            List<Entry> entries = new ArrayList<>();
+            if (existing != null) {
+                Collections.addAll(entries, existing);
+            }
+            return entries;
+        });
+    }
+
+    private State currentState() {
+        State current = state;
+        if (current == null) {
+            rebuild();
+            current = state;
+        }
+        return current;
+    }
+
+    private double coveredDistanceKm(double latitude, int ring) {
+        double cellKm = cellDegrees * KM_PER_DEGREE;
+        double farthestLat = Math.min(89.0, Math.abs(latitude) + (ring + 1) * cellDegrees);
+        return ring * cellKm * Math.cos(Math.toRadians(farthestLat));
+    }
+
+    private int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private long cellKey(ConvenienceStore store) {
+        return cellKey(cellIndex(store.getLatitude().doubleValue()), cellIndex(store.getLongitude().doubleValue()));
+    }
+
+    private static long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+
+    private static void collect(Entry[] cell, double latitude, double longitude, double radiusKm, List<Hit> hits) {
+        if (cell == null) {
+            return;
+        }
+        for (Entry entry : cell) {
+            double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(entry.store, distance));
+            }
+        }
+    }
+
+    private static double kthDistance(List<Hit> hits, int k) {
+        hits.sort(BY_DISTANCE);
+        return hits.get(k - 1).distanceKm;
+    }
+
+    private static List<ConvenienceStore> toStores(List<Hit> hits, int limit) {
+        hits.sort(BY_DISTANCE);
+        List<ConvenienceStore> stores = new ArrayList<>(Math.min(limit, hits.size()));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            stores.add(hits.get(i).store);
+        }
+        return stores;
+    }
+
+    private static boolean isSearchable(ConvenienceStore store) {
+        return Boolean.TRUE.equals(store.getIsActive()) && store.getLatitude() != null && store.getLongitude() != null;
+    }
+
+    /** Great-circle distance in kilometres (haversine). */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static final class Entry {
+        private final ConvenienceStore store;
+        private final double latitude;
+        private final double longitude;
+
+        Entry(ConvenienceStore store) {
+            this.store = store;
+            this.latitude = store.getLatitude().doubleValue();
+            this.longitude = store.getLongitude().doubleValue();
+        }
+    }
+
+    private static final class Hit {
+        private final ConvenienceStore store;
+        private final double distanceKm;
+
+        Hit(ConvenienceStore store, double distanceKm) {
+            this.store = store;
+            this.distanceKm = distanceKm;
+        }
+    }
+
+    static final class State {
+        private final Map<Long, ConvenienceStore> catalog;
+        private final List<ConvenienceStore> allStores;
+        private final Map<String, ConvenienceStore> storesByCode;
+        private final Map<Long, ConvenienceStore> stores;
+        private final Map<Long, Entry[]> cells;
+        private final int size;
+        private final int minLatCell;
+        private final int maxLatCell;
+        private final int minLonCell;
+        private final int maxLonCell;
+        private final LocalDateTime loadedAt;
+
+        State(Map<Long, ConvenienceStore> catalog, Map<Long, ConvenienceStore> stores, Map<Long, Entry[]> cells,
+              LocalDateTime loadedAt) {
+            int minLat = Integer.MAX_VALUE;
+            int maxLat = Integer.MIN_VALUE;
+            int minLon = Integer.MAX_VALUE;
+            int maxLon = Integer.MIN_VALUE;
+            for (long key : cells.keySet()) {
+                minLat = Math.min(minLat, (int) (key >> 32));
+                maxLat = Math.max(maxLat, (int) (key >> 32));
+                minLon = Math.min(minLon, (int) key);
+                maxLon = Math.max(maxLon, (int) key);
+            }
+            Map<String, ConvenienceStore> byCode = new HashMap<>(catalog.size() * 2);
+            for (ConvenienceStore store : catalog.values()) {
+                if (store.getStoreCode() != null) {
+                    byCode.put(store.getStoreCode(), store);
+                }
+            }
+            this.catalog = catalog;
+            this.allStores = Collections.unmodifiableList(new ArrayList<>(catalog.values()));
+            this.storesByCode = Collections.unmodifiableMap(byCode);
+            this.stores = stores;
+            this.cells = cells;
+            this.size = stores.size();
+            this.minLatCell = minLat;
+            this.maxLatCell = maxLat;
+            this.minLonCell = minLon;
+            this.maxLonCell = maxLon;
+            this.loadedAt = loadedAt;
+        }
+
+        private State(State state, LocalDateTime loadedAt) {
+            this.catalog = state.catalog;
+            this.allStores = state.allStores;
+            this.storesByCode = state.storesByCode;
+            this.stores = state.stores;
+            this.cells = state.cells;
+            this.size = state.size;
+            this.minLatCell = state.minLatCell;
+            this.maxLatCell = state.maxLatCell;
+            this.minLonCell = state.minLonCell;
+            this.maxLonCell = state.maxLonCell;
+            this.loadedAt = loadedAt;
+        }
+
+        State advancedTo(LocalDateTime polledAt) {
+            return new State(this, polledAt);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class ConvenienceStoreService {
@@ -13,10 +14,31 @@ public class ConvenienceStoreService {
     @Autowired
     private ConvenienceStoreRepository convenienceStoreRepository;
 
+    @Autowired
+    private ConvenienceStoreIndex convenienceStoreIndex;
+
     public List<ConvenienceStore> searchStores(String prefecture, String city, String postalCode, 
                                              Double latitude, Double longitude, Double radiusKm) {
-        if (latitude != null && longitude != null && radiusKm != null) {
-            return convenienceStoreRepository.findByLocationWithinRadius(latitude, longitude, radiusKm);
+        return searchStores(prefecture, city, postalCode, latitude, longitude, radiusKm, null);
+    }
+
+    /**
+     * Location searches are answered from the in-memory store index, nearest first. With a
+     * {@code limit} only the closest stores are returned, still bounded by the radius if given.
+     */
+    public List<ConvenienceStore> searchStores(String prefecture, String city, String postalCode,
+                                             Double latitude, Double longitude, Double radiusKm, Integer limit) {
+        if (latitude != null && longitude != null && limit != null) {
+            List<ConvenienceStore> nearest = convenienceStoreIndex.nearest(latitude, longitude, limit);
+            if (radiusKm == null) {
+                return nearest;
+            }
+            return nearest.stream()
+                    .filter(store -> ConvenienceStoreIndex.distanceKm(latitude, longitude,
+                            store.getLatitude().doubleValue(), store.getLongitude().doubleValue()) <= radiusKm)
+                    .collect(Collectors.toList());
+        } else if (latitude != null && longitude != null && radiusKm != null) {
+            return convenienceStoreIndex.withinRadius(latitude, longitude, radiusKm);
         } else if (postalCode != null && !postalCode.trim().isEmpty()) {
             return convenienceStoreRepository.findByPostalCodeAndIsActiveTrue(postalCode);
         } else {
@@ -25,11 +47,11 @@ public class ConvenienceStoreService {
     }
 
     public ConvenienceStore findByStoreCode(String storeCode) {
-        return convenienceStoreRepository.findByStoreCode(storeCode).orElse(null);
+        return convenienceStoreIndex.findByStoreCode(storeCode).orElse(null);
     }
 
     public List<ConvenienceStore> findAll() {
-        return convenienceStoreRepository.findAll();
+        return convenienceStoreIndex.allStores();
     }
 
     public List<ConvenienceStore> findByPrefectureAndCity(String prefecture, String city) {
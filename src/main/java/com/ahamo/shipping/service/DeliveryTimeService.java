@@ -1,7 +1,6 @@
 package com.ahamo.shipping.service;
 
 import com.ahamo.shipping.model.DeliveryTimeSlot;
-import com.ahamo.shipping.repository.DeliveryTimeSlotRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,17 +11,17 @@ import java.util.Optional;
 public class DeliveryTimeService {
 
     @Autowired
-    private DeliveryTimeSlotRepository deliveryTimeSlotRepository;
+    private ShippingReferenceData shippingReferenceData;
 
     public List<DeliveryTimeSlot> getAllActiveTimeSlots() {
-        return deliveryTimeSlotRepository.findByIsActiveTrueOrderByStartTime();
+        return shippingReferenceData.getActiveTimeSlots();
     }
 
     public List<DeliveryTimeSlot> getTimeSlotsByType(DeliveryTimeSlot.SlotType slotType) {
-        return deliveryTimeSlotRepository.findBySlotTypeAndIsActiveTrueOrderByStartTime(slotType);
+        return shippingReferenceData.getActiveTimeSlots(slotType);
     }
 
     public Optional<DeliveryTimeSlot> findById(Long id) {
-        return deliveryTimeSlotRepository.findById(id);
+        return shippingReferenceData.findTimeSlot(id);
     }
 }
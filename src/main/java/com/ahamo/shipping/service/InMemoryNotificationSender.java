@@ -0,0 +1,67 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.NotificationMessage;
+import com.ahamo.shipping.model.ShippingNotification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fake SMTP/SMS sink that records messages instead of sending them, for local runs and
+ * tests ({@code shipping.notification.sink=fake}).
+ */
+@Slf4j
+public class InMemoryNotificationSender implements NotificationSender {
+
+    private final ShippingNotification.Channel channel;
+    private final List<NotificationMessage> sent = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    public InMemoryNotificationSender(ShippingNotification.Channel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public ShippingNotification.Channel channel() {
+        return channel;
+    }
+
+    @Override
+    public Map<Long, String> send(List<NotificationMessage> messages) {
+        batchSizes.add(messages.size());
+        Map<Long, String> failures = new HashMap<>();
+        for (NotificationMessage message : messages) {
+            if (failuresToInject.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+                failures.put(message.getNotificationId(), "injected failure");
+                continue;
+            }
+            sent.add(message);
+            log.info("[fake {}] to={} subject={} body={}", channel, message.getRecipient(), message.getSubject(), message.getBody());
+        }
+        return failures;
+    }
+
+    /** Makes the next {@code count} messages fail. */
+    public void failNext(int count) {
+        failuresToInject.set(count);
+    }
+
+    public List<NotificationMessage> getSent() {
+        return new ArrayList<>(sent);
+    }
+
+    public List<Integer> getBatchSizes() {
+        return new ArrayList<>(batchSizes);
+    }
+
+    public void clear() {
+        sent.clear();
+        batchSizes.clear();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.TrackingDelta;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/** Single-node broker for local runs and tests; deltas never leave this JVM. */
+@Component
+@ConditionalOnProperty(name = "shipping.tracking.push.broker", havingValue = "memory")
+public class InMemoryTrackingBroker implements TrackingBroker {
+
+    private final List<Consumer<TrackingDelta>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(TrackingDelta delta) {
+        listeners.forEach(listener -> listener.accept(delta));
+    }
+
+    @Override
+    public void subscribe(Consumer<TrackingDelta> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long nextSequence(String trackingNumber) {
+        return sequences.computeIfAbsent(trackingNumber, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public long currentSequence(String trackingNumber) {
+        AtomicLong sequence = sequences.get(trackingNumber);
+        return sequence != null ? sequence.get() : 0L;
+    }
+}
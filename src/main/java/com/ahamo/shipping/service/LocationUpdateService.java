@@ -1,19 +1,14 @@
 package com.ahamo.shipping.service;
 
-import com.ahamo.shipping.controller.TrackingWebSocketController;
-import com.ahamo.shipping.dto.LocationUpdate;
-import com.ahamo.shipping.dto.TrackingResponse;
+import com.ahamo.common.job.JobPartition;
+import com.ahamo.common.job.ScheduledJobRunner;
 import com.ahamo.shipping.model.ShippingOrder;
-import com.ahamo.shipping.model.TrackingEvent;
 import com.ahamo.shipping.repository.ShippingOrderRepository;
-import com.ahamo.shipping.repository.TrackingEventRepository;
-import com.ahamo.shipping.service.ShippingNotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -22,68 +17,27 @@ import java.util.List;
 public class LocationUpdateService {
 
     private final ShippingOrderRepository shippingOrderRepository;
-    private final TrackingEventRepository trackingEventRepository;
-    private final LogisticsProviderFactory providerFactory;
-    private final TrackingWebSocketController webSocketController;
-    private final ShippingService shippingService;
-    private final ShippingNotificationService notificationService;
+    private final TrackingIngestionPipeline trackingIngestionPipeline;
+    private final ScheduledJobRunner jobRunner;
 
+    /** Active orders are sharded across nodes by order id. */
     @Scheduled(fixedRate = 300000)
     public void updateLocationData() {
-        log.info("Starting scheduled location update");
+        jobRunner.runSharded("shipping.location-update", this::updateLocations);
+    }
+
+    int updateLocations(JobPartition partition) {
+        log.info("Starting scheduled location update for partition {}", partition);
         
-        List<ShippingOrder> activeOrders = shippingOrderRepository.findByStatusIn(
+        List<ShippingOrder> activeOrders = shippingOrderRepository.findByStatusInPartition(
             List.of(ShippingOrder.ShippingStatus.SHIPPED, 
                    ShippingOrder.ShippingStatus.IN_TRANSIT, 
-                   ShippingOrder.ShippingStatus.OUT_FOR_DELIVERY)
-        );
-
-        for (ShippingOrder order : activeOrders) {
-            try {
-                updateOrderLocation(order);
-            } catch (Exception e) {
-                log.error("Failed to update location for order {}: {}", order.getOrderNumber(), e.getMessage());
-            }
-        }
-        
-        log.info("Completed location update for {} orders", activeOrders.size());
-    }
-
-    private void updateOrderLocation(ShippingOrder order) {
-        if (order.getTrackingNumber() == null) {
-            return;
-        }
+                   ShippingOrder.ShippingStatus.OUT_FOR_DELIVERY),
+            partition.getCount(), partition.getIndex());
 
-        LocationUpdate locationUpdate = providerFactory
-            .getAdapter(order.getProvider().getProviderCode())
-            .getLocationUpdate(order.getTrackingNumber());
-
-        TrackingEvent trackingEvent = TrackingEvent.builder()
-            .shippingOrderId(order.getId())
-            .status(locationUpdate.getStatus())
-            .location(locationUpdate.getCurrentLocation())
-            .latitude(locationUpdate.getLatitude())
-            .longitude(locationUpdate.getLongitude())
-            .estimatedArrivalTime(locationUpdate.getEstimatedArrivalTime())
-            .timestamp(locationUpdate.getTimestamp())
-            .description("位置情報自動更新")
-            .build();
-
-        trackingEventRepository.save(trackingEvent);
-
-        TrackingResponse trackingResponse = shippingService.trackShipment(order.getTrackingNumber());
-        webSocketController.sendTrackingUpdate(order.getTrackingNumber(), trackingResponse);
+        int changed = trackingIngestionPipeline.ingest(activeOrders);
         
-        if (shouldSendNotification(order, locationUpdate)) {
-            notificationService.sendShippingStatusNotification(order, locationUpdate.getStatus());
-        }
-        
-        log.info("Updated location for tracking number: {}", order.getTrackingNumber());
-    }
-
-    private boolean shouldSendNotification(ShippingOrder order, LocationUpdate locationUpdate) {
-        return "OUT_FOR_DELIVERY".equals(locationUpdate.getStatus()) || 
-               "DELIVERED".equals(locationUpdate.getStatus()) ||
-               locationUpdate.getEstimatedArrivalTime() != null;
+        log.info("Completed location update for {} orders, {} changed", activeOrders.size(), changed);
+        return changed;
     }
 }
@@ -0,0 +1,30 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.NotificationMessage;
+import com.ahamo.shipping.model.ShippingNotification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers shipping notifications over one channel. Implementations receive a whole batch
+ * so they can reuse one connection for it.
+ */
+public interface NotificationSender {
+
+    ShippingNotification.Channel channel();
+
+    /**
+     * Whether the channel is configured to send at all. Notifications for a disabled
+     * channel are skipped instead of retried.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Sends every message in the batch and returns the ones that failed, keyed by
+     * notification id, with the error to record. An empty map means all were sent.
+     */
+    Map<Long, String> send(List<NotificationMessage> messages);
+}
@@ -0,0 +1,80 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.TrackingDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Relays tracking deltas over the Redis channel {@code tracking:deltas}; every node
+ * receives every delta and delivers it to its own subscribers. Sequences are Redis
+ * counters that expire once a shipment has been quiet for the sequence TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "shipping.tracking.push.broker", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisTrackingBroker implements TrackingBroker {
+
+    static final String CHANNEL = "tracking:deltas";
+    private static final String SEQUENCE_PREFIX = "tracking:seq:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer container;
+    private final Duration sequenceTtl;
+
+    public RedisTrackingBroker(StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer container,
+                               ObjectMapper objectMapper,
+                               @Value("${shipping.tracking.push.sequence-ttl:604800000}") long sequenceTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.sequenceTtl = Duration.ofMillis(sequenceTtlMillis);
+        this.container = container;
+    }
+
+    @Override
+    public void publish(TrackingDelta delta) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tracking delta for " + delta.getTrackingNumber(), e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<TrackingDelta> listener) {
+        container.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(
+                        new String(message.getBody(), StandardCharsets.UTF_8), TrackingDelta.class));
+            } catch (Exception e) {
+                log.error("Dropped unreadable tracking delta: {}", e.getMessage());
+            }
+        }, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public long nextSequence(String trackingNumber) {
+        String key = SEQUENCE_PREFIX + trackingNumber;
+        Long sequence = redisTemplate.opsForValue().increment(key);
+        redisTemplate.expire(key, sequenceTtl);
+        return sequence != null ? sequence : 0L;
+    }
+
+    @Override
+    public long currentSequence(String trackingNumber) {
+        String value = redisTemplate.opsForValue().get(SEQUENCE_PREFIX + trackingNumber);
+        return value != null ? Long.parseLong(value) : 0L;
+    }
+}
@@ -0,0 +1,303 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.common.job.ScheduledJobRunner;
+import com.ahamo.shipping.dto.NotificationMessage;
+import com.ahamo.shipping.model.ShippingNotification;
+import com.ahamo.shipping.repository.ShippingNotificationRepository;
+import com.ahamo.user.model.User;
+import com.ahamo.user.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the shipping notification outbox on the leader node. Each run takes the due rows,
+ * looks up each customer once, and hands the rendered messages to one lane per channel.
+ * A lane sends in batches (one SMTP connection per email batch) from its own worker pool
+ * at no more than its configured rate. Failed sends are retried with exponential backoff
+ * until {@code max-attempts}. Rows for a channel whose sender is not configured are
+ * skipped. Delivery is at least once: a node that dies mid-run leaves its rows pending.
+ */
+@Component
+@Slf4j
+public class ShippingNotificationDispatcher {
+
+    static final String SUBJECT = "【ahamo】配送状況のお知らせ";
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final DateTimeFormatter ETA_FORMAT = DateTimeFormatter.ofPattern("M月d日 H:mm");
+
+    private final ShippingNotificationRepository notificationRepository;
+    private final UserService userService;
+    private final ScheduledJobRunner jobRunner;
+    private final MeterRegistry meterRegistry;
+    private final Map<ShippingNotification.Channel, ChannelLane> lanes = new EnumMap<>(ShippingNotification.Channel.class);
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long sendTimeoutMillis;
+
+    public ShippingNotificationDispatcher(ShippingNotificationRepository notificationRepository,
+                                          UserService userService,
+                                          List<NotificationSender> senders,
+                                          ScheduledJobRunner jobRunner,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${shipping.notification.batch-size:200}") int batchSize,
+                                          @Value("${shipping.notification.concurrency:2}") int concurrency,
+                                          @Value("${shipping.notification.email.batch-size:50}") int emailBatchSize,
+                                          @Value("${shipping.notification.email.rate:20}") double emailRate,
+                                          @Value("${shipping.notification.sms.batch-size:10}") int smsBatchSize,
+                                          @Value("${shipping.notification.sms.rate:5}") double smsRate,
+                                          @Value("${shipping.notification.max-attempts:5}") int maxAttempts,
+                                          @Value("${shipping.notification.retry-backoff:30000}") long retryBackoffMillis,
+                                          @Value("${shipping.notification.max-backoff:3600000}") long maxBackoffMillis,
+                                          @Value("${shipping.notification.send-timeout:120000}") long sendTimeoutMillis) {
+        this.notificationRepository = notificationRepository;
+        this.userService = userService;
+        this.jobRunner = jobRunner;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+
+        for (NotificationSender sender : senders) {
+            if (!sender.isEnabled()) {
+                log.warn("{} notifications are not configured; queued ones will be skipped", sender.channel());
+                continue;
+            }
+            boolean email = sender.channel() == ShippingNotification.Channel.EMAIL;
+            lanes.put(sender.channel(), new ChannelLane(sender, concurrency,
+                    email ? emailBatchSize : smsBatchSize, email ? emailRate : smsRate));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.notification.poll-interval:1000}")
+    public void scheduledDispatch() {
+        jobRunner.runOnLeader("shipping.notification.dispatch", this::dispatch);
+    }
+
+    /** Sends one batch of due notifications and returns the number of rows handled. */
+    public int dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ShippingNotification> due = notificationRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                ShippingNotification.Status.PENDING, now, PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Optional<User>> users = new HashMap<>();
+        Map<Long, ShippingNotification> byId = new HashMap<>();
+        Map<ShippingNotification.Channel, List<NotificationMessage>> outgoing = new EnumMap<>(ShippingNotification.Channel.class);
+        for (ShippingNotification notification : due) {
+            if (!lanes.containsKey(notification.getChannel())) {
+                skip(notification, notification.getChannel() + " not configured");
+                continue;
+            }
+            Optional<User> user = users.computeIfAbsent(notification.getContractId(),
+                    contractId -> userService.findByContractNumber(String.valueOf(contractId)));
+            String recipient = user.map(found -> recipient(found, notification.getChannel())).orElse(null);
+            if (recipient == null) {
+                skip(notification, user.isPresent() ? "no " + notification.getChannel() + " recipient" : "user not found");
+                continue;
+            }
+            byId.put(notification.getId(), notification);
+            outgoing.computeIfAbsent(notification.getChannel(), channel -> new ArrayList<>())
+                    .add(NotificationMessage.builder()
+                            .notificationId(notification.getId())
+                            .recipient(recipient)
+                            .subject(SUBJECT)
+                            .body(render(notification))
+                            .build());
+        }
+
+        Map<ShippingNotification.Channel, CompletableFuture<Map<Long, String>>> results = new EnumMap<>(ShippingNotification.Channel.class);
+        outgoing.forEach((channel, messages) -> results.put(channel, lanes.get(channel).send(messages)));
+
+        LocalDateTime completedAt = LocalDateTime.now();
+        results.forEach((channel, result) -> {
+            Map<Long, String> failures = await(channel, result, outgoing.get(channel));
+            for (NotificationMessage message : outgoing.get(channel)) {
+                ShippingNotification notification = byId.get(message.getNotificationId());
+                String error = failures.get(message.getNotificationId());
+                if (error == null) {
+                    notification.setStatus(ShippingNotification.Status.SENT);
+                    notification.setSentAt(completedAt);
+                    notification.setAttempts(notification.getAttempts() + 1);
+                    meterRegistry.counter("shipping.notification.sent", "channel", channel.name()).increment();
+                } else {
+                    retryOrFail(notification, error, completedAt);
+                }
+            }
+        });
+
+        notificationRepository.saveAll(due);
+        return due.size();
+    }
+
+    void retryOrFail(ShippingNotification notification, String error, LocalDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        String channel = notification.getChannel().name();
+        if (attempts >= maxAttempts) {
+            notification.setStatus(ShippingNotification.Status.FAILED);
+            meterRegistry.counter("shipping.notification.failed", "channel", channel).increment();
+            log.warn("Giving up on shipping notification {} for order {} after {} attempts: {}",
+                    notification.getId(), notification.getOrderNumber(), attempts, error);
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, retryBackoffMillis << Math.min(attempts - 1, 20));
+        notification.setNextAttemptAt(now.plus(Duration.ofMillis(backoff)));
+        meterRegistry.counter("shipping.notification.retried", "channel", channel).increment();
+    }
+
+    private Map<Long, String> await(ShippingNotification.Channel channel, CompletableFuture<Map<Long, String>> result,
+                                    List<NotificationMessage> messages) {
+        try {
+            return result.get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return allFailed(messages, "interrupted");
+        } catch (TimeoutException e) {
+            log.warn("Timed out sending {} shipping notifications over {}", messages.size(), channel);
+            return allFailed(messages, "timed out");
+        } catch (ExecutionException e) {
+            return allFailed(messages, String.valueOf(e.getCause().getMessage()));
+        }
+    }
+
+    private void skip(ShippingNotification notification, String reason) {
+        notification.setStatus(ShippingNotification.Status.SKIPPED);
+        notification.setLastError(reason);
+        meterRegistry.counter("shipping.notification.skipped", "channel", notification.getChannel().name()).increment();
+        log.debug("Skipped shipping notification {} for order {}: {}", notification.getId(), notification.getOrderNumber(), reason);
+    }
+
+    private static String recipient(User user, ShippingNotification.Channel channel) {
+        String recipient = channel == ShippingNotification.Channel.EMAIL ? user.getEmail() : user.getPhone();
+        return recipient != null && !recipient.isEmpty() ? recipient : null;
+    }
+
+    static String render(ShippingNotification notification) {
+        String deviceInfo = notification.getDeviceId() != null ? notification.getDeviceId() : "デバイス";
+        String message = notification.getEstimatedArrivalTime() != null
+                ? String.format("【ahamo】%sのお届け予定が%sに変更されました。", deviceInfo,
+                        notification.getEstimatedArrivalTime().format(ETA_FORMAT))
+                : statusMessage(notification, deviceInfo);
+        return notification.getChannel() == ShippingNotification.Channel.EMAIL
+                ? message + "\n\n注文番号: " + notification.getOrderNumber()
+                : message;
+    }
+
+    private static String statusMessage(ShippingNotification notification, String deviceInfo) {
+        switch (notification.getShippingStatus()) {
+            case "SHIPPED":
+                return String.format("【ahamo】%sが発送されました。追跡番号: %s", deviceInfo, notification.getTrackingNumber());
+            case "IN_TRANSIT":
+                return String.format("【ahamo】%sが配送中です。まもなくお届け予定です。", deviceInfo);
+            case "OUT_FOR_DELIVERY":
+                return String.format("【ahamo】%sが配達中です。本日中にお届け予定です。", deviceInfo);
+            case "DELIVERED":
+                return String.format("【ahamo】%sが配達完了しました。ご利用ありがとうございます。", deviceInfo);
+            case "FAILED":
+                return String.format("【ahamo】%sの配達に失敗しました。再配達をご希望の場合はお手続きください。", deviceInfo);
+            default:
+                return String.format("【ahamo】%sの配送状況が更新されました: %s", deviceInfo, notification.getShippingStatus());
+        }
+    }
+
+    private static Map<Long, String> allFailed(List<NotificationMessage> messages, String error) {
+        Map<Long, String> failures = new HashMap<>();
+        messages.forEach(message -> failures.put(message.getNotificationId(), error));
+        return failures;
+    }
+
+    private final class ChannelLane {
+        private final NotificationSender sender;
+        private final ExecutorService executor;
+        private final int chunkSize;
+        private final long intervalNanos;
+        private long nextSendNanos = System.nanoTime();
+
+        private ChannelLane(NotificationSender sender, int concurrency, int chunkSize, double rate) {
+            this.sender = sender;
+            this.chunkSize = Math.max(1, chunkSize);
+            this.intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0L;
+            AtomicInteger threadNumber = new AtomicInteger();
+            String threadPrefix = "notify-" + sender.channel().name().toLowerCase() + "-";
+            this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, threadPrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private CompletableFuture<Map<Long, String>> send(List<NotificationMessage> messages) {
+            List<CompletableFuture<Map<Long, String>>> chunks = new ArrayList<>();
+            for (int from = 0; from < messages.size(); from += chunkSize) {
+                List<NotificationMessage> chunk = messages.subList(from, Math.min(from + chunkSize, messages.size()));
+                chunks.add(CompletableFuture.supplyAsync(() -> sendChunk(chunk), executor));
+            }
+            return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(done -> {
+                Map<Long, String> failures = new HashMap<>();
+                chunks.forEach(chunk -> failures.putAll(chunk.join()));
+                return failures;
+            });
+        }
+
+        private Map<Long, String> sendChunk(List<NotificationMessage> chunk) {
+            try {
+                awaitRate(chunk.size());
+                return meterRegistry.timer("shipping.notification.send", "channel", sender.channel().name())
+                        .record(() -> sender.send(chunk));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return allFailed(chunk, "interrupted");
+            } catch (RuntimeException e) {
+                log.error("Failed to send {} shipping notifications over {}: {}", chunk.size(), sender.channel(), e.getMessage());
+                return allFailed(chunk, e.getMessage());
+            }
+        }
+
+        private void awaitRate(int permits) throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long sendAt = Math.max(now, nextSendNanos);
+                nextSendNanos = sendAt + intervalNanos * permits;
+                waitNanos = sendAt - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
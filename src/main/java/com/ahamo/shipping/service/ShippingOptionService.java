@@ -1,7 +1,6 @@
 package com.ahamo.shipping.service;
 
 import com.ahamo.shipping.model.ShippingOption;
-import com.ahamo.shipping.repository.ShippingOptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -12,17 +11,17 @@ import java.util.Optional;
 public class ShippingOptionService {
 
     @Autowired
-    private ShippingOptionRepository shippingOptionRepository;
+    private ShippingReferenceData shippingReferenceData;
 
     public List<ShippingOption> getAllActiveOptions() {
-        return shippingOptionRepository.findByIsActiveTrueOrderByOptionName();
+        return shippingReferenceData.getActiveOptions();
     }
 
     public Optional<ShippingOption> findByOptionCode(String optionCode) {
-        return shippingOptionRepository.findByOptionCode(optionCode);
+        return shippingReferenceData.findOption(optionCode);
     }
 
     public List<ShippingOption> findAll() {
-        return shippingOptionRepository.findAll();
+        return shippingReferenceData.getAllOptions();
     }
 }
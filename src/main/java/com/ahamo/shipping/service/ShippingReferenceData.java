@@ -0,0 +1,162 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.shipping.model.DeliveryTimeSlot;
+import com.ahamo.shipping.model.LogisticsProvider;
+import com.ahamo.shipping.model.ShippingOption;
+import com.ahamo.shipping.repository.DeliveryTimeSlotRepository;
+import com.ahamo.shipping.repository.LogisticsProviderRepository;
+import com.ahamo.shipping.repository.ShippingOptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of the shipping reference tables: shipping options, delivery time
+ * slots and logistics providers. Each table is loaded once into an immutable snapshot
+ * that requests read without locking or touching the database. Convenience stores are
+ * served by {@link ConvenienceStoreIndex}, which keeps itself current by polling
+ * {@code updated_at}.
+ * <p>
+ * These tables are only changed by migrations, and only one of them has an
+ * {@code updated_at} column, so nothing is polled: a change made in the database is
+ * served after a restart. A {@link CatalogChangedEvent} for the shipping catalog reloads
+ * the snapshot on the node that published it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ShippingReferenceData {
+
+    private static final Comparator<DeliveryTimeSlot> BY_START_TIME = Comparator.comparing(
+            DeliveryTimeSlot::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<ShippingOption> BY_OPTION_NAME = Comparator.comparing(
+            ShippingOption::getOptionName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ShippingOptionRepository shippingOptionRepository;
+    private final DeliveryTimeSlotRepository deliveryTimeSlotRepository;
+    private final LogisticsProviderRepository logisticsProviderRepository;
+
+    private volatile Snapshot snapshot;
+
+    public List<ShippingOption> getActiveOptions() {
+        return current().activeOptions;
+    }
+
+    public List<ShippingOption> getAllOptions() {
+        return current().allOptions;
+    }
+
+    public Optional<ShippingOption> findOption(String optionCode) {
+        return Optional.ofNullable(current().optionsByCode.get(optionCode));
+    }
+
+    public List<DeliveryTimeSlot> getActiveTimeSlots() {
+        return current().activeSlots;
+    }
+
+    public List<DeliveryTimeSlot> getActiveTimeSlots(DeliveryTimeSlot.SlotType slotType) {
+        return current().activeSlotsByType.getOrDefault(slotType, Collections.emptyList());
+    }
+
+    public Optional<DeliveryTimeSlot> findTimeSlot(Long id) {
+        return Optional.ofNullable(current().slotsById.get(id));
+    }
+
+    public Optional<LogisticsProvider> findProvider(Long id) {
+        return Optional.ofNullable(current().providersById.get(id));
+    }
+
+    public Optional<LogisticsProvider> findProvider(String providerCode) {
+        return Optional.ofNullable(current().providersByCode.get(providerCode));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getCatalog() == CatalogChangedEvent.Catalog.SHIPPING) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        snapshot = new Snapshot(shippingOptionRepository.findAll(),
+                deliveryTimeSlotRepository.findAll(),
+                logisticsProviderRepository.findAll());
+        log.info("Loaded shipping reference data: {} options, {} time slots, {} providers",
+                snapshot.allOptions.size(), snapshot.slotsById.size(), snapshot.providersById.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    static final class Snapshot {
+        private final List<ShippingOption> allOptions;
+        private final List<ShippingOption> activeOptions;
+        private final Map<String, ShippingOption> optionsByCode;
+        private final List<DeliveryTimeSlot> activeSlots;
+        private final Map<DeliveryTimeSlot.SlotType, List<DeliveryTimeSlot>> activeSlotsByType;
+        private final Map<Long, DeliveryTimeSlot> slotsById;
+        private final Map<Long, LogisticsProvider> providersById;
+        private final Map<String, LogisticsProvider> providersByCode;
+
+        Snapshot(List<ShippingOption> options, List<DeliveryTimeSlot> slots, List<LogisticsProvider> providers) {
+            this.allOptions = Collections.unmodifiableList(new ArrayList<>(options));
+            this.activeOptions = Collections.unmodifiableList(options.stream()
+                    .filter(option -> Boolean.TRUE.equals(option.getIsActive()))
+                    .sorted(BY_OPTION_NAME)
+                    .collect(Collectors.toList()));
+            this.optionsByCode = index(options, ShippingOption::getOptionCode);
+
+            List<DeliveryTimeSlot> active = slots.stream()
+                    .filter(slot -> Boolean.TRUE.equals(slot.getIsActive()))
+                    .sorted(BY_START_TIME)
+                    .collect(Collectors.toList());
+            Map<DeliveryTimeSlot.SlotType, List<DeliveryTimeSlot>> byType = new EnumMap<>(DeliveryTimeSlot.SlotType.class);
+            for (DeliveryTimeSlot slot : active) {
+                if (slot.getSlotType() != null) {
+                    byType.computeIfAbsent(slot.getSlotType(), type -> new ArrayList<>()).add(slot);
+                }
+            }
+            byType.replaceAll((type, list) -> Collections.unmodifiableList(list));
+            this.activeSlots = Collections.unmodifiableList(active);
+            this.activeSlotsByType = Collections.unmodifiableMap(byType);
+            this.slotsById = index(slots, DeliveryTimeSlot::getId);
+
+            this.providersById = index(providers, LogisticsProvider::getId);
+            this.providersByCode = index(providers, LogisticsProvider::getProviderCode);
+        }
+
+        private static <K, V> Map<K, V> index(List<V> rows, Function<V, K> key) {
+            Map<K, V> map = new HashMap<>(rows.size() * 2);
+            for (V row : rows) {
+                K value = key.apply(row);
+                if (value != null) {
+                    map.put(value, row);
+                }
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
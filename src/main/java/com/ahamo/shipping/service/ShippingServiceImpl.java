@@ -7,7 +7,6 @@ import com.ahamo.shipping.dto.TrackingResponse;
 import com.ahamo.shipping.model.LogisticsProvider;
 import com.ahamo.shipping.model.ShippingOrder;
 import com.ahamo.shipping.model.TrackingEvent;
-import com.ahamo.shipping.repository.LogisticsProviderRepository;
 import com.ahamo.shipping.repository.ShippingOrderRepository;
 import com.ahamo.shipping.repository.TrackingEventRepository;
 import com.ahamo.contract.model.Contract;
@@ -31,18 +30,19 @@ import java.util.Optional;
 public class ShippingServiceImpl implements ShippingService {
     
     private final ShippingOrderRepository shippingOrderRepository;
-    private final LogisticsProviderRepository logisticsProviderRepository;
+    private final ShippingReferenceData shippingReferenceData;
     private final TrackingEventRepository trackingEventRepository;
     private final ContractRepository contractRepository;
     private final ReservationService reservationService;
     private final LogisticsProviderFactory providerFactory;
+    private final TrackingPushService trackingPushService;
     
     @Override
     public ShippingResponse createShippingOrder(ShippingRequest request) {
         log.info("Creating shipping order for contract: {}", request.getContractId());
         
         String providerCode = request.getProviderCode() != null ? request.getProviderCode() : "YAMATO";
-        LogisticsProvider provider = logisticsProviderRepository.findByProviderCode(providerCode)
+        LogisticsProvider provider = shippingReferenceData.findProvider(providerCode)
                 .orElseThrow(() -> new RuntimeException("物流プロバイダーが見つかりません: " + providerCode));
         
         ShippingOrder shippingOrder = ShippingOrder.builder()
@@ -73,6 +73,7 @@ public class ShippingServiceImpl implements ShippingService {
                 .description("配送依頼が作成されました")
                 .build();
         trackingEventRepository.save(event);
+        publishEvent(savedOrder, event);
         
         log.info("Shipping order created successfully: {}", savedOrder.getOrderNumber());
         
@@ -100,7 +101,7 @@ public class ShippingServiceImpl implements ShippingService {
         if (!existingOrders.isEmpty()) {
             log.warn("Shipping already arranged for contract: {}", contractId);
             ShippingOrder existingOrder = existingOrders.get(0);
-            LogisticsProvider provider = logisticsProviderRepository.findById(existingOrder.getProviderId())
+            LogisticsProvider provider = shippingReferenceData.findProvider(existingOrder.getProviderId())
                     .orElse(null);
             
             return ShippingResponse.builder()
@@ -140,7 +141,7 @@ public class ShippingServiceImpl implements ShippingService {
         ShippingOrder order = shippingOrderRepository.findByTrackingNumber(trackingNumber)
                 .orElseThrow(() -> new RuntimeException("配送注文が見つかりません: " + trackingNumber));
         
-        LogisticsProvider provider = logisticsProviderRepository.findById(order.getProviderId())
+        LogisticsProvider provider = shippingReferenceData.findProvider(order.getProviderId())
                 .orElseThrow(() -> new RuntimeException("物流プロバイダーが見つかりません"));
         
         LogisticsProviderAdapter adapter = providerFactory.getAdapter(provider.getProviderCode());
@@ -186,7 +187,7 @@ public class ShippingServiceImpl implements ShippingService {
             throw new RuntimeException("配達済みの注文はキャンセルできません");
         }
         
-        LogisticsProvider provider = logisticsProviderRepository.findById(order.getProviderId())
+        LogisticsProvider provider = shippingReferenceData.findProvider(order.getProviderId())
                 .orElseThrow(() -> new RuntimeException("物流プロバイダーが見つかりません"));
         
         LogisticsProviderAdapter adapter = providerFactory.getAdapter(provider.getProviderCode());
@@ -203,6 +204,7 @@ public class ShippingServiceImpl implements ShippingService {
                     .description("配送がキャンセルされました")
                     .build();
             trackingEventRepository.save(event);
+            publishEvent(order, event);
             
             log.info("Shipment cancelled successfully: {}", orderNumber);
         }
@@ -264,6 +266,7 @@ public class ShippingServiceImpl implements ShippingService {
             .build();
         
         trackingEventRepository.save(event);
+        publishEvent(order, event);
         
         return true;
     }
@@ -300,7 +303,17 @@ public class ShippingServiceImpl implements ShippingService {
             .build();
         
         trackingEventRepository.save(event);
+        publishEvent(order, event);
         
         return true;
     }
+
+    private void publishEvent(ShippingOrder order, TrackingEvent event) {
+        trackingPushService.publish(order.getTrackingNumber(), TrackingResponse.TrackingEvent.builder()
+                .status(event.getStatus())
+                .location(event.getLocation())
+                .timestamp(event.getTimestamp())
+                .description(event.getDescription())
+                .build());
+    }
 }
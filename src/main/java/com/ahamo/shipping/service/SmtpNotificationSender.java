@@ -0,0 +1,89 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.NotificationMessage;
+import com.ahamo.shipping.model.ShippingNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends notification emails through the configured SMTP server. A batch goes out as one
+ * {@link JavaMailSender#send(SimpleMailMessage...)} call, which reuses a single SMTP
+ * connection for all of its messages.
+ */
+@Component
+@ConditionalOnProperty(name = "shipping.notification.sink", havingValue = "live", matchIfMissing = true)
+@Slf4j
+public class SmtpNotificationSender implements NotificationSender {
+
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+
+    public SmtpNotificationSender(JavaMailSender mailSender,
+                                  @Value("${spring.mail.username:}") String fromEmail) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+    }
+
+    @Override
+    public ShippingNotification.Channel channel() {
+        return ShippingNotification.Channel.EMAIL;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return fromEmail != null && !fromEmail.isEmpty();
+    }
+
+    @Override
+    public Map<Long, String> send(List<NotificationMessage> messages) {
+        Map<Long, String> failures = new HashMap<>();
+        if (!isEnabled()) {
+            log.warn("Email configuration not set, skipping {} emails", messages.size());
+            messages.forEach(message -> failures.put(message.getNotificationId(), "email not configured"));
+            return failures;
+        }
+
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] mails = new SimpleMailMessage[messages.size()];
+        for (int i = 0; i < mails.length; i++) {
+            NotificationMessage message = messages.get(i);
+            SimpleMailMessage mail = new SimpleMailMessage();
+            mail.setFrom(fromEmail);
+            mail.setTo(message.getRecipient());
+            mail.setSubject(message.getSubject());
+            mail.setText(message.getBody());
+            mails[i] = mail;
+            ids.put(mail, message.getNotificationId());
+        }
+
+        try {
+            mailSender.send(mails);
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                ids.values().forEach(id -> failures.put(id, e.getMessage()));
+            } else {
+                e.getFailedMessages().forEach((mail, error) -> {
+                    Long id = ids.get(mail);
+                    if (id != null) {
+                        failures.put(id, error.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            ids.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+        log.debug("Sent {} of {} shipping notification emails", messages.size() - failures.size(), messages.size());
+        return failures;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.TrackingDelta;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries tracking deltas between nodes, so subscribers connected to any node see
+ * updates produced on every other node, and hands out per-shipment sequence numbers.
+ */
+public interface TrackingBroker {
+
+    void publish(TrackingDelta delta);
+
+    void subscribe(Consumer<TrackingDelta> listener);
+
+    long nextSequence(String trackingNumber);
+
+    long currentSequence(String trackingNumber);
+}
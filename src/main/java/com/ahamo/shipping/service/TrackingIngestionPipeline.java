@@ -0,0 +1,394 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.adapter.LogisticsProviderAdapter;
+import com.ahamo.shipping.dto.LocationUpdate;
+import com.ahamo.shipping.dto.TrackingResponse;
+import com.ahamo.shipping.model.LogisticsProvider;
+import com.ahamo.shipping.model.ShippingOrder;
+import com.ahamo.shipping.model.TrackingEvent;
+import com.ahamo.shipping.repository.LogisticsProviderRepository;
+import com.ahamo.shipping.repository.TrackingEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Polls shipment locations provider by provider. Active orders are grouped by their
+ * {@link LogisticsProviderAdapter}. Each provider has its own small pool with a bounded
+ * queue and a fixed request rate, so one slow or strict provider does not hold up the
+ * others. Calls still queued when the poll timeout passes are cancelled or skipped, so
+ * a slow provider's backlog does not carry over into the next cycle. An update
+ * is kept only if it differs from the order's latest stored event in status, location
+ * text, position beyond the minimum distance, or arrival time beyond the ETA threshold.
+ * Kept updates are inserted in one JDBC batch and pushed to subscribers as deltas.
+ */
+@Component
+@Slf4j
+public class TrackingIngestionPipeline {
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO tracking_events (shipping_order_id, status, location, latitude, longitude, " +
+            "estimated_arrival_time, timestamp, description, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String EVENT_DESCRIPTION = "位置情報自動更新";
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+
+    private final LogisticsProviderRepository logisticsProviderRepository;
+    private final TrackingEventRepository trackingEventRepository;
+    private final LogisticsProviderFactory providerFactory;
+    private final TrackingPushService trackingPushService;
+    private final ShippingNotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int providerConcurrency;
+    private final int providerQueueCapacity;
+    private final double providerRate;
+    private final long pollTimeoutMillis;
+    private final double minDistanceMeters;
+    private final Duration etaThreshold;
+    private final Map<String, ProviderLane> lanes = new ConcurrentHashMap<>();
+
+    private final Counter changedCounter;
+    private final Counter unchangedCounter;
+    private final Timer cycleTimer;
+
+    public TrackingIngestionPipeline(LogisticsProviderRepository logisticsProviderRepository,
+                                     TrackingEventRepository trackingEventRepository,
+                                     LogisticsProviderFactory providerFactory,
+                                     TrackingPushService trackingPushService,
+                                     ShippingNotificationService notificationService,
+                                     JdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${shipping.tracking.provider-concurrency:4}") int providerConcurrency,
+                                     @Value("${shipping.tracking.provider-queue-capacity:1000}") int providerQueueCapacity,
+                                     @Value("${shipping.tracking.provider-rate:20}") double providerRate,
+                                     @Value("${shipping.tracking.poll-timeout:120000}") long pollTimeoutMillis,
+                                     @Value("${shipping.tracking.min-distance-meters:1000}") double minDistanceMeters,
+                                     @Value("${shipping.tracking.eta-threshold:900000}") long etaThresholdMillis) {
+        this.logisticsProviderRepository = logisticsProviderRepository;
+        this.trackingEventRepository = trackingEventRepository;
+        this.providerFactory = providerFactory;
+        this.trackingPushService = trackingPushService;
+        this.notificationService = notificationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.providerConcurrency = providerConcurrency;
+        this.providerQueueCapacity = providerQueueCapacity;
+        this.providerRate = providerRate;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.minDistanceMeters = minDistanceMeters;
+        this.etaThreshold = Duration.ofMillis(etaThresholdMillis);
+
+        this.changedCounter = meterRegistry.counter("shipping.tracking.updates", "result", "changed");
+        this.unchangedCounter = meterRegistry.counter("shipping.tracking.updates", "result", "unchanged");
+        this.cycleTimer = meterRegistry.timer("shipping.tracking.cycle");
+    }
+
+    /**
+     * Polls every order with a tracking number once and records the ones whose location
+     * really changed. Returns the number of recorded changes.
+     */
+    public int ingest(List<ShippingOrder> orders) {
+        return cycleTimer.record(() -> {
+            List<ShippingOrder> trackable = orders.stream()
+                    .filter(order -> order.getTrackingNumber() != null)
+                    .collect(Collectors.toList());
+            if (trackable.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, TrackingEvent> latest = latestEvents(trackable);
+            List<Polled> polled = poll(trackable);
+
+            List<Polled> changed = new ArrayList<>();
+            for (Polled result : polled) {
+                TrackingEvent last = latest.get(result.order.getId());
+                if (isMeaningfulChange(last, result.update)) {
+                    result.previous = last;
+                    changed.add(result);
+                }
+            }
+            changedCounter.increment(changed.size());
+            unchangedCounter.increment(polled.size() - changed.size());
+
+            insertEvents(changed);
+            changed.forEach(this::publish);
+
+            log.info("Polled {} shipments, {} changed", polled.size(), changed.size());
+            return changed.size();
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdownNow());
+    }
+
+    /**
+     * An update is worth recording when the order has no event yet, or when its status
+     * or location text changed, it moved at least the minimum distance, or its arrival
+     * time shifted by at least the ETA threshold.
+     */
+    boolean isMeaningfulChange(TrackingEvent last, LocationUpdate update) {
+        if (last == null) {
+            return true;
+        }
+        if (!Objects.equals(last.getStatus(), update.getStatus())
+                || !Objects.equals(last.getLocation(), update.getCurrentLocation())) {
+            return true;
+        }
+        if (distanceMeters(last.getLatitude(), last.getLongitude(), update.getLatitude(), update.getLongitude())
+                >= minDistanceMeters) {
+            return true;
+        }
+        LocalDateTime lastEta = last.getEstimatedArrivalTime();
+        LocalDateTime eta = update.getEstimatedArrivalTime();
+        if (lastEta == null || eta == null) {
+            return lastEta != eta;
+        }
+        return Duration.between(lastEta, eta).abs().compareTo(etaThreshold) >= 0;
+    }
+
+    private List<Polled> poll(List<ShippingOrder> orders) {
+        Map<Long, String> providerCodes = logisticsProviderRepository.findAllById(
+                        orders.stream().map(ShippingOrder::getProviderId).distinct().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(LogisticsProvider::getId, LogisticsProvider::getProviderCode));
+
+        Map<LogisticsProviderAdapter, List<ShippingOrder>> byAdapter = new LinkedHashMap<>();
+        for (ShippingOrder order : orders) {
+            String providerCode = providerCodes.get(order.getProviderId());
+            if (providerCode == null) {
+                log.warn("Skipping order {}: unknown logistics provider {}", order.getOrderNumber(), order.getProviderId());
+                continue;
+            }
+            byAdapter.computeIfAbsent(providerFactory.getAdapter(providerCode), adapter -> new ArrayList<>()).add(order);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pollTimeoutMillis);
+        List<Future<Polled>> calls = new ArrayList<>(orders.size());
+        byAdapter.forEach((adapter, adapterOrders) -> {
+            ProviderLane lane = lanes.computeIfAbsent(adapter.getProviderCode(), ProviderLane::new);
+            for (ShippingOrder order : adapterOrders) {
+                calls.add(lane.poll(adapter, order, deadline));
+            }
+        });
+
+        List<Polled> polled = new ArrayList<>(calls.size());
+        int abandoned = 0;
+        for (Future<Polled> call : calls) {
+            try {
+                Polled result = call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (result != null) {
+                    polled.add(result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                call.cancel(true);
+                abandoned++;
+            } catch (TimeoutException e) {
+                call.cancel(true);
+                abandoned++;
+            } catch (ExecutionException e) {
+                // Individual failures are logged by their lanes.
+            }
+        }
+        if (abandoned > 0) {
+            lanes.values().forEach(lane -> lane.executor.purge());
+            log.warn("Location polling did not finish within {}ms; cancelled {} calls and kept {} results",
+                    pollTimeoutMillis, abandoned, polled.size());
+        }
+        return polled;
+    }
+
+    private Map<Long, TrackingEvent> latestEvents(List<ShippingOrder> orders) {
+        List<Long> orderIds = orders.stream().map(ShippingOrder::getId).collect(Collectors.toList());
+        Map<Long, TrackingEvent> latest = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, orderIds.size()));
+            for (TrackingEvent event : trackingEventRepository.findLatestByShippingOrderIds(chunk)) {
+                latest.merge(event.getShippingOrderId(), event,
+                        (a, b) -> a.getId() != null && b.getId() != null && a.getId() > b.getId() ? a : b);
+            }
+        }
+        return latest;
+    }
+
+    private void insertEvents(List<Polled> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(changed.size());
+        for (Polled result : changed) {
+            LocationUpdate update = result.update;
+            rows.add(new Object[]{
+                    result.order.getId(), update.getStatus(), update.getCurrentLocation(),
+                    update.getLatitude(), update.getLongitude(),
+                    update.getEstimatedArrivalTime() != null ? Timestamp.valueOf(update.getEstimatedArrivalTime()) : null,
+                    Timestamp.valueOf(update.getTimestamp() != null ? update.getTimestamp() : LocalDateTime.now()),
+                    EVENT_DESCRIPTION, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows);
+    }
+
+    private void publish(Polled result) {
+        ShippingOrder order = result.order;
+        LocationUpdate update = result.update;
+        try {
+            trackingPushService.publish(order.getTrackingNumber(), TrackingResponse.TrackingEvent.builder()
+                    .status(update.getStatus())
+                    .location(update.getCurrentLocation())
+                    .timestamp(update.getTimestamp())
+                    .description(EVENT_DESCRIPTION)
+                    .build());
+
+            if (isNotifiedStatusChange(result.previous, update)) {
+                notificationService.sendShippingStatusNotification(order, update.getStatus());
+            } else if (isNotifiedEtaShift(result.previous, update)) {
+                notificationService.sendEtaChangeNotification(order, update.getStatus(), update.getEstimatedArrivalTime());
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish location update for order {}: {}", order.getOrderNumber(), e.getMessage());
+        }
+    }
+
+    private static boolean isNotifiedStatusChange(TrackingEvent previous, LocationUpdate update) {
+        boolean statusChanged = previous == null || !Objects.equals(previous.getStatus(), update.getStatus());
+        return statusChanged && ("OUT_FOR_DELIVERY".equals(update.getStatus()) || "DELIVERED".equals(update.getStatus()));
+    }
+
+    private boolean isNotifiedEtaShift(TrackingEvent previous, LocationUpdate update) {
+        return previous != null && previous.getEstimatedArrivalTime() != null && update.getEstimatedArrivalTime() != null
+                && Duration.between(previous.getEstimatedArrivalTime(), update.getEstimatedArrivalTime()).abs()
+                        .compareTo(etaThreshold) >= 0;
+    }
+
+    private static double distanceMeters(Double lat1, Double lon1, Double lat2, Double lon2) {
+        if (lat1 == null || lon1 == null || lat2 == null || lon2 == null) {
+            return (lat1 == null) == (lat2 == null) ? 0 : Double.MAX_VALUE;
+        }
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return EARTH_RADIUS_METERS * Math.sqrt(dLat * dLat + dLon * dLon);
+    }
+
+    private static final class Polled {
+        private final ShippingOrder order;
+        private final LocationUpdate update;
+        private TrackingEvent previous;
+
+        private Polled(ShippingOrder order, LocationUpdate update) {
+            this.order = order;
+            this.update = update;
+        }
+    }
+
+    /** Bounded pool and queue plus a fixed request rate for one provider. */
+    private final class ProviderLane {
+        private final String providerCode;
+        private final ThreadPoolExecutor executor;
+        private final long intervalNanos;
+        private final Timer callTimer;
+        private final Counter failureCounter;
+        private final Counter skippedCounter;
+        private long nextCallNanos = System.nanoTime();
+
+        private ProviderLane(String providerCode) {
+            this.providerCode = providerCode;
+            this.intervalNanos = providerRate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / providerRate) : 0L;
+            AtomicInteger threadNumber = new AtomicInteger();
+            String threadPrefix = "tracking-" + providerCode.toLowerCase() + "-";
+            this.executor = new ThreadPoolExecutor(providerConcurrency, providerConcurrency,
+                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(providerQueueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, threadPrefix + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.callTimer = meterRegistry.timer("shipping.tracking.provider.call", "provider", providerCode);
+            this.failureCounter = meterRegistry.counter("shipping.tracking.provider.failures", "provider", providerCode);
+            this.skippedCounter = meterRegistry.counter("shipping.tracking.provider.skipped", "provider", providerCode);
+        }
+
+        /**
+         * Queues a call for the order. The call is skipped if the poll deadline has passed
+         * by the time it runs, or if the lane's queue is full.
+         */
+        private Future<Polled> poll(LogisticsProviderAdapter adapter, ShippingOrder order, long deadline) {
+            try {
+                return executor.submit(() -> {
+                    try {
+                        if (isExpired(deadline)) {
+                            return null;
+                        }
+                        awaitRate();
+                        if (isExpired(deadline)) {
+                            return null;
+                        }
+                        LocationUpdate update = callTimer.record(() -> adapter.getLocationUpdate(order.getTrackingNumber()));
+                        return update != null ? new Polled(order, update) : null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } catch (RuntimeException e) {
+                        failureCounter.increment();
+                        log.error("Failed to get location from {} for order {}: {}",
+                                providerCode, order.getOrderNumber(), e.getMessage());
+                        return null;
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                skippedCounter.increment();
+                log.warn("Skipping order {}: {} queue is full", order.getOrderNumber(), providerCode);
+                return CompletableFuture.completedFuture(null);
+            }
+        }
+
+        private boolean isExpired(long deadline) {
+            if (System.nanoTime() - deadline < 0) {
+                return false;
+            }
+            skippedCounter.increment();
+            return true;
+        }
+
+        private void awaitRate() throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                long callAt = Math.max(now, nextCallNanos);
+                nextCallNanos = callAt + intervalNanos;
+                waitNanos = callAt - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
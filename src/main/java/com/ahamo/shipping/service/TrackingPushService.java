@@ -0,0 +1,211 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.TrackingDelta;
+import com.ahamo.shipping.dto.TrackingResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes tracking changes to WebSocket subscribers as deltas. Changes for the same
+ * shipment within the coalesce window are merged into one delta, which is numbered and
+ * published through the {@link TrackingBroker}; every node then delivers it to its own
+ * subscribers of {@code /topic/tracking/{trackingNumber}}, skipping shipments nobody on
+ * that node follows.
+ */
+@Component
+@Slf4j
+public class TrackingPushService {
+
+    static final String TOPIC_PREFIX = "/topic/tracking/";
+
+    private final TrackingBroker trackingBroker;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long coalesceWindowMillis;
+    private final Map<String, TrackingDelta> pending = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter updatesCounter;
+    private final Counter publishedCounter;
+    private final Counter deliveredCounter;
+    private final Counter skippedCounter;
+
+    public TrackingPushService(TrackingBroker trackingBroker,
+                               SimpMessagingTemplate messagingTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${shipping.tracking.push.coalesce-window:500}") long coalesceWindowMillis) {
+        this.trackingBroker = trackingBroker;
+        this.messagingTemplate = messagingTemplate;
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tracking-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.updatesCounter = meterRegistry.counter("shipping.tracking.push.updates");
+        this.publishedCounter = meterRegistry.counter("shipping.tracking.push.published");
+        this.deliveredCounter = meterRegistry.counter("shipping.tracking.push.delivered");
+        this.skippedCounter = meterRegistry.counter("shipping.tracking.push.skipped");
+        meterRegistry.gauge("shipping.tracking.push.subscribers", subscribers,
+                map -> map.values().stream().mapToInt(AtomicInteger::get).sum());
+        meterRegistry.gauge("shipping.tracking.push.pending", pending, Map::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        trackingBroker.subscribe(this::deliver);
+        flusher.scheduleWithFixedDelay(this::flushSafely, coalesceWindowMillis, coalesceWindowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Queues a new event for the shipment. Inside a transaction the event is queued after
+     * commit, so subscribers never see an event that was rolled back.
+     */
+    public void publish(String trackingNumber, TrackingResponse.TrackingEvent event) {
+        if (trackingNumber == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(trackingNumber, event);
+                }
+            });
+        } else {
+            enqueue(trackingNumber, event);
+        }
+    }
+
+    /** Current state with the full history and the latest sequence, sent when a client (re)subscribes. */
+    public TrackingDelta snapshot(TrackingResponse tracking) {
+        return TrackingDelta.builder()
+                .trackingNumber(tracking.getTrackingNumber())
+                .sequence(trackingBroker.currentSequence(tracking.getTrackingNumber()))
+                .snapshot(true)
+                .status(tracking.getStatus())
+                .location(tracking.getLocation())
+                .lastUpdated(tracking.getLastUpdated())
+                .events(tracking.getEvents())
+                .build();
+    }
+
+    /** Publishes every queued delta; runs on the coalesce timer. */
+    void flush() {
+        for (String trackingNumber : new ArrayList<>(pending.keySet())) {
+            TrackingDelta delta = pending.remove(trackingNumber);
+            if (delta == null) {
+                continue;
+            }
+            delta.setSequence(trackingBroker.nextSequence(trackingNumber));
+            trackingBroker.publish(delta);
+            publishedCounter.increment();
+        }
+    }
+
+    void deliver(TrackingDelta delta) {
+        AtomicInteger count = subscribers.get(delta.getTrackingNumber());
+        if (count == null || count.get() <= 0) {
+            skippedCounter.increment();
+            return;
+        }
+        messagingTemplate.convertAndSend(TOPIC_PREFIX + delta.getTrackingNumber(), delta);
+        deliveredCounter.increment();
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || !destination.startsWith(TOPIC_PREFIX) || accessor.getSessionId() == null) {
+            return;
+        }
+        String trackingNumber = destination.substring(TOPIC_PREFIX.length());
+        sessionSubscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(String.valueOf(accessor.getSubscriptionId()), trackingNumber);
+        subscribers.computeIfAbsent(trackingNumber, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() != null
+                ? sessionSubscriptions.get(accessor.getSessionId()) : null;
+        if (subscriptions != null) {
+            release(subscriptions.remove(String.valueOf(accessor.getSubscriptionId())));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::release);
+        }
+    }
+
+    private void enqueue(String trackingNumber, TrackingResponse.TrackingEvent event) {
+        updatesCounter.increment();
+        pending.compute(trackingNumber, (key, delta) -> {
+            if (delta == null) {
+                delta = TrackingDelta.builder()
+                        .trackingNumber(trackingNumber)
+                        .events(new ArrayList<>())
+                        .build();
+            }
+            delta.getEvents().add(event);
+            delta.setStatus(event.getStatus());
+            if (event.getLocation() != null) {
+                delta.setLocation(event.getLocation());
+            }
+            delta.setLastUpdated(event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now());
+            return delta;
+        });
+    }
+
+    private void release(String trackingNumber) {
+        if (trackingNumber == null) {
+            return;
+        }
+        subscribers.computeIfPresent(trackingNumber, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to publish tracking deltas", e);
+        }
+    }
+}
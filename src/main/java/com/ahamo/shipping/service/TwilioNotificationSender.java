@@ -0,0 +1,67 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.NotificationMessage;
+import com.ahamo.shipping.model.ShippingNotification;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends notification SMS through Twilio. The REST client is built once at startup and
+ * shared by every send.
+ */
+@Component
+@ConditionalOnProperty(name = "shipping.notification.sink", havingValue = "live", matchIfMissing = true)
+@Slf4j
+public class TwilioNotificationSender implements NotificationSender {
+
+    private final TwilioRestClient client;
+    private final PhoneNumber fromNumber;
+
+    public TwilioNotificationSender(@Value("${twilio.account-sid:}") String accountSid,
+                                    @Value("${twilio.auth-token:}") String authToken,
+                                    @Value("${twilio.phone-number:}") String phoneNumber) {
+        boolean configured = !accountSid.isEmpty() && !authToken.isEmpty();
+        this.client = configured ? new TwilioRestClient.Builder(accountSid, authToken).build() : null;
+        this.fromNumber = new PhoneNumber(phoneNumber);
+    }
+
+    @Override
+    public ShippingNotification.Channel channel() {
+        return ShippingNotification.Channel.SMS;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return client != null;
+    }
+
+    @Override
+    public Map<Long, String> send(List<NotificationMessage> messages) {
+        Map<Long, String> failures = new HashMap<>();
+        if (!isEnabled()) {
+            log.warn("Twilio configuration not set, skipping {} SMS", messages.size());
+            messages.forEach(message -> failures.put(message.getNotificationId(), "sms not configured"));
+            return failures;
+        }
+
+        for (NotificationMessage message : messages) {
+            try {
+                Message sms = Message.creator(new PhoneNumber(message.getRecipient()), fromNumber, message.getBody())
+                        .create(client);
+                log.debug("Shipping notification SMS sent with SID: {}", sms.getSid());
+            } catch (RuntimeException e) {
+                failures.put(message.getNotificationId(), e.getMessage());
+            }
+        }
+        return failures;
+    }
+}
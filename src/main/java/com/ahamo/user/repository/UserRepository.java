@@ -2,11 +2,13 @@ package com.ahamo.user.repository;
 
 import com.ahamo.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -27,4 +29,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByPhone(String phone);
 
     boolean existsByContractNumber(String contractNumber);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = u.failedLoginAttempts + 1 WHERE u.id = :id")
+    int incrementFailedLoginAttempts(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.lockedUntil = :lockedUntil WHERE u.id = :id AND u.failedLoginAttempts >= :maxAttempts")
+    int lockIfFailedLoginAttemptsReached(@Param("id") Long id,
+                                         @Param("maxAttempts") int maxAttempts,
+                                         @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0, u.lockedUntil = NULL WHERE u.id = :id")
+    int resetFailedLoginAttempts(@Param("id") Long id);
 }
@@ -18,9 +18,9 @@ public interface UserService {
     
     Optional<User> findById(Long id);
     
-    void incrementFailedLoginAttempts(User user);
+    void recordFailedLogin(User user);
     
-    void resetFailedLoginAttempts(User user);
+    void recordSuccessfulLogin(User user);
     
     void verifyEmail(User user);
     
@@ -1,11 +1,14 @@
 package com.ahamo.user.service;
 
+import com.ahamo.security.jwt.AuthenticatedPrincipalCache;
 import com.ahamo.user.model.User;
 import com.ahamo.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -13,7 +16,11 @@ import java.util.Optional;
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    static final int MAX_FAILED_LOGIN_ATTEMPTS = 5;
+    static final int LOCK_MINUTES = 15;
+
     private final UserRepository userRepository;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     public Optional<User> findByEmail(String email) {
@@ -50,20 +57,31 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    /**
+     * Counts a failed password check and locks the account once the limit is reached. Both
+     * updates run in one transaction against the row, so concurrent failures are all counted.
+     */
     @Override
-    public void incrementFailedLoginAttempts(User user) {
+    @Transactional
+    public void recordFailedLogin(User user) {
+        userRepository.incrementFailedLoginAttempts(user.getId());
         user.setFailedLoginAttempts(user.getFailedLoginAttempts() + 1);
-        if (user.getFailedLoginAttempts() >= 5) {
-            user.setLockedUntil(java.time.LocalDateTime.now().plusMinutes(15));
+        LocalDateTime lockedUntil = LocalDateTime.now().plusMinutes(LOCK_MINUTES);
+        if (userRepository.lockIfFailedLoginAttemptsReached(user.getId(), MAX_FAILED_LOGIN_ATTEMPTS, lockedUntil) > 0) {
+            user.setLockedUntil(lockedUntil);
+            principalCache.invalidate(user.getEmail());
         }
-        userRepository.save(user);
     }
 
+    /** Clears the failed-attempt state; a login with nothing to clear writes nothing. */
     @Override
-    public void resetFailedLoginAttempts(User user) {
-        user.setFailedLoginAttempts(0);
-        user.setLockedUntil(null);
-        userRepository.save(user);
+    @Transactional
+    public void recordSuccessfulLogin(User user) {
+        if (user.getFailedLoginAttempts() == null || user.getFailedLoginAttempts() != 0 || user.getLockedUntil() != null) {
+            userRepository.resetFailedLoginAttempts(user.getId());
+            user.setFailedLoginAttempts(0);
+            user.setLockedUntil(null);
+        }
     }
 
     @Override
@@ -115,6 +133,6 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public boolean isAccountLocked(User user) {
-        return user.getLockedUntil() != null && user.getLockedUntil().isAfter(java.time.LocalDateTime.now());
+        return user.getLockedUntil() != null && user.getLockedUntil().isAfter(LocalDateTime.now());
     }
 }
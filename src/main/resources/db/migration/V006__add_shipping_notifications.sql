@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS shipping_notifications (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    dedupe_key VARCHAR(150) UNIQUE NOT NULL,
+    shipping_order_id BIGINT NOT NULL,
+    order_number VARCHAR(100),
+    contract_id BIGINT,
+    tracking_number VARCHAR(100),
+    device_id VARCHAR(100),
+    shipping_status VARCHAR(50) NOT NULL,
+    channel VARCHAR(10) NOT NULL CHECK (channel IN ('EMAIL', 'SMS')),
+    status VARCHAR(10) NOT NULL CHECK (status IN ('PENDING', 'SENT', 'SKIPPED', 'FAILED')),
+    attempts INTEGER DEFAULT 0,
+    next_attempt_at TIMESTAMP,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+CREATE INDEX idx_shipping_notifications_due ON shipping_notifications(status, next_attempt_at);
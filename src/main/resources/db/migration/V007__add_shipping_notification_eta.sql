@@ -0,0 +1,2 @@
+ALTER TABLE shipping_notifications 
+ADD COLUMN estimated_arrival_time TIMESTAMP;
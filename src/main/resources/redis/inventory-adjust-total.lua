@@ -0,0 +1,12 @@
+-- KEYS[1] counter hash, KEYS[2] dirty set
+-- ARGV[1] new total stock, ARGV[2] inventory id
+-- returns -2 when the counter is not loaded, otherwise the new available stock
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+local total = tonumber(ARGV[1])
+local difference = total - tonumber(redis.call('HGET', KEYS[1], 'total'))
+local available = math.max(0, tonumber(redis.call('HGET', KEYS[1], 'available')) + difference)
+redis.call('HSET', KEYS[1], 'total', total, 'available', available)
+redis.call('SADD', KEYS[2], ARGV[2])
+return available
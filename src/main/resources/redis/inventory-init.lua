@@ -0,0 +1,10 @@
+-- KEYS[1] counter hash, ARGV: total, available, reserved, allocated
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+redis.call('HSET', KEYS[1],
+        'total', ARGV[1],
+        'available', ARGV[2],
+        'reserved', ARGV[3],
+        'allocated', ARGV[4])
+return 1
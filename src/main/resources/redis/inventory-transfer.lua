@@ -0,0 +1,17 @@
+-- KEYS[1] counter hash, KEYS[2] dirty set
+-- ARGV[1] quantity, ARGV[2] source field, ARGV[3] target field,
+-- ARGV[4] 'strict' (fail when source < quantity) or 'clamp' (floor source at 0), ARGV[5] inventory id
+-- returns -2 when the counter is not loaded, -1 when stock is insufficient, otherwise the new source value
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+local quantity = tonumber(ARGV[1])
+local source = tonumber(redis.call('HGET', KEYS[1], ARGV[2]))
+if ARGV[4] == 'strict' and source < quantity then
+    return -1
+end
+local decrement = math.min(source, quantity)
+redis.call('HINCRBY', KEYS[1], ARGV[2], -decrement)
+redis.call('HINCRBY', KEYS[1], ARGV[3], quantity)
+redis.call('SADD', KEYS[2], ARGV[5])
+return source - decrement
@@ -0,0 +1,22 @@
+-- KEYS[1] attempt log (sorted set scored by attempt time), KEYS[2] block key
+-- ARGV[1] now (ms), ARGV[2] window (ms), ARGV[3] max attempts, ARGV[4] unique attempt id, ARGV[5] block duration (ms)
+-- returns {1, attempts in window} when allowed, {0, block ttl} when already blocked,
+-- {2, block ttl} when this attempt exceeded the limit and blocked the address
+local blockTtl = redis.call('PTTL', KEYS[2])
+if blockTtl > 0 then
+    return {0, blockTtl}
+end
+if blockTtl == -1 then
+    return {0, tonumber(ARGV[5])}
+end
+local now = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[3]) then
+    redis.call('SET', KEYS[2], 'blocked', 'PX', ARGV[5])
+    redis.call('DEL', KEYS[1])
+    return {2, tonumber(ARGV[5])}
+end
+redis.call('ZADD', KEYS[1], now, ARGV[4])
+redis.call('PEXPIRE', KEYS[1], window)
+return {1, redis.call('ZCARD', KEYS[1])}
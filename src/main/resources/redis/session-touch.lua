@@ -0,0 +1,12 @@
+-- KEYS[1] session key
+-- ARGV[1] now (ms), ARGV[2] session timeout (ms)
+-- returns 1 when the session exists (its expiry is pushed out and last_accessed updated), 0 otherwise
+local keyType = redis.call('TYPE', KEYS[1]).ok
+if keyType == 'none' then
+    return 0
+end
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+if keyType == 'hash' then
+    redis.call('HSET', KEYS[1], 'last_accessed', ARGV[1])
+end
+return 1
@@ -8,6 +8,7 @@ import com.ahamo.auth.dto.VerificationRequest;
 import com.ahamo.auth.service.AuthService;
 import com.ahamo.auth.service.MfaService;
 import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.jwt.AuthenticatedPrincipalCache;
 import com.ahamo.security.jwt.JwtTokenProvider;
 import com.ahamo.security.service.CustomUserDetailsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -50,6 +51,9 @@ class AuthControllerTest {
     @MockBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockBean
+    private AuthenticatedPrincipalCache principalCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -0,0 +1,110 @@
+package com.ahamo.auth.service;
+
+import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.exception.LoginThrottledException;
+import com.ahamo.user.model.User;
+import com.ahamo.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAuthenticatorTest {
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginAuthenticator loginAuthenticator;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        loginAuthenticator = new LoginAuthenticator(userService, passwordEncoder, meterRegistry, 1, 1, 1000);
+        user = User.builder().id(1L).email("taro@example.com").password("hashed").build();
+        lenient().when(userService.findByEmail("taro@example.com")).thenReturn(Optional.of(user));
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginAuthenticator.shutdown();
+    }
+
+    @Test
+    void authenticate_CorrectPassword_HashesOnceOnHashPool() {
+        when(passwordEncoder.matches("secret", "hashed")).thenAnswer(invocation ->
+                Thread.currentThread().getName().startsWith("login-hash-"));
+
+        assertSame(user, loginAuthenticator.authenticate("taro@example.com", "secret"));
+
+        verify(passwordEncoder, times(1)).matches("secret", "hashed");
+        verify(userService, times(1)).findByEmail("taro@example.com");
+        verify(userService).recordSuccessfulLogin(user);
+        assertEquals(1, meterRegistry.timer("security.login.hash").count());
+    }
+
+    @Test
+    void authenticate_WrongPassword_RecordsFailure() {
+        when(passwordEncoder.matches("wrong", "hashed")).thenReturn(false);
+
+        assertThrows(AuthenticationException.class, () -> loginAuthenticator.authenticate("taro@example.com", "wrong"));
+
+        verify(userService).recordFailedLogin(user);
+        verify(userService, never()).recordSuccessfulLogin(any());
+    }
+
+    @Test
+    void authenticate_LockedAccount_SkipsHashing() {
+        user.setLockedUntil(LocalDateTime.now().plusMinutes(10));
+        when(userService.isAccountLocked(user)).thenReturn(true);
+
+        assertThrows(AuthenticationException.class, () -> loginAuthenticator.authenticate("taro@example.com", "secret"));
+
+        verifyNoInteractions(passwordEncoder);
+    }
+
+    @Test
+    void authenticate_HashQueueFull_ThrottlesWithoutCountingFailure() throws InterruptedException {
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        Thread first = new Thread(() -> loginAuthenticator.authenticate("taro@example.com", "secret"));
+        first.start();
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(() -> loginAuthenticator.authenticate("taro@example.com", "secret"));
+        second.start();
+        while (meterRegistry.get("security.login.hash.queue.depth").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+
+        assertThrows(LoginThrottledException.class, () -> loginAuthenticator.authenticate("taro@example.com", "secret"));
+        assertEquals(1.0, meterRegistry.counter("security.login.hash.rejected").count());
+        verify(userService, never()).recordFailedLogin(any());
+
+        release.countDown();
+        first.join();
+        second.join();
+    }
+}
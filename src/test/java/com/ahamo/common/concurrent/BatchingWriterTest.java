@@ -0,0 +1,93 @@
+package com.ahamo.common.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingWriterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> written = new CopyOnWriteArrayList<>();
+    private BatchingWriter<Integer> writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void append_WritesEverythingByShutdown() throws InterruptedException {
+        writer = writer(batch -> written.addAll(batch), 3);
+        writer.start();
+
+        for (int i = 0; i < 100; i++) {
+            writer.append(i);
+        }
+        writer.shutdown();
+
+        assertEquals(100, written.size());
+        assertEquals(100.0, meterRegistry.counter("test.written").count());
+        assertEquals(0, writer.queueDepth());
+    }
+
+    @Test
+    void append_FailingItem_IsDroppedAloneAfterMaxAttempts() throws InterruptedException {
+        AtomicInteger poisonAttempts = new AtomicInteger();
+        writer = writer(batch -> {
+            if (batch.contains(13)) {
+                poisonAttempts.incrementAndGet();
+                throw new IllegalStateException("rejected");
+            }
+            written.addAll(batch);
+        }, 2);
+        writer.start();
+
+        for (int i = 10; i < 16; i++) {
+            writer.append(i);
+        }
+        writer.shutdown();
+
+        assertEquals(List.of(10, 11, 12, 14, 15), written.stream().sorted().collect(Collectors.toList()));
+        assertEquals(1.0, meterRegistry.counter("test.dropped").count());
+        assertTrue(poisonAttempts.get() >= 2);
+    }
+
+    @Test
+    void append_AfterShutdown_WritesOnCallerThread() throws InterruptedException {
+        writer = writer(batch -> written.addAll(batch), 3);
+        writer.start();
+        writer.shutdown();
+
+        writer.append(1);
+
+        assertEquals(List.of(1), written);
+        assertEquals(1.0, meterRegistry.counter("test.caller.writes").count());
+    }
+
+    @Test
+    void append_FailureAfterShutdown_IsDroppedWithoutRetry() throws InterruptedException {
+        writer = writer(batch -> {
+            throw new IllegalStateException("rejected");
+        }, 3);
+        writer.shutdown();
+
+        writer.append(1);
+
+        assertEquals(1.0, meterRegistry.counter("test.dropped").count());
+        assertEquals(0.0, meterRegistry.counter("test.retried").count());
+    }
+
+    private BatchingWriter<Integer> writer(BatchingWriter.Sink<Integer> sink, int maxAttempts) {
+        return new BatchingWriter<>("test-writer", sink, String::valueOf, meterRegistry, "test",
+                1024, 4, 20, 20, maxAttempts);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ahamo.common.job;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduledJobRunnerTest {
+
+    @Mock
+    private ClusterMembership membership;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock lock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledJobRunner jobRunner;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobRunner = new ScheduledJobRunner(membership, redissonClient, meterRegistry, 4);
+        lenient().when(redissonClient.getLock(anyString())).thenReturn(lock);
+        lenient().when(lock.tryLock()).thenReturn(true);
+        lenient().when(lock.isHeldByCurrentThread()).thenReturn(true);
+    }
+
+    @Test
+    void runOnLeader_NotLeader_SkipsRun() {
+        when(membership.isLeader()).thenReturn(false);
+
+        int items = jobRunner.runOnLeader("test.job", () -> {
+            fail("must not run");
+            return 1;
+        });
+
+        assertEquals(0, items);
+        assertEquals(1.0, meterRegistry.counter("scheduled.job.skipped", "job", "test.job", "reason", "not_leader").count());
+    }
+
+    @Test
+    void runOnLeader_RecordsItemsAndReleasesLock() {
+        when(membership.isLeader()).thenReturn(true);
+
+        int items = jobRunner.runOnLeader("test.job", () -> 7);
+
+        assertEquals(7, items);
+        assertEquals(7.0, meterRegistry.summary("scheduled.job.items", "job", "test.job").totalAmount());
+        assertEquals(1, meterRegistry.timer("scheduled.job.duration", "job", "test.job", "outcome", "success").count());
+        verify(redissonClient).getLock("jobs:lock:test.job");
+        verify(lock).unlock();
+    }
+
+    @Test
+    void runOnLeader_PreviousRunInProgress_SkipsOverlappingRun() {
+        when(membership.isLeader()).thenReturn(true);
+
+        int items = jobRunner.runOnLeader("test.job", () -> jobRunner.runOnLeader("test.job", () -> 5) + 1);
+
+        assertEquals(1, items);
+        assertEquals(1.0, meterRegistry.counter("scheduled.job.skipped", "job", "test.job", "reason", "overlap").count());
+    }
+
+    @Test
+    void runLocal_Failure_IsRecordedAndSwallowed() {
+        int items = jobRunner.runLocal("test.job", () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertEquals(0, items);
+        assertEquals(1, meterRegistry.timer("scheduled.job.duration", "job", "test.job", "outcome", "failure").count());
+        assertEquals(1, jobRunner.runLocal("test.job", () -> 1));
+    }
+
+    @Test
+    void runSharded_RunsOwnedPartitionsThatCanBeClaimed() {
+        when(membership.ownedPartitions(4)).thenReturn(Arrays.asList(new JobPartition(1, 4), new JobPartition(3, 4)));
+        RLock busy = mock(RLock.class);
+        when(redissonClient.getLock("jobs:lock:test.job:3")).thenReturn(busy);
+        when(busy.tryLock()).thenReturn(false);
+
+        List<Integer> ran = new ArrayList<>();
+        int items = jobRunner.runSharded("test.job", partition -> {
+            ran.add(partition.getIndex());
+            return 10;
+        });
+
+        assertEquals(Arrays.asList(1), ran);
+        assertEquals(10, items);
+        verify(busy, never()).unlock();
+    }
+
+    @Test
+    void partitionOf_SpreadsKeysOverAllPartitions() {
+        boolean[] seen = new boolean[4];
+        for (long id = 1; id <= 100; id++) {
+            seen[JobPartition.partitionOf(id, 4)] = true;
+        }
+        for (boolean partitionSeen : seen) {
+            assertTrue(partitionSeen);
+        }
+    }
+
+    @Test
+    void partitionOf_MatchesSqlModuloForIds() {
+        for (long id : new long[]{1L, 7L, 4_294_967_297L}) {
+            assertEquals((int) (id % 4), JobPartition.partitionOf(id, 4));
+            assertTrue(new JobPartition((int) (id % 4), 4).contains(id));
+        }
+    }
+}
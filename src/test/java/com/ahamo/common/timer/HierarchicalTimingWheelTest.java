@@ -0,0 +1,59 @@
+package com.ahamo.common.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ReturnsItemOnceDeadlineReached() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 10, START);
+
+        assertTrue(wheel.add("a", START + 2500));
+
+        assertTrue(wheel.advance(START + 2999).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(START + 3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesFromOverflowLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 10, START);
+        List<Long> deadlines = List.of(START + 5_000, START + 45_000, START + 450_000, START + 3_700_000);
+        deadlines.forEach(deadline -> assertTrue(wheel.add(deadline, deadline)));
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + 4_000_000; now += 1000) {
+            for (Long deadline : wheel.advance(now)) {
+                assertEquals(deadline.longValue(), now, "fired at the wrong tick");
+                fired.add(deadline);
+            }
+        }
+
+        assertEquals(deadlines, fired);
+    }
+
+    @Test
+    void advance_CatchesUpAfterLongPause() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 10, START);
+        wheel.add("soon", START + 1_000);
+        wheel.add("later", START + 200_000);
+
+        assertEquals(List.of("soon", "later"), wheel.advance(START + 500_000));
+    }
+
+    @Test
+    void add_RejectsDeadlineAlreadyReached() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 10, START);
+
+        assertFalse(wheel.add("past", START - 1));
+        assertFalse(wheel.add("now", START));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,216 @@
+package com.ahamo.contract.service;
+
+import com.ahamo.contract.model.ContractAuditEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ContractAuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object[]> written = new CopyOnWriteArrayList<>();
+    private final List<String> writerThreads = new CopyOnWriteArrayList<>();
+    private ContractAuditWriter auditWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (auditWriter != null) {
+            auditWriter.shutdown();
+        }
+    }
+
+    @Test
+    void append_WritesEventsInBatchesOnWriterThread() throws InterruptedException {
+        recordWrites();
+        auditWriter = writer(1024, 3);
+        auditWriter.start();
+
+        for (int i = 0; i < 50; i++) {
+            auditWriter.append(event("contract_" + i), Map.of("step", i));
+        }
+        auditWriter.shutdown();
+
+        assertEquals(50, written.size());
+        assertEquals("{\"step\":0}", written.get(0)[7]);
+        assertEquals("GENERATED", written.get(0)[2]);
+        assertTrue(writerThreads.contains("contract-audit-writer"));
+        assertEquals(50.0, meterRegistry.counter("contract.audit.written").count());
+        assertEquals(0, auditWriter.queueDepth());
+    }
+
+    @Test
+    void append_InsideTransaction_QueuesOnlyAfterCommit() {
+        recordWrites();
+        auditWriter = writer(1024, 3);
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditWriter.append(event("contract_1"), null);
+        assertEquals(0, auditWriter.flush());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, written.size());
+    }
+
+    @Test
+    void append_SignedInsideTransaction_IsWrittenInCommitCallback() throws InterruptedException {
+        recordWrites();
+        auditWriter = writer(1024, 3);
+        auditWriter.start();
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditWriter.append(event("contract_1", ContractAuditEvent.EventType.SIGNED), null);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, written.size());
+        assertEquals(List.of(Thread.currentThread().getName()), writerThreads);
+    }
+
+    @Test
+    void append_AfterShutdown_WritesOnCallerThread() throws InterruptedException {
+        recordWrites();
+        auditWriter = writer(1024, 3);
+        auditWriter.start();
+        auditWriter.shutdown();
+
+        auditWriter.append(event("contract_1"), null);
+
+        assertEquals(1, written.size());
+        assertEquals(0, auditWriter.queueDepth());
+    }
+
+    @Test
+    void append_BufferFull_CallerWritesItsOwnEvent() throws InterruptedException {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("contract-audit-writer")) {
+                writerBlocked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            written.addAll(invocation.getArgument(1));
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        auditWriter = writer(2, 3);
+        auditWriter.start();
+
+        auditWriter.append(event("contract_0"), null);
+        assertTrue(writerBlocked.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 3; i++) {
+            auditWriter.append(event("contract_" + i), null);
+        }
+
+        assertEquals(1, written.size());
+        assertEquals("contract_3", written.get(0)[1]);
+        assertEquals(1.0, meterRegistry.counter("contract.audit.caller.writes").count());
+
+        release.countDown();
+        auditWriter.shutdown();
+        assertEquals(4, written.size());
+    }
+
+    @Test
+    void flush_RepeatedFailure_DropsEventAfterMaxAttempts() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        auditWriter = writer(1024, 2);
+
+        auditWriter.append(event("contract_1"), null);
+        assertEquals(0, auditWriter.flush());
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+
+        TimeUnit.MILLISECONDS.sleep(50);
+        auditWriter.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals(1.0, meterRegistry.counter("contract.audit.dropped").count());
+    }
+
+    @Test
+    void append_FailingRow_IsWrittenAloneAndDoesNotDropTheBatch() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (rows.stream().anyMatch(row -> "contract_poison".equals(row[1]))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            written.addAll(rows);
+            return new int[0];
+        });
+        auditWriter = writer(1024, 2);
+        auditWriter.start();
+
+        auditWriter.append(event("contract_1"), null);
+        auditWriter.append(event("contract_poison"), null);
+        auditWriter.append(event("contract_2"), null);
+        auditWriter.shutdown();
+
+        assertEquals(2, written.size());
+        assertTrue(written.stream().noneMatch(row -> "contract_poison".equals(row[1])));
+        assertEquals(2.0, meterRegistry.counter("contract.audit.written").count());
+        assertEquals(1.0, meterRegistry.counter("contract.audit.dropped").count());
+    }
+
+    private void recordWrites() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            writerThreads.add(Thread.currentThread().getName());
+            written.addAll(invocation.getArgument(1));
+            return new int[0];
+        });
+    }
+
+    private ContractAuditWriter writer(int bufferSize, int maxAttempts) {
+        return new ContractAuditWriter(jdbcTemplate, transactionManager, new ObjectMapper(), meterRegistry,
+                bufferSize, 8, 20, 20, maxAttempts);
+    }
+
+    private static ContractAuditEvent event(String contractId) {
+        return event(contractId, ContractAuditEvent.EventType.GENERATED);
+    }
+
+    private static ContractAuditEvent event(String contractId, ContractAuditEvent.EventType eventType) {
+        return ContractAuditEvent.builder()
+                .eventUuid(UUID.randomUUID().toString())
+                .contractId(contractId)
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .userId("user_1")
+                .build();
+    }
+}
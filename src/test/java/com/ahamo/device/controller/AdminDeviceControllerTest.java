@@ -43,6 +43,9 @@ class AdminDeviceControllerTest {
     @MockBean
     private com.ahamo.security.service.CustomUserDetailsService customUserDetailsService;
 
+    @MockBean
+    private com.ahamo.security.jwt.AuthenticatedPrincipalCache principalCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
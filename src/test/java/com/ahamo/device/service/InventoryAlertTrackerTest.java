@@ -0,0 +1,125 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryAlertResponse;
+import com.ahamo.device.model.Device;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.device.repository.InventoryRepository;
+import com.ahamo.monitoring.service.AlertService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryAlertTrackerTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    private InventoryAlertTracker alertTracker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(alertTracker, "renotifyIntervalMillis", 3600000L);
+    }
+
+    @Test
+    void onCountersFlushed_CrossingBelowThreshold_AlertsOnlyWhenMarkerIsNew() {
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(
+                inventory(1L, "device_001", 5), inventory(2L, "device_002", 5)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(Boolean.TRUE, null));
+        when(deviceRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(device("device_001")));
+
+        alertTracker.onCountersFlushed(Map.of(
+                1L, Map.of(InventoryCounterService.FIELD_AVAILABLE, 0),
+                2L, Map.of(InventoryCounterService.FIELD_AVAILABLE, 3)));
+
+        ArgumentCaptor<InventoryAlertResponse> alert = ArgumentCaptor.forClass(InventoryAlertResponse.class);
+        verify(alertService, times(1)).createInventoryAlert(alert.capture());
+        assertEquals("device_001", alert.getValue().getDeviceId());
+        assertEquals("iPhone device_001", alert.getValue().getDeviceName());
+        assertEquals("CRITICAL", alert.getValue().getSeverity());
+    }
+
+    @Test
+    void onCountersFlushed_UsesThresholdFromCurrentRow() {
+        when(inventoryRepository.findAllById(anyIterable()))
+                .thenReturn(Collections.singletonList(inventory(1L, "device_001", 5)))
+                .thenReturn(Collections.singletonList(inventory(1L, "device_001", 2)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Collections.singletonList(Boolean.TRUE))
+                .thenReturn(Collections.singletonList(1L));
+        when(deviceRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(device("device_001")));
+        Map<Long, Map<String, Integer>> counters = Map.of(1L, Map.of(InventoryCounterService.FIELD_AVAILABLE, 4));
+
+        alertTracker.onCountersFlushed(counters);
+        alertTracker.onCountersFlushed(counters);
+
+        verify(alertService, times(1)).createInventoryAlert(any(InventoryAlertResponse.class));
+        verify(inventoryRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void onCountersFlushed_NoAvailableCounter_SkipsLookups() {
+        alertTracker.onCountersFlushed(Map.of(1L, Map.of(InventoryCounterService.FIELD_TOTAL, 10)));
+
+        verifyNoInteractions(inventoryRepository, redisTemplate, alertService);
+    }
+
+    @Test
+    void initialize_SeedsMarkersAndAlertsOnlyForNewOnes() {
+        List<Inventory> lowStock = Arrays.asList(inventory(1L, "device_001", 5), inventory(2L, "device_001", 5));
+        when(inventoryRepository.findLowStockItems()).thenReturn(lowStock);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(null, Boolean.TRUE));
+        when(deviceRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(device("device_001")));
+
+        alertTracker.initialize();
+
+        verify(alertService, times(1)).createInventoryAlert(any(InventoryAlertResponse.class));
+    }
+
+    private static Inventory inventory(Long id, String deviceId, int alertThreshold) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setDeviceId(deviceId);
+        inventory.setColor("ブラック");
+        inventory.setStorage("128GB");
+        inventory.setAvailableStock(1);
+        inventory.setAlertThreshold(alertThreshold);
+        return inventory;
+    }
+
+    private static Device device(String id) {
+        Device device = new Device();
+        device.setId(id);
+        device.setName("iPhone " + id);
+        return device;
+    }
+}
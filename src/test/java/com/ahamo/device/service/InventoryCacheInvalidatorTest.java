@@ -0,0 +1,94 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryCacheInvalidatorTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            InventoryCacheInvalidator.INVENTORY_CACHE, InventoryCacheInvalidator.ALL_INVENTORY_CACHE);
+    private InventoryCacheInvalidator cacheInvalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheInvalidator = new InventoryCacheInvalidator(cacheManager, inventoryRepository, new InventoryStatusAssembler());
+    }
+
+    @Test
+    void refresh_RebuildsTouchedDevicesAndEvictsListing() {
+        Cache inventoryCache = cacheManager.getCache(InventoryCacheInvalidator.INVENTORY_CACHE);
+        Cache allInventoryCache = cacheManager.getCache(InventoryCacheInvalidator.ALL_INVENTORY_CACHE);
+        InventoryStatusResponse untouched = new InventoryStatusResponse();
+        inventoryCache.put("device_002", untouched);
+        allInventoryCache.put(InventoryCacheInvalidator.ALL_INVENTORY_KEY, Collections.emptyList());
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(
+                inventory(1L, "device_001", "128GB", 4), inventory(2L, "device_001", "256GB", 0)));
+        when(inventoryRepository.findByDeviceIdIn(Set.of("device_001"))).thenReturn(Arrays.asList(
+                inventory(1L, "device_001", "128GB", 4), inventory(2L, "device_001", "256GB", 0)));
+
+        cacheInvalidator.refresh(List.of(1L, 2L));
+
+        InventoryStatusResponse refreshed = inventoryCache.get("device_001", InventoryStatusResponse.class);
+        assertNotNull(refreshed);
+        assertEquals(2, refreshed.getAvailableColors().get(0).getStorageOptions().size());
+        assertSame(untouched, inventoryCache.get("device_002", InventoryStatusResponse.class));
+        assertNull(allInventoryCache.get(InventoryCacheInvalidator.ALL_INVENTORY_KEY));
+    }
+
+    @Test
+    void refresh_RemembersDeviceOfEachInventoryId() {
+        when(inventoryRepository.findAllById(anyIterable()))
+                .thenReturn(Collections.singletonList(inventory(1L, "device_001", "128GB", 4)));
+        when(inventoryRepository.findByDeviceIdIn(anyCollection()))
+                .thenReturn(Collections.singletonList(inventory(1L, "device_001", "128GB", 3)));
+
+        cacheInvalidator.refresh(List.of(1L));
+        cacheInvalidator.refresh(List.of(1L));
+
+        verify(inventoryRepository, times(1)).findAllById(anyIterable());
+        verify(inventoryRepository, times(2)).findByDeviceIdIn(anyCollection());
+    }
+
+    @Test
+    void refresh_UnknownInventory_LeavesCachesAlone() {
+        Cache allInventoryCache = cacheManager.getCache(InventoryCacheInvalidator.ALL_INVENTORY_CACHE);
+        allInventoryCache.put(InventoryCacheInvalidator.ALL_INVENTORY_KEY, Collections.emptyList());
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        cacheInvalidator.refresh(List.of(99L));
+
+        verify(inventoryRepository, never()).findByDeviceIdIn(anyCollection());
+        assertNotNull(allInventoryCache.get(InventoryCacheInvalidator.ALL_INVENTORY_KEY));
+    }
+
+    private static Inventory inventory(Long id, String deviceId, String storage, int available) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setDeviceId(deviceId);
+        inventory.setColor("ブラック");
+        inventory.setStorage(storage);
+        inventory.setAvailableStock(available);
+        return inventory;
+    }
+}
@@ -0,0 +1,174 @@
+package com.ahamo.device.service;
+
+import com.ahamo.common.exception.ErrorCode;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryCounterServiceTest {
+
+    private static final List<String> KEYS = List.of("inventory:counter:1", "inventory:counter:dirty");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @InjectMocks
+    private InventoryCounterService counterService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserve_MovesAvailableToReservedInStrictMode() {
+        stubTransfer(9L);
+
+        counterService.reserve(1L, 1);
+
+        verifyTransfer("1", "available", "reserved", "strict");
+    }
+
+    @Test
+    void reserve_InsufficientStock_ThrowsAndRegistersNoCompensation() {
+        TransactionSynchronizationManager.initSynchronization();
+        stubTransfer(-1L);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> counterService.reserve(1L, 2));
+
+        assertEquals(ErrorCode.INVENTORY_NOT_AVAILABLE.getDefaultMessage(), error.getMessage());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void allocate_InsufficientReserved_ThrowsInsufficientStock() {
+        stubTransfer(-1L);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> counterService.allocate(1L, 2));
+
+        assertEquals(ErrorCode.INSUFFICIENT_STOCK.getDefaultMessage(), error.getMessage());
+        verifyTransfer("2", "reserved", "allocated", "strict");
+    }
+
+    @Test
+    void releaseAndRestore_ClampInsteadOfFailing() {
+        stubTransfer(0L);
+
+        counterService.release(1L, 3);
+        counterService.restore(1L, 2);
+
+        verifyTransfer("3", "reserved", "available", "clamp");
+        verifyTransfer("2", "allocated", "available", "clamp");
+    }
+
+    @Test
+    void reserve_CounterNotLoaded_LoadsFromDatabaseAndRetries() {
+        stubTransfer(-2L, 9L);
+        when(redisTemplate.hasKey("inventory:counter:1")).thenReturn(false);
+        when(inventoryRepository.findById(1L)).thenReturn(Optional.of(inventory(20, 10, 6, 4)));
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("inventory:counter:1")),
+                eq("20"), eq("10"), eq("6"), eq("4"))).thenReturn(1L);
+
+        counterService.reserve(1L, 1);
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), eq(KEYS),
+                eq("1"), eq("available"), eq("reserved"), eq("strict"), eq("1"));
+    }
+
+    @Test
+    void reserve_StillNotLoadedAfterReload_Throws() {
+        stubTransfer(-2L);
+        when(redisTemplate.hasKey("inventory:counter:1")).thenReturn(true);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> counterService.reserve(1L, 1));
+
+        assertEquals("Inventory counter unavailable for inventory ID: 1", error.getMessage());
+        verify(inventoryRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void reserve_TransactionRolledBack_MovesStockBackWithClamp() {
+        TransactionSynchronizationManager.initSynchronization();
+        stubTransfer(9L);
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS),
+                eq("1"), eq("reserved"), eq("available"), eq("clamp"), eq("1"))).thenReturn(10L);
+
+        counterService.reserve(1L, 1);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyTransfer("1", "reserved", "available", "clamp");
+    }
+
+    @Test
+    void reserve_TransactionCommitted_KeepsTheMove() {
+        TransactionSynchronizationManager.initSynchronization();
+        stubTransfer(9L);
+
+        counterService.reserve(1L, 1);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void readCounters_SkipsIdsWithoutCounters() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(
+                Map.of("total", "20", "available", "10"), Collections.emptyMap()));
+
+        Map<Long, Map<String, Integer>> counters = counterService.readCounters(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, Map.of("total", 20, "available", 10)), counters);
+    }
+
+    private void stubTransfer(Long result, Long... next) {
+        when(redisTemplate.execute(any(RedisScript.class), eq(KEYS), any(), any(), any(), any(), any()))
+                .thenReturn(result, next);
+    }
+
+    private void verifyTransfer(String quantity, String source, String target, String mode) {
+        verify(redisTemplate).execute(any(RedisScript.class), eq(KEYS),
+                eq(quantity), eq(source), eq(target), eq(mode), eq("1"));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static Inventory inventory(int total, int available, int reserved, int allocated) {
+        Inventory inventory = new Inventory();
+        inventory.setId(1L);
+        inventory.setTotalStock(total);
+        inventory.setAvailableStock(available);
+        inventory.setReservedStock(reserved);
+        inventory.setAllocatedStock(allocated);
+        return inventory;
+    }
+}
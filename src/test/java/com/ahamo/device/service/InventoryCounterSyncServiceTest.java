@@ -0,0 +1,152 @@
+package com.ahamo.device.service;
+
+import com.ahamo.common.lock.DistributedLockService;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryCounterSyncServiceTest {
+
+    @Mock
+    private InventoryCounterService counterService;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private DistributedLockService lockService;
+
+    @Mock
+    private InventoryCacheInvalidator cacheInvalidator;
+
+    @Mock
+    private InventoryAlertTracker alertTracker;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private InventoryCounterSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(syncService, "flushBatchSize", 2);
+    }
+
+    @Test
+    void flushBatch_WritesCountersAndNotifiesListeners() {
+        runTransactions();
+        Map<Long, Map<String, Integer>> counters = Map.of(1L, counters(20, 9, 7, 4));
+        when(counterService.popDirty(2)).thenReturn(List.of(1L));
+        when(counterService.readCounters(List.of(1L))).thenReturn(counters);
+
+        assertEquals(1, syncService.flushBatch());
+
+        verify(inventoryRepository).updateCounters(eq(1L), eq(20), eq(9), eq(7), eq(4), any(LocalDateTime.class));
+        verify(cacheInvalidator).refresh(counters.keySet());
+        verify(alertTracker).onCountersFlushed(counters);
+        verify(counterService, never()).markDirty(anyCollection());
+    }
+
+    @Test
+    void flushBatch_DatabaseFails_MarksIdsDirtyAgain() {
+        runTransactions();
+        when(counterService.popDirty(2)).thenReturn(List.of(1L, 2L));
+        when(counterService.readCounters(List.of(1L, 2L))).thenReturn(Map.of(1L, counters(20, 9, 7, 4)));
+        when(inventoryRepository.updateCounters(anyLong(), anyInt(), anyInt(), anyInt(), anyInt(), any(LocalDateTime.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> syncService.flushBatch());
+
+        verify(counterService).markDirty(List.of(1L, 2L));
+        verifyNoInteractions(cacheInvalidator, alertTracker);
+    }
+
+    @Test
+    void flushBatch_CacheRefreshFails_StillTracksAlerts() {
+        runTransactions();
+        when(counterService.popDirty(2)).thenReturn(List.of(1L));
+        when(counterService.readCounters(List.of(1L))).thenReturn(Map.of(1L, counters(20, 9, 7, 4)));
+        doThrow(new IllegalStateException("redis down")).when(cacheInvalidator).refresh(anyCollection());
+
+        assertEquals(1, syncService.flushBatch());
+
+        verify(alertTracker).onCountersFlushed(anyMap());
+    }
+
+    @Test
+    void flushDirtyCounters_FullBatch_KeepsPopping() {
+        runTransactions();
+        when(counterService.popDirty(2)).thenReturn(List.of(1L, 2L), List.of());
+        when(counterService.readCounters(List.of(1L, 2L))).thenReturn(Map.of());
+
+        syncService.flushDirtyCounters();
+
+        verify(counterService, times(2)).popDirty(2);
+    }
+
+    @Test
+    void reconcileCounters_RequeuesOnlyDriftedRowsThatAreNotDirty() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(lockService).executeWithLock(anyString(), any(Runnable.class));
+        when(inventoryRepository.findAll()).thenReturn(Arrays.asList(
+                inventory(1L, 20, 10, 6, 4), inventory(2L, 20, 10, 6, 4),
+                inventory(3L, 20, 10, 6, 4), inventory(4L, 20, 10, 6, 4)));
+        when(counterService.readCounters(List.of(1L, 2L, 3L, 4L))).thenReturn(Map.of(
+                1L, counters(20, 10, 6, 4),
+                2L, counters(20, 9, 7, 4),
+                3L, counters(20, 9, 7, 4)));
+        when(counterService.isDirty(2L)).thenReturn(false);
+        when(counterService.isDirty(3L)).thenReturn(true);
+
+        syncService.reconcileCounters();
+
+        verify(counterService).markDirty(List.of(2L));
+    }
+
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static Map<String, Integer> counters(int total, int available, int reserved, int allocated) {
+        return Map.of(InventoryCounterService.FIELD_TOTAL, total,
+                InventoryCounterService.FIELD_AVAILABLE, available,
+                InventoryCounterService.FIELD_RESERVED, reserved,
+                InventoryCounterService.FIELD_ALLOCATED, allocated);
+    }
+
+    private static Inventory inventory(Long id, int total, int available, int reserved, int allocated) {
+        Inventory inventory = new Inventory();
+        inventory.setId(id);
+        inventory.setTotalStock(total);
+        inventory.setAvailableStock(available);
+        inventory.setReservedStock(reserved);
+        inventory.setAllocatedStock(allocated);
+        return inventory;
+    }
+}
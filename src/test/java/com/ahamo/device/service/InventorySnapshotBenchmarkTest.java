@@ -0,0 +1,149 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.dto.InventoryStockView;
+import com.ahamo.device.model.Device;
+import com.ahamo.device.model.Inventory;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.device.repository.InventoryRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the previous N+1 listing (all devices, then one inventory query per device),
+ * the single aggregated query, and a read from the snapshot, over the same catalog.
+ * Every repository call pays a simulated database round trip, so the numbers reflect
+ * query count as well as assembly cost.
+ */
+@Tag("benchmark")
+class InventorySnapshotBenchmarkTest {
+
+    private static final String[] COLORS = {"ブラック", "ホワイト", "ブルー", "レッド"};
+    private static final String[] STORAGES = {"128GB", "256GB", "512GB"};
+    private static final long ROUND_TRIP_NANOS = 200_000;
+    private static final int ITERATIONS = 20;
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 1_000, 10_000})
+    void getAllInventoryStatus_Latency(int skuCount) {
+        Catalog catalog = new Catalog(skuCount);
+        AtomicInteger queries = new AtomicInteger();
+
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        when(deviceRepository.findAll()).thenAnswer(roundTrip(queries, catalog.devices));
+        when(inventoryRepository.findByDeviceId(anyString())).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return catalog.inventoriesByDevice.get(invocation.<String>getArgument(0));
+        });
+        when(inventoryRepository.findAllStockViews()).thenAnswer(roundTrip(queries, catalog.views));
+
+        InventoryStatusAssembler statusAssembler = new InventoryStatusAssembler();
+        InventorySnapshot inventorySnapshot = new InventorySnapshot(inventoryRepository, statusAssembler);
+
+        queries.set(0);
+        long start = System.nanoTime();
+        int n1Devices = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            n1Devices = perDeviceListing(deviceRepository, inventoryRepository, statusAssembler).size();
+        }
+        long n1Nanos = (System.nanoTime() - start) / ITERATIONS;
+        int n1Queries = queries.get() / ITERATIONS;
+
+        queries.set(0);
+        start = System.nanoTime();
+        int aggregatedDevices = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            aggregatedDevices = aggregatedListing(inventoryRepository, statusAssembler).size();
+        }
+        long aggregatedNanos = (System.nanoTime() - start) / ITERATIONS;
+        int aggregatedQueries = queries.get() / ITERATIONS;
+
+        inventorySnapshot.rebuild();
+        queries.set(0);
+        start = System.nanoTime();
+        int snapshotDevices = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            snapshotDevices = inventorySnapshot.getAllInventoryStatus().size();
+        }
+        long snapshotNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        assertEquals(catalog.devices.size(), n1Devices);
+        assertEquals(n1Devices, aggregatedDevices);
+        assertEquals(n1Devices, snapshotDevices);
+        assertEquals(catalog.devices.size() + 1, n1Queries);
+        assertEquals(1, aggregatedQueries);
+        assertEquals(0, queries.get());
+        assertTrue(aggregatedNanos < n1Nanos);
+        System.out.printf("inventory listing skus=%d devices=%d n+1=%.2fms (%d queries) aggregated=%.2fms (1 query) snapshot=%dns%n",
+                skuCount, n1Devices, n1Nanos / 1_000_000.0, n1Queries, aggregatedNanos / 1_000_000.0, snapshotNanos);
+    }
+
+    /** The listing as it was before the aggregated query. */
+    private static List<InventoryStatusResponse> perDeviceListing(DeviceRepository deviceRepository,
+                                                                  InventoryRepository inventoryRepository,
+                                                                  InventoryStatusAssembler statusAssembler) {
+        return deviceRepository.findAll().stream()
+                .map(device -> statusAssembler.toStatus(device.getId(), inventoryRepository.findByDeviceId(device.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private static List<InventoryStatusResponse> aggregatedListing(InventoryRepository inventoryRepository,
+                                                                   InventoryStatusAssembler statusAssembler) {
+        return statusAssembler.groupByDevice(inventoryRepository.findAllStockViews()).entrySet().stream()
+                .map(entry -> statusAssembler.toStatus(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    private static <T> Answer<T> roundTrip(AtomicInteger queries, T result) {
+        return invocation -> {
+            queries.incrementAndGet();
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+            return result;
+        };
+    }
+
+    private static final class Catalog {
+        private final List<Device> devices = new ArrayList<>();
+        private final Map<String, List<Inventory>> inventoriesByDevice = new LinkedHashMap<>();
+        private final List<InventoryStockView> views = new ArrayList<>();
+
+        Catalog(int skuCount) {
+            int skusPerDevice = COLORS.length * STORAGES.length;
+            for (int i = 0; i < skuCount; i++) {
+                String deviceId = "device_" + (i / skusPerDevice);
+                int sku = i % skusPerDevice;
+                if (sku == 0) {
+                    Device device = new Device();
+                    device.setId(deviceId);
+                    devices.add(device);
+                }
+
+                Inventory inventory = new Inventory();
+                inventory.setId((long) i);
+                inventory.setDeviceId(deviceId);
+                inventory.setColor(COLORS[sku / STORAGES.length]);
+                inventory.setStorage(STORAGES[sku % STORAGES.length]);
+                inventory.setAvailableStock(i % 20);
+                inventoriesByDevice.computeIfAbsent(deviceId, id -> new ArrayList<>()).add(inventory);
+                views.add(new InventoryStockView(deviceId, inventory.getColor(), inventory.getStorage(),
+                        inventory.getAvailableStock()));
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.dto.InventoryStatusResponse;
+import com.ahamo.device.dto.InventoryStockView;
+import com.ahamo.device.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventorySnapshotTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Spy
+    private InventoryStatusAssembler statusAssembler;
+
+    @InjectMocks
+    private InventorySnapshot inventorySnapshot;
+
+    @Test
+    void getAllInventoryStatus_LoadsCatalogWithSingleQuery() {
+        when(inventoryRepository.findAllStockViews()).thenReturn(Arrays.asList(
+                new InventoryStockView("device_001", "ブラック", "128GB", 10),
+                new InventoryStockView("device_001", "ブラック", "256GB", 0),
+                new InventoryStockView("device_002", null, null, null)
+        ));
+
+        List<InventoryStatusResponse> result = inventorySnapshot.getAllInventoryStatus();
+        inventorySnapshot.getAllInventoryStatus();
+
+        assertEquals(2, result.size());
+        assertEquals("device_001", result.get(0).getDeviceId());
+        assertEquals(2, result.get(0).getAvailableColors().get(0).getStorageOptions().size());
+        assertFalse(result.get(0).getAvailableColors().get(0).getStorageOptions().get(1).isInStock());
+        assertTrue(result.get(1).getAvailableColors().isEmpty());
+        verify(inventoryRepository, times(1)).findAllStockViews();
+    }
+
+    @Test
+    void applyRecentChanges_UpdatesOnlyChangedDevices() {
+        when(inventoryRepository.findAllStockViews()).thenReturn(Arrays.asList(
+                new InventoryStockView("device_001", "ブラック", "128GB", 10),
+                new InventoryStockView("device_002", "ホワイト", "128GB", 3)
+        ));
+        when(inventoryRepository.findStockViewsUpdatedSince(any(LocalDateTime.class))).thenReturn(
+                Collections.singletonList(new InventoryStockView("device_001", "ブラック", "128GB", 7)));
+
+        inventorySnapshot.rebuild();
+        InventoryStatusResponse untouched = inventorySnapshot.getInventoryStatus("device_002");
+
+        inventorySnapshot.applyRecentChanges();
+
+        assertEquals(7, inventorySnapshot.getInventoryStatus("device_001")
+                .getAvailableColors().get(0).getStorageOptions().get(0).getAvailableQuantity());
+        assertSame(untouched, inventorySnapshot.getInventoryStatus("device_002"));
+    }
+
+    @Test
+    void getInventoryStatus_UnknownDevice_ReturnsEmptyStatus() {
+        when(inventoryRepository.findAllStockViews()).thenReturn(Collections.emptyList());
+
+        InventoryStatusResponse result = inventorySnapshot.getInventoryStatus("device_999");
+
+        assertEquals("device_999", result.getDeviceId());
+        assertTrue(result.getAvailableColors().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.ahamo.device.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySchedulerTest {
+
+    private static final long BACKOFF = 5000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ReservationExpirySweeper expirySweeper;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReservationExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        scheduler = new ReservationExpiryScheduler(redisTemplate, expirySweeper, meterRegistry,
+                1000, 60, 600000, 60000, 30000, 200, BACKOFF, 3);
+        scheduler.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void tick_FailingReservation_IsRequeuedAloneWithBackoff() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        fire(1L, 2L);
+        when(expirySweeper.expire(List.of(1L, 2L))).thenThrow(new IllegalStateException("deadlock"));
+        when(expirySweeper.expire(List.of(1L))).thenReturn(List.of(1L));
+        when(expirySweeper.expire(List.of(2L))).thenThrow(new IllegalStateException("inventory row missing"));
+        when(hashOperations.increment(ReservationExpiryScheduler.ATTEMPTS_KEY, "2", 1)).thenReturn(2L);
+
+        long before = System.currentTimeMillis();
+        scheduler.tick();
+
+        verify(zSetOperations).add(eq(ReservationExpiryScheduler.EXPIRY_KEY), eq("2"),
+                doubleThat(score -> score >= before + BACKOFF * 2));
+        verify(zSetOperations, never()).add(eq(ReservationExpiryScheduler.EXPIRY_KEY), eq("1"), anyDouble());
+        verify(hashOperations).delete(ReservationExpiryScheduler.ATTEMPTS_KEY, "1");
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.wheel.expired").counter().count());
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.wheel.retried").counter().count());
+    }
+
+    @Test
+    void tick_ReservationFailingMaxAttempts_IsAbandonedToTheSweep() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        fire(3L);
+        when(expirySweeper.expire(List.of(3L))).thenThrow(new IllegalStateException("inventory row missing"));
+        when(hashOperations.increment(ReservationExpiryScheduler.ATTEMPTS_KEY, "3", 1)).thenReturn(3L);
+
+        scheduler.tick();
+
+        verify(hashOperations).delete(ReservationExpiryScheduler.ATTEMPTS_KEY, "3");
+        verify(zSetOperations, never()).add(anyString(), eq("3"), anyDouble());
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.wheel.abandoned").counter().count());
+    }
+
+    @Test
+    void tick_ClaimedButNotExpired_PutsBackReservedAndCountsDropped() {
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        fire(4L, 5L);
+        LocalDateTime extended = LocalDateTime.now().plusHours(1);
+        when(expirySweeper.expire(List.of(4L, 5L))).thenReturn(Collections.emptyList());
+        when(expirySweeper.findReservedDeadlines(List.of(4L, 5L))).thenReturn(Map.of(4L, extended));
+
+        scheduler.tick();
+
+        verify(zSetOperations).add(eq(ReservationExpiryScheduler.EXPIRY_KEY), eq("4"), anyDouble());
+        verify(zSetOperations, never()).add(anyString(), eq("5"), anyDouble());
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.wheel.skipped").counter().count());
+    }
+
+    /** Schedules already-due deadlines and lets this node win their ZREM. */
+    private void fire(Long... reservationIds) {
+        for (Long id : reservationIds) {
+            scheduler.schedule(id, LocalDateTime.now().minusSeconds(1));
+        }
+        List<Object> removed = Collections.nCopies(reservationIds.length, 1L);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(removed);
+        clearInvocations(zSetOperations);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ahamo.device.service;
+
+import com.ahamo.device.model.Reservation;
+import com.ahamo.device.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySweeperTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReservationExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        sweeper = new ReservationExpirySweeper(reservationRepository, inventoryService, transactionTemplate,
+                meterRegistry, 1, 10, 600000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sweeper.shutdown();
+    }
+
+    @Test
+    void sweep_FailingRow_IsQuarantinedAndDoesNotBlockTheRest() {
+        Reservation good = reservation(1L, 100L);
+        Reservation poison = reservation(2L, 200L);
+        List<Collection<Long>> exclusions = new ArrayList<>();
+        when(reservationRepository.claimExpiredReservations(any(LocalDateTime.class), anyCollection(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Long> excluded = List.copyOf(invocation.<Collection<Long>>getArgument(1));
+                    exclusions.add(excluded);
+                    return excluded.contains(2L) ? Collections.emptyList() : Arrays.asList(good, poison);
+                });
+        when(reservationRepository.expireReserved(anyCollection(), eq(Reservation.ReservationStatus.EXPIRED)))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).size());
+        doThrow(new IllegalStateException("inventory row missing"))
+                .when(inventoryService).releaseReservedStock(eq(200L), anyInt());
+        when(reservationRepository.lockExpiredReservations(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(good));
+        when(reservationRepository.lockExpiredReservations(eq(List.of(2L)), any(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(poison));
+
+        int expired = sweeper.sweep();
+
+        assertEquals(1, expired);
+        assertEquals(List.of(-1L), exclusions.get(0));
+        assertEquals(List.of(2L), exclusions.get(1));
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.rows.failed").counter().count());
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.quarantined").gauge().value());
+
+        ArgumentCaptor<Collection<Long>> excluded = ArgumentCaptor.forClass(Collection.class);
+        sweeper.sweep();
+        verify(reservationRepository, times(3)).claimExpiredReservations(any(LocalDateTime.class),
+                excluded.capture(), any(Pageable.class));
+        assertTrue(excluded.getValue().contains(2L));
+    }
+
+    @Test
+    void sweep_ClaimFails_StopsWithoutRetryingRows() {
+        when(reservationRepository.claimExpiredReservations(any(LocalDateTime.class), anyCollection(), any(Pageable.class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertEquals(0, sweeper.sweep());
+
+        verify(reservationRepository, never()).lockExpiredReservations(anyCollection(), any(LocalDateTime.class));
+        assertEquals(1.0, meterRegistry.get("reservation.expiry.chunks.failed").counter().count());
+    }
+
+    private static Reservation reservation(Long id, Long inventoryId) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setInventoryId(inventoryId);
+        reservation.setQuantity(1);
+        reservation.setStatus(Reservation.ReservationStatus.RESERVED);
+        reservation.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+        return reservation;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.dto.MnpEligibilityResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MnpEligibilityCacheTest {
+
+    @Test
+    void get_IsCaseInsensitiveOnCarrier() {
+        MnpEligibilityCache cache = new MnpEligibilityCache(new SimpleMeterRegistry(), 100, 60_000, 60_000);
+        MnpEligibilityResponse response = response("09012345678", true);
+
+        cache.put("09012345678", "docomo", response, false);
+
+        assertEquals(response, cache.get("09012345678", "DOCOMO"));
+        assertNull(cache.get("09012345678", "AU"));
+    }
+
+    @Test
+    void get_ReturnsCopiesThatCallersCannotCorrupt() {
+        MnpEligibilityCache cache = new MnpEligibilityCache(new SimpleMeterRegistry(), 100, 60_000, 60_000);
+        MnpEligibilityResponse response = response("09012345678", true);
+        response.setRestrictions(new ArrayList<>(List.of("名義変更が必要です")));
+
+        cache.put("09012345678", "DOCOMO", response, false);
+        response.setEligible(false);
+        MnpEligibilityResponse first = cache.get("09012345678", "DOCOMO");
+        first.getRestrictions().clear();
+        first.setEligible(false);
+
+        MnpEligibilityResponse second = cache.get("09012345678", "DOCOMO");
+        assertNotSame(first, second);
+        assertTrue(second.getEligible());
+        assertEquals(List.of("名義変更が必要です"), second.getRestrictions());
+    }
+
+    @Test
+    void negativeEntries_OutliveRegularTtl() {
+        MnpEligibilityCache cache = new MnpEligibilityCache(new SimpleMeterRegistry(), 100, 0, 60_000);
+
+        cache.put("09012345678", "DOCOMO", response("09012345678", true), false);
+        cache.put("09012345678", "RAKUTEN", response("09012345678", false), true);
+
+        assertNull(cache.get("09012345678", "DOCOMO"));
+        assertNotNull(cache.get("09012345678", "RAKUTEN"));
+    }
+
+    @Test
+    void invalidate_DropsEveryCarrierForNumberOnly() {
+        MnpEligibilityCache cache = new MnpEligibilityCache(new SimpleMeterRegistry(), 100, 60_000, 60_000);
+        cache.put("09012345678", "DOCOMO", response("09012345678", true), false);
+        cache.put("09012345678", "AU", response("09012345678", true), false);
+        cache.put("09087654321", "DOCOMO", response("09087654321", true), false);
+
+        cache.invalidate("09012345678");
+
+        assertNull(cache.get("09012345678", "DOCOMO"));
+        assertNull(cache.get("09012345678", "AU"));
+        assertNotNull(cache.get("09087654321", "DOCOMO"));
+    }
+
+    private static MnpEligibilityResponse response(String phoneNumber, boolean eligible) {
+        return MnpEligibilityResponse.builder()
+                .eligible(eligible)
+                .phoneNumber(phoneNumber)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.CarrierClientRegistry;
+import com.ahamo.mnp.integration.StubCarrierApiClient;
+import com.ahamo.mnp.model.MnpRequest;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Ports processed per minute by the previous one-at-a-time loop versus the orchestrator,
+ * against stub carriers with a fixed latency. State transitions are mocked, so the
+ * figures measure carrier fan-out only.
+ */
+@Tag("benchmark")
+class MnpOrchestratorBenchmarkTest {
+
+    private static final int REQUESTS = 1_200;
+    private static final int SERIAL_SAMPLE = 60;
+    private static final long CARRIER_LATENCY_MILLIS = 20;
+    private static final int CONCURRENCY_PER_CARRIER = 16;
+
+    @Test
+    void dispatch_ProcessesPortsAtLeastTwentyTimesFasterThanSerialLoop() {
+        List<CarrierApiClient> carriers = Arrays.asList(
+                new StubCarrierApiClient("DOCOMO", "11", CARRIER_LATENCY_MILLIS, 0.0),
+                new StubCarrierApiClient("AU", "21", CARRIER_LATENCY_MILLIS, 0.0),
+                new StubCarrierApiClient("SOFTBANK", "31", CARRIER_LATENCY_MILLIS, 0.0));
+        String[] codes = {"DOCOMO", "AU", "SOFTBANK"};
+
+        List<MnpRequest> requests = new ArrayList<>(REQUESTS);
+        for (long i = 1; i <= REQUESTS; i++) {
+            requests.add(MnpOrchestratorTest.request(i, codes[(int) (i % codes.length)]));
+        }
+
+        long start = System.nanoTime();
+        for (MnpRequest request : requests.subList(0, SERIAL_SAMPLE)) {
+            carriers.get((int) (request.getId() % codes.length))
+                    .requestReservationNumber(request.getPhoneNumber(), request.getAccountNumber());
+        }
+        double serialPerMinute = SERIAL_SAMPLE * 60_000_000_000.0 / (System.nanoTime() - start);
+
+        MnpStateManager stateManager = mock(MnpStateManager.class);
+        AtomicInteger completed = new AtomicInteger();
+        Answer<List<Transition>> record = invocation -> {
+            List<Transition> transitions = invocation.getArgument(0);
+            transitions.stream()
+                    .filter(transition -> transition.getTo() == MnpRequest.MnpStatus.COMPLETED)
+                    .forEach(transition -> completed.incrementAndGet());
+            return transitions;
+        };
+        when(stateManager.applyTransitions(anyList(), anyString())).thenAnswer(record);
+        when(stateManager.applyTransitionsIsolated(anyList(), anyString(), any())).thenAnswer(record);
+        MnpOrchestrator orchestrator = new MnpOrchestrator(new CarrierClientRegistry(carriers), stateManager, new SimpleMeterRegistry(),
+                new MockEnvironment(), CONCURRENCY_PER_CARRIER, REQUESTS, 10_000, 4, 50);
+        try {
+            start = System.nanoTime();
+            orchestrator.dispatch(requests).join();
+            double orchestratedPerMinute = REQUESTS * 60_000_000_000.0 / (System.nanoTime() - start);
+
+            assertEquals(REQUESTS, completed.get());
+            System.out.printf("mnp serial=%.0f ports/min orchestrated=%.0f ports/min (%.1fx)%n",
+                    serialPerMinute, orchestratedPerMinute, orchestratedPerMinute / serialPerMinute);
+            assertTrue(orchestratedPerMinute / serialPerMinute >= 20.0,
+                    String.format("expected >= 20x throughput, got %.1fx", orchestratedPerMinute / serialPerMinute));
+        } finally {
+            orchestrator.shutdown();
+        }
+    }
+}
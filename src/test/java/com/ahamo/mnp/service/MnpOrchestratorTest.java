@@ -0,0 +1,183 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.integration.CarrierApiClient;
+import com.ahamo.mnp.integration.CarrierClientRegistry;
+import com.ahamo.mnp.integration.StubCarrierApiClient;
+import com.ahamo.mnp.model.MnpRequest;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MnpOrchestratorTest {
+
+    @Mock
+    private MnpStateManager stateManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Transition> applied = Collections.synchronizedList(new ArrayList<>());
+    private MnpOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(stateManager.applyTransitions(anyList(), anyString())).thenAnswer(this::record);
+        lenient().when(stateManager.applyTransitionsIsolated(anyList(), anyString(), any())).thenAnswer(this::record);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.shutdown();
+    }
+
+    @Test
+    void dispatch_CompletesRequestWithReservationNumber() {
+        orchestrator = orchestrator(new StubCarrierApiClient("DOCOMO", "11", 0, 0.0), 1, 10, 1000);
+
+        orchestrator.dispatch(Collections.singletonList(request(1L, "docomo"))).join();
+
+        List<Transition> transitions = appliedTransitions();
+        assertEquals(2, transitions.size());
+        assertEquals(MnpRequest.MnpStatus.IN_PROGRESS, transitions.get(0).getTo());
+        assertEquals(MnpRequest.MnpStatus.COMPLETED, transitions.get(1).getTo());
+        assertTrue(transitions.get(1).getReservationNumber().startsWith("11"));
+    }
+
+    @Test
+    void dispatch_SlowCarrier_FailsRequestAfterTimeout() {
+        orchestrator = orchestrator(new StubCarrierApiClient("AU", "21", 5_000, 0.0), 1, 10, 50);
+
+        orchestrator.dispatch(Collections.singletonList(request(1L, "AU"))).orTimeout(2, TimeUnit.SECONDS).join();
+
+        Transition outcome = appliedTransitions().get(1);
+        assertEquals(MnpRequest.MnpStatus.FAILED, outcome.getTo());
+        assertEquals("キャリアの応答がタイムアウトしました", outcome.getReason());
+        assertTrue(outcome.getErrorMessage().contains("did not respond"));
+    }
+
+    @Test
+    void dispatch_FullLane_LeavesRequestPending() {
+        orchestrator = orchestrator(new StubCarrierApiClient("SOFTBANK", "31", 200, 0.0), 1, 0, 1000);
+
+        List<MnpRequest> requests = Arrays.asList(request(1L, "SOFTBANK"), request(2L, "SOFTBANK"));
+        orchestrator.dispatch(requests).join();
+
+        List<Transition> transitions = appliedTransitions();
+        assertTrue(transitions.stream().anyMatch(t -> t.getMnpRequestId() == 1L));
+        assertTrue(transitions.stream().noneMatch(t -> t.getMnpRequestId() == 2L));
+    }
+
+    @Test
+    void dispatch_UnsupportedCarrier_FailsRequest() {
+        orchestrator = orchestrator(new StubCarrierApiClient("DOCOMO", "11", 0, 0.0), 1, 10, 1000);
+
+        orchestrator.dispatch(Collections.singletonList(request(1L, "RAKUTEN"))).join();
+
+        List<Transition> transitions = appliedTransitions();
+        assertEquals(1, transitions.size());
+        assertEquals(MnpRequest.MnpStatus.PENDING, transitions.get(0).getFrom());
+        assertEquals(MnpRequest.MnpStatus.FAILED, transitions.get(0).getTo());
+        assertEquals("サポートされていないキャリアです", transitions.get(0).getReason());
+    }
+
+    @Test
+    void dispatch_RecordsEveryOutcome() {
+        orchestrator = orchestrator(new StubCarrierApiClient("DOCOMO", "11", 50, 0.0), 8, 0, 1000);
+
+        List<MnpRequest> requests = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            requests.add(request(id, "DOCOMO"));
+        }
+        orchestrator.dispatch(requests).join();
+
+        long completed = appliedTransitions().stream()
+                .filter(t -> t.getTo() == MnpRequest.MnpStatus.COMPLETED)
+                .count();
+        assertEquals(8, completed);
+    }
+
+    @Test
+    void dispatch_OutcomeNotRecorded_CountsItAsLost() {
+        orchestrator = orchestrator(new StubCarrierApiClient("DOCOMO", "11", 0, 0.0), 2, 10, 1000);
+        doAnswer(invocation -> {
+            List<Transition> transitions = invocation.getArgument(0);
+            Consumer<Transition> onFailure = invocation.getArgument(2);
+            List<Transition> recorded = new ArrayList<>();
+            for (Transition transition : transitions) {
+                if (transition.getMnpRequestId() == 2L) {
+                    onFailure.accept(transition);
+                } else {
+                    recorded.add(transition);
+                }
+            }
+            applied.addAll(recorded);
+            return recorded;
+        }).when(stateManager).applyTransitionsIsolated(anyList(), anyString(), any());
+
+        orchestrator.dispatch(Arrays.asList(request(1L, "DOCOMO"), request(2L, "DOCOMO"))).orTimeout(2, TimeUnit.SECONDS).join();
+
+        assertTrue(applied.stream().anyMatch(t -> t.getMnpRequestId() == 1L && t.getTo() == MnpRequest.MnpStatus.COMPLETED));
+        assertEquals(1.0, meterRegistry.counter("mnp.orchestration.outcomes.lost").count());
+    }
+
+    @Test
+    void resume_CallsCarrierAgainForStaleRequest() {
+        orchestrator = orchestrator(new StubCarrierApiClient("DOCOMO", "11", 0, 0.0), 1, 10, 1000);
+        MnpRequest stale = request(1L, "DOCOMO");
+        stale.setStatus(MnpRequest.MnpStatus.IN_PROGRESS);
+
+        orchestrator.resume(Collections.singletonList(stale)).join();
+
+        List<Transition> transitions = appliedTransitions();
+        assertEquals(1, transitions.size());
+        assertEquals(MnpRequest.MnpStatus.IN_PROGRESS, transitions.get(0).getFrom());
+        assertEquals(MnpRequest.MnpStatus.COMPLETED, transitions.get(0).getTo());
+        assertNotNull(transitions.get(0).getReservationNumber());
+    }
+
+    private List<Transition> record(InvocationOnMock invocation) {
+        List<Transition> transitions = invocation.getArgument(0);
+        applied.addAll(transitions);
+        return transitions;
+    }
+
+    private List<Transition> appliedTransitions() {
+        synchronized (applied) {
+            return new ArrayList<>(applied);
+        }
+    }
+
+    private MnpOrchestrator orchestrator(CarrierApiClient client, int concurrency, int queueCapacity, long timeoutMillis) {
+        return new MnpOrchestrator(new CarrierClientRegistry(Collections.singletonList(client)), stateManager, meterRegistry,
+                new MockEnvironment(), concurrency, queueCapacity, timeoutMillis, 1, 50);
+    }
+
+    static MnpRequest request(Long id, String carrier) {
+        return MnpRequest.builder()
+                .id(id)
+                .mnpId("mnp-" + id)
+                .phoneNumber(String.format("090%08d", id))
+                .currentCarrier(carrier)
+                .accountName("山田太郎")
+                .accountNumber("1234")
+                .status(MnpRequest.MnpStatus.PENDING)
+                .build();
+    }
+}
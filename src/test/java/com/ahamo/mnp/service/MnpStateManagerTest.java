@@ -0,0 +1,96 @@
+package com.ahamo.mnp.service;
+
+import com.ahamo.mnp.model.MnpRequest;
+import com.ahamo.mnp.repository.MnpRepository;
+import com.ahamo.mnp.repository.MnpStatusHistoryRepository;
+import com.ahamo.mnp.service.MnpStateManager.Transition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MnpStateManagerTest {
+
+    @Mock
+    private MnpRepository mnpRepository;
+
+    @Mock
+    private MnpStatusHistoryRepository statusHistoryRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MnpStateManager stateManager;
+
+    @BeforeEach
+    void setUp() {
+        stateManager = new MnpStateManager(mnpRepository, statusHistoryRepository, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void applyTransitionsIsolated_FailingRow_AppliesTheRestOneByOne() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (isStatusUpdate(invocation.getArgument(0)) && rows.stream().anyMatch(row -> Long.valueOf(2L).equals(row[5]))) {
+                throw new DataIntegrityViolationException("value too long for column");
+            }
+            int[] counts = new int[rows.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        List<Transition> failed = new ArrayList<>();
+
+        List<Transition> applied = stateManager.applyTransitionsIsolated(
+                Arrays.asList(completion(1L), completion(2L), completion(3L)), "SYSTEM", failed::add);
+
+        assertEquals(List.of(1L, 3L), applied.stream().map(Transition::getMnpRequestId).collect(Collectors.toList()));
+        assertEquals(1, failed.size());
+        assertEquals(2L, failed.get(0).getMnpRequestId());
+        verify(jdbcTemplate, times(4)).batchUpdate(argThat(MnpStateManagerTest::isStatusUpdate), anyList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void applyTransitionsIsolated_BatchSucceeds_UsesOneTransaction() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation ->
+                isStatusUpdate(invocation.getArgument(0)) ? new int[]{1, 0} : new int[]{1});
+
+        List<Transition> applied = stateManager.applyTransitionsIsolated(
+                Arrays.asList(completion(1L), completion(2L)), "SYSTEM");
+
+        assertEquals(1, applied.size());
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    private static boolean isStatusUpdate(String sql) {
+        return sql.startsWith("UPDATE mnp_requests");
+    }
+
+    private static Transition completion(Long id) {
+        return Transition.builder()
+                .mnpRequestId(id)
+                .from(MnpRequest.MnpStatus.IN_PROGRESS)
+                .to(MnpRequest.MnpStatus.COMPLETED)
+                .reason("転入が完了しました")
+                .reservationNumber("AH" + id)
+                .build();
+    }
+}
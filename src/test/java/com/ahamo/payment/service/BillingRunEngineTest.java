@@ -0,0 +1,177 @@
+package com.ahamo.payment.service;
+
+import com.ahamo.payment.dto.PaymentRequestDto;
+import com.ahamo.payment.dto.PaymentResponseDto;
+import com.ahamo.payment.model.BillingSchedule;
+import com.ahamo.payment.repository.BillingScheduleRepository;
+import com.ahamo.payment.service.RecurringBillingService.BillingResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.InOrder;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BillingRunEngineTest {
+
+    @Mock
+    private BillingScheduleRepository billingScheduleRepository;
+
+    @Mock
+    private PaymentService paymentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private BillingRunEngine billingRunEngine;
+
+    private BillingSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        schedule = BillingSchedule.builder()
+                .id(1L)
+                .scheduleUuid("schedule-1")
+                .contractId("contract-1")
+                .paymentMethodId("credit")
+                .amount(new BigDecimal("2970.00"))
+                .frequency(BillingSchedule.BillingFrequency.MONTHLY)
+                .nextBillingDate(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .status(BillingSchedule.BillingStatus.ACTIVE)
+                .retryCount(0)
+                .maxRetryAttempts(3)
+                .build();
+        lenient().when(billingScheduleRepository.lockById(1L)).thenReturn(Optional.of(schedule));
+
+        billingRunEngine = new BillingRunEngine(billingScheduleRepository, paymentService, transactionManager,
+                redissonClient, new SimpleMeterRegistry(), 1, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        billingRunEngine.shutdown();
+    }
+
+    @Test
+    void charge_Completed_PreparesPaymentBeforeGatewayAndClearsKey() {
+        when(paymentService.processPayment(any())).thenReturn(
+                PaymentResponseDto.builder().status("completed").transactionId("tx-1").build());
+
+        BillingResult result = billingRunEngine.charge(1L, true);
+
+        assertTrue(result.isSuccess());
+        assertEquals("tx-1", result.getTransactionId());
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), schedule.getNextBillingDate());
+        assertNull(schedule.getPendingChargeKey());
+
+        ArgumentCaptor<PaymentRequestDto> prepared = ArgumentCaptor.forClass(PaymentRequestDto.class);
+        ArgumentCaptor<PaymentRequestDto> charged = ArgumentCaptor.forClass(PaymentRequestDto.class);
+        InOrder inOrder = inOrder(paymentService);
+        inOrder.verify(paymentService).preparePayment(prepared.capture());
+        inOrder.verify(paymentService).processPayment(charged.capture());
+        assertTrue(charged.getValue().getIdempotencyKey().startsWith("billing:schedule-1:2024-01-01:"));
+        assertEquals(prepared.getValue().getIdempotencyKey(), charged.getValue().getIdempotencyKey());
+    }
+
+    @Test
+    void charge_NotDue_SkipsWithoutCallingGateway() {
+        schedule.setNextBillingDate(LocalDateTime.now().plusDays(1));
+
+        BillingResult result = billingRunEngine.charge(1L, true);
+
+        assertFalse(result.isSuccess());
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    void charge_GatewayThrows_RecordsFailureInSeparateTransaction() {
+        when(paymentService.processPayment(any())).thenThrow(new RuntimeException("gateway down"));
+
+        BillingResult result = billingRunEngine.charge(1L, true);
+
+        assertFalse(result.isSuccess());
+        assertEquals(1, schedule.getRetryCount());
+        assertEquals("UNKNOWN", schedule.getLastFailureReason());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), schedule.getNextBillingDate());
+    }
+
+    @Test
+    void charge_OutcomeUnknown_RetriesUnderTheSameKey() {
+        when(paymentService.processPayment(any()))
+                .thenThrow(new RuntimeException("read timed out"))
+                .thenReturn(PaymentResponseDto.builder().status("completed").transactionId("tx-1").build());
+
+        billingRunEngine.charge(1L, true);
+        String pendingKey = schedule.getPendingChargeKey();
+        BillingResult retried = billingRunEngine.charge(1L, true);
+
+        assertNotNull(pendingKey);
+        assertTrue(retried.isSuccess());
+        ArgumentCaptor<PaymentRequestDto> request = ArgumentCaptor.forClass(PaymentRequestDto.class);
+        verify(paymentService, times(2)).processPayment(request.capture());
+        assertEquals(pendingKey, request.getAllValues().get(0).getIdempotencyKey());
+        assertEquals(pendingKey, request.getAllValues().get(1).getIdempotencyKey());
+    }
+
+    @Test
+    void charge_OutcomeNotRecorded_KeepsKeyForNextRun() {
+        when(paymentService.processPayment(any())).thenReturn(
+                PaymentResponseDto.builder().status("completed").transactionId("tx-1").build());
+        when(billingScheduleRepository.lockById(1L))
+                .thenReturn(Optional.of(schedule))
+                .thenThrow(new RuntimeException("lock wait timeout"));
+
+        BillingResult result = billingRunEngine.charge(1L, true);
+
+        assertTrue(result.isSuccess());
+        assertNotNull(schedule.getPendingChargeKey());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), schedule.getNextBillingDate());
+    }
+
+    @Test
+    void charge_Declined_NextAttemptUsesNewKey() {
+        when(paymentService.processPayment(any())).thenReturn(
+                PaymentResponseDto.builder().status("failed").build());
+
+        billingRunEngine.charge(1L, true);
+        billingRunEngine.charge(1L, true);
+
+        ArgumentCaptor<PaymentRequestDto> request = ArgumentCaptor.forClass(PaymentRequestDto.class);
+        verify(paymentService, times(2)).processPayment(request.capture());
+        assertNotEquals(request.getAllValues().get(0).getIdempotencyKey(), request.getAllValues().get(1).getIdempotencyKey());
+        assertNull(schedule.getPendingChargeKey());
+        assertEquals("GATEWAY_ERROR", schedule.getLastFailureReason());
+    }
+
+    @Test
+    void assignMissingPartitionKeys_BackfillsRowsWithoutPartition() {
+        BillingSchedule legacy = BillingSchedule.builder().id(7L).scheduleUuid("legacy-7").build();
+        when(billingScheduleRepository.findWithoutPartitionKey(any(Pageable.class)))
+                .thenReturn(List.of(legacy))
+                .thenReturn(Collections.emptyList());
+
+        assertEquals(1, billingRunEngine.assignMissingPartitionKeys());
+
+        verify(billingScheduleRepository).assignPartitionKey(7L, BillingSchedule.partitionOf("legacy-7"));
+    }
+}
@@ -45,6 +45,9 @@ class AdminPlanControllerTest {
     @MockBean
     private com.ahamo.security.service.CustomUserDetailsService customUserDetailsService;
 
+    @MockBean
+    private com.ahamo.security.jwt.AuthenticatedPrincipalCache principalCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
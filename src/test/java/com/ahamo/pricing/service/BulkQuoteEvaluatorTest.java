@@ -0,0 +1,114 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.device.model.Device;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.option.model.Option;
+import com.ahamo.option.repository.OptionRepository;
+import com.ahamo.plan.model.Plan;
+import com.ahamo.plan.repository.PlanRepository;
+import com.ahamo.pricing.dto.BulkPricingCell;
+import com.ahamo.pricing.dto.BulkPricingRequest;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkQuoteEvaluatorTest {
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private OptionRepository optionRepository;
+
+    private BulkQuoteEvaluator bulkQuoteEvaluator;
+
+    @BeforeEach
+    void setUp() {
+        Plan plan = new Plan();
+        plan.setId("plan_ahamo");
+        plan.setMonthlyFee(new BigDecimal("2970.00"));
+
+        Device iphone = new Device();
+        iphone.setId("device_001");
+        iphone.setPrice(new BigDecimal("120000.00"));
+        Device pixel = new Device();
+        pixel.setId("device_002");
+        pixel.setPrice(new BigDecimal("72000.00"));
+
+        Option option = new Option();
+        option.setId("option_care");
+        option.setMonthlyFee(new BigDecimal("550.00"));
+
+        when(planRepository.findAll()).thenReturn(Collections.singletonList(plan));
+        when(deviceRepository.findAll()).thenReturn(Arrays.asList(iphone, pixel));
+        when(optionRepository.findAll()).thenReturn(Collections.singletonList(option));
+
+        PricingCatalog pricingCatalog = new PricingCatalog(planRepository, deviceRepository, optionRepository);
+        bulkQuoteEvaluator = new BulkQuoteEvaluator(pricingCatalog, new PricingEngine(pricingCatalog), 2, 3, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkQuoteEvaluator.shutdown();
+    }
+
+    @Test
+    void evaluate_PricesEveryCombinationOnce() {
+        BulkPricingRequest request = BulkPricingRequest.builder()
+                .planIds(Arrays.asList("plan_ahamo", "plan_missing"))
+                .deviceIds(Arrays.asList("device_001", "device_002"))
+                .paymentOptions(Arrays.asList(DevicePaymentOption.LUMP_SUM, DevicePaymentOption.INSTALLMENT_24))
+                .optionSets(Arrays.asList(Collections.emptyList(), Collections.singletonList("option_care")))
+                .build();
+
+        List<BulkPricingCell> cells;
+        try (Stream<BulkPricingCell> stream = bulkQuoteEvaluator.evaluate(request)) {
+            cells = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(16, cells.size());
+        assertEquals(16, cells.stream()
+                .map(cell -> cell.getPlanId() + cell.getDeviceId() + cell.getPaymentOption() + cell.getOptionIds())
+                .distinct()
+                .count());
+        assertTrue(cells.stream()
+                .filter(cell -> cell.getPlanId().equals("plan_missing"))
+                .allMatch(cell -> "Plan not found: plan_missing".equals(cell.getError()) && cell.getResult() == null));
+
+        BulkPricingCell cell = cells.stream()
+                .filter(c -> c.getPlanId().equals("plan_ahamo") && c.getDeviceId().equals("device_002")
+                        && c.getPaymentOption() == DevicePaymentOption.INSTALLMENT_24 && c.getOptionIds().size() == 1)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(new BigDecimal("6520.00"), cell.getResult().getMonthlyTotal());
+    }
+
+    @Test
+    void evaluate_RejectsOversizedGrid() {
+        BulkPricingRequest request = BulkPricingRequest.builder()
+                .planIds(Collections.nCopies(11, "plan_ahamo"))
+                .deviceIds(Collections.nCopies(10, "device_001"))
+                .paymentOptions(Collections.singletonList(DevicePaymentOption.LUMP_SUM))
+                .build();
+
+        assertThrows(RuntimeException.class, () -> bulkQuoteEvaluator.evaluate(request));
+    }
+}
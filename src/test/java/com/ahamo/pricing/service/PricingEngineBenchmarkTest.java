@@ -0,0 +1,143 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.device.model.Device;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.option.model.Option;
+import com.ahamo.option.repository.OptionRepository;
+import com.ahamo.plan.model.Plan;
+import com.ahamo.plan.repository.PlanRepository;
+import com.ahamo.pricing.dto.PricingCalculationRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the compiled engine with the previous per-request path (three repository
+ * lookups plus BigDecimal streams). Repositories are in-memory stubs, so the speedup
+ * reported here is a lower bound; in production each lookup is a database round trip.
+ */
+@Tag("benchmark")
+class PricingEngineBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 200_000;
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.10");
+
+    @Test
+    void quote_IsAtLeastTenTimesFasterThanPerRequestPath() {
+        Plan plan = new Plan();
+        plan.setId("plan_ahamo");
+        plan.setMonthlyFee(new BigDecimal("2970.00"));
+        plan.setCampaignStartDate(LocalDateTime.now().minusDays(1));
+        plan.setCampaignEndDate(LocalDateTime.now().plusDays(30));
+
+        Device device = new Device();
+        device.setId("device_001");
+        device.setName("iPhone 15");
+        device.setPrice(new BigDecimal("124800.00"));
+
+        List<Option> options = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Option option = new Option();
+            option.setId("option_" + i);
+            option.setName("option " + i);
+            option.setCategory(Option.OptionCategory.service);
+            option.setMonthlyFee(new BigDecimal("330.00"));
+            option.setOneTimeFee(new BigDecimal("1100.00"));
+            options.add(option);
+        }
+
+        PlanRepository planRepository = mock(PlanRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        OptionRepository optionRepository = mock(OptionRepository.class);
+        when(planRepository.findAll()).thenReturn(List.of(plan));
+        when(planRepository.findById("plan_ahamo")).thenReturn(Optional.of(plan));
+        when(deviceRepository.findAll()).thenReturn(List.of(device));
+        when(deviceRepository.findById("device_001")).thenReturn(Optional.of(device));
+        when(optionRepository.findAll()).thenReturn(options);
+        when(optionRepository.findAllById(anyList())).thenReturn(options);
+
+        PricingEngine engine = new PricingEngine(new PricingCatalog(planRepository, deviceRepository, optionRepository));
+        PricingCalculationRequest request = PricingCalculationRequest.builder()
+                .planId("plan_ahamo")
+                .deviceId("device_001")
+                .paymentOption(PricingCalculationRequest.DevicePaymentOption.INSTALLMENT_36)
+                .tradeInDeviceId("device_old")
+                .selectedOptionIds(Arrays.asList("option_0", "option_1", "option_2"))
+                .callMinutes(new BigDecimal("37.5"))
+                .dataUsage(new BigDecimal("2.25"))
+                .smsCount(BigDecimal.ZERO)
+                .isNewCustomer(true)
+                .isMnpTransfer(true)
+                .build();
+
+        BigDecimal expected = legacyTaxIncluded(request, planRepository, deviceRepository, optionRepository);
+        assertEquals(expected, engine.quote(request).toResult().getTaxIncluded());
+
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += legacyTaxIncluded(request, planRepository, deviceRepository, optionRepository).longValue();
+            sink += engine.quote(request).getTaxIncludedYen();
+            sink += engine.quote(request).toResult().getTaxIncluded().longValue();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += legacyTaxIncluded(request, planRepository, deviceRepository, optionRepository).longValue();
+        }
+        double legacyNanos = (System.nanoTime() - start) / (double) ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += engine.quote(request).getTaxIncludedYen();
+        }
+        double quoteNanos = (System.nanoTime() - start) / (double) ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += engine.quote(request).toResult().getTaxIncluded().longValue();
+        }
+        double resultNanos = (System.nanoTime() - start) / (double) ITERATIONS;
+
+        assertTrue(sink != 0);
+        System.out.printf("pricing per-request=%.0fns engine.quote=%.0fns (%.1fx) engine.quote+toResult=%.0fns (%.1fx)%n",
+                legacyNanos, quoteNanos, legacyNanos / quoteNanos, resultNanos, legacyNanos / resultNanos);
+        assertTrue(legacyNanos / quoteNanos >= 10.0,
+                String.format("expected >= 10x speedup, got %.1fx", legacyNanos / quoteNanos));
+    }
+
+    /** The pre-engine evaluation path, reduced to the arithmetic that produced the total. */
+    private static BigDecimal legacyTaxIncluded(PricingCalculationRequest request, PlanRepository planRepository,
+                                                DeviceRepository deviceRepository, OptionRepository optionRepository) {
+        Plan plan = planRepository.findById(request.getPlanId()).orElseThrow();
+        Device device = deviceRepository.findById(request.getDeviceId()).orElseThrow();
+        List<Option> options = optionRepository.findAllById(request.getSelectedOptionIds());
+
+        BigDecimal callFee = request.getCallMinutes().multiply(new BigDecimal("22.00")).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal dataFee = request.getDataUsage().multiply(new BigDecimal("550.00")).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal totalPrice = device.getPrice().subtract(new BigDecimal("10000.00"));
+        BigDecimal monthlyPayment = totalPrice.divide(new BigDecimal("36"), 2, RoundingMode.HALF_UP);
+        BigDecimal optionFees = options.stream().map(Option::getMonthlyFee).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal discounts = List.of(new BigDecimal("1000.00"), new BigDecimal("2000.00")).stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal campaigns = now.isAfter(plan.getCampaignStartDate()) && now.isBefore(plan.getCampaignEndDate())
+                ? new BigDecimal("500.00") : BigDecimal.ZERO;
+
+        BigDecimal monthlyTotal = plan.getMonthlyFee().add(callFee).add(dataFee).add(monthlyPayment)
+                .add(optionFees).subtract(discounts).subtract(campaigns);
+        BigDecimal initialCost = options.stream().map(Option::getOneTimeFee).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return monthlyTotal.add(initialCost).multiply(BigDecimal.ONE.add(TAX_RATE)).setScale(0, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,150 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.device.model.Device;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.option.model.Option;
+import com.ahamo.option.repository.OptionRepository;
+import com.ahamo.plan.model.Plan;
+import com.ahamo.plan.repository.PlanRepository;
+import com.ahamo.pricing.dto.EstimateResult;
+import com.ahamo.pricing.dto.PricingCalculationRequest;
+import com.ahamo.pricing.dto.PricingCalculationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingEngineTest {
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private OptionRepository optionRepository;
+
+    private PricingCatalog pricingCatalog;
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        Plan plan = new Plan();
+        plan.setId("plan_ahamo");
+        plan.setName("ahamo");
+        plan.setMonthlyFee(new BigDecimal("2970.00"));
+        plan.setCampaignStartDate(LocalDateTime.now().minusDays(1));
+        plan.setCampaignEndDate(LocalDateTime.now().plusDays(30));
+
+        Device device = new Device();
+        device.setId("device_001");
+        device.setName("iPhone 15");
+        device.setBrand("Apple");
+        device.setPrice(new BigDecimal("120000.00"));
+
+        Option option = new Option();
+        option.setId("option_care");
+        option.setName("ケータイ補償");
+        option.setCategory(Option.OptionCategory.insurance);
+        option.setMonthlyFee(new BigDecimal("550.00"));
+        option.setOneTimeFee(new BigDecimal("3300.00"));
+
+        when(planRepository.findAll()).thenReturn(Collections.singletonList(plan));
+        when(deviceRepository.findAll()).thenReturn(Collections.singletonList(device));
+        when(optionRepository.findAll()).thenReturn(Collections.singletonList(option));
+
+        pricingCatalog = new PricingCatalog(planRepository, deviceRepository, optionRepository);
+        pricingEngine = new PricingEngine(pricingCatalog);
+    }
+
+    @Test
+    void quote_MatchesBigDecimalRounding() {
+        PricingCalculationResult result = pricingEngine.quote(request(Arrays.asList("option_care", "option_unknown"))).toResult();
+
+        assertEquals(new BigDecimal("231.00"), result.getBreakdown().getCallFee());
+        assertEquals(new BigDecimal("687.50"), result.getBreakdown().getDataFee());
+        assertEquals(new BigDecimal("110000.00"), result.getBreakdown().getDeviceCost().getTotalPrice());
+        assertEquals(new BigDecimal("4583.33"), result.getBreakdown().getDeviceCost().getMonthlyPayment());
+        assertEquals(1, result.getBreakdown().getOptionFees().size());
+        assertEquals(1, result.getBreakdown().getCampaigns().size());
+        assertEquals(new BigDecimal("7521.83"), result.getMonthlyTotal());
+        assertEquals(new BigDecimal("3300.00"), result.getInitialCost());
+        assertEquals(new BigDecimal("10821.83"), result.getTotalAmount());
+        assertEquals(new BigDecimal("11904"), result.getTaxIncluded());
+    }
+
+    @Test
+    void quote_EstimateSummaryAndMonthlyBreakdown() {
+        PricingCalculationRequest request = request(Collections.singletonList("option_care"));
+        request.setCallMinutes(BigDecimal.ZERO);
+        request.setDataUsage(BigDecimal.ZERO);
+        PricingQuote quote = pricingEngine.quote(request);
+
+        EstimateResult.EstimateSummary summary = quote.toEstimateSummary(12);
+        assertEquals(new BigDecimal("82539.96"), summary.getTotalAmountForPeriod());
+        assertEquals(new BigDecimal("8254"), summary.getTotalTaxAmount());
+
+        List<EstimateResult.MonthlyBreakdown> months = quote.toMonthlyBreakdowns(12);
+        assertEquals(12, months.size());
+        assertEquals(new BigDecimal("660"), months.get(0).getTax());
+        assertEquals(new BigDecimal("7263.33"), months.get(11).getTotal());
+    }
+
+    @Test
+    void quote_UnknownPlanFails() {
+        PricingCalculationRequest request = request(null);
+        request.setPlanId("plan_missing");
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pricingEngine.quote(request));
+        assertEquals("Plan not found: plan_missing", exception.getMessage());
+    }
+
+    @Test
+    void quote_RecompilesOnlyOnceAfterInvalidation() {
+        pricingEngine.quote(request(null));
+        pricingCatalog.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.OPTION, "option_a"));
+        pricingCatalog.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.OPTION, "option_b"));
+        pricingEngine.quote(request(null));
+        pricingEngine.quote(request(null));
+
+        verify(planRepository, times(2)).findAll();
+    }
+
+    @Test
+    void multiply_AgreesWithBigDecimal() {
+        for (String quantity : new String[]{"0", "1", "10.5", "0.005", "3.14159", "123456.789", "1E+3"}) {
+            BigDecimal expected = new BigDecimal(quantity).multiply(new BigDecimal("22.00")).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(expected, Money.toDecimal(Money.multiply(new BigDecimal(quantity), 2_200L)), quantity);
+        }
+        assertEquals(-1L, Money.divideHalfUp(-5L, 10L));
+        assertEquals(-458333L, Money.divideHalfUp(-11_000_000L, 24L));
+    }
+
+    private static PricingCalculationRequest request(List<String> optionIds) {
+        return PricingCalculationRequest.builder()
+                .planId("plan_ahamo")
+                .deviceId("device_001")
+                .paymentOption(PricingCalculationRequest.DevicePaymentOption.INSTALLMENT_24)
+                .tradeInDeviceId("device_old")
+                .selectedOptionIds(optionIds)
+                .callMinutes(new BigDecimal("10.5"))
+                .dataUsage(new BigDecimal("1.25"))
+                .smsCount(BigDecimal.ZERO)
+                .isNewCustomer(true)
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ahamo.pricing.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.device.repository.DeviceRepository;
+import com.ahamo.option.repository.OptionRepository;
+import com.ahamo.plan.model.Plan;
+import com.ahamo.plan.repository.PlanRepository;
+import com.ahamo.pricing.dto.PricingCalculationRequest;
+import com.ahamo.pricing.dto.PricingCalculationRequest.DevicePaymentOption;
+import com.ahamo.pricing.dto.PricingCalculationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingQuoteCacheTest {
+
+    @Mock
+    private PlanRepository planRepository;
+
+    @Mock
+    private DeviceRepository deviceRepository;
+
+    @Mock
+    private OptionRepository optionRepository;
+
+    private PricingCatalog pricingCatalog;
+    private PricingQuoteCache quoteCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        pricingCatalog = new PricingCatalog(planRepository, deviceRepository, optionRepository);
+        quoteCache = new PricingQuoteCache(pricingCatalog, new SimpleMeterRegistry(), 100, 60000);
+    }
+
+    @Test
+    void canonicalKey_IgnoresFieldsThatDoNotAffectPrice() {
+        PricingCalculationRequest first = request("device_old", new BigDecimal("10.50"), "option_b", "option_a");
+        first.setDeviceColor("ブラック");
+        first.setSmsCount(new BigDecimal("3"));
+        PricingCalculationRequest second = request("device_other", new BigDecimal("10.5"), "option_a", "option_b", "option_a");
+
+        assertEquals(PricingQuoteCache.canonicalKey(first, "v1"), PricingQuoteCache.canonicalKey(second, "v1"));
+    }
+
+    @Test
+    void canonicalKey_SeparatesPricedFieldsAndCatalogVersions() {
+        String key = PricingQuoteCache.canonicalKey(request("device_old", BigDecimal.TEN, "option_a"), "v1");
+
+        assertNotEquals(key, PricingQuoteCache.canonicalKey(request(null, BigDecimal.TEN, "option_a"), "v1"));
+        assertNotEquals(key, PricingQuoteCache.canonicalKey(request("device_old", BigDecimal.ONE, "option_a"), "v1"));
+        assertNotEquals(key, PricingQuoteCache.canonicalKey(request("device_old", BigDecimal.TEN), "v1"));
+        assertNotEquals(key, PricingQuoteCache.canonicalKey(request("device_old", BigDecimal.TEN, "option_a"), "v2"));
+    }
+
+    @Test
+    void canonicalKey_SeparatorsInIdsDoNotCollide() {
+        assertNotEquals(
+                PricingQuoteCache.canonicalKey(request(null, BigDecimal.TEN, "a,b"), "v1"),
+                PricingQuoteCache.canonicalKey(request(null, BigDecimal.TEN, "a", "b"), "v1"));
+    }
+
+    @Test
+    void get_SameRequest_LoadsOnceAndReturnsIndependentCopies() {
+        PricingCalculationResult first = quoteCache.get(request(null, BigDecimal.TEN), this::load);
+        first.setMonthlyTotal(BigDecimal.ZERO);
+        first.getBreakdown().getDiscounts().clear();
+
+        PricingCalculationResult second = quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals(new BigDecimal("2970"), second.getMonthlyTotal());
+        assertEquals(1, second.getBreakdown().getDiscounts().size());
+    }
+
+    @Test
+    void get_DifferentRequest_Misses() {
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+        quoteCache.get(request(null, BigDecimal.ONE), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_AfterCatalogChange_LoadsAgain() {
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        quoteCache.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PLAN, "plan_ahamo"));
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShippingChange_KeepsEntries() {
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        quoteCache.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SHIPPING, "store_001"));
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_NewCatalogVersion_MovesToNewKeys() {
+        Plan plan = new Plan();
+        plan.setId("plan_ahamo");
+        plan.setName("ahamo");
+        plan.setMonthlyFee(new BigDecimal("2970.00"));
+        when(planRepository.findAll()).thenReturn(Collections.emptyList(), Collections.singletonList(plan));
+
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+        pricingCatalog.refresh();
+        quoteCache.get(request(null, BigDecimal.TEN), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private PricingCalculationResult load() {
+        loads.incrementAndGet();
+        List<PricingCalculationResult.Discount> discounts = new ArrayList<>();
+        discounts.add(new PricingCalculationResult.Discount("discount_mnp", "MNP割引", new BigDecimal("-500"), "MNP"));
+        return PricingCalculationResult.builder()
+                .monthlyTotal(new BigDecimal("2970"))
+                .breakdown(PricingCalculationResult.PricingBreakdown.builder()
+                        .baseFee(new BigDecimal("2970"))
+                        .discounts(discounts)
+                        .build())
+                .build();
+    }
+
+    private static PricingCalculationRequest request(String tradeInDeviceId, BigDecimal callMinutes, String... optionIds) {
+        return PricingCalculationRequest.builder()
+                .planId("plan_ahamo")
+                .deviceId("device_001")
+                .paymentOption(DevicePaymentOption.INSTALLMENT_24)
+                .tradeInDeviceId(tradeInDeviceId)
+                .selectedOptionIds(Arrays.asList(optionIds))
+                .callMinutes(callMinutes)
+                .dataUsage(BigDecimal.ZERO)
+                .smsCount(BigDecimal.ZERO)
+                .build();
+    }
+}
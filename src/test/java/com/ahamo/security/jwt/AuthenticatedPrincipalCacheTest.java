@@ -0,0 +1,155 @@
+package com.ahamo.security.jwt;
+
+import com.ahamo.security.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedPrincipalCacheTest {
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JwtTokenProvider tokenProvider;
+    private AuthenticatedPrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = spy(new JwtTokenProvider());
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "mySecretKey1234567890123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(tokenProvider, "accessTokenExpiration", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshTokenExpiration", 86400000L);
+        tokenProvider.init();
+        principalCache = new AuthenticatedPrincipalCache(tokenProvider, userDetailsService, redisTemplate,
+                listenerContainer, meterRegistry, 100, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void resolve_RepeatedToken_VerifiesAndLoadsOnce() {
+        String token = tokenProvider.generateAccessToken("taro@example.com");
+        UserDetails principal = principal(1L, "taro@example.com");
+        when(userDetailsService.loadUserByUsername("taro@example.com")).thenReturn(principal);
+
+        assertSame(principal, principalCache.resolve(token));
+        assertSame(principal, principalCache.resolve(token));
+        assertSame(principal, principalCache.resolve(token));
+
+        verify(tokenProvider, times(1)).verify(token);
+        verify(userDetailsService, times(1)).loadUserByUsername("taro@example.com");
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "jwtPrincipals").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void resolve_InvalidToken_ReturnsNullAndCachesNothing() {
+        assertNull(principalCache.resolve("not-a-jwt"));
+
+        verifyNoInteractions(userDetailsService);
+        assertEquals(0, principalCache.size());
+    }
+
+    @Test
+    void invalidate_DropsOnlyThatUsersTokensAndPublishes() {
+        String taroToken = tokenProvider.generateAccessToken("taro@example.com");
+        String hanakoToken = tokenProvider.generateAccessToken("hanako@example.com");
+        when(userDetailsService.loadUserByUsername("taro@example.com")).thenReturn(principal(1L, "taro@example.com"));
+        when(userDetailsService.loadUserByUsername("hanako@example.com")).thenReturn(principal(2L, "hanako@example.com"));
+        principalCache.resolve(taroToken);
+        principalCache.resolve(hanakoToken);
+
+        principalCache.invalidate("taro@example.com");
+
+        assertEquals(1, principalCache.size());
+        verify(redisTemplate).convertAndSend(AuthenticatedPrincipalCache.CHANNEL, "taro@example.com");
+        principalCache.resolve(taroToken);
+        verify(userDetailsService, times(2)).loadUserByUsername("taro@example.com");
+    }
+
+    @Test
+    void invalidate_InsideTransaction_PublishesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        principalCache.invalidate("taro@example.com");
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(redisTemplate).convertAndSend(AuthenticatedPrincipalCache.CHANNEL, "taro@example.com");
+    }
+
+    @Test
+    void resolve_InvalidationDuringLoad_DoesNotCacheStalePrincipal() {
+        String token = tokenProvider.generateAccessToken("taro@example.com");
+        when(userDetailsService.loadUserByUsername("taro@example.com")).thenAnswer(invocation -> {
+            principalCache.evict("taro@example.com");
+            return principal(1L, "taro@example.com");
+        });
+
+        assertNotNull(principalCache.resolve(token));
+
+        assertEquals(0, principalCache.size());
+    }
+
+    @Test
+    void subscribe_InvalidationFromAnotherNode_DropsThatUsersTokens() {
+        String token = tokenProvider.generateAccessToken("taro@example.com");
+        when(userDetailsService.loadUserByUsername("taro@example.com")).thenReturn(principal(1L, "taro@example.com"));
+        principalCache.resolve(token);
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        ArgumentCaptor<Topic> topic = ArgumentCaptor.forClass(Topic.class);
+
+        principalCache.subscribe();
+        verify(listenerContainer).addMessageListener(listener.capture(), topic.capture());
+        assertEquals(AuthenticatedPrincipalCache.CHANNEL, topic.getValue().getTopic());
+        listener.getValue().onMessage(new DefaultMessage(
+                AuthenticatedPrincipalCache.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "taro@example.com".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(0, principalCache.size());
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    private static UserDetails principal(Long id, String email) {
+        return new CustomUserDetailsService.UserPrincipal(id, email, "hashed", Collections.emptyList(), true, null);
+    }
+}
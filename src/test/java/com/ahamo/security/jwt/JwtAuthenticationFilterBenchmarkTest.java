@@ -0,0 +1,95 @@
+package com.ahamo.security.jwt;
+
+import com.ahamo.security.service.CustomUserDetailsService;
+import com.ahamo.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the JWT filter with and without the principal cache. The user lookup is
+ * simulated with a fixed delay standing in for the database round trip.
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 20_000;
+    private static final long LOOKUP_MICROS = 200;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000})
+    void doFilter_CachedVersusUncached(int distinctTokens) throws Exception {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "mySecretKey1234567890123456789012345678901234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(tokenProvider, "accessTokenExpiration", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshTokenExpiration", 86400000L);
+        tokenProvider.init();
+
+        List<String> tokens = new ArrayList<>(distinctTokens);
+        for (int i = 0; i < distinctTokens; i++) {
+            tokens.add(tokenProvider.generateAccessToken("user" + i + "@example.com"));
+        }
+
+        long uncachedNanos = measure(filter(tokenProvider, 0), tokens);
+        long cachedNanos = measure(filter(tokenProvider, 60000), tokens);
+
+        assertTrue(cachedNanos < uncachedNanos);
+        System.out.printf("jwt filter tokens=%d uncached=%dus cached=%dus%n",
+                distinctTokens, uncachedNanos / 1_000, cachedNanos / 1_000);
+    }
+
+    private static JwtAuthenticationFilter filter(JwtTokenProvider tokenProvider, long ttlMillis) {
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(mock(UserRepository.class)) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(LOOKUP_MICROS));
+                return new UserPrincipal(1L, username, "hashed",
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")), true, null);
+            }
+        };
+        AuthenticatedPrincipalCache principalCache = new AuthenticatedPrincipalCache(tokenProvider, userDetailsService,
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(),
+                10_000, ttlMillis);
+        return new JwtAuthenticationFilter(principalCache);
+    }
+
+    private static long measure(JwtAuthenticationFilter filter, List<String> tokens) throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request(filter, tokens.get(i % tokens.size()));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            request(filter, tokens.get(i % tokens.size()));
+        }
+        return (System.nanoTime() - start) / MEASURED_REQUESTS;
+    }
+
+    private static void request(JwtAuthenticationFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/contracts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,65 @@
+package com.ahamo.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares reading subject, type and expiry of a refresh token the old way, with a new
+ * parser and a signature check per accessor, against a single {@link JwtTokenProvider#verify}.
+ */
+@Tag("benchmark")
+class JwtTokenProviderBenchmarkTest {
+
+    private static final String SECRET = "mySecretKey1234567890123456789012345678901234567890123456789012345678901234567890";
+    private static final int WARMUP_ITERATIONS = 5_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+
+    @Test
+    void readClaims_PerAccessorParseVersusSingleVerify() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "accessTokenExpiration", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshTokenExpiration", 86400000L);
+        tokenProvider.init();
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        String token = tokenProvider.generateRefreshToken("test@example.com");
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            perAccessor(key, token);
+            tokenProvider.verify(token);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            assertEquals("test@example.com", perAccessor(key, token));
+        }
+        long perAccessorNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            JwtClaims claims = tokenProvider.verify(token).orElseThrow();
+            assertTrue(claims.isRefreshToken());
+        }
+        long verifyNanos = System.nanoTime() - start;
+
+        assertTrue(verifyNanos < perAccessorNanos);
+        System.out.printf("jwt claims per-accessor=%.0f/s single-verify=%.0f/s%n",
+                MEASURED_ITERATIONS * 1e9 / perAccessorNanos, MEASURED_ITERATIONS * 1e9 / verifyNanos);
+    }
+
+    /** What refreshToken did before: validate, check the type, then read the subject. */
+    private static String perAccessor(Key key, String token) {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        Claims typeClaims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        assertEquals("refresh", typeClaims.get("type"));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+}
@@ -115,6 +115,30 @@ class JwtTokenProviderTest {
         assertTrue(expiration.after(new Date()));
     }
 
+    @Test
+    void verify_RefreshToken_ReturnsAllClaimsFromOneParse() {
+        String token = jwtTokenProvider.generateRefreshToken("test@example.com");
+
+        JwtClaims claims = jwtTokenProvider.verify(token).orElseThrow();
+
+        assertEquals("test@example.com", claims.getSubject());
+        assertTrue(claims.isRefreshToken());
+        assertNotNull(claims.getIssuedAt());
+        assertTrue(claims.getExpiresAt().isAfter(claims.getIssuedAt()));
+    }
+
+    @Test
+    void verify_TokenSignedWithOtherKey_ReturnsEmpty() {
+        String foreignToken = Jwts.builder()
+                .setSubject("test@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 3600000))
+                .signWith(Keys.hmacShaKeyFor(("other" + secretKey).getBytes()))
+                .compact();
+
+        assertTrue(jwtTokenProvider.verify(foreignToken).isEmpty());
+        assertFalse(jwtTokenProvider.validateToken(foreignToken));
+    }
+
     private Authentication createMockAuthentication(String username) {
         Authentication authentication = mock(Authentication.class);
         UserDetails userDetails = new User(username, "password", 
@@ -0,0 +1,84 @@
+package com.ahamo.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+    private static final String IP = "192.168.1.1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LoginRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new LoginRateLimiter(redisTemplate, meterRegistry, 5, 300000, 86400000, 1000);
+    }
+
+    @Test
+    void tryAcquire_UnderLimit_RunsOneScriptCall() {
+        stubScript(1L, 3L);
+
+        assertEquals(LoginRateLimiter.Outcome.ALLOWED, rateLimiter.tryAcquire(IP));
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                eq(Arrays.asList("rate_limit:login:" + IP, "ip_blacklist:" + IP)),
+                any(), eq("300000"), eq("5"), any(), eq("86400000"));
+        verifyNoMoreInteractions(redisTemplate);
+    }
+
+    @Test
+    void tryAcquire_LimitExceeded_BlocksAndAnswersLaterChecksLocally() {
+        stubScript(2L, 86400000L);
+
+        assertEquals(LoginRateLimiter.Outcome.NEWLY_BLOCKED, rateLimiter.tryAcquire(IP));
+        assertEquals(LoginRateLimiter.Outcome.BLOCKED, rateLimiter.tryAcquire(IP));
+        assertTrue(rateLimiter.isBlocked(IP));
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any());
+        verify(redisTemplate, never()).getExpire(anyString(), any(TimeUnit.class));
+        assertEquals(2.0, meterRegistry.counter("security.rate.limit.local.hits").count());
+    }
+
+    @Test
+    void isBlocked_BlockedInRedis_IsRememberedLocally() {
+        when(redisTemplate.getExpire("ip_blacklist:" + IP, TimeUnit.MILLISECONDS)).thenReturn(60000L);
+
+        assertTrue(rateLimiter.isBlocked(IP));
+        assertTrue(rateLimiter.isBlocked(IP));
+
+        verify(redisTemplate, times(1)).getExpire("ip_blacklist:" + IP, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void isBlocked_NotBlocked_AsksRedisEachTime() {
+        when(redisTemplate.getExpire("ip_blacklist:" + IP, TimeUnit.MILLISECONDS)).thenReturn(-2L);
+
+        assertFalse(rateLimiter.isBlocked(IP));
+        assertFalse(rateLimiter.isBlocked(IP));
+
+        verify(redisTemplate, times(2)).getExpire("ip_blacklist:" + IP, TimeUnit.MILLISECONDS);
+    }
+
+    private void stubScript(Long status, Long value) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any(), any(), any(), any()))
+                .thenReturn(Arrays.asList(status, value));
+    }
+}
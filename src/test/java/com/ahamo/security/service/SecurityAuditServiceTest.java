@@ -1,34 +1,27 @@
 package com.ahamo.security.service;
 
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
-import org.springframework.data.redis.core.HashOperations;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
-import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class SecurityAuditServiceTest {
 
     @Mock
-    private RedisTemplate<String, String> redisTemplate;
+    private LoginRateLimiter rateLimiter;
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
-
-    @Mock
-    private HashOperations<String, Object, Object> hashOperations;
+    private SecurityEventWriter eventWriter;
 
     @Mock
     private HttpServletRequest request;
@@ -36,52 +29,59 @@ class SecurityAuditServiceTest {
     @InjectMocks
     private SecurityAuditService securityAuditService;
 
-    @BeforeEach
-    void setUp() {
-    }
-
     @Test
     void checkRateLimit_FirstAttempt_ReturnsTrue() {
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("login_attempts:" + ipAddress)).thenReturn(null);
+        when(rateLimiter.tryAcquire(ipAddress)).thenReturn(LoginRateLimiter.Outcome.ALLOWED);
 
         boolean result = securityAuditService.checkRateLimit(ipAddress);
 
         assertTrue(result);
-        verify(valueOperations).set(eq("login_attempts:" + ipAddress), eq("1"), anyLong(), eq(TimeUnit.MILLISECONDS));
+        verifyNoInteractions(eventWriter);
+    }
+
+    @Test
+    void checkRateLimit_LimitExceeded_ReturnsFalseAndLogsEventOnce() {
+        String ipAddress = "192.168.1.1";
+        when(rateLimiter.tryAcquire(ipAddress))
+                .thenReturn(LoginRateLimiter.Outcome.NEWLY_BLOCKED, LoginRateLimiter.Outcome.BLOCKED);
+
+        assertFalse(securityAuditService.checkRateLimit(ipAddress));
+        assertFalse(securityAuditService.checkRateLimit(ipAddress));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> event = ArgumentCaptor.forClass(Map.class);
+        verify(eventWriter, times(1)).append(event.capture());
+        assertEquals("RATE_LIMIT_EXCEEDED", event.getValue().get("event_type"));
     }
 
     @Test
     void isIpBlocked_BlockedIp_ReturnsTrue() {
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.hasKey("ip_blacklist:" + ipAddress)).thenReturn(true);
+        when(rateLimiter.isBlocked(ipAddress)).thenReturn(true);
 
         boolean result = securityAuditService.isIpBlocked(ipAddress);
 
         assertTrue(result);
-        verify(redisTemplate).hasKey("ip_blacklist:" + ipAddress);
     }
 
     @Test
     void isIpBlocked_NonBlockedIp_ReturnsFalse() {
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.hasKey("ip_blacklist:" + ipAddress)).thenReturn(false);
+        when(rateLimiter.isBlocked(ipAddress)).thenReturn(false);
 
         boolean result = securityAuditService.isIpBlocked(ipAddress);
 
         assertFalse(result);
-        verify(redisTemplate).hasKey("ip_blacklist:" + ipAddress);
     }
 
     @Test
     void blockIpAddress_ValidIp_BlocksIp() {
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         securityAuditService.blockIpAddress(ipAddress);
 
-        verify(valueOperations).set(eq("ip_blacklist:" + ipAddress), eq("blocked"), eq(24L), eq(TimeUnit.HOURS));
+        verify(rateLimiter).block(ipAddress);
     }
 
     @Test
@@ -90,7 +90,7 @@ class SecurityAuditServiceTest {
 
         securityAuditService.resetRateLimit(ipAddress);
 
-        verify(redisTemplate).delete("login_attempts:" + ipAddress);
+        verify(rateLimiter).reset(ipAddress);
     }
 
     @Test
@@ -98,37 +98,40 @@ class SecurityAuditServiceTest {
         String eventType = "SUSPICIOUS_LOGIN";
         String ipAddress = "192.168.1.1";
         String details = "Multiple failed attempts";
-        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
 
         securityAuditService.logSecurityEvent(eventType, ipAddress, details);
 
-        verify(redisTemplate).opsForHash();
-        verify(hashOperations).putAll(anyString(), anyMap());
+        verify(eventWriter).append(argThat(event -> eventType.equals(event.get("event_type"))
+                && ipAddress.equals(event.get("ip_address")) && details.equals(event.get("details"))));
     }
 
     @Test
     void logFailedLogin_ValidData_LogsEvent() {
         String email = "test@example.com";
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
 
         securityAuditService.logFailedLogin(email, ipAddress);
 
-        verify(redisTemplate).opsForHash();
-        verify(hashOperations).putAll(anyString(), anyMap());
+        verify(eventWriter).append(argThat(event -> "FAILED_LOGIN".equals(event.get("event_type"))));
     }
 
     @Test
     void logSuccessfulLogin_ValidData_LogsEventAndResetsRateLimit() {
         String email = "test@example.com";
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
 
         securityAuditService.logSuccessfulLogin(email, ipAddress);
 
-        verify(redisTemplate).opsForHash();
-        verify(hashOperations).putAll(anyString(), anyMap());
-        verify(redisTemplate).delete("login_attempts:" + ipAddress);
+        verify(eventWriter).append(argThat(event -> "SUCCESSFUL_LOGIN".equals(event.get("event_type"))));
+        verify(rateLimiter).reset(ipAddress);
+    }
+
+    @Test
+    void logPersonalDataChange_WithCustomer_TagsEvent() {
+        securityAuditService.logPersonalDataChange("CUSTOMER_UPDATED", "192.168.1.1", "住所変更", 42L);
+
+        verify(eventWriter).append(argThat(event -> "PERSONAL_DATA_CHANGE".equals(event.get("data_type"))
+                && "42".equals(event.get("customer_id"))));
     }
 
     @Test
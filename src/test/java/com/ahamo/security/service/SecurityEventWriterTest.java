@@ -0,0 +1,98 @@
+package com.ahamo.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityEventWriterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStreamCommands streamCommands;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> pipelineSizes = new CopyOnWriteArrayList<>();
+    private SecurityEventWriter eventWriter;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (eventWriter != null) {
+            eventWriter.shutdown();
+        }
+    }
+
+    @Test
+    void append_WritesEventsToStreamInPipelinedBatches() throws InterruptedException {
+        List<Map<byte[], byte[]>> added = new CopyOnWriteArrayList<>();
+        when(connection.streamCommands()).thenReturn(streamCommands);
+        doAnswer(invocation -> {
+            MapRecord<byte[], byte[], byte[]> record = invocation.getArgument(0);
+            assertEquals(SecurityEventWriter.STREAM_KEY, new String(record.getStream(), StandardCharsets.UTF_8));
+            added.add(record.getValue());
+            return null;
+        }).when(streamCommands).xAdd(any(MapRecord.class));
+        recordPipelines();
+        eventWriter = new SecurityEventWriter(redisTemplate, meterRegistry, 1024, 4, 20, 0, 1, 1000);
+        eventWriter.start();
+
+        for (int i = 0; i < 10; i++) {
+            eventWriter.append(Collections.singletonMap("event_type", "FAILED_LOGIN"));
+        }
+        eventWriter.shutdown();
+
+        assertEquals(10, added.size());
+        assertTrue(pipelineSizes.stream().allMatch(size -> size <= 4));
+        verify(streamCommands, times(pipelineSizes.size())).xTrim(any(byte[].class), eq(1000L), eq(true));
+        assertEquals(10.0, meterRegistry.counter("security.events.written").count());
+        assertEquals(0, eventWriter.queueDepth());
+    }
+
+    @Test
+    void append_RedisDown_CountsDroppedEvents() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("redis down"));
+        eventWriter = new SecurityEventWriter(redisTemplate, meterRegistry, 1024, 4, 20, 0, 1, 1000);
+
+        eventWriter.append(Collections.singletonMap("event_type", "JWT_TAMPERING"));
+
+        assertEquals(1.0, meterRegistry.counter("security.events.dropped").count());
+        assertEquals(1.0, meterRegistry.counter("security.events.caller.writes").count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordPipelines() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<Object> callback = invocation.getArgument(0);
+            int before = mockingDetails(streamCommands).getInvocations().size();
+            callback.doInRedis(connection);
+            int xAdds = (mockingDetails(streamCommands).getInvocations().size() - before) - 1;
+            pipelineSizes.add(xAdds);
+            return Collections.emptyList();
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.ahamo.session.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisSessionStoreTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisKeyCommands keyCommands;
+
+    @Mock
+    private RedisHashCommands hashCommands;
+
+    private RedisSessionStore sessionStore;
+
+    @BeforeEach
+    void setUp() {
+        sessionStore = new RedisSessionStore(redisTemplate, new SimpleMeterRegistry(), 86400000L, 60000L, 1000L);
+    }
+
+    @Test
+    void create_WritesHashAndExpiryInOnePipeline() {
+        when(connection.keyCommands()).thenReturn(keyCommands);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            RedisCallback<?> callback = invocation.getArgument(0);
+            callback.doInRedis(connection);
+            return Collections.emptyList();
+        });
+
+        sessionStore.create("1", "test-token");
+
+        byte[] key = "session:1".getBytes(StandardCharsets.UTF_8);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(keyCommands).del(key);
+        verify(hashCommands).hMSet(eq(key), argThat(fields -> fields.size() == 3));
+        verify(keyCommands).pExpire(key, 86400000L);
+    }
+
+    @Test
+    void touch_ValidSession_HitsRedisOnceWithinLocalTtl() {
+        stubTouch(1L);
+
+        assertTrue(sessionStore.touch("1"));
+        assertTrue(sessionStore.touch("1"));
+        assertTrue(sessionStore.touch("1"));
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("session:1")), any(), eq("86400000"));
+    }
+
+    @Test
+    void touch_MissingSession_IsNotCached() {
+        stubTouch(0L);
+
+        assertFalse(sessionStore.touch("999"));
+        assertFalse(sessionStore.touch("999"));
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    void invalidate_DropsLocalEntry() {
+        stubTouch(1L);
+        sessionStore.touch("1");
+
+        sessionStore.invalidate("1");
+        stubTouch(0L);
+
+        assertFalse(sessionStore.touch("1"));
+        verify(redisTemplate).delete("session:1");
+    }
+
+    @Test
+    void touch_LogoutDuringScript_DoesNotCacheTheSession() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenAnswer(invocation -> {
+                    sessionStore.invalidate("1");
+                    return 1L;
+                })
+                .thenReturn(0L);
+
+        assertTrue(sessionStore.touch("1"));
+
+        assertFalse(sessionStore.touch("1"));
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    private void stubTouch(Long result) {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(result);
+    }
+}
@@ -27,6 +27,9 @@ class SessionServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private RedisSessionStore sessionStore;
+
     @InjectMocks
     private SessionService sessionService;
 
@@ -44,35 +47,30 @@ class SessionServiceTest {
     void createSession_ValidData_CreatesSession() {
         String userId = "1";
         String token = "test-token";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
 
         sessionService.createSession(userId, token);
 
-        verify(valueOperations).set(eq("session:" + userId), any(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        verify(sessionStore).create(userId, token);
     }
 
     @Test
     void isSessionValid_ValidSession_ReturnsTrue() {
         String userId = "1";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("session:" + userId)).thenReturn(testSessionData);
+        when(sessionStore.touch(userId)).thenReturn(true);
 
         boolean result = sessionService.isSessionValid(userId);
 
         assertTrue(result);
-        verify(valueOperations, atLeastOnce()).get("session:" + userId);
     }
 
     @Test
     void isSessionValid_InvalidSession_ReturnsFalse() {
         String userId = "999";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("session:" + userId)).thenReturn(null);
+        when(sessionStore.touch(userId)).thenReturn(false);
 
         boolean result = sessionService.isSessionValid(userId);
 
         assertFalse(result);
-        verify(valueOperations).get("session:" + userId);
     }
 
     @Test
@@ -81,7 +79,7 @@ class SessionServiceTest {
 
         sessionService.invalidateSession(userId);
 
-        verify(redisTemplate).delete("session:" + userId);
+        verify(sessionStore).invalidate(userId);
     }
 
     @Test
@@ -0,0 +1,102 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.model.ConvenienceStore;
+import com.ahamo.shipping.repository.ConvenienceStoreRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the in-memory index with the native radius query it replaces, run against an
+ * in-memory H2 table holding the same stores.
+ */
+@Tag("benchmark")
+class ConvenienceStoreIndexBenchmarkTest {
+
+    private static final int QUERY_ITERATIONS = 200;
+    private static final double RADIUS_KM = 3.0;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 50_000})
+    void radiusSearch_IndexVersusNativeQuery(int storeCount) {
+        Random random = new Random(42);
+        List<ConvenienceStore> stores = new ArrayList<>(storeCount);
+        for (long id = 1; id <= storeCount; id++) {
+            ConvenienceStore store = new ConvenienceStore();
+            store.setId(id);
+            store.setLatitude(BigDecimal.valueOf(31.0 + random.nextDouble() * 12.0).setScale(8, RoundingMode.HALF_UP));
+            store.setLongitude(BigDecimal.valueOf(130.0 + random.nextDouble() * 12.0).setScale(8, RoundingMode.HALF_UP));
+            store.setIsActive(true);
+            stores.add(store);
+        }
+
+        NamedParameterJdbcTemplate jdbcTemplate = createTable(storeCount, stores);
+        ConvenienceStoreRepository repository = mock(ConvenienceStoreRepository.class);
+        when(repository.findAll()).thenReturn(stores);
+        ConvenienceStoreIndex index = new ConvenienceStoreIndex(repository, 0.02, 5000);
+
+        long rebuildStart = System.nanoTime();
+        index.rebuild();
+        long rebuildNanos = System.nanoTime() - rebuildStart;
+
+        double[][] queries = new double[QUERY_ITERATIONS][];
+        for (int i = 0; i < QUERY_ITERATIONS; i++) {
+            queries[i] = new double[]{31.0 + random.nextDouble() * 12.0, 130.0 + random.nextDouble() * 12.0};
+        }
+
+        int nativeHits = 0;
+        long nativeStart = System.nanoTime();
+        for (double[] query : queries) {
+            nativeHits += jdbcTemplate.query(ConvenienceStoreRepository.WITHIN_RADIUS_QUERY, new MapSqlParameterSource()
+                    .addValue("latitude", query[0])
+                    .addValue("longitude", query[1])
+                    .addValue("radiusKm", RADIUS_KM), (rs, rowNum) -> rs.getLong("id")).size();
+        }
+        long nativeNanos = (System.nanoTime() - nativeStart) / QUERY_ITERATIONS;
+
+        int indexHits = 0;
+        long indexStart = System.nanoTime();
+        for (double[] query : queries) {
+            indexHits += index.withinRadius(query[0], query[1], RADIUS_KM).size();
+        }
+        long indexNanos = (System.nanoTime() - indexStart) / QUERY_ITERATIONS;
+
+        long nearestStart = System.nanoTime();
+        for (double[] query : queries) {
+            assertEquals(10, index.nearest(query[0], query[1], 10).size());
+        }
+        long nearestNanos = (System.nanoTime() - nearestStart) / QUERY_ITERATIONS;
+
+        assertEquals(nativeHits, indexHits);
+        System.out.printf("store index stores=%d rebuild=%.2fms native=%dus index=%dus nearest10=%dus%n",
+                storeCount, rebuildNanos / 1_000_000.0, nativeNanos / 1_000, indexNanos / 1_000, nearestNanos / 1_000);
+    }
+
+    private static NamedParameterJdbcTemplate createTable(int storeCount, List<ConvenienceStore> stores) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:store_index_" + storeCount + ";DB_CLOSE_DELAY=-1", "sa", "");
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE convenience_stores (id BIGINT PRIMARY KEY, " +
+                "latitude DECIMAL(10, 8), longitude DECIMAL(11, 8), is_active BOOLEAN)");
+
+        List<Object[]> rows = new ArrayList<>(stores.size());
+        for (ConvenienceStore store : stores) {
+            rows.add(new Object[]{store.getId(), store.getLatitude(), store.getLongitude(), true});
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(
+                "INSERT INTO convenience_stores (id, latitude, longitude, is_active) VALUES (?, ?, ?, ?)", rows);
+        return jdbcTemplate;
+    }
+}
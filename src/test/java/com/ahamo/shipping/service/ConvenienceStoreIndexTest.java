@@ -0,0 +1,152 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.model.ConvenienceStore;
+import com.ahamo.shipping.repository.ConvenienceStoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConvenienceStoreIndexTest {
+
+    @Mock
+    private ConvenienceStoreRepository convenienceStoreRepository;
+
+    private ConvenienceStoreIndex convenienceStoreIndex;
+
+    @BeforeEach
+    void setUp() {
+        convenienceStoreIndex = new ConvenienceStoreIndex(convenienceStoreRepository, 0.02, 5000);
+    }
+
+    @Test
+    void withinRadius_MatchesFullScan() {
+        List<ConvenienceStore> stores = randomStores(2_000, new Random(7));
+        when(convenienceStoreRepository.findAll()).thenReturn(stores);
+
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            double latitude = 35.5 + random.nextDouble() * 0.4;
+            double longitude = 139.5 + random.nextDouble() * 0.4;
+            double radiusKm = 0.5 + random.nextDouble() * 5;
+
+            List<Long> expected = stores.stream()
+                    .filter(store -> distance(store, latitude, longitude) <= radiusKm)
+                    .sorted(Comparator.comparingDouble(store -> distance(store, latitude, longitude)))
+                    .map(ConvenienceStore::getId)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ids(convenienceStoreIndex.withinRadius(latitude, longitude, radiusKm)));
+        }
+        verify(convenienceStoreRepository, times(1)).findAll();
+    }
+
+    @Test
+    void nearest_MatchesFullScan() {
+        List<ConvenienceStore> stores = randomStores(2_000, new Random(3));
+        when(convenienceStoreRepository.findAll()).thenReturn(stores);
+
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            double latitude = 35.3 + random.nextDouble() * 0.8;
+            double longitude = 139.3 + random.nextDouble() * 0.8;
+
+            List<Long> expected = stores.stream()
+                    .sorted(Comparator.comparingDouble(store -> distance(store, latitude, longitude)))
+                    .limit(5)
+                    .map(ConvenienceStore::getId)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ids(convenienceStoreIndex.nearest(latitude, longitude, 5)));
+        }
+    }
+
+    @Test
+    void nearest_QueryFarFromAllStores_StillFindsClosest() {
+        when(convenienceStoreRepository.findAll()).thenReturn(Arrays.asList(
+                store(1L, 35.68, 139.76), store(2L, 34.70, 135.50)));
+
+        assertEquals(Arrays.asList(2L, 1L), ids(convenienceStoreIndex.nearest(33.59, 130.40, 5)));
+    }
+
+    @Test
+    void applyRecentChanges_MovesAddsAndRemovesStores() {
+        when(convenienceStoreRepository.findAll()).thenReturn(Arrays.asList(
+                store(1L, 35.6812, 139.7671), store(2L, 35.6895, 139.6917)));
+        convenienceStoreIndex.rebuild();
+
+        ConvenienceStore moved = store(1L, 34.7025, 135.4959);
+        ConvenienceStore closed = store(2L, 35.6895, 139.6917);
+        closed.setIsActive(false);
+        when(convenienceStoreRepository.findByUpdatedAtAfter(any())).thenReturn(Arrays.asList(
+                moved, closed, store(3L, 35.6813, 139.7672)));
+        convenienceStoreIndex.applyRecentChanges();
+
+        assertEquals(Arrays.asList(3L), ids(convenienceStoreIndex.withinRadius(35.6812, 139.7671, 20)));
+        assertEquals(Arrays.asList(1L), ids(convenienceStoreIndex.withinRadius(34.7025, 135.4959, 1)));
+        assertEquals(2, convenienceStoreIndex.size());
+    }
+
+    @Test
+    void findByStoreCode_CoversInactiveStoresAndFollowsChanges() {
+        ConvenienceStore closed = store(2L, 35.6895, 139.6917);
+        closed.setIsActive(false);
+        when(convenienceStoreRepository.findAll()).thenReturn(Arrays.asList(store(1L, 35.6812, 139.7671), closed));
+        convenienceStoreIndex.rebuild();
+
+        assertEquals(1, convenienceStoreIndex.size());
+        assertEquals(Arrays.asList(1L, 2L), ids(convenienceStoreIndex.allStores()));
+        assertTrue(convenienceStoreIndex.findByStoreCode("STORE2").isPresent());
+
+        ConvenienceStore renamed = store(2L, 35.6895, 139.6917);
+        renamed.setIsActive(false);
+        renamed.setStoreName("新宿西口店");
+        when(convenienceStoreRepository.findByUpdatedAtAfter(any())).thenReturn(Collections.singletonList(renamed));
+        convenienceStoreIndex.applyRecentChanges();
+
+        assertEquals("新宿西口店", convenienceStoreIndex.findByStoreCode("STORE2").get().getStoreName());
+        assertTrue(convenienceStoreIndex.withinRadius(35.6895, 139.6917, 1).isEmpty());
+    }
+
+    private static List<ConvenienceStore> randomStores(int count, Random random) {
+        List<ConvenienceStore> stores = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            stores.add(store(id, 35.3 + random.nextDouble() * 0.8, 139.3 + random.nextDouble() * 0.8));
+        }
+        return stores;
+    }
+
+    private static ConvenienceStore store(Long id, double latitude, double longitude) {
+        ConvenienceStore store = new ConvenienceStore();
+        store.setId(id);
+        store.setStoreCode("STORE" + id);
+        store.setLatitude(BigDecimal.valueOf(latitude));
+        store.setLongitude(BigDecimal.valueOf(longitude));
+        store.setIsActive(true);
+        return store;
+    }
+
+    private static double distance(ConvenienceStore store, double latitude, double longitude) {
+        return ConvenienceStoreIndex.distanceKm(latitude, longitude,
+                store.getLatitude().doubleValue(), store.getLongitude().doubleValue());
+    }
+
+    private static List<Long> ids(List<ConvenienceStore> stores) {
+        return stores.stream().map(ConvenienceStore::getId).collect(Collectors.toList());
+    }
+}
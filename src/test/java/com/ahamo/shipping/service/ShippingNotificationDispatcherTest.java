@@ -0,0 +1,205 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.common.job.ScheduledJobRunner;
+import com.ahamo.shipping.model.ShippingNotification;
+import com.ahamo.shipping.model.ShippingOrder;
+import com.ahamo.shipping.repository.ShippingNotificationRepository;
+import com.ahamo.user.model.User;
+import com.ahamo.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShippingNotificationDispatcherTest {
+
+    @Mock
+    private ShippingNotificationRepository notificationRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ScheduledJobRunner jobRunner;
+
+    private final InMemoryNotificationSender emailSink = new InMemoryNotificationSender(ShippingNotification.Channel.EMAIL);
+    private final InMemoryNotificationSender smsSink = new InMemoryNotificationSender(ShippingNotification.Channel.SMS);
+    private SimpleMeterRegistry meterRegistry;
+    private ShippingNotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new ShippingNotificationDispatcher(notificationRepository, userService,
+                Arrays.asList(emailSink, smsSink), jobRunner, meterRegistry,
+                200, 2, 2, 0, 10, 0, 3, 1000, 60000, 5000);
+        lenient().when(userService.findByContractNumber("100")).thenReturn(Optional.of(
+                User.builder().email("taro@example.com").phone("+819012345678").build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_SendsEmailsInBatchesAndLooksUpEachCustomerOnce() {
+        List<ShippingNotification> due = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            due.add(notification(id, ShippingNotification.Channel.EMAIL, "DELIVERED"));
+        }
+        due.add(notification(6L, ShippingNotification.Channel.SMS, "DELIVERED"));
+        stubDue(due);
+
+        assertEquals(6, dispatcher.dispatch());
+
+        assertEquals(Arrays.asList(2, 2, 1), sorted(emailSink.getBatchSizes()));
+        assertEquals(5, emailSink.getSent().size());
+        assertEquals(ShippingNotificationDispatcher.SUBJECT, emailSink.getSent().get(0).getSubject());
+        assertTrue(emailSink.getSent().get(0).getBody().contains("配達完了"));
+        assertEquals("+819012345678", smsSink.getSent().get(0).getRecipient());
+        assertTrue(due.stream().allMatch(n -> n.getStatus() == ShippingNotification.Status.SENT));
+        verify(userService, times(1)).findByContractNumber("100");
+        verify(notificationRepository).saveAll(due);
+    }
+
+    @Test
+    void dispatch_FailedSend_IsRetriedWithBackoffThenGivenUp() {
+        ShippingNotification notification = notification(1L, ShippingNotification.Channel.SMS, "OUT_FOR_DELIVERY");
+        stubDue(Collections.singletonList(notification));
+
+        smsSink.failNext(1);
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertEquals(ShippingNotification.Status.PENDING, notification.getStatus());
+        assertEquals(1, notification.getAttempts());
+        assertEquals("injected failure", notification.getLastError());
+        assertFalse(notification.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+
+        smsSink.failNext(2);
+        dispatcher.dispatch();
+        assertFalse(notification.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        dispatcher.dispatch();
+
+        assertEquals(ShippingNotification.Status.FAILED, notification.getStatus());
+        assertEquals(3, notification.getAttempts());
+        assertTrue(smsSink.getSent().isEmpty());
+        assertEquals(1.0, meterRegistry.counter("shipping.notification.failed", "channel", "SMS").count());
+    }
+
+    @Test
+    void dispatch_CustomerWithoutPhone_IsSkipped() {
+        when(userService.findByContractNumber("200")).thenReturn(Optional.of(User.builder().email("hanako@example.com").build()));
+        ShippingNotification notification = notification(1L, ShippingNotification.Channel.SMS, "DELIVERED");
+        notification.setContractId(200L);
+        stubDue(Collections.singletonList(notification));
+
+        dispatcher.dispatch();
+
+        assertEquals(ShippingNotification.Status.SKIPPED, notification.getStatus());
+        assertTrue(smsSink.getBatchSizes().isEmpty());
+    }
+
+    @Test
+    void sendShippingStatusNotification_DropsAlreadyQueuedChannels() {
+        ShippingNotificationService notificationService = new ShippingNotificationService(notificationRepository, meterRegistry);
+        when(notificationRepository.findExistingDedupeKeys(anyCollection())).thenReturn(
+                Collections.singletonList(ShippingNotificationService.dedupeKey(7L, "DELIVERED", ShippingNotification.Channel.EMAIL)));
+
+        notificationService.sendShippingStatusNotification(
+                ShippingOrder.builder().id(7L).orderNumber("ORD-7").contractId(100L).build(), "DELIVERED");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ShippingNotification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(ShippingNotification.Channel.SMS, saved.getValue().get(0).getChannel());
+        assertEquals(1.0, meterRegistry.counter("shipping.notification.duplicates").count());
+    }
+
+    @Test
+    void dispatch_UnconfiguredChannel_IsSkippedWithoutRetries() {
+        NotificationSender unconfiguredSms = mock(NotificationSender.class);
+        when(unconfiguredSms.channel()).thenReturn(ShippingNotification.Channel.SMS);
+        when(unconfiguredSms.isEnabled()).thenReturn(false);
+        ShippingNotificationDispatcher emailOnly = new ShippingNotificationDispatcher(notificationRepository, userService,
+                Arrays.asList(emailSink, unconfiguredSms), jobRunner, meterRegistry,
+                200, 2, 2, 0, 10, 0, 3, 1000, 60000, 5000);
+        ShippingNotification notification = notification(1L, ShippingNotification.Channel.SMS, "DELIVERED");
+        stubDue(Collections.singletonList(notification));
+
+        try {
+            emailOnly.dispatch();
+        } finally {
+            emailOnly.shutdown();
+        }
+
+        assertEquals(ShippingNotification.Status.SKIPPED, notification.getStatus());
+        assertEquals("SMS not configured", notification.getLastError());
+        assertEquals(0, notification.getAttempts());
+        verify(unconfiguredSms, never()).send(anyList());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void sendEtaChangeNotification_EachShiftGetsItsOwnKey() {
+        ShippingNotificationService notificationService = new ShippingNotificationService(notificationRepository, meterRegistry);
+        ShippingOrder order = ShippingOrder.builder().id(7L).orderNumber("ORD-7").contractId(100L).build();
+        LocalDateTime eta = LocalDateTime.of(2024, 3, 1, 14, 30, 12);
+
+        notificationService.sendShippingStatusNotification(order, "IN_TRANSIT");
+        notificationService.sendEtaChangeNotification(order, "IN_TRANSIT", eta);
+        notificationService.sendEtaChangeNotification(order, "IN_TRANSIT", eta.plusHours(2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ShippingNotification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository, times(3)).saveAll(saved.capture());
+        List<String> keys = new ArrayList<>();
+        saved.getAllValues().forEach(batch -> batch.forEach(notification -> keys.add(notification.getDedupeKey())));
+        assertEquals(6, keys.stream().distinct().count());
+        ShippingNotification etaNotice = saved.getAllValues().get(1).get(0);
+        assertEquals(LocalDateTime.of(2024, 3, 1, 14, 30), etaNotice.getEstimatedArrivalTime());
+        assertTrue(ShippingNotificationDispatcher.render(etaNotice).contains("お届け予定が3月1日 14:30に変更されました"));
+    }
+
+    private void stubDue(List<ShippingNotification> due) {
+        when(notificationRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                eq(ShippingNotification.Status.PENDING), any(), any())).thenReturn(due);
+    }
+
+    private static ShippingNotification notification(Long id, ShippingNotification.Channel channel, String status) {
+        return ShippingNotification.builder()
+                .id(id)
+                .dedupeKey(ShippingNotificationService.dedupeKey(id, status, channel))
+                .shippingOrderId(id)
+                .orderNumber("ORD-" + id)
+                .contractId(100L)
+                .deviceId("iPhone 15")
+                .shippingStatus(status)
+                .channel(channel)
+                .build();
+    }
+
+    private static List<Integer> sorted(List<Integer> values) {
+        List<Integer> copy = new ArrayList<>(values);
+        copy.sort(Collections.reverseOrder());
+        return copy;
+    }
+}
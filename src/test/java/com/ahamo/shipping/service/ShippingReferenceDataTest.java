@@ -0,0 +1,96 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.common.event.CatalogChangedEvent;
+import com.ahamo.shipping.model.DeliveryTimeSlot;
+import com.ahamo.shipping.model.LogisticsProvider;
+import com.ahamo.shipping.model.ShippingOption;
+import com.ahamo.shipping.repository.DeliveryTimeSlotRepository;
+import com.ahamo.shipping.repository.LogisticsProviderRepository;
+import com.ahamo.shipping.repository.ShippingOptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShippingReferenceDataTest {
+
+    @Mock
+    private ShippingOptionRepository shippingOptionRepository;
+
+    @Mock
+    private DeliveryTimeSlotRepository deliveryTimeSlotRepository;
+
+    @Mock
+    private LogisticsProviderRepository logisticsProviderRepository;
+
+    @InjectMocks
+    private ShippingReferenceData shippingReferenceData;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(shippingOptionRepository.findAll()).thenReturn(Arrays.asList(
+                option("EXPRESS", "速達", true), option("STANDARD", "通常配送", true), option("OLD", "旧配送", false)));
+        lenient().when(deliveryTimeSlotRepository.findAll()).thenReturn(Arrays.asList(
+                slot(2L, 14, DeliveryTimeSlot.SlotType.AFTERNOON), slot(1L, 9, DeliveryTimeSlot.SlotType.MORNING)));
+        lenient().when(logisticsProviderRepository.findAll()).thenReturn(Collections.singletonList(
+                LogisticsProvider.builder().id(10L).providerCode("YAMATO").providerName("ヤマト運輸").build()));
+    }
+
+    @Test
+    void reads_LoadEachTableOnce() {
+        for (int i = 0; i < 5; i++) {
+            List<DeliveryTimeSlot> slots = shippingReferenceData.getActiveTimeSlots();
+            assertEquals(Arrays.asList(1L, 2L), Arrays.asList(slots.get(0).getId(), slots.get(1).getId()));
+            assertEquals(2, shippingReferenceData.getActiveOptions().size());
+            assertEquals("ヤマト運輸", shippingReferenceData.findProvider(10L).get().getProviderName());
+            assertTrue(shippingReferenceData.findProvider("YAMATO").isPresent());
+        }
+
+        assertEquals(1, shippingReferenceData.getActiveTimeSlots(DeliveryTimeSlot.SlotType.MORNING).size());
+        assertTrue(shippingReferenceData.getActiveTimeSlots(DeliveryTimeSlot.SlotType.EVENING).isEmpty());
+        assertTrue(shippingReferenceData.findOption("OLD").isPresent());
+        verify(shippingOptionRepository, times(1)).findAll();
+        verify(deliveryTimeSlotRepository, times(1)).findAll();
+        verify(logisticsProviderRepository, times(1)).findAll();
+    }
+
+    @Test
+    void onCatalogChanged_ReloadsOnlyForShipping() {
+        shippingReferenceData.getActiveOptions();
+
+        shippingReferenceData.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PLAN, "plan_1"));
+        verify(shippingOptionRepository, times(1)).findAll();
+
+        shippingReferenceData.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SHIPPING, "EXPRESS"));
+        verify(shippingOptionRepository, times(2)).findAll();
+    }
+
+    private static ShippingOption option(String code, String name, boolean active) {
+        ShippingOption option = new ShippingOption();
+        option.setOptionCode(code);
+        option.setOptionName(name);
+        option.setIsActive(active);
+        return option;
+    }
+
+    private static DeliveryTimeSlot slot(Long id, int startHour, DeliveryTimeSlot.SlotType type) {
+        DeliveryTimeSlot slot = new DeliveryTimeSlot();
+        slot.setId(id);
+        slot.setStartTime(LocalTime.of(startHour, 0));
+        slot.setEndTime(LocalTime.of(startHour + 3, 0));
+        slot.setSlotType(type);
+        slot.setIsActive(true);
+        return slot;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.adapter.LogisticsProviderAdapter;
+import com.ahamo.shipping.dto.LocationUpdate;
+import com.ahamo.shipping.dto.TrackingResponse;
+import com.ahamo.shipping.model.LogisticsProvider;
+import com.ahamo.shipping.model.ShippingOrder;
+import com.ahamo.shipping.model.TrackingEvent;
+import com.ahamo.shipping.repository.LogisticsProviderRepository;
+import com.ahamo.shipping.repository.TrackingEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingIngestionPipelineTest {
+
+    private static final LocalDateTime ETA = LocalDateTime.of(2024, 4, 1, 15, 0);
+
+    @Mock
+    private LogisticsProviderRepository logisticsProviderRepository;
+
+    @Mock
+    private TrackingEventRepository trackingEventRepository;
+
+    @Mock
+    private LogisticsProviderFactory providerFactory;
+
+    @Mock
+    private TrackingPushService trackingPushService;
+
+    @Mock
+    private ShippingNotificationService notificationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LogisticsProviderAdapter adapter;
+
+    private TrackingIngestionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new TrackingIngestionPipeline(logisticsProviderRepository, trackingEventRepository, providerFactory,
+                trackingPushService, notificationService, jdbcTemplate, new SimpleMeterRegistry(),
+                2, 100, 0, 5000, 1000, 900000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ingest_RecordsOnlyChangedOrders() {
+        ShippingOrder unchanged = order(1L, "YMT1");
+        ShippingOrder fresh = order(2L, "YMT2");
+        when(logisticsProviderRepository.findAllById(any())).thenReturn(Collections.singletonList(
+                LogisticsProvider.builder().id(10L).providerCode("YAMATO").providerName("ヤマト運輸").build()));
+        when(providerFactory.getAdapter("YAMATO")).thenReturn(adapter);
+        when(adapter.getProviderCode()).thenReturn("YAMATO");
+        when(adapter.getLocationUpdate(anyString())).thenReturn(update(35.6762, 139.6503, ETA));
+        when(trackingEventRepository.findLatestByShippingOrderIds(any()))
+                .thenReturn(Collections.singletonList(event(1L, 35.6765, 139.6505, ETA.plusMinutes(5))));
+
+        int changed = pipeline.ingest(Arrays.asList(unchanged, fresh, order(3L, null)));
+
+        assertEquals(1, changed);
+        verify(adapter, times(2)).getLocationUpdate(anyString());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertEquals(2L, rows.getValue().get(0)[0]);
+        verify(trackingPushService).publish(eq("YMT2"), any(TrackingResponse.TrackingEvent.class));
+        verify(trackingPushService, never()).publish(eq("YMT1"), any());
+    }
+
+    @Test
+    void ingest_PollTimesOut_CancelsQueuedProviderCalls() throws InterruptedException {
+        pipeline.shutdown();
+        pipeline = new TrackingIngestionPipeline(logisticsProviderRepository, trackingEventRepository, providerFactory,
+                trackingPushService, notificationService, jdbcTemplate, new SimpleMeterRegistry(),
+                1, 100, 0, 200, 1000, 900000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(logisticsProviderRepository.findAllById(any())).thenReturn(Collections.singletonList(
+                LogisticsProvider.builder().id(10L).providerCode("YAMATO").providerName("ヤマト運輸").build()));
+        when(providerFactory.getAdapter("YAMATO")).thenReturn(adapter);
+        when(adapter.getProviderCode()).thenReturn("YAMATO");
+        when(adapter.getLocationUpdate("YMT1")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        int changed = pipeline.ingest(Arrays.asList(order(1L, "YMT1"), order(2L, "YMT2"), order(3L, "YMT3")));
+        release.countDown();
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertEquals(0, changed);
+        verify(adapter, times(1)).getLocationUpdate(anyString());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void isMeaningfulChange_IgnoresJitterButNotMovesOrEtaShifts() {
+        TrackingEvent last = event(1L, 35.6762, 139.6503, ETA);
+
+        assertFalse(pipeline.isMeaningfulChange(last, update(35.6770, 139.6510, ETA.plusMinutes(10))));
+        assertTrue(pipeline.isMeaningfulChange(last, update(35.6900, 139.6503, ETA)));
+        assertTrue(pipeline.isMeaningfulChange(last, update(35.6762, 139.6503, ETA.plusMinutes(30))));
+        assertTrue(pipeline.isMeaningfulChange(null, update(35.6762, 139.6503, ETA)));
+    }
+
+    private static ShippingOrder order(Long id, String trackingNumber) {
+        return ShippingOrder.builder()
+                .id(id)
+                .orderNumber("SO-" + id)
+                .providerId(10L)
+                .trackingNumber(trackingNumber)
+                .status(ShippingOrder.ShippingStatus.IN_TRANSIT)
+                .build();
+    }
+
+    private static LocationUpdate update(double latitude, double longitude, LocalDateTime eta) {
+        return LocationUpdate.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .currentLocation("東京都渋谷区")
+                .estimatedArrivalTime(eta)
+                .status("配送中")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static TrackingEvent event(Long orderId, double latitude, double longitude, LocalDateTime eta) {
+        return TrackingEvent.builder()
+                .id(orderId * 100)
+                .shippingOrderId(orderId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .location("東京都渋谷区")
+                .estimatedArrivalTime(eta)
+                .status("配送中")
+                .timestamp(LocalDateTime.now().minusMinutes(5))
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.ahamo.shipping.service;
+
+import com.ahamo.shipping.dto.TrackingDelta;
+import com.ahamo.shipping.dto.TrackingResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.CloseStatus;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrackingPushServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private TrackingPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        pushService = new TrackingPushService(new InMemoryTrackingBroker(), messagingTemplate, new SimpleMeterRegistry(), 60_000);
+        pushService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushService.shutdown();
+    }
+
+    @Test
+    void flush_CoalescesUpdatesIntoOneNumberedDelta() {
+        pushService.onSubscribe(new SessionSubscribeEvent(this, subscribe("session-1", "sub-1", "YMT1")));
+
+        pushService.publish("YMT1", event("配送中", "東京都渋谷区"));
+        pushService.publish("YMT1", event("配達中", "東京都新宿区"));
+        pushService.flush();
+        pushService.publish("YMT1", event("配達完了", "東京都新宿区"));
+        pushService.flush();
+
+        ArgumentCaptor<TrackingDelta> deltas = ArgumentCaptor.forClass(TrackingDelta.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/tracking/YMT1"), deltas.capture());
+        TrackingDelta first = deltas.getAllValues().get(0);
+        assertEquals(1L, first.getSequence());
+        assertEquals(2, first.getEvents().size());
+        assertEquals("配達中", first.getStatus());
+        assertEquals("東京都新宿区", first.getLocation());
+        assertFalse(first.isSnapshot());
+        assertEquals(2L, deltas.getAllValues().get(1).getSequence());
+        assertEquals(1, deltas.getAllValues().get(1).getEvents().size());
+    }
+
+    @Test
+    void flush_WithoutLocalSubscribers_SkipsDelivery() {
+        pushService.onSubscribe(new SessionSubscribeEvent(this, subscribe("session-1", "sub-1", "YMT1")));
+        pushService.onDisconnect(new SessionDisconnectEvent(this,
+                MessageBuilder.withPayload(new byte[0]).build(), "session-1", CloseStatus.NORMAL));
+
+        pushService.publish("YMT1", event("配送中", "東京都渋谷区"));
+        pushService.publish("YMT2", event("配送中", "大阪府大阪市"));
+        pushService.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    private static Message<byte[]> subscribe(String sessionId, String subscriptionId, String trackingNumber) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination("/topic/tracking/" + trackingNumber);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static TrackingResponse.TrackingEvent event(String status, String location) {
+        return TrackingResponse.TrackingEvent.builder()
+                .status(status)
+                .location(location)
+                .timestamp(LocalDateTime.now())
+                .description("位置情報自動更新")
+                .build();
+    }
+}
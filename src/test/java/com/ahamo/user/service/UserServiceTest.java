@@ -1,6 +1,7 @@
 package com.ahamo.user.service;
 
 import com.ahamo.security.exception.AuthenticationException;
+import com.ahamo.security.jwt.AuthenticatedPrincipalCache;
 import com.ahamo.user.model.User;
 import com.ahamo.user.repository.UserRepository;
 import com.ahamo.user.service.UserServiceImpl;
@@ -19,6 +20,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +32,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AuthenticatedPrincipalCache principalCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -148,25 +153,24 @@ class UserServiceTest {
     }
 
     @Test
-    void incrementFailedLoginAttempts_UpdatesAttempts() {
-        testUser.setFailedLoginAttempts(2);
-        when(userRepository.save(testUser)).thenReturn(testUser);
+    void recordFailedLogin_LimitReached_LocksAndInvalidatesPrincipal() {
+        testUser.setFailedLoginAttempts(4);
+        when(userRepository.lockIfFailedLoginAttemptsReached(eq(1L), eq(5), any())).thenReturn(1);
 
-        userService.incrementFailedLoginAttempts(testUser);
+        userService.recordFailedLogin(testUser);
 
-        assertEquals(3, testUser.getFailedLoginAttempts());
-        verify(userRepository).save(testUser);
+        verify(userRepository).incrementFailedLoginAttempts(1L);
+        assertEquals(5, testUser.getFailedLoginAttempts());
+        assertTrue(userService.isAccountLocked(testUser));
+        verify(principalCache).invalidate("test@example.com");
+        verify(userRepository, never()).save(any());
     }
 
     @Test
-    void resetFailedLoginAttempts_ResetsToZero() {
-        testUser.setFailedLoginAttempts(5);
-        when(userRepository.save(testUser)).thenReturn(testUser);
+    void recordSuccessfulLogin_NothingToReset_WritesNothing() {
+        userService.recordSuccessfulLogin(testUser);
 
-        userService.resetFailedLoginAttempts(testUser);
-
-        assertEquals(0, testUser.getFailedLoginAttempts());
-        verify(userRepository).save(testUser);
+        verifyNoInteractions(userRepository);
     }
 
     @Test